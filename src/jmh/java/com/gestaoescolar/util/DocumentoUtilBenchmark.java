@@ -0,0 +1,110 @@
+package com.gestaoescolar.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DocumentoUtil contra as rotinas que ele substituiu (replaceAll("\\D", "") e validação sobre a
+ * string normalizada), na mesma massa: CPFs válidos e inválidos, crus e formatados.
+ * Rodar com: mvn -Pjmh test-compile exec:exec
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentoUtilBenchmark {
+
+    private static final int TAMANHO = 1024;
+
+    private String[] cpfs;
+
+    @Setup
+    public void gerar() {
+        Random r = new Random(42);
+        cpfs = new String[TAMANHO];
+        for (int i = 0; i < TAMANHO; i++) {
+            String cpf = cpfComVerificadores(100_000_000 + r.nextInt(899_999_999));
+            if (i % 4 == 0) {
+                cpf = cpf.substring(0, 10) + (char) ('0' + (cpf.charAt(10) - '0' + 1) % 10);   // verificador errado
+            }
+            cpfs[i] = i % 2 == 0 ? cpf
+                    : cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+        }
+    }
+
+    @Benchmark
+    public void cpfValidoAnterior(Blackhole bh) {
+        for (String cpf : cpfs) bh.consume(cpfValidoAnterior(cpf));
+    }
+
+    @Benchmark
+    public void cpfValido(Blackhole bh) {
+        for (String cpf : cpfs) bh.consume(DocumentoUtil.cpfValido(cpf));
+    }
+
+    @Benchmark
+    public void somenteDigitosAnterior(Blackhole bh) {
+        for (String cpf : cpfs) bh.consume(somenteDigitosAnterior(cpf));
+    }
+
+    @Benchmark
+    public void somenteDigitos(Blackhole bh) {
+        for (String cpf : cpfs) bh.consume(DocumentoUtil.somenteDigitos(cpf));
+    }
+
+    // ===== Rotinas anteriores (AlunoService), mantidas só para comparação =====
+
+    private static String somenteDigitosAnterior(String s) {
+        if (s == null) return null;
+        String d = s.replaceAll("\\D", "");
+        return d.isEmpty() ? null : d;
+    }
+
+    private static boolean cpfValidoAnterior(String cpf) {
+        if (cpf == null) return false;
+        String d = cpf.replaceAll("\\D", "");
+        if (d.length() != 11) return false;
+        if (d.chars().distinct().count() == 1) return false;
+        int sum = 0;
+        for (int i = 0; i < 9; i++) sum += (d.charAt(i) - '0') * (10 - i);
+        int r = 11 - (sum % 11);
+        int dv1 = (r == 10 || r == 11) ? 0 : r;
+        if (dv1 != (d.charAt(9) - '0')) return false;
+        sum = 0;
+        for (int i = 0; i < 10; i++) sum += (d.charAt(i) - '0') * (11 - i);
+        r = 11 - (sum % 11);
+        int dv2 = (r == 10 || r == 11) ? 0 : r;
+        return dv2 == (d.charAt(10) - '0');
+    }
+
+    private static String cpfComVerificadores(int base) {
+        int[] d = new int[11];
+        String b = String.format("%09d", base);
+        int soma1 = 0, soma2 = 0;
+        for (int i = 0; i < 9; i++) {
+            d[i] = b.charAt(i) - '0';
+            soma1 += d[i] * (10 - i);
+            soma2 += d[i] * (11 - i);
+        }
+        d[9] = (11 - soma1 % 11) >= 10 ? 0 : 11 - soma1 % 11;
+        soma2 += d[9] * 2;
+        d[10] = (11 - soma2 % 11) >= 10 ? 0 : 11 - soma2 % 11;
+        StringBuilder sb = new StringBuilder(11);
+        for (int v : d) sb.append(v);
+        return sb.toString();
+    }
+}
@@ -1,10 +1,15 @@
 package com.gestaoescolar;
 
+import com.vaadin.flow.component.page.AppShellConfigurator;
+import com.vaadin.flow.component.page.Push;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-public class SistemaGestaoApplication {
+@EnableScheduling
+@Push // telas com tarefas longas (quadro de horários) recebem o resultado sem nova requisição
+public class SistemaGestaoApplication implements AppShellConfigurator {
     public static void main(String[] args) {
         SpringApplication.run(SistemaGestaoApplication.class, args);
     }
@@ -0,0 +1,34 @@
+package com.gestaoescolar.dto;
+
+/**
+ * Critérios da busca de alunos. Campos nulos (ou texto em branco) não filtram.
+ */
+public class AlunoFiltro {
+    private String texto;          // parte do nome ou início do CPF (só dígitos/pontuação)
+    private Boolean ativo;
+    private Long responsavelId;    // apenas alunos com vínculo ativo com este responsável
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public Boolean getAtivo() {
+        return ativo;
+    }
+
+    public void setAtivo(Boolean ativo) {
+        this.ativo = ativo;
+    }
+
+    public Long getResponsavelId() {
+        return responsavelId;
+    }
+
+    public void setResponsavelId(Long responsavelId) {
+        this.responsavelId = responsavelId;
+    }
+}
@@ -0,0 +1,43 @@
+package com.gestaoescolar.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Colunas da lista de alunos. Projeção da consulta: não carrega endereço, saúde,
+ * observações nem a coleção de responsáveis; o cadastro completo é lido ao abrir o formulário.
+ */
+public class AlunoResumoDTO {
+    private final Long id;
+    private final String nomeCompleto;
+    private final String cpf;
+    private final LocalDate dataNascimento;
+    private final boolean ativo;
+
+    public AlunoResumoDTO(Long id, String nomeCompleto, String cpf, LocalDate dataNascimento, boolean ativo) {
+        this.id = id;
+        this.nomeCompleto = nomeCompleto;
+        this.cpf = cpf;
+        this.dataNascimento = dataNascimento;
+        this.ativo = ativo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNomeCompleto() {
+        return nomeCompleto;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gestaoescolar.dto;
+
+/**
+ * Resultado de uma linha da atribuição de professores em lote: atribuída ou o motivo da recusa.
+ */
+public class AtribuicaoLoteResultadoDTO {
+    private final Long professorId;
+    private final Long turmaId;
+    private final boolean atribuido;
+    private final String mensagem;
+
+    public AtribuicaoLoteResultadoDTO(Long professorId, Long turmaId, boolean atribuido, String mensagem) {
+        this.professorId = professorId;
+        this.turmaId = turmaId;
+        this.atribuido = atribuido;
+        this.mensagem = mensagem;
+    }
+
+    public Long getProfessorId() {
+        return professorId;
+    }
+
+    public Long getTurmaId() {
+        return turmaId;
+    }
+
+    public boolean isAtribuido() {
+        return atribuido;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
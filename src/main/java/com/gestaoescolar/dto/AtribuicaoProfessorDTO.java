@@ -0,0 +1,51 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.ProfessorTurma;
+
+import java.time.LocalDate;
+
+/**
+ * Uma linha da atribuição de professores em lote: professor, turma, papel, disciplina e período.
+ */
+public class AtribuicaoProfessorDTO {
+    private final Long professorId;
+    private final Long turmaId;
+    private final ProfessorTurma.Papel papel;
+    private final String disciplina;
+    private final LocalDate dataInicio;     // null = sem início definido
+    private final LocalDate dataTermino;    // null = sem término definido
+
+    public AtribuicaoProfessorDTO(Long professorId, Long turmaId, ProfessorTurma.Papel papel, String disciplina,
+                                  LocalDate dataInicio, LocalDate dataTermino) {
+        this.professorId = professorId;
+        this.turmaId = turmaId;
+        this.papel = papel;
+        this.disciplina = disciplina;
+        this.dataInicio = dataInicio;
+        this.dataTermino = dataTermino;
+    }
+
+    public Long getProfessorId() {
+        return professorId;
+    }
+
+    public Long getTurmaId() {
+        return turmaId;
+    }
+
+    public ProfessorTurma.Papel getPapel() {
+        return papel;
+    }
+
+    public String getDisciplina() {
+        return disciplina;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public LocalDate getDataTermino() {
+        return dataTermino;
+    }
+}
@@ -0,0 +1,36 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.Turno;
+
+/**
+ * Horas semanais de um professor em um ano letivo e turno (soma das ofertas turma-disciplina atribuídas).
+ */
+public class CargaHorariaDTO {
+    private final Long professorId;
+    private final Long anoLetivoId;
+    private final Turno turno;
+    private final long horas;
+
+    public CargaHorariaDTO(Long professorId, Long anoLetivoId, Turno turno, long horas) {
+        this.professorId = professorId;
+        this.anoLetivoId = anoLetivoId;
+        this.turno = turno;
+        this.horas = horas;
+    }
+
+    public Long getProfessorId() {
+        return professorId;
+    }
+
+    public Long getAnoLetivoId() {
+        return anoLetivoId;
+    }
+
+    public Turno getTurno() {
+        return turno;
+    }
+
+    public long getHoras() {
+        return horas;
+    }
+}
@@ -0,0 +1,51 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.Turno;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Carga horária semanal de um professor no ano letivo: total, horas por turno e se passa do limite configurado.
+ */
+public class CargaHorariaProfessorDTO {
+    private final Long professorId;
+    private final Long anoLetivoId;
+    private final Map<Turno, Long> horasPorTurno;
+    private final long total;
+    private final long limite;
+
+    public CargaHorariaProfessorDTO(Long professorId, Long anoLetivoId, Map<Turno, Long> horasPorTurno, long limite) {
+        this.professorId = professorId;
+        this.anoLetivoId = anoLetivoId;
+        this.horasPorTurno = horasPorTurno.isEmpty()
+                ? Map.of() : Collections.unmodifiableMap(new EnumMap<>(horasPorTurno));
+        this.total = horasPorTurno.values().stream().mapToLong(Long::longValue).sum();
+        this.limite = limite;
+    }
+
+    public Long getProfessorId() {
+        return professorId;
+    }
+
+    public Long getAnoLetivoId() {
+        return anoLetivoId;
+    }
+
+    public Map<Turno, Long> getHorasPorTurno() {
+        return horasPorTurno;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getLimite() {
+        return limite;
+    }
+
+    public boolean isAcimaDoLimite() {
+        return total > limite;
+    }
+}
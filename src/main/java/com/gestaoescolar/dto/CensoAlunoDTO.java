@@ -0,0 +1,154 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+
+import java.time.LocalDate;
+
+/**
+ * Linha da exportação do Censo Escolar: dados do aluno com a matrícula ATIVA e a turma.
+ * Projeção direta da consulta (não é entidade gerenciada), para ler milhares de linhas sem
+ * encher o contexto de persistência.
+ */
+public class CensoAlunoDTO {
+    private final Long alunoId;
+    private final String inep;
+    private final String nis;
+    private final String cpf;
+    private final String nomeCompleto;
+    private final LocalDate dataNascimento;
+    private final Genero genero;
+    private final String corRaca;
+    private final String docTipo;
+    private final String docNumero;
+    private final String cep;
+    private final String logradouro;
+    private final String numero;
+    private final String complemento;
+    private final String bairro;
+    private final String cidade;
+    private final String uf;
+    private final Long matriculaId;
+    private final LocalDate dataInicio;
+    private final String codigoTurma;
+    private final Serie serie;
+    private final Turno turno;
+
+    public CensoAlunoDTO(Long alunoId, String inep, String nis, String cpf, String nomeCompleto,
+                         LocalDate dataNascimento, Genero genero, String corRaca, String docTipo, String docNumero,
+                         String cep, String logradouro, String numero, String complemento, String bairro,
+                         String cidade, String uf, Long matriculaId, LocalDate dataInicio, String codigoTurma,
+                         Serie serie, Turno turno) {
+        this.alunoId = alunoId;
+        this.inep = inep;
+        this.nis = nis;
+        this.cpf = cpf;
+        this.nomeCompleto = nomeCompleto;
+        this.dataNascimento = dataNascimento;
+        this.genero = genero;
+        this.corRaca = corRaca;
+        this.docTipo = docTipo;
+        this.docNumero = docNumero;
+        this.cep = cep;
+        this.logradouro = logradouro;
+        this.numero = numero;
+        this.complemento = complemento;
+        this.bairro = bairro;
+        this.cidade = cidade;
+        this.uf = uf;
+        this.matriculaId = matriculaId;
+        this.dataInicio = dataInicio;
+        this.codigoTurma = codigoTurma;
+        this.serie = serie;
+        this.turno = turno;
+    }
+
+    public Long getAlunoId() {
+        return alunoId;
+    }
+
+    public String getInep() {
+        return inep;
+    }
+
+    public String getNis() {
+        return nis;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public String getNomeCompleto() {
+        return nomeCompleto;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public Genero getGenero() {
+        return genero;
+    }
+
+    public String getCorRaca() {
+        return corRaca;
+    }
+
+    public String getDocTipo() {
+        return docTipo;
+    }
+
+    public String getDocNumero() {
+        return docNumero;
+    }
+
+    public String getCep() {
+        return cep;
+    }
+
+    public String getLogradouro() {
+        return logradouro;
+    }
+
+    public String getNumero() {
+        return numero;
+    }
+
+    public String getComplemento() {
+        return complemento;
+    }
+
+    public String getBairro() {
+        return bairro;
+    }
+
+    public String getCidade() {
+        return cidade;
+    }
+
+    public String getUf() {
+        return uf;
+    }
+
+    public Long getMatriculaId() {
+        return matriculaId;
+    }
+
+    public LocalDate getDataInicio() {
+        return dataInicio;
+    }
+
+    public String getCodigoTurma() {
+        return codigoTurma;
+    }
+
+    public Serie getSerie() {
+        return serie;
+    }
+
+    public Turno getTurno() {
+        return turno;
+    }
+}
@@ -0,0 +1,21 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+
+public class ContagemPorFormacaoDTO {
+    private final FormacaoAcademica formacao;
+    private final long total;
+
+    public ContagemPorFormacaoDTO(FormacaoAcademica formacao, long total) {
+        this.formacao = formacao;
+        this.total = total;
+    }
+
+    public FormacaoAcademica getFormacao() {
+        return formacao;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,28 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+
+public class ContagemSerieTurnoDTO {
+    private final Serie serie;
+    private final Turno turno;
+    private final long total;
+
+    public ContagemSerieTurnoDTO(Serie serie, Turno turno, long total) {
+        this.serie = serie;
+        this.turno = turno;
+        this.total = total;
+    }
+
+    public Serie getSerie() {
+        return serie;
+    }
+
+    public Turno getTurno() {
+        return turno;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+}
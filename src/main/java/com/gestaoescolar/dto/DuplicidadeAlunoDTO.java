@@ -0,0 +1,63 @@
+package com.gestaoescolar.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Par de alunos que provavelmente são a mesma criança cadastrada duas vezes.
+ * "semelhanca" vai de 0 a 1; "motivo" resume as evidências para quem for conferir.
+ */
+public class DuplicidadeAlunoDTO {
+    private final Long alunoId;
+    private final String nomeAluno;
+    private final LocalDate dataNascimento;
+    private final Long outroAlunoId;
+    private final String nomeOutroAluno;
+    private final LocalDate dataNascimentoOutro;
+    private final double semelhanca;
+    private final String motivo;
+
+    public DuplicidadeAlunoDTO(Long alunoId, String nomeAluno, LocalDate dataNascimento,
+                               Long outroAlunoId, String nomeOutroAluno, LocalDate dataNascimentoOutro,
+                               double semelhanca, String motivo) {
+        this.alunoId = alunoId;
+        this.nomeAluno = nomeAluno;
+        this.dataNascimento = dataNascimento;
+        this.outroAlunoId = outroAlunoId;
+        this.nomeOutroAluno = nomeOutroAluno;
+        this.dataNascimentoOutro = dataNascimentoOutro;
+        this.semelhanca = semelhanca;
+        this.motivo = motivo;
+    }
+
+    public Long getAlunoId() {
+        return alunoId;
+    }
+
+    public String getNomeAluno() {
+        return nomeAluno;
+    }
+
+    public LocalDate getDataNascimento() {
+        return dataNascimento;
+    }
+
+    public Long getOutroAlunoId() {
+        return outroAlunoId;
+    }
+
+    public String getNomeOutroAluno() {
+        return nomeOutroAluno;
+    }
+
+    public LocalDate getDataNascimentoOutro() {
+        return dataNascimentoOutro;
+    }
+
+    public double getSemelhanca() {
+        return semelhanca;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+}
@@ -0,0 +1,125 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.Aluno;
+import com.gestaoescolar.model.AlunoResponsavel;
+import com.gestaoescolar.model.Matricula;
+import com.gestaoescolar.model.Responsavel;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.MatriculaStatus;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Ficha completa do aluno ("visão 360") lida de uma vez: cadastro, responsáveis ativos com os papéis e o
+ * histórico de matrículas com turma e ano letivo. É uma cópia dos valores, não das entidades:
+ * fica guardada entre telas (FichaAlunoCache) e nada do que a tela edita a altera.
+ * "versao" identifica o momento da leitura (ver FichaAlunoService.estaAtual).
+ */
+public class FichaAlunoDTO {
+
+    public record DadosAluno(Long id, boolean ativo, String nomeCompleto, String nomeSocial, LocalDate dataNascimento,
+                             Genero genero, String corRaca, String docTipo, String docNumero, String cpf, String inep,
+                             String nis, String justificativaDocumentos, String cep, String logradouro, String numero,
+                             String complemento, String bairro, String cidade, String uf, String telefone, String email,
+                             String alergias, String observacoesSaude, String observacoes) {
+
+        public static DadosAluno de(Aluno a) {
+            return new DadosAluno(a.getId(), a.isAtivo(), a.getNomeCompleto(), a.getNomeSocial(), a.getDataNascimento(),
+                    a.getGenero(), a.getCorRaca(), a.getDocTipo(), a.getDocNumero(), a.getCpf(), a.getInep(),
+                    a.getNis(), a.getJustificativaDocumentos(), a.getCep(), a.getLogradouro(), a.getNumero(),
+                    a.getComplemento(), a.getBairro(), a.getCidade(), a.getUf(), a.getTelefone(), a.getEmail(),
+                    a.getAlergias(), a.getObservacoesSaude(), a.getObservacoes());
+        }
+
+        // Entidade nova (desanexada) para o formulário editar; a ficha guardada continua intacta
+        public Aluno paraEdicao() {
+            Aluno a = new Aluno();
+            a.setId(id);
+            a.setAtivo(ativo);
+            a.setNomeCompleto(nomeCompleto);
+            a.setNomeSocial(nomeSocial);
+            a.setDataNascimento(dataNascimento);
+            a.setGenero(genero);
+            a.setCorRaca(corRaca);
+            a.setDocTipo(docTipo);
+            a.setDocNumero(docNumero);
+            a.setCpf(cpf);
+            a.setInep(inep);
+            a.setNis(nis);
+            a.setJustificativaDocumentos(justificativaDocumentos);
+            a.setCep(cep);
+            a.setLogradouro(logradouro);
+            a.setNumero(numero);
+            a.setComplemento(complemento);
+            a.setBairro(bairro);
+            a.setCidade(cidade);
+            a.setUf(uf);
+            a.setTelefone(telefone);
+            a.setEmail(email);
+            a.setAlergias(alergias);
+            a.setObservacoesSaude(observacoesSaude);
+            a.setObservacoes(observacoes);
+            return a;
+        }
+    }
+
+    public record ResponsavelFicha(Long responsavelId, String nome, String cpf, String parentesco,
+                                   boolean legal, boolean financeiro, boolean didatico) {
+
+        public static ResponsavelFicha de(AlunoResponsavel ar) {
+            Responsavel r = ar.getResponsavel();
+            return new ResponsavelFicha(r.getId(), r.getNome(), r.getCpf(), r.getParentesco(),
+                    ar.isResponsavelLegal(), ar.isResponsavelFinanceiro(), ar.isResponsavelDidatico());
+        }
+    }
+
+    public record MatriculaFicha(Long id, String codigoTurma, String nomeTurma, Integer anoLetivo,
+                                 MatriculaStatus status, LocalDate dataInicio, LocalDate dataTermino, String motivo) {
+
+        public static MatriculaFicha de(Matricula m) {
+            Turma t = m.getTurma();
+            Integer ano = t != null && t.getAnoLetivo() != null ? t.getAnoLetivo().getAno() : null;
+            return new MatriculaFicha(m.getId(), t != null ? t.getCodigo() : null, t != null ? t.getNomeTurma() : null,
+                    ano, m.getStatus(), m.getDataInicio(), m.getDataTermino(), m.getMotivo());
+        }
+    }
+
+    private final DadosAluno aluno;
+    private final List<ResponsavelFicha> responsaveis;
+    private final List<MatriculaFicha> matriculas;
+    private final long versao;
+
+    public FichaAlunoDTO(DadosAluno aluno, List<ResponsavelFicha> responsaveis,
+                         List<MatriculaFicha> matriculas, long versao) {
+        this.aluno = aluno;
+        this.responsaveis = List.copyOf(responsaveis);
+        this.matriculas = List.copyOf(matriculas);
+        this.versao = versao;
+    }
+
+    public Long getAlunoId() {
+        return aluno.id();
+    }
+
+    public String getNomeAluno() {
+        return aluno.nomeCompleto();
+    }
+
+    public DadosAluno getAluno() {
+        return aluno;
+    }
+
+    public List<ResponsavelFicha> getResponsaveis() {
+        return responsaveis;
+    }
+
+    public List<MatriculaFicha> getMatriculas() {
+        return matriculas;
+    }
+
+    public long getVersao() {
+        return versao;
+    }
+}
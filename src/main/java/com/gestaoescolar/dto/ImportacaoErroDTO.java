@@ -0,0 +1,19 @@
+package com.gestaoescolar.dto;
+
+public class ImportacaoErroDTO {
+    private final int linha;
+    private final String mensagem;
+
+    public ImportacaoErroDTO(int linha, String mensagem) {
+        this.linha = linha;
+        this.mensagem = mensagem;
+    }
+
+    public int getLinha() {
+        return linha;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
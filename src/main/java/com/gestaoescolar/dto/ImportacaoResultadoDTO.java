@@ -0,0 +1,76 @@
+package com.gestaoescolar.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo da importação de alunos. Linhas com erro não interrompem a importação;
+ * apenas as primeiras {@code MAX_ERROS_DETALHADOS} são guardadas com a mensagem.
+ */
+public class ImportacaoResultadoDTO {
+
+    public static final int MAX_ERROS_DETALHADOS = 1000;
+
+    private int linhasLidas;
+    private int alunosCriados;
+    private int responsaveisCriados;
+    private int responsaveisAtualizados;
+    private int vinculosCriados;
+    private int totalErros;
+    private final List<ImportacaoErroDTO> erros = new ArrayList<>();
+
+    public int getLinhasLidas() {
+        return linhasLidas;
+    }
+
+    public void addLinhasLidas(int n) {
+        this.linhasLidas += n;
+    }
+
+    public int getAlunosCriados() {
+        return alunosCriados;
+    }
+
+    public void addAlunosCriados(int n) {
+        this.alunosCriados += n;
+    }
+
+    public int getResponsaveisCriados() {
+        return responsaveisCriados;
+    }
+
+    public void addResponsaveisCriados(int n) {
+        this.responsaveisCriados += n;
+    }
+
+    public int getResponsaveisAtualizados() {
+        return responsaveisAtualizados;
+    }
+
+    public void addResponsaveisAtualizados(int n) {
+        this.responsaveisAtualizados += n;
+    }
+
+    public int getVinculosCriados() {
+        return vinculosCriados;
+    }
+
+    public void addVinculosCriados(int n) {
+        this.vinculosCriados += n;
+    }
+
+    public int getTotalErros() {
+        return totalErros;
+    }
+
+    public List<ImportacaoErroDTO> getErros() {
+        return erros;
+    }
+
+    public void addErro(int linha, String mensagem) {
+        totalErros++;
+        if (erros.size() < MAX_ERROS_DETALHADOS) {
+            erros.add(new ImportacaoErroDTO(linha, mensagem));
+        }
+    }
+}
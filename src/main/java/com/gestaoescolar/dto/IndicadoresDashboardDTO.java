@@ -0,0 +1,105 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Fotografia imutável dos indicadores do dashboard. O DashboardService troca a instância inteira
+ * a cada alteração, então quem lê nunca vê um estado parcial.
+ */
+public class IndicadoresDashboardDTO {
+    private final long alunosAtivos;
+    private final Map<Serie, Map<Turno, Long>> matriculasAtivas;
+    private final long capacidadeTotal;
+    private final long vagasLivres;
+    private final long turmasAtivas;
+    private final long turmasSemTitular;
+    private final long professoresAtivos;
+    private final Map<FormacaoAcademica, Long> professoresPorFormacao;
+    private final LocalDateTime atualizadoEm;
+
+    public IndicadoresDashboardDTO(long alunosAtivos,
+                                   Map<Serie, Map<Turno, Long>> matriculasAtivas,
+                                   long capacidadeTotal,
+                                   long vagasLivres,
+                                   long turmasAtivas,
+                                   long turmasSemTitular,
+                                   long professoresAtivos,
+                                   Map<FormacaoAcademica, Long> professoresPorFormacao) {
+        this.alunosAtivos = alunosAtivos;
+        this.matriculasAtivas = copiar(matriculasAtivas);
+        this.capacidadeTotal = capacidadeTotal;
+        this.vagasLivres = vagasLivres;
+        this.turmasAtivas = turmasAtivas;
+        this.turmasSemTitular = turmasSemTitular;
+        this.professoresAtivos = professoresAtivos;
+        this.professoresPorFormacao = professoresPorFormacao.isEmpty()
+                ? Map.of() : Collections.unmodifiableMap(new EnumMap<>(professoresPorFormacao));
+        this.atualizadoEm = LocalDateTime.now();
+    }
+
+    private static Map<Serie, Map<Turno, Long>> copiar(Map<Serie, Map<Turno, Long>> origem) {
+        Map<Serie, Map<Turno, Long>> copia = new EnumMap<>(Serie.class);
+        origem.forEach((serie, porTurno) -> {
+            if (!porTurno.isEmpty()) {
+                copia.put(serie, Collections.unmodifiableMap(new EnumMap<>(porTurno)));
+            }
+        });
+        return Collections.unmodifiableMap(copia);
+    }
+
+    public long getAlunosAtivos() {
+        return alunosAtivos;
+    }
+
+    // Matrículas ATIVAS por série e turno
+    public Map<Serie, Map<Turno, Long>> getMatriculasAtivas() {
+        return matriculasAtivas;
+    }
+
+    public long getTotalMatriculasAtivas() {
+        return matriculasAtivas.values().stream()
+                .flatMap(m -> m.values().stream())
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    public long getCapacidadeTotal() {
+        return capacidadeTotal;
+    }
+
+    public long getVagasLivres() {
+        return vagasLivres;
+    }
+
+    // Percentual de vagas ocupadas nas turmas ativas com capacidade definida
+    public double getOcupacaoPercentual() {
+        return capacidadeTotal > 0 ? 100.0 * (capacidadeTotal - vagasLivres) / capacidadeTotal : 0.0;
+    }
+
+    public long getTurmasAtivas() {
+        return turmasAtivas;
+    }
+
+    public long getTurmasSemTitular() {
+        return turmasSemTitular;
+    }
+
+    public long getProfessoresAtivos() {
+        return professoresAtivos;
+    }
+
+    public Map<FormacaoAcademica, Long> getProfessoresPorFormacao() {
+        return professoresPorFormacao;
+    }
+
+    public LocalDateTime getAtualizadoEm() {
+        return atualizadoEm;
+    }
+}
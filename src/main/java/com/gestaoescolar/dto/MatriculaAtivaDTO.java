@@ -0,0 +1,31 @@
+package com.gestaoescolar.dto;
+
+public class MatriculaAtivaDTO {
+    private final Long alunoId;
+    private final Long turmaId;
+    private final String codigoTurma;
+    private final String nomeTurma;
+
+    public MatriculaAtivaDTO(Long alunoId, Long turmaId, String codigoTurma, String nomeTurma) {
+        this.alunoId = alunoId;
+        this.turmaId = turmaId;
+        this.codigoTurma = codigoTurma;
+        this.nomeTurma = nomeTurma;
+    }
+
+    public Long getAlunoId() {
+        return alunoId;
+    }
+
+    public Long getTurmaId() {
+        return turmaId;
+    }
+
+    public String getCodigoTurma() {
+        return codigoTurma;
+    }
+
+    public String getNomeTurma() {
+        return nomeTurma;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gestaoescolar.dto;
+
+/**
+ * Resultado de um aluno na matrícula em lote: matriculado ou o motivo da recusa.
+ */
+public class MatriculaLoteResultadoDTO {
+    private final Long alunoId;
+    private final String nomeAluno;
+    private final boolean matriculado;
+    private final String mensagem;
+
+    public MatriculaLoteResultadoDTO(Long alunoId, String nomeAluno, boolean matriculado, String mensagem) {
+        this.alunoId = alunoId;
+        this.nomeAluno = nomeAluno;
+        this.matriculado = matriculado;
+        this.mensagem = mensagem;
+    }
+
+    public Long getAlunoId() {
+        return alunoId;
+    }
+
+    public String getNomeAluno() {
+        return nomeAluno;
+    }
+
+    public boolean isMatriculado() {
+        return matriculado;
+    }
+
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gestaoescolar.dto;
+
+// Soma da capacidade e das vagas livres das turmas ativas com capacidade definida
+public class OcupacaoVagasDTO {
+    private final long capacidadeTotal;
+    private final long vagasLivres;
+
+    public OcupacaoVagasDTO(Long capacidadeTotal, Long vagasLivres) {
+        this.capacidadeTotal = capacidadeTotal != null ? capacidadeTotal : 0;
+        this.vagasLivres = vagasLivres != null ? vagasLivres : 0;
+    }
+
+    public long getCapacidadeTotal() {
+        return capacidadeTotal;
+    }
+
+    public long getVagasLivres() {
+        return vagasLivres;
+    }
+}
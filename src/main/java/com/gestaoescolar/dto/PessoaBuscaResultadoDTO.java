@@ -0,0 +1,33 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.TipoPessoa;
+
+public class PessoaBuscaResultadoDTO {
+    private final TipoPessoa tipo;
+    private final Long id;
+    private final String nome;
+    private final double relevancia;
+
+    public PessoaBuscaResultadoDTO(TipoPessoa tipo, Long id, String nome, double relevancia) {
+        this.tipo = tipo;
+        this.id = id;
+        this.nome = nome;
+        this.relevancia = relevancia;
+    }
+
+    public TipoPessoa getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public double getRelevancia() {
+        return relevancia;
+    }
+}
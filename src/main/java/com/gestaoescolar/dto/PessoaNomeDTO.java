@@ -0,0 +1,30 @@
+package com.gestaoescolar.dto;
+
+// Projeção leve (id + nomes): índice de busca de pessoas e listas curtas de seleção (ex.: irmãos)
+public class PessoaNomeDTO {
+    private final Long id;
+    private final String nome;
+    private final String nomeAlternativo;   // nome social do aluno; nulo para os demais
+
+    public PessoaNomeDTO(Long id, String nome) {
+        this(id, nome, null);
+    }
+
+    public PessoaNomeDTO(Long id, String nome, String nomeAlternativo) {
+        this.id = id;
+        this.nome = nome;
+        this.nomeAlternativo = nomeAlternativo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getNomeAlternativo() {
+        return nomeAlternativo;
+    }
+}
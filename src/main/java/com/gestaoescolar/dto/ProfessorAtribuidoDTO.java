@@ -0,0 +1,27 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.ProfessorTurma;
+
+public class ProfessorAtribuidoDTO {
+    private final Long turmaId;
+    private final String nomeProfessor;
+    private final ProfessorTurma.Papel papel;
+
+    public ProfessorAtribuidoDTO(Long turmaId, String nomeProfessor, ProfessorTurma.Papel papel) {
+        this.turmaId = turmaId;
+        this.nomeProfessor = nomeProfessor;
+        this.papel = papel;
+    }
+
+    public Long getTurmaId() {
+        return turmaId;
+    }
+
+    public String getNomeProfessor() {
+        return nomeProfessor;
+    }
+
+    public ProfessorTurma.Papel getPapel() {
+        return papel;
+    }
+}
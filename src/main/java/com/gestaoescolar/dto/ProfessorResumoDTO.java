@@ -0,0 +1,56 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+
+/**
+ * Colunas das listas de professores (tela de professores e seleção na atribuição de turma).
+ * Projeção da consulta: não carrega endereço, especialização nem observações.
+ */
+public class ProfessorResumoDTO {
+    private final Long id;
+    private final String nomeCompleto;
+    private final String cpf;
+    private final String email;
+    private final String telefone;
+    private final FormacaoAcademica formacao;
+    private final boolean ativo;
+
+    public ProfessorResumoDTO(Long id, String nomeCompleto, String cpf, String email, String telefone,
+                              FormacaoAcademica formacao, boolean ativo) {
+        this.id = id;
+        this.nomeCompleto = nomeCompleto;
+        this.cpf = cpf;
+        this.email = email;
+        this.telefone = telefone;
+        this.formacao = formacao;
+        this.ativo = ativo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getNomeCompleto() {
+        return nomeCompleto;
+    }
+
+    public String getCpf() {
+        return cpf;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    public FormacaoAcademica getFormacao() {
+        return formacao;
+    }
+
+    public boolean isAtivo() {
+        return ativo;
+    }
+}
@@ -0,0 +1,47 @@
+package com.gestaoescolar.dto;
+
+/**
+ * Resumo da geração do quadro de horários: aulas distribuídas, conflitos que sobraram e tempo gasto.
+ */
+public class QuadroHorariosResultadoDTO {
+    private final int turmas;
+    private final int aulas;
+    private final long conflitos;            // choques de turma, professor ou sala no mesmo horário
+    private final long penalidade;           // restrições fracas (concentração da disciplina, janelas)
+    private final int ofertasSemProfessor;
+    private final long tempoMs;
+
+    public QuadroHorariosResultadoDTO(int turmas, int aulas, long conflitos, long penalidade,
+                                      int ofertasSemProfessor, long tempoMs) {
+        this.turmas = turmas;
+        this.aulas = aulas;
+        this.conflitos = conflitos;
+        this.penalidade = penalidade;
+        this.ofertasSemProfessor = ofertasSemProfessor;
+        this.tempoMs = tempoMs;
+    }
+
+    public int getTurmas() {
+        return turmas;
+    }
+
+    public int getAulas() {
+        return aulas;
+    }
+
+    public long getConflitos() {
+        return conflitos;
+    }
+
+    public long getPenalidade() {
+        return penalidade;
+    }
+
+    public int getOfertasSemProfessor() {
+        return ofertasSemProfessor;
+    }
+
+    public long getTempoMs() {
+        return tempoMs;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gestaoescolar.dto;
+
+/**
+ * Andamento da virada de ano letivo, informado ao fim de cada lote processado.
+ */
+public class RolloverProgressoDTO {
+    private final String etapa;
+    private final int concluidos;
+    private final int total;
+
+    public RolloverProgressoDTO(String etapa, int concluidos, int total) {
+        this.etapa = etapa;
+        this.concluidos = concluidos;
+        this.total = total;
+    }
+
+    public String getEtapa() {
+        return etapa;
+    }
+
+    public int getConcluidos() {
+        return concluidos;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return etapa + ": " + concluidos + "/" + total;
+    }
+}
@@ -0,0 +1,88 @@
+package com.gestaoescolar.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resumo da virada de ano letivo. Executar a virada de novo só completa o que faltou,
+ * então os contadores de uma nova execução refletem apenas o trabalho feito nela.
+ */
+public class RolloverResultadoDTO {
+    private boolean politicaCopiada;
+    private int turmasCriadas;
+    private int turmasExistentes;
+    private int ofertasCopiadas;
+    private int alunosPromovidos;
+    private int alunosJaMatriculados;
+    private int alunosConcluintes;       // concluíram a última série: não há para onde promover
+    private int alunosSemTurmaDestino;   // não existe turma da série seguinte (mesmo nome e turno) no ano de destino
+    private final List<MatriculaLoteResultadoDTO> recusados = new ArrayList<>();
+
+    public boolean isPoliticaCopiada() {
+        return politicaCopiada;
+    }
+
+    public void setPoliticaCopiada(boolean politicaCopiada) {
+        this.politicaCopiada = politicaCopiada;
+    }
+
+    public int getTurmasCriadas() {
+        return turmasCriadas;
+    }
+
+    public void addTurmasCriadas(int n) {
+        this.turmasCriadas += n;
+    }
+
+    public int getTurmasExistentes() {
+        return turmasExistentes;
+    }
+
+    public void addTurmasExistentes(int n) {
+        this.turmasExistentes += n;
+    }
+
+    public int getOfertasCopiadas() {
+        return ofertasCopiadas;
+    }
+
+    public void addOfertasCopiadas(int n) {
+        this.ofertasCopiadas += n;
+    }
+
+    public int getAlunosPromovidos() {
+        return alunosPromovidos;
+    }
+
+    public void addAlunosPromovidos(int n) {
+        this.alunosPromovidos += n;
+    }
+
+    public int getAlunosJaMatriculados() {
+        return alunosJaMatriculados;
+    }
+
+    public void addAlunosJaMatriculados(int n) {
+        this.alunosJaMatriculados += n;
+    }
+
+    public int getAlunosConcluintes() {
+        return alunosConcluintes;
+    }
+
+    public void addAlunosConcluintes(int n) {
+        this.alunosConcluintes += n;
+    }
+
+    public int getAlunosSemTurmaDestino() {
+        return alunosSemTurmaDestino;
+    }
+
+    public void addAlunosSemTurmaDestino(int n) {
+        this.alunosSemTurmaDestino += n;
+    }
+
+    public List<MatriculaLoteResultadoDTO> getRecusados() {
+        return recusados;
+    }
+}
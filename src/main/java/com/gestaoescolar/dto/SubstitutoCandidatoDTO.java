@@ -0,0 +1,49 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+
+// Professor livre para substituir em uma turma/disciplina/período, com o que pesou na ordem da lista
+public class SubstitutoCandidatoDTO {
+    private final Long professorId;
+    private final String nome;
+    private final FormacaoAcademica formacao;
+    private final boolean lecionaDisciplina;
+    private final boolean especializacaoNaDisciplina;
+    private final int aulasNaSemana;
+
+    public SubstitutoCandidatoDTO(Long professorId, String nome, FormacaoAcademica formacao, boolean lecionaDisciplina,
+                                  boolean especializacaoNaDisciplina, int aulasNaSemana) {
+        this.professorId = professorId;
+        this.nome = nome;
+        this.formacao = formacao;
+        this.lecionaDisciplina = lecionaDisciplina;
+        this.especializacaoNaDisciplina = especializacaoNaDisciplina;
+        this.aulasNaSemana = aulasNaSemana;
+    }
+
+    public Long getProfessorId() {
+        return professorId;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public FormacaoAcademica getFormacao() {
+        return formacao;
+    }
+
+    // Já dá aulas da disciplina em alguma turma do ano letivo
+    public boolean isLecionaDisciplina() {
+        return lecionaDisciplina;
+    }
+
+    public boolean isEspecializacaoNaDisciplina() {
+        return especializacaoNaDisciplina;
+    }
+
+    // Aulas semanais já ocupadas na agenda do professor
+    public int getAulasNaSemana() {
+        return aulasNaSemana;
+    }
+}
@@ -0,0 +1,65 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+
+/**
+ * Critérios da busca de turmas. Campos nulos (ou texto em branco) não filtram.
+ */
+public class TurmaFiltro {
+    private String texto;          // parte do nome ou do código
+    private AnoLetivo anoLetivo;
+    private Serie serie;
+    private Turno turno;
+    private Boolean ativa;
+    private boolean somenteComVagas; // ativas e com vaga livre (ou sem limite de capacidade)
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public AnoLetivo getAnoLetivo() {
+        return anoLetivo;
+    }
+
+    public void setAnoLetivo(AnoLetivo anoLetivo) {
+        this.anoLetivo = anoLetivo;
+    }
+
+    public Serie getSerie() {
+        return serie;
+    }
+
+    public void setSerie(Serie serie) {
+        this.serie = serie;
+    }
+
+    public Turno getTurno() {
+        return turno;
+    }
+
+    public void setTurno(Turno turno) {
+        this.turno = turno;
+    }
+
+    public Boolean getAtiva() {
+        return ativa;
+    }
+
+    public void setAtiva(Boolean ativa) {
+        this.ativa = ativa;
+    }
+
+    public boolean isSomenteComVagas() {
+        return somenteComVagas;
+    }
+
+    public void setSomenteComVagas(boolean somenteComVagas) {
+        this.somenteComVagas = somenteComVagas;
+    }
+}
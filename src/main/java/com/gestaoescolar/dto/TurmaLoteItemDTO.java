@@ -0,0 +1,37 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+
+/**
+ * Uma linha da geração de turmas em lote: quantas turmas criar para a série/turno e com que capacidade.
+ */
+public class TurmaLoteItemDTO {
+    private final Serie serie;
+    private final Turno turno;
+    private final int quantidade;
+    private final Integer capacidade;   // null = sem limite
+
+    public TurmaLoteItemDTO(Serie serie, Turno turno, int quantidade, Integer capacidade) {
+        this.serie = serie;
+        this.turno = turno;
+        this.quantidade = quantidade;
+        this.capacidade = capacidade;
+    }
+
+    public Serie getSerie() {
+        return serie;
+    }
+
+    public Turno getTurno() {
+        return turno;
+    }
+
+    public int getQuantidade() {
+        return quantidade;
+    }
+
+    public Integer getCapacidade() {
+        return capacidade;
+    }
+}
@@ -0,0 +1,40 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.Turno;
+
+// Sala ocupada por uma turma ativa (montagem do índice de ocupação de salas)
+public class TurmaSalaDTO {
+    private final Long turmaId;
+    private final String codigoTurma;
+    private final String sala;
+    private final Turno turno;
+    private final Long anoLetivoId;
+
+    public TurmaSalaDTO(Long turmaId, String codigoTurma, String sala, Turno turno, Long anoLetivoId) {
+        this.turmaId = turmaId;
+        this.codigoTurma = codigoTurma;
+        this.sala = sala;
+        this.turno = turno;
+        this.anoLetivoId = anoLetivoId;
+    }
+
+    public Long getTurmaId() {
+        return turmaId;
+    }
+
+    public String getCodigoTurma() {
+        return codigoTurma;
+    }
+
+    public String getSala() {
+        return sala;
+    }
+
+    public Turno getTurno() {
+        return turno;
+    }
+
+    public Long getAnoLetivoId() {
+        return anoLetivoId;
+    }
+}
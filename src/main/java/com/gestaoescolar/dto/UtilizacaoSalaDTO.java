@@ -0,0 +1,54 @@
+package com.gestaoescolar.dto;
+
+import com.gestaoescolar.model.enums.Turno;
+
+import java.util.Map;
+
+// Ocupação de uma sala em um ano letivo: código da turma em cada parte do dia (manhã, tarde, noite)
+public class UtilizacaoSalaDTO {
+    private final String sala;
+    private final String descricao;
+    private final Integer capacidade;
+    private final boolean cadastrada;
+    private final Map<Turno, String> turmaPorParte;
+    private final int partesDoDia;
+
+    public UtilizacaoSalaDTO(String sala, String descricao, Integer capacidade, boolean cadastrada,
+                             Map<Turno, String> turmaPorParte, int partesDoDia) {
+        this.sala = sala;
+        this.descricao = descricao;
+        this.capacidade = capacidade;
+        this.cadastrada = cadastrada;
+        this.turmaPorParte = turmaPorParte;
+        this.partesDoDia = partesDoDia;
+    }
+
+    public String getSala() {
+        return sala;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public Integer getCapacidade() {
+        return capacidade;
+    }
+
+    // Sala usada por turma mas sem cadastro (dados anteriores ao cadastro de salas)
+    public boolean isCadastrada() {
+        return cadastrada;
+    }
+
+    public Map<Turno, String> getTurmaPorParte() {
+        return turmaPorParte;
+    }
+
+    public String getTurma(Turno parte) {
+        return turmaPorParte.getOrDefault(parte, "");
+    }
+
+    public int getPercentualOcupacao() {
+        return partesDoDia == 0 ? 0 : Math.round(100f * turmaPorParte.size() / partesDoDia);
+    }
+}
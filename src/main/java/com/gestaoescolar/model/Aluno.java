@@ -9,7 +9,13 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "aluno")
+@Table(name = "aluno", indexes = {
+        // Ordem padrão da grid de alunos, com ou sem filtro de situação
+        @Index(name = "idx_aluno_ativo_nome", columnList = "ativo, nome_completo"),
+        @Index(name = "idx_aluno_nome", columnList = "nome_completo"),
+        // Aviso de possível duplicidade ao cadastrar (mesma data de nascimento)
+        @Index(name = "idx_aluno_data_nascimento", columnList = "data_nascimento")
+})
 public class Aluno {
 
     @Id
@@ -85,6 +91,10 @@ public class Aluno {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public boolean isAtivo() {
         return ativo;
     }
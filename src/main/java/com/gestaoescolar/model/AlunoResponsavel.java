@@ -8,6 +8,10 @@ import java.time.LocalDateTime;
 @Table(name = "aluno_responsavel",
         uniqueConstraints = {
                 @UniqueConstraint(name = "uk_aluno_responsavel", columnNames = {"aluno_id", "responsavel_id"})
+        },
+        indexes = {
+                // Caminho inverso do único acima: alunos de um responsável (irmãos, filtro da lista de alunos)
+                @Index(name = "idx_aluno_responsavel_responsavel", columnList = "responsavel_id, aluno_id")
         }
 )
 public class AlunoResponsavel {
@@ -8,7 +8,10 @@ import java.util.Objects;
 import com.gestaoescolar.model.AnoLetivo;
 
 @Entity
-@Table(name = "ano_letivo")
+@Table(name = "ano_letivo", indexes = {
+        // Ano letivo em andamento
+        @Index(name = "idx_ano_letivo_status", columnList = "status")
+})
 public class AnoLetivo {
 
     @Id
@@ -0,0 +1,98 @@
+package com.gestaoescolar.model;
+
+import jakarta.persistence.*;
+
+import java.time.DayOfWeek;
+
+/**
+ * Uma aula semanal do quadro de horários: oferta (turma-disciplina), professor, sala, dia e aula do turno.
+ * "aula" é o número da aula dentro do turno da turma (1ª, 2ª...); ver HorarioSemanal para a posição no dia.
+ */
+@Entity
+@Table(name = "horario_aula",
+        indexes = {
+                @Index(name = "idx_horario_turma", columnList = "turma_id, dia_semana, aula"),
+                @Index(name = "idx_horario_professor", columnList = "professor_id, dia_semana"),
+                @Index(name = "idx_horario_turma_disciplina", columnList = "turma_disciplina_id")
+        })
+public class HorarioAula {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "turma_id", nullable = false)
+    private Turma turma;
+
+    @ManyToOne(optional = false, fetch = FetchType.LAZY)
+    @JoinColumn(name = "turma_disciplina_id", nullable = false)
+    private TurmaDisciplina turmaDisciplina;
+
+    // null = oferta ainda sem professor atribuído
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "professor_id")
+    private Professor professor;
+
+    @Column(length = 10)
+    private String sala;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "dia_semana", nullable = false, length = 10)
+    private DayOfWeek diaSemana;
+
+    @Column(nullable = false)
+    private int aula;
+
+    public Long getId() {
+        return id;
+    }
+
+    public Turma getTurma() {
+        return turma;
+    }
+
+    public void setTurma(Turma turma) {
+        this.turma = turma;
+    }
+
+    public TurmaDisciplina getTurmaDisciplina() {
+        return turmaDisciplina;
+    }
+
+    public void setTurmaDisciplina(TurmaDisciplina turmaDisciplina) {
+        this.turmaDisciplina = turmaDisciplina;
+    }
+
+    public Professor getProfessor() {
+        return professor;
+    }
+
+    public void setProfessor(Professor professor) {
+        this.professor = professor;
+    }
+
+    public String getSala() {
+        return sala;
+    }
+
+    public void setSala(String sala) {
+        this.sala = sala;
+    }
+
+    public DayOfWeek getDiaSemana() {
+        return diaSemana;
+    }
+
+    public void setDiaSemana(DayOfWeek diaSemana) {
+        this.diaSemana = diaSemana;
+    }
+
+    public int getAula() {
+        return aula;
+    }
+
+    public void setAula(int aula) {
+        this.aula = aula;
+    }
+}
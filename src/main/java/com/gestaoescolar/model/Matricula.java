@@ -9,9 +9,12 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "matricula",
         indexes = {
-                @Index(name = "idx_matricula_aluno", columnList = "aluno_id"),
-                @Index(name = "idx_matricula_turma", columnList = "turma_id"),
-                @Index(name = "idx_matricula_status", columnList = "status")
+                // Exclusividade da matrícula (aluno + ATIVA, na turma ou no ano) e histórico do aluno
+                @Index(name = "idx_matricula_aluno_status", columnList = "aluno_id, status"),
+                // Contagem/lista de uma turma por situação e recálculo de vagas (aluno_id cobre a lista de ids)
+                @Index(name = "idx_matricula_turma_status", columnList = "turma_id, status, aluno_id"),
+                // Dashboard e Censo: todas as ATIVAS, já com a turma para o join
+                @Index(name = "idx_matricula_status_turma", columnList = "status, turma_id")
         })
 public class Matricula {
 
@@ -13,7 +13,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "professores")
+@Table(name = "professores", indexes = {
+        // Listas de professores (filtro de situação, ordem por nome)
+        @Index(name = "idx_professor_ativo_nome", columnList = "ativo, nome_completo"),
+        // Filtro e contagem por formação
+        @Index(name = "idx_professor_formacao_ativo", columnList = "formacao, ativo")
+})
 public class Professor {
 
     @Id
@@ -11,7 +11,10 @@ import java.util.Objects;
  */
 @Entity
 @Table(name = "professor_turma",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"professor_id", "turma_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"professor_id", "turma_id"}),
+        // Professores de uma ou várias turmas (o único acima só atende a busca por professor);
+        // o papel no índice atende a verificação de titular no período
+        indexes = @Index(name = "idx_professor_turma_turma", columnList = "turma_id, papel"))
 public class ProfessorTurma {
 
     public enum Papel {
@@ -0,0 +1,73 @@
+package com.gestaoescolar.model;
+
+import jakarta.persistence.*;
+
+import java.util.Locale;
+
+@Entity
+@Table(name = "salas")
+public class Sala {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Mesmo tamanho de Turma.sala; sempre gravado normalizado (ver normalizarCodigo)
+    @Column(length = 10, nullable = false, unique = true)
+    private String codigo;
+
+    @Column(length = 200)
+    private String descricao;
+
+    private Integer capacidade;
+
+    private boolean ativa = true;
+
+    // Mesma sala escrita de formas diferentes ("sala 3", "SALA 3 ") conta como uma só
+    public static String normalizarCodigo(String codigo) {
+        if (codigo == null || codigo.isBlank()) {
+            return null;
+        }
+        return codigo.trim().replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public void setCodigo(String codigo) {
+        this.codigo = codigo;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public Integer getCapacidade() {
+        return capacidade;
+    }
+
+    public void setCapacidade(Integer capacidade) {
+        this.capacidade = capacidade;
+    }
+
+    public boolean isAtiva() {
+        return ativa;
+    }
+
+    public void setAtiva(boolean ativa) {
+        this.ativa = ativa;
+    }
+}
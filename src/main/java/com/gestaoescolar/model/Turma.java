@@ -12,6 +12,16 @@ import jakarta.validation.constraints.Size;
 @Entity
 @Table(name = "turmas", uniqueConstraints = {
         @UniqueConstraint(columnNames = {"ano_letivo_id", "serie", "nome_turma", "turno"})
+}, indexes = {
+        @Index(name = "idx_turma_ativa_vagas", columnList = "ativa, vagas_disponiveis"),
+        @Index(name = "idx_turma_nome", columnList = "nome_turma"),
+        // Busca por prefixo sem diferenciar maiúsculas (colunas calculadas abaixo)
+        @Index(name = "idx_turma_nome_busca", columnList = "nome_busca"),
+        @Index(name = "idx_turma_codigo_busca", columnList = "codigo_busca"),
+        // Turmas (ativas) de um ano letivo; o único acima começa por ano_letivo_id mas não tem "ativa"
+        @Index(name = "idx_turma_ano_ativa", columnList = "ano_letivo_id, ativa"),
+        // Dashboard: turmas ativas sem professor titular
+        @Index(name = "idx_turma_ativa_titular", columnList = "ativa, professor_titular_id")
 })
 public class Turma {
 
@@ -44,11 +54,22 @@ public class Turma {
     @Column(unique = true, nullable = false)
     private String codigo;
 
+    // Nome e código em maiúsculas, calculados pelo banco: "tur" acha "Turma 1A" usando índice
+    @Column(name = "nome_busca", insertable = false, updatable = false,
+            columnDefinition = "varchar(20) generated always as (upper(nome_turma))")
+    private String nomeBusca;
+
+    @Column(name = "codigo_busca", insertable = false, updatable = false,
+            columnDefinition = "varchar(20) generated always as (upper(codigo))")
+    private String codigoBusca;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "ano_letivo_id", nullable = false)
     @NotNull(message = "Ano letivo é obrigatório")
     private AnoLetivo anoLetivo;
 
+    // null = sem limite. Registros antigos com 0 tinham o mesmo sentido e são convertidos para null
+    // pela reconciliação de vagas (TurmaService.reconciliarVagas), que roda na subida da aplicação
     private Integer capacidade;
 
     @Size(max = 10)
@@ -56,6 +77,9 @@ public class Turma {
 
     private boolean ativa = true;
 
+    // Contador mantido pelo banco (EnrollmentService/TurmaRepository) a cada mudança de matrícula ATIVA.
+    // Não é atualizado pelo dirty checking da entidade, para não sobrescrever decrementos concorrentes.
+    @Column(name = "vagas_disponiveis", updatable = false)
     private Integer vagasDisponiveis;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -120,10 +144,7 @@ public class Turma {
     }
 
     public Integer getCapacidade() { return capacidade; }
-    public void setCapacidade(Integer capacidade) {
-        this.capacidade = capacidade;
-        calcularVagasDisponiveis();
-    }
+    public void setCapacidade(Integer capacidade) { this.capacidade = capacidade; }
 
     public String getSala() { return sala; }
     public void setSala(String sala) { this.sala = sala; }
@@ -137,17 +158,14 @@ public class Turma {
     // Métodos de negócio
     public void gerarCodigoAutomatico() {
         if (anoLetivo != null && serie != null && nomeTurma != null && turno != null) {
-            String ano = String.valueOf(anoLetivo.getAno());
-            String serieCodigo = serie.getNome().replace("º", "").replace("ª", "").substring(0, 1);
-            String turnoCodigo = turno.name().substring(0, 1);
-
-            this.codigo = String.format("%s-%s%s-%s", ano, serieCodigo, nomeTurma, turnoCodigo);
+            this.codigo = gerarCodigo(anoLetivo.getAno(), serie, nomeTurma, turno);
         }
     }
 
-    private void calcularVagasDisponiveis() {
-        // Futuro: calcular baseado em alunos matriculados
-        this.vagasDisponiveis = this.capacidade;
+    // Ex.: 2025-1A-M (1º Ano, turma A, manhã), 2025-E2B-T (2ª Série, turma B, tarde)
+    public static String gerarCodigo(Integer ano, Serie serie, String nomeTurma, Turno turno) {
+        String turnoCodigo = turno.name().substring(0, 1);
+        return String.format("%s-%s%s-%s", ano, serie.getSigla(), nomeTurma, turnoCodigo);
     }
 
     public String getDescricaoCompleta() {
@@ -156,26 +174,19 @@ public class Turma {
     }
 
     public boolean temVagas() {
-        return vagasDisponiveis == null || vagasDisponiveis > 0;
+        return capacidade == null || (vagasDisponiveis != null && vagasDisponiveis > 0);
     }
 
-    public void ocuparVaga() {
-        if (vagasDisponiveis != null && vagasDisponiveis > 0) {
-            vagasDisponiveis--;
-        }
-    }
-
-    public void liberarVaga() {
-        if (vagasDisponiveis != null && capacidade != null && vagasDisponiveis < capacidade) {
-            vagasDisponiveis++;
-        }
+    @PrePersist
+    private void prePersist() {
+        gerarCodigoAutomatico();
+        // Turma nova ainda não tem matrículas: todas as vagas livres
+        this.vagasDisponiveis = this.capacidade;
     }
 
-    @PrePersist
     @PreUpdate
-    private void validarECalcular() {
+    private void preUpdate() {
         gerarCodigoAutomatico();
-        calcularVagasDisponiveis();
     }
 
     @Override
@@ -2,40 +2,48 @@ package com.gestaoescolar.model.enums;
 
 public enum Serie {
     // Educação Infantil
-    MATERNAL_I("Maternal I"),
-    MATERNAL_II("Maternal II"),
-    MATERNAL_III("Maternal III"),
-    PRE_I("Pré I"),
-    PRE_II("Pré II"),
+    MATERNAL_I("Maternal I", "M1"),
+    MATERNAL_II("Maternal II", "M2"),
+    MATERNAL_III("Maternal III", "M3"),
+    PRE_I("Pré I", "P1"),
+    PRE_II("Pré II", "P2"),
 
     // Fundamental I
-    PRIMEIRO_ANO("1º Ano"),
-    SEGUNDO_ANO("2º Ano"),
-    TERCEIRO_ANO("3º Ano"),
-    QUARTO_ANO("4º Ano"),
-    QUINTO_ANO("5º Ano"),
+    PRIMEIRO_ANO("1º Ano", "1"),
+    SEGUNDO_ANO("2º Ano", "2"),
+    TERCEIRO_ANO("3º Ano", "3"),
+    QUARTO_ANO("4º Ano", "4"),
+    QUINTO_ANO("5º Ano", "5"),
 
     // Fundamental II
-    SEXTO_ANO("6º Ano"),
-    SETIMO_ANO("7º Ano"),
-    OITAVO_ANO("8º Ano"),
-    NONO_ANO("9º Ano"),
+    SEXTO_ANO("6º Ano", "6"),
+    SETIMO_ANO("7º Ano", "7"),
+    OITAVO_ANO("8º Ano", "8"),
+    NONO_ANO("9º Ano", "9"),
 
     // Ensino Médio
-    PRIMEIRA_SERIE("1ª Série"),
-    SEGUNDA_SERIE("2ª Série"),
-    TERCEIRA_SERIE("3ª Série");
+    PRIMEIRA_SERIE("1ª Série", "E1"),
+    SEGUNDA_SERIE("2ª Série", "E2"),
+    TERCEIRA_SERIE("3ª Série", "E3");
 
     private final String nome;
+    // Sigla usada no código da turma. Siglas com letra têm 2 caracteres e as numéricas 1,
+    // então nenhuma é prefixo de outra e o código gerado não se repete entre séries.
+    private final String sigla;
 
-    Serie(String nome) {
+    Serie(String nome, String sigla) {
         this.nome = nome;
+        this.sigla = sigla;
     }
 
     public String getNome() {
         return nome;
     }
 
+    public String getSigla() {
+        return sigla;
+    }
+
     // Método auxiliar para buscar por nome
     public static Serie fromNome(String nome) {
         for (Serie serie : values()) {
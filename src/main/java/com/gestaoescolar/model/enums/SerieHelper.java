@@ -42,6 +42,16 @@ public class SerieHelper {
         };
     }
 
+    // Série seguinte na progressão escolar (ordem do enum); null ao fim do Ensino Médio
+    public static Serie getProximaSerie(Serie serie) {
+        if (serie == null) {
+            return null;
+        }
+        Serie[] series = Serie.values();
+        int proxima = serie.ordinal() + 1;
+        return proxima < series.length ? series[proxima] : null;
+    }
+
     public static String getDescricaoNivel(NivelEscolar nivel) {
         return nivel != null ? nivel.getDescricao() : "";
     }
@@ -0,0 +1,17 @@
+package com.gestaoescolar.model.enums;
+
+public enum TipoPessoa {
+    ALUNO("Aluno"),
+    PROFESSOR("Professor"),
+    RESPONSAVEL("Responsável");
+
+    private final String descricao;
+
+    TipoPessoa(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+}
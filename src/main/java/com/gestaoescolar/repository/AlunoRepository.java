@@ -1,14 +1,41 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.PessoaNomeDTO;
 import com.gestaoescolar.model.Aluno;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface AlunoRepository extends JpaRepository<Aluno, Long> {
+public interface AlunoRepository extends JpaRepository<Aluno, Long>, JpaSpecificationExecutor<Aluno>, AlunoRepositoryCustom {
     List<Aluno> findAllByOrderByNomeCompletoAsc();
     List<Aluno> findByNomeCompletoContainingIgnoreCase(String nome);
     Optional<Aluno> findByCpf(String cpf);
     boolean existsByCpf(String cpf);
+    long countByAtivoTrue();
+
+    // CPFs (já normalizados) que já pertencem a algum aluno; usado em lote na importação
+    @Query("select a.cpf from Aluno a where a.cpf in :cpfs")
+    List<String> findCpfsExistentes(@Param("cpfs") Collection<String> cpfs);
+
+    // Nomes para o índice de busca de pessoas (BuscaPessoasService)
+    @Query("select new com.gestaoescolar.dto.PessoaNomeDTO(a.id, a.nomeCompleto, a.nomeSocial) from Aluno a")
+    List<PessoaNomeDTO> listarNomes();
+
+    @Query("select new com.gestaoescolar.dto.PessoaNomeDTO(a.id, a.nomeCompleto, a.nomeSocial) from Aluno a where a.id = :id")
+    Optional<PessoaNomeDTO> buscarNomePorId(@Param("id") Long id);
+
+    // Trava a linha do aluno até o fim da transação (serializa matrículas concorrentes do MESMO aluno)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Aluno> findForUpdateById(Long id);
+
+    // Versão em lote (matrícula de vários alunos); ordem por id para evitar deadlock entre lotes concorrentes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Aluno> findForUpdateByIdInOrderByIdAsc(Collection<Long> ids);
 }
\ No newline at end of file
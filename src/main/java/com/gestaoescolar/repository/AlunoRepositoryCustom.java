@@ -0,0 +1,14 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.dto.AlunoResumoDTO;
+import com.gestaoescolar.model.Aluno;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface AlunoRepositoryCustom {
+
+    // Página da lista de alunos só com as colunas exibidas, usando a mesma Specification da contagem
+    List<AlunoResumoDTO> buscarResumos(Specification<Aluno> spec, Pageable pageable);
+}
@@ -0,0 +1,46 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.dto.AlunoResumoDTO;
+import com.gestaoescolar.model.Aluno;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+// Implementação de AlunoRepositoryCustom (encontrada pelo Spring Data pelo sufixo "Impl")
+public class AlunoRepositoryImpl implements AlunoRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<AlunoResumoDTO> buscarResumos(Specification<Aluno> spec, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<AlunoResumoDTO> cq = cb.createQuery(AlunoResumoDTO.class);
+        Root<Aluno> root = cq.from(Aluno.class);
+        cq.select(cb.construct(AlunoResumoDTO.class,
+                root.get("id"), root.get("nomeCompleto"), root.get("cpf"),
+                root.get("dataNascimento"), root.get("ativo")));
+
+        Predicate filtro = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        if (filtro != null) {
+            cq.where(filtro);
+        }
+        cq.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<AlunoResumoDTO> query = em.createQuery(cq);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return query.getResultList();
+    }
+}
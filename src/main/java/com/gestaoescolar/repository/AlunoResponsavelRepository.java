@@ -1,9 +1,13 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.PessoaNomeDTO;
 import com.gestaoescolar.model.AlunoResponsavel;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,4 +18,16 @@ public interface AlunoResponsavelRepository extends JpaRepository<AlunoResponsav
     List<AlunoResponsavel> findByAlunoIdAndAtivoTrue(Long alunoId);
 
     Optional<AlunoResponsavel> findByAlunoIdAndResponsavelId(Long alunoId, Long responsavelId);
-}
\ No newline at end of file
+
+    // Vínculos já existentes de um responsável com vários alunos (vínculo em lote de irmãos)
+    List<AlunoResponsavel> findByResponsavelIdAndAlunoIdIn(Long responsavelId, Collection<Long> alunoIds);
+
+    // Irmãos: outros alunos com algum responsável ativo em comum com o aluno informado
+    @Query("select distinct new com.gestaoescolar.dto.PessoaNomeDTO(a.id, a.nomeCompleto) " +
+            "from AlunoResponsavel meu, AlunoResponsavel outro join outro.aluno a " +
+            "where meu.aluno.id = :alunoId and meu.ativo = true " +
+            "and outro.responsavel = meu.responsavel and outro.ativo = true " +
+            "and a.id <> :alunoId " +
+            "order by a.nomeCompleto")
+    List<PessoaNomeDTO> findIrmaos(@Param("alunoId") Long alunoId);
+}
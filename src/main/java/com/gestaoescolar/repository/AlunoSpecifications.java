@@ -0,0 +1,70 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.dto.AlunoFiltro;
+import com.gestaoescolar.model.Aluno;
+import com.gestaoescolar.model.AlunoResponsavel;
+import com.gestaoescolar.util.DocumentoUtil;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Monta a consulta de alunos a partir do {@link AlunoFiltro}.
+ * A mesma Specification é usada na busca paginada e na contagem.
+ */
+public final class AlunoSpecifications {
+
+    private AlunoSpecifications() {}
+
+    public static Specification<Aluno> porFiltro(AlunoFiltro filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filtro == null) {
+                return cb.conjunction();
+            }
+
+            if (filtro.getTexto() != null && !filtro.getTexto().isBlank()) {
+                String texto = filtro.getTexto().trim();
+                String cpf = pareceCpf(texto) ? DocumentoUtil.somenteDigitos(texto) : null;
+                if (cpf != null) {
+                    // CPF é gravado só com dígitos: busca pelo prefixo
+                    predicates.add(cb.like(root.get("cpf"), cpf + "%"));
+                } else {
+                    String like = "%" + texto.toLowerCase(Locale.ROOT) + "%";
+                    predicates.add(cb.like(cb.lower(root.get("nomeCompleto")), like));
+                }
+            }
+            if (filtro.getAtivo() != null) {
+                predicates.add(cb.equal(root.get("ativo"), filtro.getAtivo()));
+            }
+            if (filtro.getResponsavelId() != null) {
+                Subquery<Long> vinculo = query.subquery(Long.class);
+                Root<AlunoResponsavel> ar = vinculo.from(AlunoResponsavel.class);
+                vinculo.select(ar.get("id")).where(
+                        cb.equal(ar.get("aluno"), root),
+                        cb.equal(ar.get("responsavel").get("id"), filtro.getResponsavelId()),
+                        cb.isTrue(ar.get("ativo"))
+                );
+                predicates.add(cb.exists(vinculo));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Só dígitos e a pontuação do CPF; quem não tem dígito nenhum ("-", ". -") cai na busca por nome
+    private static boolean pareceCpf(String texto) {
+        for (int i = 0, n = texto.length(); i < n; i++) {
+            char c = texto.charAt(i);
+            if (!(c >= '0' && c <= '9') && c != '.' && c != '-' && !Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
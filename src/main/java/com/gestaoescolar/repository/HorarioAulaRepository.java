@@ -0,0 +1,25 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.model.HorarioAula;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface HorarioAulaRepository extends JpaRepository<HorarioAula, Long> {
+
+    // Quadro de uma turma, para exibição
+    @EntityGraph(attributePaths = {"turmaDisciplina", "turmaDisciplina.disciplina", "professor"})
+    List<HorarioAula> findByTurmaId(Long turmaId);
+
+    // Quadro atual do ano letivo (ponto de partida da melhoria incremental); só ids, sem carregar associações
+    @Query("select h from HorarioAula h where h.turma.anoLetivo.id = :anoLetivoId")
+    List<HorarioAula> findByAnoLetivoId(@Param("anoLetivoId") Long anoLetivoId);
+
+    // Agenda dos professores no ano: turma (turno) e disciplina carregadas junto
+    @Query("select h from HorarioAula h join fetch h.turma t join fetch h.turmaDisciplina td join fetch td.disciplina " +
+            "where t.anoLetivo.id = :anoLetivoId and t.ativa = true")
+    List<HorarioAula> findAgendaByAnoLetivoId(@Param("anoLetivoId") Long anoLetivoId);
+}
@@ -1,12 +1,24 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.CensoAlunoDTO;
+import com.gestaoescolar.dto.ContagemSerieTurnoDTO;
+import com.gestaoescolar.dto.MatriculaAtivaDTO;
 import com.gestaoescolar.model.Matricula;
 import com.gestaoescolar.model.enums.MatriculaStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
 
@@ -21,11 +33,61 @@ public interface MatriculaRepository extends JpaRepository<Matricula, Long> {
     @EntityGraph(attributePaths = {"aluno", "turma", "turma.anoLetivo"})
     List<Matricula> findByAlunoId(Long alunoId);
 
+    // Histórico do aluno para a ficha (mais recente primeiro); o aluno já está carregado por quem chama
+    @EntityGraph(attributePaths = {"turma", "turma.anoLetivo"})
+    List<Matricula> findByAlunoIdOrderByDataInicioDescIdDesc(Long alunoId);
+
     Optional<Matricula> findByIdAndStatus(Long id, MatriculaStatus status);
 
+    // Trava a matrícula para mudança de status: duas ações simultâneas não liberam a mesma vaga duas vezes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Matricula> findForUpdateById(Long id);
+
+    // Alunos de uma turma em determinada situação (ex.: CONCLUIDA para promoção na virada do ano)
+    @Query("select m.aluno.id from Matricula m where m.turma.id = :turmaId and m.status = :status order by m.aluno.id")
+    List<Long> findAlunoIdsByTurmaIdAndStatus(@Param("turmaId") Long turmaId, @Param("status") MatriculaStatus status);
+
+    @Query("select distinct m.aluno.id from Matricula m where m.turma.anoLetivo.id = :anoLetivoId " +
+            "and m.status = com.gestaoescolar.model.enums.MatriculaStatus.ATIVA")
+    List<Long> findAlunoIdsComMatriculaAtivaNoAno(@Param("anoLetivoId") Long anoLetivoId);
+
+    // Dashboard: matrículas ATIVAS agrupadas por série e turno da turma
+    @Query("select new com.gestaoescolar.dto.ContagemSerieTurnoDTO(t.serie, t.turno, count(m)) " +
+            "from Matricula m join m.turma t " +
+            "where m.status = com.gestaoescolar.model.enums.MatriculaStatus.ATIVA " +
+            "group by t.serie, t.turno")
+    List<ContagemSerieTurnoDTO> contarAtivasPorSerieETurno();
+
     // NOVOS MÉTODOS: bloqueio por ano letivo
     boolean existsByAlunoIdAndTurma_AnoLetivo_IdAndStatus(Long alunoId, Long anoLetivoId, MatriculaStatus status);
 
     @EntityGraph(attributePaths = {"turma"})
     Optional<Matricula> findFirstByAlunoIdAndTurma_AnoLetivo_IdAndStatusOrderByIdDesc(Long alunoId, Long anoLetivoId, MatriculaStatus status);
-}
\ No newline at end of file
+
+    // Matrículas ATIVAS de vários alunos na turma OU no ano letivo informado (exclusividade da matrícula em lote)
+    @Query("select new com.gestaoescolar.dto.MatriculaAtivaDTO(m.aluno.id, t.id, t.codigo, t.nomeTurma) " +
+            "from Matricula m join m.turma t " +
+            "where m.aluno.id in :alunoIds " +
+            "and m.status = com.gestaoescolar.model.enums.MatriculaStatus.ATIVA " +
+            "and (t.id = :turmaId or t.anoLetivo.id = :anoLetivoId) " +
+            "order by m.id desc")
+    List<MatriculaAtivaDTO> findAtivasByAlunoIdsNaTurmaOuAno(@Param("alunoIds") Collection<Long> alunoIds,
+                                                              @Param("turmaId") Long turmaId,
+                                                              @Param("anoLetivoId") Long anoLetivoId);
+
+    // Censo Escolar: alunos com matrícula ATIVA no ano, lidos por cursor (consumir dentro de uma transação e fechar o Stream)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.gestaoescolar.dto.CensoAlunoDTO(a.id, a.inep, a.nis, a.cpf, a.nomeCompleto, " +
+            "a.dataNascimento, a.genero, a.corRaca, a.docTipo, a.docNumero, a.cep, a.logradouro, a.numero, " +
+            "a.complemento, a.bairro, a.cidade, a.uf, m.id, m.dataInicio, t.codigo, t.serie, t.turno) " +
+            "from Matricula m join m.aluno a join m.turma t " +
+            "where t.anoLetivo.id = :anoLetivoId " +
+            "and m.status = com.gestaoescolar.model.enums.MatriculaStatus.ATIVA " +
+            "order by t.codigo, a.nomeCompleto, m.id")
+    Stream<CensoAlunoDTO> streamCensoAtivasNoAno(@Param("anoLetivoId") Long anoLetivoId);
+
+    long countByTurma_AnoLetivo_IdAndStatus(Long anoLetivoId, MatriculaStatus status);
+}
@@ -1,5 +1,8 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.ContagemPorFormacaoDTO;
+import com.gestaoescolar.dto.PessoaNomeDTO;
+import com.gestaoescolar.dto.ProfessorResumoDTO;
 import com.gestaoescolar.model.Professor;
 import com.gestaoescolar.model.enums.FormacaoAcademica;
 import com.gestaoescolar.model.enums.Genero;
@@ -27,6 +30,19 @@ public interface ProfessorRepository extends JpaRepository<Professor, Long> {
     // Verificar se existe professor com email
     boolean existsByEmail(String email);
 
+    // Listas de professores (grid e seleção): só as colunas exibidas; filtros nulos são ignorados
+    @Query("select new com.gestaoescolar.dto.ProfessorResumoDTO(p.id, p.nomeCompleto, p.cpf, p.email, p.telefone, p.formacao, p.ativo) " +
+            "from Professor p " +
+            "where (:nome is null or lower(p.nomeCompleto) like :nome) " +
+            "and (:cpf is null or p.cpf = :cpf) " +
+            "and (:ativo is null or p.ativo = :ativo) " +
+            "and (:formacao is null or p.formacao = :formacao) " +
+            "order by p.nomeCompleto")
+    List<ProfessorResumoDTO> listarResumos(@Param("nome") String nome,
+                                           @Param("cpf") String cpf,
+                                           @Param("ativo") Boolean ativo,
+                                           @Param("formacao") FormacaoAcademica formacao);
+
     // Buscar professores ativos
     List<Professor> findByAtivoTrue();
 
@@ -74,6 +90,18 @@ public interface ProfessorRepository extends JpaRepository<Professor, Long> {
     // Contar professores por formação
     long countByFormacao(FormacaoAcademica formacao);
 
+    // Professores ativos agrupados por formação (uma consulta para todas as formações)
+    @Query("SELECT new com.gestaoescolar.dto.ContagemPorFormacaoDTO(p.formacao, COUNT(p)) " +
+            "FROM Professor p WHERE p.ativo = true AND p.formacao IS NOT NULL GROUP BY p.formacao")
+    List<ContagemPorFormacaoDTO> contarAtivosPorFormacao();
+
+    // Nomes para o índice de busca de pessoas (BuscaPessoasService)
+    @Query("SELECT new com.gestaoescolar.dto.PessoaNomeDTO(p.id, p.nomeCompleto) FROM Professor p")
+    List<PessoaNomeDTO> listarNomes();
+
+    @Query("SELECT new com.gestaoescolar.dto.PessoaNomeDTO(p.id, p.nomeCompleto) FROM Professor p WHERE p.id = :id")
+    Optional<PessoaNomeDTO> buscarNomePorId(@Param("id") Long id);
+
     // Buscar professores ordenados por nome
     List<Professor> findAllByOrderByNomeCompleto();
 
@@ -1,9 +1,13 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.CargaHorariaDTO;
 import com.gestaoescolar.model.ProfessorTurmaDisciplina;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ProfessorTurmaDisciplinaRepository extends JpaRepository<ProfessorTurmaDisciplina, Long> {
@@ -13,4 +17,21 @@ public interface ProfessorTurmaDisciplinaRepository extends JpaRepository<Profes
 
     @EntityGraph(attributePaths = {"professor", "turmaDisciplina", "turmaDisciplina.turma"})
     List<ProfessorTurmaDisciplina> findByProfessorId(Long professorId);
-}
\ No newline at end of file
+
+    // Professores das ofertas de um ano letivo (geração do quadro de horários); só os ids são lidos
+    List<ProfessorTurmaDisciplina> findByTurmaDisciplinaIdIn(Collection<Long> turmaDisciplinaIds);
+
+    // Horas semanais por professor, ano letivo e turno em uma consulta (ofertas ativas de turmas ativas);
+    // oferta sem carga própria usa a carga da disciplina
+    @Query("select new com.gestaoescolar.dto.CargaHorariaDTO(ptd.professor.id, t.anoLetivo.id, t.turno, " +
+            "sum(coalesce(td.cargaHoraria, d.cargaHoraria, 0))) " +
+            "from ProfessorTurmaDisciplina ptd join ptd.turmaDisciplina td join td.disciplina d join td.turma t " +
+            "where td.ativa = true and t.ativa = true and t.anoLetivo is not null " +
+            "group by ptd.professor.id, t.anoLetivo.id, t.turno")
+    List<CargaHorariaDTO> somarCargaHoraria();
+
+    // Professores das ofertas ativas das turmas ativas do ano, com turma e disciplina
+    @Query("select ptd from ProfessorTurmaDisciplina ptd join fetch ptd.turmaDisciplina td join fetch td.turma t " +
+            "join fetch td.disciplina where t.anoLetivo.id = :anoLetivoId and t.ativa = true and td.ativa = true")
+    List<ProfessorTurmaDisciplina> findAtivasByAnoLetivoId(@Param("anoLetivoId") Long anoLetivoId);
+}
@@ -1,5 +1,6 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.ProfessorAtribuidoDTO;
 import com.gestaoescolar.dto.TurmaResumoDTO;
 import com.gestaoescolar.dto.VinculoProfessorTurmaDTO;
 import com.gestaoescolar.model.ProfessorTurma;
@@ -8,6 +9,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +29,55 @@ public interface ProfessorTurmaRepository extends JpaRepository<ProfessorTurma,
             "from ProfessorTurma pt join pt.turma t " +
             "where pt.professor.id = :profId")
     List<VinculoProfessorTurmaDTO> findVinculosResumoByProfessorId(@Param("profId") Long profId);
-}
\ No newline at end of file
+
+    // Resumo (nome do professor + papel) de várias turmas em uma única consulta — usado pela grid de turmas
+    @Query("select new com.gestaoescolar.dto.ProfessorAtribuidoDTO(pt.turma.id, p.nomeCompleto, pt.papel) " +
+            "from ProfessorTurma pt join pt.professor p " +
+            "where pt.turma.id in :turmaIds " +
+            "order by pt.turma.id, pt.id")
+    List<ProfessorAtribuidoDTO> findAtribuicoesResumoByTurmaIds(@Param("turmaIds") Collection<Long> turmaIds);
+
+    // Conflitos de período resolvidos no banco: dois períodos se sobrepõem quando cada um começa antes
+    // do fim do outro; data nula = período aberto naquela ponta. "ignorarId" exclui o vínculo em atualização.
+    @Query("select count(pt) > 0 from ProfessorTurma pt " +
+            "where pt.turma.id = :turmaId " +
+            "and pt.papel = com.gestaoescolar.model.ProfessorTurma$Papel.TITULAR " +
+            "and (:ignorarId is null or pt.id <> :ignorarId) " +
+            "and (pt.dataInicio is null or cast(:termino as LocalDate) is null or pt.dataInicio <= :termino) " +
+            "and (pt.dataTermino is null or cast(:inicio as LocalDate) is null or pt.dataTermino >= :inicio)")
+    boolean existeTitularNoPeriodo(@Param("turmaId") Long turmaId,
+                                   @Param("ignorarId") Long ignorarId,
+                                   @Param("inicio") LocalDate inicio,
+                                   @Param("termino") LocalDate termino);
+
+    // "disciplina" já normalizada (trim + minúsculas)
+    @Query("select count(pt) > 0 from ProfessorTurma pt " +
+            "where pt.professor.id = :professorId and pt.turma.id = :turmaId " +
+            "and lower(trim(pt.disciplina)) = :disciplina " +
+            "and (:ignorarId is null or pt.id <> :ignorarId) " +
+            "and (pt.dataInicio is null or cast(:termino as LocalDate) is null or pt.dataInicio <= :termino) " +
+            "and (pt.dataTermino is null or cast(:inicio as LocalDate) is null or pt.dataTermino >= :inicio)")
+    boolean existeDisciplinaNoPeriodo(@Param("professorId") Long professorId,
+                                      @Param("turmaId") Long turmaId,
+                                      @Param("disciplina") String disciplina,
+                                      @Param("ignorarId") Long ignorarId,
+                                      @Param("inicio") LocalDate inicio,
+                                      @Param("termino") LocalDate termino);
+
+    /**
+     * Vínculos que podem conflitar com uma atribuição em lote: titulares das turmas ainda vigentes
+     * a partir de "vigentesDesde" (null = todos) e vínculos já existentes entre os professores e as turmas.
+     */
+    @Query("select pt from ProfessorTurma pt " +
+            "where pt.turma.id in :turmaIds " +
+            "and ((pt.papel = com.gestaoescolar.model.ProfessorTurma$Papel.TITULAR " +
+            "      and (pt.dataTermino is null or cast(:vigentesDesde as LocalDate) is null or pt.dataTermino >= :vigentesDesde)) " +
+            "  or pt.professor.id in :professorIds)")
+    List<ProfessorTurma> findConflitosPossiveis(@Param("turmaIds") Collection<Long> turmaIds,
+                                                @Param("professorIds") Collection<Long> professorIds,
+                                                @Param("vigentesDesde") LocalDate vigentesDesde);
+
+    // Vínculos com as turmas ativas do ano letivo, com a turma carregada
+    @Query("select pt from ProfessorTurma pt join fetch pt.turma t where t.anoLetivo.id = :anoLetivoId and t.ativa = true")
+    List<ProfessorTurma> findByAnoLetivoId(@Param("anoLetivoId") Long anoLetivoId);
+}
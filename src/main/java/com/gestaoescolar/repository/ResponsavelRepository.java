@@ -1,11 +1,24 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.PessoaNomeDTO;
 import com.gestaoescolar.model.Responsavel;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ResponsavelRepository extends JpaRepository<Responsavel, Long> {
     Optional<Responsavel> findByCpf(String cpf);
     boolean existsByCpf(String cpf);
+    List<Responsavel> findByCpfIn(Collection<String> cpfs);
+
+    // Nomes para o índice de busca de pessoas (BuscaPessoasService)
+    @Query("select new com.gestaoescolar.dto.PessoaNomeDTO(r.id, r.nome) from Responsavel r")
+    List<PessoaNomeDTO> listarNomes();
+
+    @Query("select new com.gestaoescolar.dto.PessoaNomeDTO(r.id, r.nome) from Responsavel r where r.id = :id")
+    Optional<PessoaNomeDTO> buscarNomePorId(@Param("id") Long id);
 }
\ No newline at end of file
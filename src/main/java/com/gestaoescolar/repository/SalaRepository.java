@@ -0,0 +1,15 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.model.Sala;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SalaRepository extends JpaRepository<Sala, Long> {
+    List<Sala> findAllByOrderByCodigoAsc();
+    List<Sala> findByAtivaTrueOrderByCodigoAsc();
+    Optional<Sala> findByCodigo(String codigo);
+    boolean existsByCodigo(String codigo);
+    boolean existsByCodigoAndAtivaTrue(String codigo);
+}
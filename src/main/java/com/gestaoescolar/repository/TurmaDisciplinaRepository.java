@@ -4,6 +4,7 @@ import com.gestaoescolar.model.TurmaDisciplina;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface TurmaDisciplinaRepository extends JpaRepository<TurmaDisciplina, Long> {
@@ -15,4 +16,8 @@ public interface TurmaDisciplinaRepository extends JpaRepository<TurmaDisciplina
     List<TurmaDisciplina> findByDisciplinaId(Long disciplinaId);
     // NOVO: impedir inserir disciplina repetida na mesma turma
     boolean existsByTurmaIdAndDisciplinaId(Long turmaId, Long disciplinaId);
+
+    // Ofertas de várias turmas em uma consulta (cópia da estrutura na virada do ano letivo)
+    @EntityGraph(attributePaths = {"disciplina"})
+    List<TurmaDisciplina> findByTurmaIdIn(Collection<Long> turmaIds);
 }
\ No newline at end of file
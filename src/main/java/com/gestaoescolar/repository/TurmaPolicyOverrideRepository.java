@@ -3,10 +3,13 @@ package com.gestaoescolar.repository;
 import com.gestaoescolar.model.TurmaPolicyOverride;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface TurmaPolicyOverrideRepository extends JpaRepository<TurmaPolicyOverride, Long> {
     Optional<TurmaPolicyOverride> findByTurmaId(Long turmaId);
     void deleteByTurmaId(Long turmaId);
     boolean existsByTurmaId(Long turmaId);
+    List<TurmaPolicyOverride> findByTurmaIdIn(Collection<Long> turmaIds);
 }
\ No newline at end of file
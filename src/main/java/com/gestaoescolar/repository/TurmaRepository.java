@@ -1,11 +1,21 @@
 package com.gestaoescolar.repository;
 
+import com.gestaoescolar.dto.OcupacaoVagasDTO;
+import com.gestaoescolar.dto.TurmaSalaDTO;
 import com.gestaoescolar.model.Turma;
 import com.gestaoescolar.model.AnoLetivo;
 import com.gestaoescolar.model.enums.NivelEscolar;
 import com.gestaoescolar.model.enums.Serie;
 import com.gestaoescolar.model.enums.Turno;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -14,11 +24,16 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TurmaRepository extends JpaRepository<Turma, Long> {
+public interface TurmaRepository extends JpaRepository<Turma, Long>, JpaSpecificationExecutor<Turma> {
     // colocar ano letivo na grid
     @Query("SELECT t FROM Turma t JOIN FETCH t.anoLetivo")
     List<Turma> listarTodasComAnoLetivo();
 
+    // Busca filtrada/paginada (ver TurmaSpecifications); carrega o ano letivo junto para a grid
+    @Override
+    @EntityGraph(attributePaths = {"anoLetivo"})
+    Page<Turma> findAll(Specification<Turma> spec, Pageable pageable);
+
     // Buscar turmas por ano letivo
     List<Turma> findByAnoLetivo(AnoLetivo anoLetivo);
 
@@ -40,18 +55,94 @@ public interface TurmaRepository extends JpaRepository<Turma, Long> {
     // Buscar turma por código
     Optional<Turma> findByCodigo(String codigo);
 
+    boolean existsByCodigo(String codigo);
+
+    long countByAtivaTrue();
+
+    long countByAtivaTrueAndProfessorTitularIsNull();
+
+    // Dashboard: capacidade e vagas livres somadas das turmas ativas com capacidade definida
+    @Query("SELECT new com.gestaoescolar.dto.OcupacaoVagasDTO(SUM(t.capacidade), SUM(t.vagasDisponiveis)) " +
+            "FROM Turma t WHERE t.ativa = true AND t.capacidade IS NOT NULL")
+    OcupacaoVagasDTO somarOcupacaoVagas();
+
+    // Índice de ocupação de salas: turmas ativas com sala informada, sem carregar as entidades
+    @Query("SELECT new com.gestaoescolar.dto.TurmaSalaDTO(t.id, t.codigo, t.sala, t.turno, t.anoLetivo.id) " +
+            "FROM Turma t WHERE t.ativa = true AND t.sala IS NOT NULL")
+    List<TurmaSalaDTO> listarSalasOcupadas();
+
+    // Busca por prefixo do nome ou do código sem diferenciar maiúsculas: compara as colunas calculadas em
+    // maiúsculas (LIKE 'X%' usa idx_turma_nome_busca / idx_turma_codigo_busca). Uma consulta por coluna,
+    // cada uma já ordenada e limitada pelo Pageable: com OR o H2 lê a tabela inteira e com "id IN (união)"
+    // resolve o IN linha a linha. TurmaService junta as duas páginas.
+    @Query("SELECT t FROM Turma t JOIN FETCH t.anoLetivo " +
+            "WHERE t.nomeBusca LIKE :prefixoMaiusculo ESCAPE '\\' ORDER BY t.nomeTurma, t.id")
+    List<Turma> buscarPorPrefixoNome(@Param("prefixoMaiusculo") String prefixoMaiusculo, Pageable limite);
+
+    @Query("SELECT t FROM Turma t JOIN FETCH t.anoLetivo " +
+            "WHERE t.codigoBusca LIKE :prefixoMaiusculo ESCAPE '\\' ORDER BY t.nomeTurma, t.id")
+    List<Turma> buscarPorPrefixoCodigo(@Param("prefixoMaiusculo") String prefixoMaiusculo, Pageable limite);
+
     // Verificar se existe turma com mesmo nome/série/turno no mesmo ano
     boolean existsByAnoLetivoAndSerieAndNomeTurmaAndTurno(
             AnoLetivo anoLetivo, Serie serie, String nomeTurma, Turno turno);
 
-    // Buscar turmas com vagas disponíveis
-    @Query("SELECT t FROM Turma t WHERE t.vagasDisponiveis > 0 AND t.ativa = true")
+    // Buscar turmas com vagas disponíveis (sem capacidade definida = sem limite)
+    @Query("SELECT t FROM Turma t WHERE t.ativa = true AND (t.capacidade IS NULL OR t.vagasDisponiveis > 0)")
     List<Turma> findTurmasComVagas();
 
     // Buscar turmas com vagas por ano letivo
-    @Query("SELECT t FROM Turma t WHERE t.anoLetivo = :anoLetivo AND t.vagasDisponiveis > 0 AND t.ativa = true")
+    @Query("SELECT t FROM Turma t WHERE t.anoLetivo = :anoLetivo AND t.ativa = true " +
+            "AND (t.capacidade IS NULL OR t.vagasDisponiveis > 0)")
     List<Turma> findTurmasComVagasPorAnoLetivo(@Param("anoLetivo") AnoLetivo anoLetivo);
 
+    // ===== Contador de vagas (atualizações atômicas no banco) =====
+
+    // Ocupa uma vaga somente se houver vaga livre; retorna 0 quando a turma está lotada
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Turma t SET t.vagasDisponiveis = t.vagasDisponiveis - 1 " +
+            "WHERE t.id = :turmaId AND (t.capacidade IS NULL OR t.vagasDisponiveis > 0)")
+    int ocuparVaga(@Param("turmaId") Long turmaId);
+
+    // Ocupa várias vagas de uma vez (matrícula em lote); 0 se não houver vagas suficientes
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Turma t SET t.vagasDisponiveis = t.vagasDisponiveis - :quantidade " +
+            "WHERE t.id = :turmaId AND (t.capacidade IS NULL OR t.vagasDisponiveis >= :quantidade)")
+    int ocuparVagas(@Param("turmaId") Long turmaId, @Param("quantidade") int quantidade);
+
+    // Trava a turma até o fim da transação (leitura consistente do contador de vagas)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Turma> findForUpdateById(Long id);
+
+    // Devolve uma vaga (matrícula deixou de ser ATIVA), sem ultrapassar a capacidade
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Turma t SET t.vagasDisponiveis = t.vagasDisponiveis + 1 " +
+            "WHERE t.id = :turmaId AND t.capacidade IS NOT NULL AND t.vagasDisponiveis < t.capacidade")
+    int liberarVaga(@Param("turmaId") Long turmaId);
+
+    @Query("SELECT t.vagasDisponiveis FROM Turma t WHERE t.id = :turmaId")
+    Integer findVagasDisponiveisById(@Param("turmaId") Long turmaId);
+
+    // Recalcula o contador de uma turma a partir das matrículas ativas (ex.: após mudar a capacidade)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Turma t SET t.vagasDisponiveis = t.capacidade - " +
+            "(SELECT COUNT(m) FROM Matricula m WHERE m.turma.id = t.id " +
+            "AND m.status = com.gestaoescolar.model.enums.MatriculaStatus.ATIVA) " +
+            "WHERE t.id = :turmaId")
+    int recalcularVagas(@Param("turmaId") Long turmaId);
+
+    // Dados antigos: capacidade 0 (ou negativa) valia como "sem limite"; passa a null, como no resto do sistema
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Turma t SET t.capacidade = NULL, t.vagasDisponiveis = NULL WHERE t.capacidade <= 0")
+    int converterCapacidadeZeroEmSemLimite();
+
+    // Reconciliação geral: reconstrói todos os contadores a partir das matrículas ativas
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Turma t SET t.vagasDisponiveis = t.capacidade - " +
+            "(SELECT COUNT(m) FROM Matricula m WHERE m.turma.id = t.id " +
+            "AND m.status = com.gestaoescolar.model.enums.MatriculaStatus.ATIVA)")
+    int recalcularTodasAsVagas();
+
     // Contar turmas por ano letivo
     long countByAnoLetivo(AnoLetivo anoLetivo);
 
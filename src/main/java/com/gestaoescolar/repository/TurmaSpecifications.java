@@ -0,0 +1,65 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.dto.TurmaFiltro;
+import com.gestaoescolar.model.Turma;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Monta a consulta de turmas a partir do {@link TurmaFiltro}.
+ * A mesma Specification é usada na busca paginada e na contagem.
+ */
+public final class TurmaSpecifications {
+
+    // Caractere de escape dos padrões LIKE montados a partir do texto digitado (ver escaparLike)
+    public static final char ESCAPE_LIKE = '\\';
+
+    private TurmaSpecifications() {}
+
+    // "%" e "_" digitados valem como texto, não como curinga
+    public static String escaparLike(String texto) {
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    public static Specification<Turma> porFiltro(TurmaFiltro filtro) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filtro == null) {
+                return cb.conjunction();
+            }
+
+            if (filtro.getTexto() != null && !filtro.getTexto().isBlank()) {
+                String like = "%" + escaparLike(filtro.getTexto().trim().toLowerCase(Locale.ROOT)) + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(root.get("nomeTurma")), like, ESCAPE_LIKE),
+                        cb.like(cb.lower(root.get("codigo")), like, ESCAPE_LIKE)
+                ));
+            }
+            if (filtro.getAnoLetivo() != null) {
+                predicates.add(cb.equal(root.get("anoLetivo"), filtro.getAnoLetivo()));
+            }
+            if (filtro.getSerie() != null) {
+                predicates.add(cb.equal(root.get("serie"), filtro.getSerie()));
+            }
+            if (filtro.getTurno() != null) {
+                predicates.add(cb.equal(root.get("turno"), filtro.getTurno()));
+            }
+            if (filtro.getAtiva() != null) {
+                predicates.add(cb.equal(root.get("ativa"), filtro.getAtiva()));
+            }
+            if (filtro.isSomenteComVagas()) {
+                predicates.add(cb.isTrue(root.get("ativa")));
+                predicates.add(cb.or(
+                        cb.isNull(root.get("capacidade")),
+                        cb.greaterThan(root.get("vagasDisponiveis"), 0)
+                ));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
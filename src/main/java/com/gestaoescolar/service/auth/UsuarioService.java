@@ -3,6 +3,7 @@ package com.gestaoescolar.service.auth;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.model.enums.PerfilUsuario;
 import com.gestaoescolar.repository.UsuarioRepository;
+import com.gestaoescolar.util.DocumentoUtil;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -159,6 +160,11 @@ public class UsuarioService {
             throw new IllegalArgumentException("Email é obrigatório");
         }
 
+        usuario.setEmail(usuario.getEmail().trim());
+        if (!DocumentoUtil.emailValido(usuario.getEmail())) {
+            throw new IllegalArgumentException("Email inválido");
+        }
+
         if (usuarioRepository.existsByLogin(usuario.getLogin())) {
             throw new IllegalArgumentException("Já existe um usuário com este login");
         }
@@ -171,6 +177,11 @@ public class UsuarioService {
     private void validarAtualizacaoUsuario(Usuario usuarioExistente, Usuario dadosNovos, Usuario diretorLogado) {
         validarNaoAutoEdicao(usuarioExistente.getId(), diretorLogado, "editar");
 
+        if (dadosNovos.getEmail() == null || !DocumentoUtil.emailValido(dadosNovos.getEmail().trim())) {
+            throw new IllegalArgumentException("Email inválido");
+        }
+        dadosNovos.setEmail(dadosNovos.getEmail().trim());
+
         // Validar unicidade do login (se foi alterado)
         if (!usuarioExistente.getLogin().equals(dadosNovos.getLogin()) &&
                 usuarioRepository.existsByLogin(dadosNovos.getLogin())) {
@@ -0,0 +1,8 @@
+package com.gestaoescolar.service.escola;
+
+/**
+ * Publicado ao criar, alterar ou remover um vínculo professor-turma e ao regravar o quadro de horários.
+ * Depois do commit o SubstituicaoService descarta as agendas dos professores em memória.
+ */
+public class AgendaProfessoresAlteradaEvent {
+}
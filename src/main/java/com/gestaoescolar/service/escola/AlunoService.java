@@ -1,18 +1,35 @@
 package com.gestaoescolar.service.escola;
 
+import com.gestaoescolar.dto.AlunoFiltro;
+import com.gestaoescolar.dto.AlunoResumoDTO;
+import com.gestaoescolar.dto.PessoaNomeDTO;
 import com.gestaoescolar.model.Aluno;
 import com.gestaoescolar.model.AlunoResponsavel;
 import com.gestaoescolar.model.Responsavel;
 import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.TipoPessoa;
 import com.gestaoescolar.repository.AlunoRepository;
 import com.gestaoescolar.repository.AlunoResponsavelRepository;
+import com.gestaoescolar.repository.AlunoSpecifications;
 import com.gestaoescolar.repository.ResponsavelRepository;
+import com.gestaoescolar.util.DocumentoUtil;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class AlunoService {
@@ -20,13 +37,33 @@ public class AlunoService {
     private final AlunoRepository alunoRepository;
     private final ResponsavelRepository responsavelRepository;
     private final AlunoResponsavelRepository alunoResponsavelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResponsavelCache responsavelCache;
 
     public AlunoService(AlunoRepository alunoRepository,
                         ResponsavelRepository responsavelRepository,
-                        AlunoResponsavelRepository alunoResponsavelRepository) {
+                        AlunoResponsavelRepository alunoResponsavelRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        ResponsavelCache responsavelCache) {
         this.alunoRepository = alunoRepository;
         this.responsavelRepository = responsavelRepository;
         this.alunoResponsavelRepository = alunoResponsavelRepository;
+        this.eventPublisher = eventPublisher;
+        this.responsavelCache = responsavelCache;
+    }
+
+    private void alunosAlterados() {
+        eventPublisher.publishEvent(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.ALUNOS));
+    }
+
+    // Reindexa o nome na busca de pessoas depois do commit
+    private void pessoaAlterada(TipoPessoa tipo, Long id) {
+        eventPublisher.publishEvent(new PessoaAlteradaEvent(tipo, id));
+    }
+
+    // Fichas em cache desses alunos deixam de valer depois do commit
+    private void fichasAlteradas(Collection<Long> alunoIds) {
+        eventPublisher.publishEvent(new FichaAlunoAlteradaEvent(alunoIds));
     }
 
     // ===== Permissão =====
@@ -44,7 +81,10 @@ public class AlunoService {
         normalizeStudentFields(novo);
         validateStudent(novo, true);
         novo.setAtivo(true);
-        return alunoRepository.save(novo);
+        alunosAlterados();
+        Aluno salvo = alunoRepository.save(novo);
+        pessoaAlterada(TipoPessoa.ALUNO, salvo.getId());
+        return salvo;
     }
 
     @Transactional
@@ -91,7 +131,10 @@ public class AlunoService {
 
         existente.setObservacoes(dados.getObservacoes());
 
-        return alunoRepository.save(existente);
+        Aluno salvo = alunoRepository.save(existente);
+        pessoaAlterada(TipoPessoa.ALUNO, id);
+        fichasAlteradas(List.of(id));
+        return salvo;
     }
 
     public List<Aluno> listStudents(Usuario usuario) {
@@ -99,14 +142,41 @@ public class AlunoService {
         return alunoRepository.findAllByOrderByNomeCompletoAsc();
     }
 
+    // Busca filtrada e paginada (grid preguiçosa), só com as colunas da lista; a contagem usa a mesma Specification
+    public List<AlunoResumoDTO> searchStudents(AlunoFiltro filtro, Pageable pageable, Usuario usuario) {
+        requireAdmin(usuario);
+        return alunoRepository.buscarResumos(AlunoSpecifications.porFiltro(filtro), comOrdenacaoPadrao(pageable));
+    }
+
+    public long countStudents(AlunoFiltro filtro, Usuario usuario) {
+        requireAdmin(usuario);
+        return alunoRepository.count(AlunoSpecifications.porFiltro(filtro));
+    }
+
+    // Sem ordenação escolhida na grid: por nome. O id no fim deixa a paginação estável
+    private Pageable comOrdenacaoPadrao(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        Sort sort = pageable.getSort().isSorted()
+                ? pageable.getSort().and(Sort.by("id"))
+                : Sort.by("nomeCompleto", "id");
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
     public List<Aluno> searchStudentsByName(String nome, Usuario usuario) {
         requireAdmin(usuario);
         return alunoRepository.findByNomeCompletoContainingIgnoreCase(nome);
     }
 
+    public Aluno findStudentById(Long id, Usuario usuario) {
+        requireAdmin(usuario);
+        return alunoRepository.findById(id).orElse(null);
+    }
+
     public Aluno findStudentByCpf(String cpf, Usuario usuario) {
         requireAdmin(usuario);
-        String normalized = normalizeDigits(cpf);
+        String normalized = DocumentoUtil.somenteDigitos(cpf);
         return alunoRepository.findByCpf(normalized).orElse(null);
     }
 
@@ -116,6 +186,8 @@ public class AlunoService {
         Aluno a = alunoRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
         a.setAtivo(false);
         alunoRepository.save(a);
+        alunosAlterados();
+        fichasAlteradas(List.of(id));
     }
 
     @Transactional
@@ -124,9 +196,19 @@ public class AlunoService {
         Aluno a = alunoRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
         a.setAtivo(true);
         alunoRepository.save(a);
+        alunosAlterados();
+        fichasAlteradas(List.of(id));
     }
 
     private void validateStudent(Aluno a, boolean creating) {
+        validateStudentFields(a);
+        if (creating && a.getCpf() != null && !a.getCpf().isBlank() && alunoRepository.existsByCpf(a.getCpf())) {
+            throw new IllegalArgumentException("Já existe um aluno com este CPF");
+        }
+    }
+
+    // Validações que não consultam o banco (usadas também na importação em lote, em paralelo)
+    void validateStudentFields(Aluno a) {
         if (a.getNomeCompleto() == null || a.getNomeCompleto().isBlank()) {
             throw new IllegalArgumentException("Nome completo é obrigatório");
         }
@@ -137,48 +219,94 @@ public class AlunoService {
             throw new IllegalArgumentException("Data de nascimento inválida");
         }
         if (a.getCpf() != null && !a.getCpf().isBlank()) {
-            if (!isValidCpf(a.getCpf())) {
+            if (!DocumentoUtil.cpfValido(a.getCpf())) {
                 throw new IllegalArgumentException("CPF do aluno inválido");
             }
-            if (creating && alunoRepository.existsByCpf(a.getCpf())) {
-                throw new IllegalArgumentException("Já existe um aluno com este CPF");
-            }
         }
-        if (a.getCep() != null && !a.getCep().isBlank() && !isValidCep(a.getCep())) {
+        if (a.getNis() != null && !a.getNis().isBlank() && !DocumentoUtil.nisValido(a.getNis())) {
+            throw new IllegalArgumentException("NIS inválido");
+        }
+        if (a.getInep() != null && !a.getInep().isBlank() && !DocumentoUtil.inepAlunoValido(a.getInep())) {
+            throw new IllegalArgumentException("Código INEP do aluno inválido (12 dígitos)");
+        }
+        if (a.getCep() != null && !a.getCep().isBlank() && !DocumentoUtil.cepValido(a.getCep())) {
             throw new IllegalArgumentException("CEP inválido");
         }
-        if (a.getTelefone() != null && !a.getTelefone().isBlank() && !isValidPhone(a.getTelefone())) {
+        if (a.getTelefone() != null && !a.getTelefone().isBlank() && !DocumentoUtil.telefoneValido(a.getTelefone())) {
             throw new IllegalArgumentException("Telefone inválido");
         }
-        if (a.getEmail() != null && !a.getEmail().isBlank() && !isValidEmail(a.getEmail())) {
+        if (a.getEmail() != null && !a.getEmail().isBlank() && !DocumentoUtil.emailValido(a.getEmail())) {
             throw new IllegalArgumentException("E-mail inválido");
         }
     }
 
-    private void normalizeStudentFields(Aluno a) {
-        a.setCpf(normalizeDigits(a.getCpf()));
-        a.setCep(normalizeDigits(a.getCep()));
-        a.setTelefone(normalizeDigits(a.getTelefone()));
+    void normalizeStudentFields(Aluno a) {
+        a.setCpf(DocumentoUtil.somenteDigitos(a.getCpf()));
+        a.setNis(DocumentoUtil.somenteDigitos(a.getNis()));
+        a.setInep(DocumentoUtil.somenteDigitos(a.getInep()));
+        a.setCep(DocumentoUtil.somenteDigitos(a.getCep()));
+        a.setTelefone(DocumentoUtil.somenteDigitos(a.getTelefone()));
         // docNumero pode conter letras (certidão), não normalizamos
         if (a.getEmail() != null) a.setEmail(a.getEmail().trim());
     }
 
     // ===== Responsáveis =====
 
+    // Responsável já cadastrado com o CPF (preenchimento automático); consulta o banco só se não estiver no cache
+    public Optional<Responsavel> findGuardianByCpf(String cpf, Usuario usuario) {
+        requireAdmin(usuario);
+        String digitos = DocumentoUtil.somenteDigitos(cpf);
+        if (!DocumentoUtil.cpfValido(digitos)) {
+            return Optional.empty();
+        }
+        Optional<Responsavel> emCache = responsavelCache.buscar(digitos);
+        if (emCache.isPresent()) {
+            return emCache;
+        }
+        Optional<Responsavel> doBanco = responsavelRepository.findByCpf(digitos);
+        doBanco.ifPresent(responsavelCache::guardar);
+        return doBanco;
+    }
+
+    public Responsavel findGuardianById(Long id, Usuario usuario) {
+        requireAdmin(usuario);
+        return responsavelRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Responsável não encontrado"));
+    }
+
     @Transactional
     public Responsavel upsertGuardianByCpf(Responsavel data, Usuario usuario) {
         requireAdmin(usuario);
-        // Normaliza primeiro
-        data.setCpf(normalizeDigits(data.getCpf()));
-        data.setTelefone1(normalizeDigits(data.getTelefone1()));
-        data.setTelefone2(normalizeDigits(data.getTelefone2()));
+        normalizeAndValidateGuardian(data);
+
+        Responsavel salvo = responsavelRepository.findByCpf(data.getCpf())
+                .map(existing -> {
+                    existing.setNome(data.getNome());
+                    existing.setParentesco(data.getParentesco());
+                    existing.setRg(data.getRg());
+                    existing.setTelefone1(data.getTelefone1());
+                    existing.setTelefone2(data.getTelefone2());
+                    existing.setEmail(data.getEmail());
+                    existing.setDocGuarda(data.getDocGuarda());
+                    return responsavelRepository.save(existing);
+                })
+                .orElseGet(() -> responsavelRepository.save(data));
+        pessoaAlterada(TipoPessoa.RESPONSAVEL, salvo.getId());
+        return salvo;
+    }
+
+    // Normaliza e valida os dados do responsável sem consultar o banco
+    void normalizeAndValidateGuardian(Responsavel data) {
+        data.setCpf(DocumentoUtil.somenteDigitos(data.getCpf()));
+        data.setTelefone1(DocumentoUtil.somenteDigitos(data.getTelefone1()));
+        data.setTelefone2(DocumentoUtil.somenteDigitos(data.getTelefone2()));
         if (data.getEmail() != null) data.setEmail(data.getEmail().trim());
 
         // Valida
         if (data.getCpf() == null || data.getCpf().isBlank()) {
             throw new IllegalArgumentException("CPF do responsável é obrigatório");
         }
-        if (!isValidCpf(data.getCpf())) {
+        if (!DocumentoUtil.cpfValido(data.getCpf())) {
             throw new IllegalArgumentException("CPF do responsável inválido");
         }
         if (data.getNome() == null || data.getNome().isBlank()) {
@@ -187,28 +315,15 @@ public class AlunoService {
         if (data.getParentesco() == null || data.getParentesco().isBlank()) {
             throw new IllegalArgumentException("Parentesco é obrigatório");
         }
-        if (data.getTelefone1() != null && !data.getTelefone1().isBlank() && !isValidPhone(data.getTelefone1())) {
+        if (data.getTelefone1() != null && !data.getTelefone1().isBlank() && !DocumentoUtil.telefoneValido(data.getTelefone1())) {
             throw new IllegalArgumentException("Telefone 1 do responsável inválido");
         }
-        if (data.getTelefone2() != null && !data.getTelefone2().isBlank() && !isValidPhone(data.getTelefone2())) {
+        if (data.getTelefone2() != null && !data.getTelefone2().isBlank() && !DocumentoUtil.telefoneValido(data.getTelefone2())) {
             throw new IllegalArgumentException("Telefone 2 do responsável inválido");
         }
-        if (data.getEmail() != null && !data.getEmail().isBlank() && !isValidEmail(data.getEmail())) {
+        if (data.getEmail() != null && !data.getEmail().isBlank() && !DocumentoUtil.emailValido(data.getEmail())) {
             throw new IllegalArgumentException("E-mail do responsável inválido");
         }
-
-        return responsavelRepository.findByCpf(data.getCpf())
-                .map(existing -> {
-                    existing.setNome(data.getNome());
-                    existing.setParentesco(data.getParentesco());
-                    existing.setRg(data.getRg());
-                    existing.setTelefone1(data.getTelefone1());
-                    existing.setTelefone2(data.getTelefone2());
-                    existing.setEmail(data.getEmail());
-                    existing.setDocGuarda(data.getDocGuarda());
-                    return responsavelRepository.save(existing);
-                })
-                .orElseGet(() -> responsavelRepository.save(data));
     }
 
     @Transactional
@@ -218,31 +333,60 @@ public class AlunoService {
                                boolean financeiro,
                                boolean legal,
                                Usuario usuario) {
+        attachGuardianToStudents(List.of(alunoId), guardianData, didatico, financeiro, legal, usuario);
+    }
+
+    // Vincula o mesmo responsável a vários alunos (ex.: irmãos) com os mesmos papéis.
+    // O responsável é validado e gravado uma vez; os vínculos existentes vêm de uma única consulta.
+    @Transactional
+    public void attachGuardianToStudents(Collection<Long> alunoIds,
+                                         Responsavel guardianData,
+                                         boolean didatico,
+                                         boolean financeiro,
+                                         boolean legal,
+                                         Usuario usuario) {
         requireAdmin(usuario);
-        Aluno aluno = alunoRepository.findById(alunoId)
-                .orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
+        Set<Long> ids = new LinkedHashSet<>();
+        if (alunoIds != null) {
+            alunoIds.stream().filter(Objects::nonNull).forEach(ids::add);
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("Selecione ao menos um aluno");
+        }
 
         Responsavel responsavel = upsertGuardianByCpf(guardianData, usuario);
 
-        var existingLinkOpt = alunoResponsavelRepository.findByAlunoIdAndResponsavelId(alunoId, responsavel.getId());
-        if (existingLinkOpt.isPresent()) {
-            AlunoResponsavel link = existingLinkOpt.get();
+        Map<Long, AlunoResponsavel> existentes = new HashMap<>();
+        for (AlunoResponsavel link : alunoResponsavelRepository.findByResponsavelIdAndAlunoIdIn(responsavel.getId(), ids)) {
+            existentes.put(link.getAluno().getId(), link);
+        }
+        List<Long> semVinculo = ids.stream().filter(id -> !existentes.containsKey(id)).toList();
+        List<Aluno> alunos = semVinculo.isEmpty() ? List.of() : alunoRepository.findAllById(semVinculo);
+        if (alunos.size() != semVinculo.size()) {
+            throw new IllegalArgumentException("Aluno não encontrado");
+        }
+
+        List<AlunoResponsavel> links = new ArrayList<>(existentes.values());
+        for (Aluno aluno : alunos) {
+            AlunoResponsavel link = new AlunoResponsavel();
+            link.setAluno(aluno);
+            link.setResponsavel(responsavel);
+            links.add(link);
+        }
+        for (AlunoResponsavel link : links) {
             link.setAtivo(true);
             link.setResponsavelDidatico(didatico);
             link.setResponsavelFinanceiro(financeiro);
             link.setResponsavelLegal(legal);
-            alunoResponsavelRepository.save(link);
-            return;
         }
+        alunoResponsavelRepository.saveAll(links);
+        fichasAlteradas(ids);
+    }
 
-        AlunoResponsavel link = new AlunoResponsavel();
-        link.setAluno(aluno);
-        link.setResponsavel(responsavel);
-        link.setResponsavelDidatico(didatico);
-        link.setResponsavelFinanceiro(financeiro);
-        link.setResponsavelLegal(legal);
-        link.setAtivo(true);
-        alunoResponsavelRepository.save(link);
+    // Outros alunos que compartilham algum responsável ativo com o aluno
+    public List<PessoaNomeDTO> listSiblings(Long alunoId, Usuario usuario) {
+        requireAdmin(usuario);
+        return alunoResponsavelRepository.findIrmaos(alunoId);
     }
 
     @Transactional
@@ -253,59 +397,11 @@ public class AlunoService {
             throw new IllegalArgumentException("Vínculo não encontrado");
         }
         alunoResponsavelRepository.delete(linkOpt.get());
+        fichasAlteradas(List.of(alunoId));
     }
 
     public List<AlunoResponsavel> listActiveGuardians(Long alunoId, Usuario usuario) {
         requireAdmin(usuario);
         return alunoResponsavelRepository.findByAlunoIdAndAtivoTrue(alunoId);
     }
-
-    // ===== Helpers: normalização e validação =====
-
-    private String normalizeDigits(String s) {
-        if (s == null) return null;
-        String d = s.replaceAll("\\D", "");
-        return d.isEmpty() ? null : d;
-    }
-
-    private boolean isValidCpf(String cpf) {
-        if (cpf == null) return false;
-        String d = cpf.replaceAll("\\D", "");
-        if (d.length() != 11) return false;
-        if (d.chars().distinct().count() == 1) return false; // evita 000... ou 111...
-        try {
-            int sum = 0;
-            for (int i = 0; i < 9; i++) sum += (d.charAt(i) - '0') * (10 - i);
-            int r = 11 - (sum % 11);
-            int dv1 = (r == 10 || r == 11) ? 0 : r;
-            if (dv1 != (d.charAt(9) - '0')) return false;
-
-            sum = 0;
-            for (int i = 0; i < 10; i++) sum += (d.charAt(i) - '0') * (11 - i);
-            r = 11 - (sum % 11);
-            int dv2 = (r == 10 || r == 11) ? 0 : r;
-            return dv2 == (d.charAt(10) - '0');
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private boolean isValidCep(String cep) {
-        if (cep == null) return false;
-        String d = cep.replaceAll("\\D", "");
-        return d.length() == 8;
-    }
-
-    private boolean isValidPhone(String phone) {
-        if (phone == null) return false;
-        String d = phone.replaceAll("\\D", "");
-        return d.length() == 10 || d.length() == 11;
-    }
-
-    private static final Pattern EMAIL_PATTERN =
-            Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
-
-    private boolean isValidEmail(String email) {
-        return EMAIL_PATTERN.matcher(email).matches();
-    }
 }
\ No newline at end of file
@@ -0,0 +1,327 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.MatriculaLoteResultadoDTO;
+import com.gestaoescolar.dto.RolloverProgressoDTO;
+import com.gestaoescolar.dto.RolloverResultadoDTO;
+import com.gestaoescolar.model.AcademicPeriod;
+import com.gestaoescolar.model.AcademicPolicy;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Sala;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.TurmaDisciplina;
+import com.gestaoescolar.model.TurmaPolicyOverride;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.MatriculaStatus;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.SerieHelper;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.AcademicPolicyRepository;
+import com.gestaoescolar.repository.AnoLetivoRepository;
+import com.gestaoescolar.repository.MatriculaRepository;
+import com.gestaoescolar.repository.TurmaDisciplinaRepository;
+import com.gestaoescolar.repository.TurmaPolicyOverrideRepository;
+import com.gestaoescolar.repository.TurmaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Virada de ano letivo: leva a estrutura de um ano para o seguinte e promove os alunos.
+ * <ol>
+ *     <li>copia a política acadêmica (com os períodos deslocados para o novo ano);</li>
+ *     <li>clona as turmas ativas (código regenerado para o novo ano), com ofertas de disciplinas
+ *     e configuração de avaliação da turma;</li>
+ *     <li>matricula cada aluno com matrícula CONCLUIDA na turma da série seguinte
+ *     (mesmo nome e turno), usando a matrícula em lote.</li>
+ * </ol>
+ * Cada lote roda em sua própria transação e as etapas pulam o que já existe no ano de destino,
+ * então uma virada interrompida pode ser executada novamente e continua de onde parou.
+ */
+@Service
+public class AnoLetivoRolloverService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnoLetivoRolloverService.class);
+
+    // Turmas clonadas por transação
+    private static final int LOTE_TURMAS = 50;
+
+    private final AnoLetivoRepository anoLetivoRepository;
+    private final TurmaRepository turmaRepository;
+    private final TurmaDisciplinaRepository turmaDisciplinaRepository;
+    private final TurmaPolicyOverrideRepository turmaOverrideRepository;
+    private final AcademicPolicyRepository policyRepository;
+    private final MatriculaRepository matriculaRepository;
+    private final EnrollmentService enrollmentService;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OcupacaoSalas ocupacaoSalas;
+
+    // A virada percorre todas as turmas e matrículas do ano: roda fora do thread da tela, uma de cada vez
+    private final ExecutorService viradas = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "virada-ano-letivo");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public AnoLetivoRolloverService(AnoLetivoRepository anoLetivoRepository,
+                                    TurmaRepository turmaRepository,
+                                    TurmaDisciplinaRepository turmaDisciplinaRepository,
+                                    TurmaPolicyOverrideRepository turmaOverrideRepository,
+                                    AcademicPolicyRepository policyRepository,
+                                    MatriculaRepository matriculaRepository,
+                                    EnrollmentService enrollmentService,
+                                    PlatformTransactionManager transactionManager,
+                                    ApplicationEventPublisher eventPublisher,
+                                    OcupacaoSalas ocupacaoSalas) {
+        this.anoLetivoRepository = anoLetivoRepository;
+        this.turmaRepository = turmaRepository;
+        this.turmaDisciplinaRepository = turmaDisciplinaRepository;
+        this.turmaOverrideRepository = turmaOverrideRepository;
+        this.policyRepository = policyRepository;
+        this.matriculaRepository = matriculaRepository;
+        this.enrollmentService = enrollmentService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.ocupacaoSalas = ocupacaoSalas;
+    }
+
+    /**
+     * Valida e enfileira a virada; o resultado (ou o erro) chega pelo future, fora do thread de quem
+     * chamou. Acesso e anos inválidos são recusados na hora.
+     *
+     * @param progresso opcional; chamado (no thread da virada) ao fim de cada lote
+     */
+    public CompletableFuture<RolloverResultadoDTO> iniciarVirada(Long anoOrigemId, Long anoDestinoId, Usuario usuario,
+                                                                 Consumer<RolloverProgressoDTO> progresso) {
+        AnoLetivo[] anos = validar(anoOrigemId, anoDestinoId, usuario);
+        return CompletableFuture.supplyAsync(() -> executar(anos[0], anos[1], usuario, progresso), viradas);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        viradas.shutdownNow();
+    }
+
+    /**
+     * Executa a virada do ano de origem para o de destino no thread de quem chamou.
+     *
+     * @param progresso opcional; chamado ao fim de cada lote (também registrado em log)
+     */
+    public RolloverResultadoDTO executarVirada(Long anoOrigemId, Long anoDestinoId, Usuario usuario,
+                                               Consumer<RolloverProgressoDTO> progresso) {
+        AnoLetivo[] anos = validar(anoOrigemId, anoDestinoId, usuario);
+        return executar(anos[0], anos[1], usuario, progresso);
+    }
+
+    // Origem e destino, nessa ordem
+    private AnoLetivo[] validar(Long anoOrigemId, Long anoDestinoId, Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+        AnoLetivo origem = anoLetivoRepository.findById(anoOrigemId)
+                .orElseThrow(() -> new IllegalArgumentException("Ano letivo de origem não encontrado."));
+        AnoLetivo destino = anoLetivoRepository.findById(anoDestinoId)
+                .orElseThrow(() -> new IllegalArgumentException("Ano letivo de destino não encontrado."));
+        if (origem.getAno() >= destino.getAno()) {
+            throw new IllegalArgumentException("O ano de destino deve ser posterior ao ano de origem.");
+        }
+        return new AnoLetivo[]{origem, destino};
+    }
+
+    private RolloverResultadoDTO executar(AnoLetivo origem, AnoLetivo destino, Usuario usuario,
+                                          Consumer<RolloverProgressoDTO> progresso) {
+        RolloverResultadoDTO resultado = new RolloverResultadoDTO();
+        copiarPolitica(origem, destino, resultado);
+        Map<String, Turma> turmasDestino = clonarTurmas(origem, destino, resultado, progresso);
+        if (resultado.getTurmasCriadas() > 0) {
+            eventPublisher.publishEvent(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.TURMAS));
+        }
+        promoverAlunos(origem, destino, turmasDestino, usuario, resultado, progresso);
+        return resultado;
+    }
+
+    // ===================== Etapa 1: política acadêmica =====================
+
+    private void copiarPolitica(AnoLetivo origem, AnoLetivo destino, RolloverResultadoDTO resultado) {
+        tx.executeWithoutResult(status -> {
+            if (policyRepository.findByAnoLetivoId(destino.getId()).isPresent()) {
+                return; // já configurada (ou copiada numa execução anterior)
+            }
+            policyRepository.findByAnoLetivoId(origem.getId()).ifPresent(base -> {
+                long anos = destino.getAno() - origem.getAno();
+                AcademicPolicy p = new AcademicPolicy();
+                p.setAnoLetivo(destino);
+                p.setPeriodType(base.getPeriodType());
+                p.setTotalPeriods(base.getTotalPeriods());
+                p.setEvaluationScaleType(base.getEvaluationScaleType());
+                p.setConceptLabels(base.getConceptLabels());
+                p.setScaleMin(base.getScaleMin());
+                p.setScaleMax(base.getScaleMax());
+                p.setDecimalPrecision(base.getDecimalPrecision());
+                p.setRoundingMode(base.getRoundingMode());
+                p.setMinAverageForApproval(base.getMinAverageForApproval());
+                p.setMinAttendancePercent(base.getMinAttendancePercent());
+                p.setEvaluationWeighting(base.getEvaluationWeighting());
+                p.setTotalPointsPerPeriod(base.getTotalPointsPerPeriod());
+                p.setRecoveryRule(base.getRecoveryRule());
+                for (AcademicPeriod bp : base.getPeriods()) {
+                    AcademicPeriod np = new AcademicPeriod();
+                    np.setPolicy(p);
+                    np.setIndexNumber(bp.getIndexNumber());
+                    np.setName(bp.getName());
+                    np.setStartDate(deslocar(bp.getStartDate(), anos));
+                    np.setEndDate(deslocar(bp.getEndDate(), anos));
+                    p.getPeriods().add(np);
+                }
+                policyRepository.save(p);
+                resultado.setPoliticaCopiada(true);
+            });
+        });
+    }
+
+    private LocalDate deslocar(LocalDate data, long anos) {
+        return data != null ? data.plusYears(anos) : null;
+    }
+
+    // ===================== Etapa 2: turmas e ofertas =====================
+
+    private Map<String, Turma> clonarTurmas(AnoLetivo origem, AnoLetivo destino, RolloverResultadoDTO resultado,
+                                            Consumer<RolloverProgressoDTO> progresso) {
+        List<Turma> turmasOrigem = turmaRepository.findByAnoLetivo(origem).stream()
+                .filter(Turma::isAtiva)
+                .sorted(Comparator.comparing(Turma::getId))
+                .toList();
+        Map<String, Turma> turmasDestino = turmaRepository.findByAnoLetivo(destino).stream()
+                .collect(Collectors.toMap(t -> chave(t.getSerie(), t.getNomeTurma(), t.getTurno()), t -> t, (a, b) -> a));
+
+        int total = turmasOrigem.size();
+        for (int i = 0; i < total; i += LOTE_TURMAS) {
+            List<Turma> lote = turmasOrigem.subList(i, Math.min(i + LOTE_TURMAS, total));
+            List<Turma> criadas = tx.execute(status -> clonarLote(lote, destino, turmasDestino, resultado));
+            // Só entram no mapa depois do commit do lote; se ele falhar, a próxima execução refaz o lote
+            criadas.forEach(c -> turmasDestino.put(chave(c.getSerie(), c.getNomeTurma(), c.getTurno()), c));
+            notificar(progresso, new RolloverProgressoDTO("Turmas", Math.min(i + LOTE_TURMAS, total), total));
+        }
+        return turmasDestino;
+    }
+
+    private List<Turma> clonarLote(List<Turma> lote, AnoLetivo destino, Map<String, Turma> turmasDestino,
+                            RolloverResultadoDTO resultado) {
+        Map<Long, Turma> novas = new HashMap<>(); // id da turma de origem -> clone
+        for (Turma t : lote) {
+            String chave = chave(t.getSerie(), t.getNomeTurma(), t.getTurno());
+            if (turmasDestino.containsKey(chave)) {
+                resultado.addTurmasExistentes(1);
+                continue;
+            }
+            Turma clone = new Turma(t.getNomeTurma(), t.getSerie(), t.getTurno(), destino);
+            clone.setCapacidade(t.getCapacidade());
+            // Sala já tomada no ano de destino: o clone fica sem sala e a escolha volta para a secretaria
+            if (ocupacaoSalas.ocupante(t.getSala(), t.getTurno(), destino.getId(), null).isEmpty()) {
+                clone.setSala(Sala.normalizarCodigo(t.getSala()));
+            }
+            Turma salvo = turmaRepository.save(clone);
+            ocupacaoSalas.reservar(salvo);
+            novas.put(t.getId(), salvo);
+        }
+        if (novas.isEmpty()) {
+            return List.of();
+        }
+
+        // Ofertas de disciplinas: uma consulta para o lote inteiro
+        List<TurmaDisciplina> ofertas = new ArrayList<>();
+        for (TurmaDisciplina td : turmaDisciplinaRepository.findByTurmaIdIn(novas.keySet())) {
+            TurmaDisciplina nova = new TurmaDisciplina();
+            nova.setTurma(novas.get(td.getTurma().getId()));
+            nova.setDisciplina(td.getDisciplina());
+            nova.setCargaHoraria(td.getCargaHoraria());
+            nova.setAtiva(td.isAtiva());
+            ofertas.add(nova);
+        }
+        turmaDisciplinaRepository.saveAll(ofertas);
+
+        // Escala de avaliação específica da turma, quando houver
+        List<TurmaPolicyOverride> overrides = new ArrayList<>();
+        for (TurmaPolicyOverride o : turmaOverrideRepository.findByTurmaIdIn(novas.keySet())) {
+            TurmaPolicyOverride novo = new TurmaPolicyOverride();
+            novo.setTurma(novas.get(o.getTurma().getId()));
+            novo.setEvaluationScaleType(o.getEvaluationScaleType());
+            novo.setConceptLabels(o.getConceptLabels());
+            overrides.add(novo);
+        }
+        turmaOverrideRepository.saveAll(overrides);
+
+        resultado.addTurmasCriadas(novas.size());
+        resultado.addOfertasCopiadas(ofertas.size());
+        return new ArrayList<>(novas.values());
+    }
+
+    // ===================== Etapa 3: promoção dos alunos =====================
+
+    private void promoverAlunos(AnoLetivo origem, AnoLetivo destino, Map<String, Turma> turmasDestino, Usuario usuario,
+                                RolloverResultadoDTO resultado, Consumer<RolloverProgressoDTO> progresso) {
+        List<Turma> turmasOrigem = turmaRepository.findByAnoLetivo(origem).stream()
+                .sorted(Comparator.comparing(Turma::getId))
+                .toList();
+        // Quem já tem matrícula ativa no destino (execução anterior ou matrícula manual) não entra de novo
+        Set<Long> jaMatriculados = new HashSet<>(matriculaRepository.findAlunoIdsComMatriculaAtivaNoAno(destino.getId()));
+
+        int total = turmasOrigem.size();
+        int feitos = 0;
+        for (Turma t : turmasOrigem) {
+            List<Long> concluidos = matriculaRepository.findAlunoIdsByTurmaIdAndStatus(t.getId(), MatriculaStatus.CONCLUIDA);
+            List<Long> pendentes = concluidos.stream().filter(id -> !jaMatriculados.contains(id)).toList();
+            resultado.addAlunosJaMatriculados(concluidos.size() - pendentes.size());
+
+            if (!pendentes.isEmpty()) {
+                Serie proxima = SerieHelper.getProximaSerie(t.getSerie());
+                Turma alvo = proxima != null ? turmasDestino.get(chave(proxima, t.getNomeTurma(), t.getTurno())) : null;
+                if (proxima == null) {
+                    resultado.addAlunosConcluintes(pendentes.size());
+                } else if (alvo == null) {
+                    resultado.addAlunosSemTurmaDestino(pendentes.size());
+                } else {
+                    // Uma transação por turma de origem (matrícula em lote)
+                    for (MatriculaLoteResultadoDTO r : enrollmentService.enrollStudents(
+                            alvo.getId(), pendentes, destino.getDataInicio(), usuario)) {
+                        if (r.isMatriculado()) {
+                            resultado.addAlunosPromovidos(1);
+                        } else {
+                            resultado.getRecusados().add(r);
+                        }
+                    }
+                }
+            }
+            notificar(progresso, new RolloverProgressoDTO("Promoção", ++feitos, total));
+        }
+    }
+
+    private String chave(Serie serie, String nomeTurma, Turno turno) {
+        return serie + "|" + nomeTurma + "|" + turno;
+    }
+
+    private void notificar(Consumer<RolloverProgressoDTO> progresso, RolloverProgressoDTO p) {
+        log.info("Virada de ano letivo - {}", p);
+        if (progresso != null) {
+            progresso.accept(p);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.PessoaBuscaResultadoDTO;
+import com.gestaoescolar.dto.PessoaNomeDTO;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.TipoPessoa;
+import com.gestaoescolar.repository.AlunoRepository;
+import com.gestaoescolar.repository.ProfessorRepository;
+import com.gestaoescolar.repository.ResponsavelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Busca de alunos, professores e responsáveis por nome, sem acento e tolerante a erros de digitação.
+ * O índice fica em memória: é montado na subida da aplicação e atualizado pessoa a pessoa
+ * depois do commit de cada gravação (ver {@link PessoaAlteradaEvent}).
+ */
+@Service
+public class BuscaPessoasService {
+
+    private static final Logger log = LoggerFactory.getLogger(BuscaPessoasService.class);
+
+    public static final int LIMITE_PADRAO = 20;
+
+    private final AlunoRepository alunoRepository;
+    private final ProfessorRepository professorRepository;
+    private final ResponsavelRepository responsavelRepository;
+
+    private final IndiceTrigramas indice = new IndiceTrigramas();
+
+    public BuscaPessoasService(AlunoRepository alunoRepository,
+                               ProfessorRepository professorRepository,
+                               ResponsavelRepository responsavelRepository) {
+        this.alunoRepository = alunoRepository;
+        this.professorRepository = professorRepository;
+        this.responsavelRepository = responsavelRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirIndice() {
+        long inicio = System.currentTimeMillis();
+        Map<TipoPessoa, List<PessoaNomeDTO>> pessoas = new EnumMap<>(TipoPessoa.class);
+        pessoas.put(TipoPessoa.ALUNO, alunoRepository.listarNomes());
+        pessoas.put(TipoPessoa.PROFESSOR, professorRepository.listarNomes());
+        pessoas.put(TipoPessoa.RESPONSAVEL, responsavelRepository.listarNomes());
+        indice.recriar(pessoas);
+        log.info("Índice de busca de pessoas montado: {} nomes em {} ms", indice.tamanho(), System.currentTimeMillis() - inicio);
+    }
+
+    // Resultados em ordem de relevância (no máximo "limite")
+    public List<PessoaBuscaResultadoDTO> buscar(String texto, int limite, Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+        return indice.buscar(texto, limite);
+    }
+
+    // Acrescenta ou atualiza nomes já gravados (ex.: importação em lote, sem reler cada pessoa do banco)
+    public void indexar(TipoPessoa tipo, Collection<PessoaNomeDTO> pessoas) {
+        pessoas.forEach(p -> indice.atualizar(tipo, p));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoaAlterada(PessoaAlteradaEvent event) {
+        if (event.getId() == null) {
+            return;
+        }
+        Optional<PessoaNomeDTO> pessoa = switch (event.getTipo()) {
+            case ALUNO -> alunoRepository.buscarNomePorId(event.getId());
+            case PROFESSOR -> professorRepository.buscarNomePorId(event.getId());
+            case RESPONSAVEL -> responsavelRepository.buscarNomePorId(event.getId());
+        };
+        pessoa.ifPresentOrElse(
+                p -> indice.atualizar(event.getTipo(), p),
+                () -> indice.remover(event.getTipo(), event.getId()));
+    }
+}
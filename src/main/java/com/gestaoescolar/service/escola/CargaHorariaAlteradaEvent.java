@@ -0,0 +1,8 @@
+package com.gestaoescolar.service.escola;
+
+/**
+ * Publicado ao atribuir ou remover professor de uma oferta turma-disciplina (ou alterar a carga
+ * de uma oferta/disciplina). Depois do commit o CargaHorariaService descarta os totais em memória.
+ */
+public class CargaHorariaAlteradaEvent {
+}
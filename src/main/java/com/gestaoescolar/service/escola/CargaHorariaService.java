@@ -0,0 +1,95 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.CargaHorariaDTO;
+import com.gestaoescolar.dto.CargaHorariaProfessorDTO;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.ProfessorTurmaDisciplinaRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Carga horária semanal dos professores (soma das ofertas turma-disciplina atribuídas), por ano letivo e turno.
+ * <p>
+ * Os totais de todos os professores vêm de uma única consulta agregada e ficam em memória; as leituras
+ * não vão ao banco. Atribuições/remoções de professor nas ofertas ({@link CargaHorariaAlteradaEvent})
+ * e alterações de turmas descartam os totais depois do commit, e a próxima leitura recarrega.
+ * Acima de {@code gestaoescolar.professores.carga-horaria-maxima} horas semanais no ano o professor
+ * é sinalizado como sobrecarregado.
+ */
+@Service
+public class CargaHorariaService {
+
+    private final ProfessorTurmaDisciplinaRepository professorTurmaDisciplinaRepository;
+    private final long limiteSemanal;
+
+    // anoLetivoId -> professorId -> carga
+    private volatile Map<Long, Map<Long, CargaHorariaProfessorDTO>> cargas;
+
+    public CargaHorariaService(ProfessorTurmaDisciplinaRepository professorTurmaDisciplinaRepository,
+                               @Value("${gestaoescolar.professores.carga-horaria-maxima:40}") long limiteSemanal) {
+        this.professorTurmaDisciplinaRepository = professorTurmaDisciplinaRepository;
+        this.limiteSemanal = limiteSemanal;
+    }
+
+    public long getLimiteSemanal() {
+        return limiteSemanal;
+    }
+
+    // Cargas do ano letivo por id do professor; professor sem aulas no ano não aparece
+    public Map<Long, CargaHorariaProfessorDTO> cargasNoAno(Long anoLetivoId) {
+        if (anoLetivoId == null) {
+            return Map.of();
+        }
+        return carregadas().getOrDefault(anoLetivoId, Map.of());
+    }
+
+    public CargaHorariaProfessorDTO carga(Long professorId, Long anoLetivoId) {
+        CargaHorariaProfessorDTO c = cargasNoAno(anoLetivoId).get(professorId);
+        return c != null ? c : new CargaHorariaProfessorDTO(professorId, anoLetivoId, Map.of(), limiteSemanal);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCargaHorariaAlterada(CargaHorariaAlteradaEvent e) {
+        cargas = null;
+    }
+
+    // Turma ativada/desativada entra ou sai da soma
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIndicadoresAlterados(IndicadoresAlteradosEvent e) {
+        if (e.getArea() == IndicadoresAlteradosEvent.Area.TURMAS) {
+            cargas = null;
+        }
+    }
+
+    private Map<Long, Map<Long, CargaHorariaProfessorDTO>> carregadas() {
+        Map<Long, Map<Long, CargaHorariaProfessorDTO>> atual = cargas;
+        return atual != null ? atual : recarregar();
+    }
+
+    // Sincronizado com o descarte: um descarte não se perde no meio de uma recarga
+    private synchronized Map<Long, Map<Long, CargaHorariaProfessorDTO>> recarregar() {
+        if (cargas != null) {
+            return cargas;
+        }
+        Map<Long, Map<Long, Map<Turno, Long>>> horas = new HashMap<>();
+        for (CargaHorariaDTO c : professorTurmaDisciplinaRepository.somarCargaHoraria()) {
+            horas.computeIfAbsent(c.getAnoLetivoId(), a -> new HashMap<>())
+                    .computeIfAbsent(c.getProfessorId(), p -> new EnumMap<>(Turno.class))
+                    .merge(c.getTurno(), c.getHoras(), Long::sum);
+        }
+        Map<Long, Map<Long, CargaHorariaProfessorDTO>> novas = new HashMap<>();
+        horas.forEach((anoLetivoId, porProfessor) -> {
+            Map<Long, CargaHorariaProfessorDTO> doAno = new HashMap<>();
+            porProfessor.forEach((professorId, porTurno) ->
+                    doAno.put(professorId, new CargaHorariaProfessorDTO(professorId, anoLetivoId, porTurno, limiteSemanal)));
+            novas.put(anoLetivoId, Map.copyOf(doAno));
+        });
+        cargas = Map.copyOf(novas);
+        return cargas;
+    }
+}
@@ -3,6 +3,7 @@ package com.gestaoescolar.service.escola;
 import com.gestaoescolar.model.*;
 import com.gestaoescolar.model.enums.DisciplinaPadrao;
 import com.gestaoescolar.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,6 +22,7 @@ public class CurriculumService {
 
     private final GradeCurricularRepository gradeCurricularRepository;
     private final GradeCurricularItemRepository gradeCurricularItemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public CurriculumService(DisciplinaRepository disciplinaRepository,
                              TurmaDisciplinaRepository turmaDisciplinaRepository,
@@ -28,7 +30,8 @@ public class CurriculumService {
                              TurmaRepository turmaRepository,
                              ProfessorRepository professorRepository,
                              GradeCurricularRepository gradeCurricularRepository,
-                             GradeCurricularItemRepository gradeCurricularItemRepository) {
+                             GradeCurricularItemRepository gradeCurricularItemRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.disciplinaRepository = disciplinaRepository;
         this.turmaDisciplinaRepository = turmaDisciplinaRepository;
         this.professorTurmaDisciplinaRepository = professorTurmaDisciplinaRepository;
@@ -36,6 +39,12 @@ public class CurriculumService {
         this.professorRepository = professorRepository;
         this.gradeCurricularRepository = gradeCurricularRepository;
         this.gradeCurricularItemRepository = gradeCurricularItemRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Atribuições e cargas das ofertas mudaram: os totais de carga horária dos professores são recalculados
+    private void cargaHorariaAlterada() {
+        eventPublisher.publishEvent(new CargaHorariaAlteradaEvent());
     }
 
     // ===== Disciplinas =====
@@ -66,9 +75,15 @@ public class CurriculumService {
 
         d.setCodigo(codigo);
         d.setNome(nome);
+        // save() preenche o id de uma disciplina nova: a decisão precisa ser tomada antes
+        boolean atualizacao = d.getId() != null;
 
         try {
-            return disciplinaRepository.save(d);
+            Disciplina salva = disciplinaRepository.save(d);
+            if (atualizacao) {
+                cargaHorariaAlterada(); // ofertas sem carga própria usam a da disciplina
+            }
+            return salva;
         } catch (DataIntegrityViolationException ex) {
             throw new IllegalArgumentException("Código de disciplina já utilizado. Escolha um código diferente.");
         }
@@ -125,6 +140,7 @@ public class CurriculumService {
     @Transactional
     public void removeDisciplinaFromTurma(Long turmaDisciplinaId) {
         turmaDisciplinaRepository.deleteById(turmaDisciplinaId);
+        cargaHorariaAlterada();
     }
 
     public List<ProfessorTurmaDisciplina> listProfessoresByTurmaDisciplina(Long turmaDisciplinaId) {
@@ -142,12 +158,15 @@ public class CurriculumService {
         ptd.setProfessor(p);
         ptd.setTurmaDisciplina(td);
         ptd.setTitular(titular);
-        return professorTurmaDisciplinaRepository.save(ptd);
+        ptd = professorTurmaDisciplinaRepository.save(ptd);
+        cargaHorariaAlterada();
+        return ptd;
     }
 
     @Transactional
     public void unassignProfessor(Long professorTurmaDisciplinaId) {
         professorTurmaDisciplinaRepository.deleteById(professorTurmaDisciplinaId);
+        cargaHorariaAlterada();
     }
 
     // ===== Grade Curricular =====
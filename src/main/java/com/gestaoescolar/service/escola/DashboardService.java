@@ -0,0 +1,132 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.ContagemPorFormacaoDTO;
+import com.gestaoescolar.dto.ContagemSerieTurnoDTO;
+import com.gestaoescolar.dto.IndicadoresDashboardDTO;
+import com.gestaoescolar.dto.OcupacaoVagasDTO;
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.AlunoRepository;
+import com.gestaoescolar.repository.MatriculaRepository;
+import com.gestaoescolar.repository.ProfessorRepository;
+import com.gestaoescolar.repository.TurmaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Indicadores do dashboard mantidos em memória.
+ * <p>
+ * A leitura ({@link #getIndicadores()}) só devolve a fotografia atual, sem consultar o banco.
+ * As escritas chegam por eventos publicados pelos serviços e aplicados depois do commit:
+ * matrículas entram como incremento nos contadores; alterações de alunos, turmas e professores
+ * recalculam apenas a área afetada (uma consulta agregada cada). A carga completa roda na
+ * inicialização e junto da reconciliação noturna de vagas, corrigindo qualquer divergência.
+ */
+@Service
+public class DashboardService {
+
+    private final AlunoRepository alunoRepository;
+    private final MatriculaRepository matriculaRepository;
+    private final TurmaRepository turmaRepository;
+    private final ProfessorRepository professorRepository;
+
+    private volatile IndicadoresDashboardDTO indicadores;
+
+    public DashboardService(AlunoRepository alunoRepository,
+                            MatriculaRepository matriculaRepository,
+                            TurmaRepository turmaRepository,
+                            ProfessorRepository professorRepository) {
+        this.alunoRepository = alunoRepository;
+        this.matriculaRepository = matriculaRepository;
+        this.turmaRepository = turmaRepository;
+        this.professorRepository = professorRepository;
+    }
+
+    public IndicadoresDashboardDTO getIndicadores() {
+        IndicadoresDashboardDTO atual = indicadores;
+        return atual != null ? atual : recarregar();
+    }
+
+    // Carga completa (inicialização / reconciliação)
+    public synchronized IndicadoresDashboardDTO recarregar() {
+        OcupacaoVagasDTO ocupacao = turmaRepository.somarOcupacaoVagas();
+        indicadores = new IndicadoresDashboardDTO(
+                alunoRepository.countByAtivoTrue(),
+                carregarMatriculas(),
+                ocupacao.getCapacidadeTotal(),
+                ocupacao.getVagasLivres(),
+                turmaRepository.countByAtivaTrue(),
+                turmaRepository.countByAtivaTrueAndProfessorTitularIsNull(),
+                professorRepository.countByAtivoTrue(),
+                carregarFormacoes());
+        return indicadores;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMatriculasAlteradas(MatriculasAlteradasEvent e) {
+        IndicadoresDashboardDTO atual = indicadores;
+        if (atual == null || e.getVariacao() == 0) {
+            return; // ainda não carregado: a primeira leitura faz a carga completa
+        }
+        Map<Serie, Map<Turno, Long>> matriculas = mutavel(atual.getMatriculasAtivas());
+        matriculas.computeIfAbsent(e.getSerie(), s -> new EnumMap<>(Turno.class))
+                .merge(e.getTurno(), (long) e.getVariacao(), (a, b) -> Math.max(0, a + b));
+        long vagasLivres = atual.getVagasLivres() - (e.isTurmaComCapacidade() ? e.getVariacao() : 0);
+        indicadores = new IndicadoresDashboardDTO(atual.getAlunosAtivos(), matriculas,
+                atual.getCapacidadeTotal(), Math.max(0, vagasLivres),
+                atual.getTurmasAtivas(), atual.getTurmasSemTitular(),
+                atual.getProfessoresAtivos(), atual.getProfessoresPorFormacao());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIndicadoresAlterados(IndicadoresAlteradosEvent e) {
+        IndicadoresDashboardDTO atual = indicadores;
+        if (atual == null) {
+            return;
+        }
+        indicadores = switch (e.getArea()) {
+            case ALUNOS -> new IndicadoresDashboardDTO(alunoRepository.countByAtivoTrue(),
+                    atual.getMatriculasAtivas(), atual.getCapacidadeTotal(), atual.getVagasLivres(),
+                    atual.getTurmasAtivas(), atual.getTurmasSemTitular(),
+                    atual.getProfessoresAtivos(), atual.getProfessoresPorFormacao());
+            case TURMAS -> {
+                // Série/turno/capacidade/situação da turma mudam o agrupamento das matrículas e a ocupação
+                OcupacaoVagasDTO ocupacao = turmaRepository.somarOcupacaoVagas();
+                yield new IndicadoresDashboardDTO(atual.getAlunosAtivos(), carregarMatriculas(),
+                        ocupacao.getCapacidadeTotal(), ocupacao.getVagasLivres(),
+                        turmaRepository.countByAtivaTrue(), turmaRepository.countByAtivaTrueAndProfessorTitularIsNull(),
+                        atual.getProfessoresAtivos(), atual.getProfessoresPorFormacao());
+            }
+            case PROFESSORES -> new IndicadoresDashboardDTO(atual.getAlunosAtivos(),
+                    atual.getMatriculasAtivas(), atual.getCapacidadeTotal(), atual.getVagasLivres(),
+                    atual.getTurmasAtivas(), atual.getTurmasSemTitular(),
+                    professorRepository.countByAtivoTrue(), carregarFormacoes());
+        };
+    }
+
+    private Map<Serie, Map<Turno, Long>> carregarMatriculas() {
+        Map<Serie, Map<Turno, Long>> matriculas = new EnumMap<>(Serie.class);
+        for (ContagemSerieTurnoDTO c : matriculaRepository.contarAtivasPorSerieETurno()) {
+            matriculas.computeIfAbsent(c.getSerie(), s -> new EnumMap<>(Turno.class)).put(c.getTurno(), c.getTotal());
+        }
+        return matriculas;
+    }
+
+    private Map<FormacaoAcademica, Long> carregarFormacoes() {
+        Map<FormacaoAcademica, Long> formacoes = new EnumMap<>(FormacaoAcademica.class);
+        for (ContagemPorFormacaoDTO c : professorRepository.contarAtivosPorFormacao()) {
+            formacoes.put(c.getFormacao(), c.getTotal());
+        }
+        return formacoes;
+    }
+
+    private Map<Serie, Map<Turno, Long>> mutavel(Map<Serie, Map<Turno, Long>> origem) {
+        Map<Serie, Map<Turno, Long>> copia = new EnumMap<>(Serie.class);
+        origem.forEach((serie, porTurno) -> copia.put(serie, new EnumMap<>(porTurno)));
+        return copia;
+    }
+}
@@ -0,0 +1,274 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.DuplicidadeAlunoDTO;
+import com.gestaoescolar.model.Aluno;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.util.DocumentoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Detecção de alunos cadastrados em duplicidade quando o CPF (opcional) não evita o segundo cadastro,
+ * típico de crianças pequenas registradas com grafias diferentes do nome.
+ *
+ * Só são comparados alunos do mesmo grupo (blocagem):
+ * <ul>
+ *     <li>mesma data de nascimento (grupos muito grandes, ex.: data padrão de importação,
+ *     são divididos pelo som do primeiro nome);</li>
+ *     <li>mesmo primeiro e último nome pelo som e data de nascimento que difere em um só
+ *     componente (dia, mês ou ano) ou com dia e mês trocados.</li>
+ * </ul>
+ * A semelhança combina nome completo e nome social ({@link SemelhancaNomes}) com os CPFs dos
+ * responsáveis: família em comum reforça, famílias sem nenhum responsável em comum afastam.
+ * Alunos com CPFs diferentes nunca são apontados. Os grupos são independentes e processados em paralelo.
+ */
+@Service
+public class DuplicidadeAlunoService {
+
+    private static final Logger log = LoggerFactory.getLogger(DuplicidadeAlunoService.class);
+
+    // Semelhança mínima para apontar o par
+    private static final double LIMIAR = 0.9;
+    private static final double BONUS_RESPONSAVEL_COMUM = 0.03;
+    private static final double PENALIDADE_FAMILIAS_DIFERENTES = 0.1;
+    private static final double PENALIDADE_DATA_DIFERENTE = 0.05;
+
+    // Acima disso o grupo da mesma data é dividido pelo primeiro nome
+    private static final int TAMANHO_MAXIMO_GRUPO = 200;
+
+    private static final String SELECT_ALUNOS =
+            "SELECT id, nome_completo, nome_social, data_nascimento, cpf FROM aluno";
+    private static final String SELECT_CPFS_RESPONSAVEIS =
+            "SELECT ar.aluno_id, r.cpf FROM aluno_responsavel ar JOIN responsavel r ON r.id = ar.responsavel_id " +
+            "WHERE ar.ativo = TRUE";
+
+    private final NamedParameterJdbcTemplate jdbc;
+
+    public DuplicidadeAlunoService(NamedParameterJdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // Aluno preparado para comparação (nomes já em palavras fonéticas, CPFs de responsáveis ordenados)
+    private static final class Candidato {
+        final Long id;
+        final String nome;
+        final LocalDate dataNascimento;
+        final String cpf;
+        final String[] palavrasNome;
+        final String[] palavrasNomeSocial;
+        final String chave;
+        long[] cpfsResponsaveis = new long[0];
+
+        Candidato(Long id, String nome, String nomeSocial, LocalDate dataNascimento, String cpf) {
+            this.id = id;
+            this.nome = nome;
+            this.dataNascimento = dataNascimento;
+            this.cpf = cpf != null && !cpf.isBlank() ? cpf : null;
+            this.palavrasNome = SemelhancaNomes.palavras(nome);
+            this.palavrasNomeSocial = SemelhancaNomes.palavras(nomeSocial);
+            this.chave = SemelhancaNomes.chave(palavrasNome);
+        }
+    }
+
+    /**
+     * Varre todo o cadastro e devolve os pares suspeitos, do mais para o menos semelhante.
+     */
+    public List<DuplicidadeAlunoDTO> detectarDuplicados(Usuario usuario) {
+        requireAdmin(usuario);
+        long inicio = System.currentTimeMillis();
+
+        List<Candidato> alunos = jdbc.query(SELECT_ALUNOS, (rs, i) -> candidato(rs));
+        Map<Long, Candidato> porId = new HashMap<>(alunos.size() * 2);
+        alunos.forEach(c -> porId.put(c.id, c));
+        carregarResponsaveis(SELECT_CPFS_RESPONSAVEIS, new MapSqlParameterSource(), porId);
+
+        List<List<Candidato>> grupos = new ArrayList<>();
+        for (List<Candidato> mesmaData : agrupar(alunos, c -> c.dataNascimento).values()) {
+            if (mesmaData.size() > TAMANHO_MAXIMO_GRUPO) {
+                grupos.addAll(agrupar(mesmaData, c -> c.palavrasNome.length > 0 ? c.palavrasNome[0] : "").values());
+            } else {
+                grupos.add(mesmaData);
+            }
+        }
+        List<List<Candidato>> gruposPorNome = new ArrayList<>(agrupar(alunos, c -> c.chave).values());
+
+        List<DuplicidadeAlunoDTO> resultado = new ArrayList<>();
+        resultado.addAll(grupos.parallelStream()
+                .flatMap(g -> compararGrupo(g, true).stream()).toList());
+        resultado.addAll(gruposPorNome.parallelStream()
+                .flatMap(g -> compararGrupo(g, false).stream()).toList());
+        resultado.sort(Comparator.comparingDouble(DuplicidadeAlunoDTO::getSemelhanca).reversed());
+
+        log.info("Detecção de alunos duplicados: {} alunos, {} par(es) suspeito(s) em {} ms",
+                alunos.size(), resultado.size(), System.currentTimeMillis() - inicio);
+        return resultado;
+    }
+
+    /**
+     * Alunos já cadastrados parecidos com os dados informados (aviso no formulário antes de salvar).
+     * Consulta só a mesma data de nascimento (coluna indexada); o próprio aluno, se já gravado, é ignorado.
+     */
+    public List<DuplicidadeAlunoDTO> possiveisDuplicados(Aluno dados, Usuario usuario) {
+        requireAdmin(usuario);
+        if (dados == null || dados.getDataNascimento() == null
+                || dados.getNomeCompleto() == null || dados.getNomeCompleto().isBlank()) {
+            return List.of();
+        }
+        Candidato novo = new Candidato(dados.getId(), dados.getNomeCompleto(), dados.getNomeSocial(),
+                dados.getDataNascimento(), dados.getCpf());
+
+        MapSqlParameterSource params = new MapSqlParameterSource("data", Date.valueOf(dados.getDataNascimento()));
+        List<Candidato> mesmaData = jdbc.query(SELECT_ALUNOS + " WHERE data_nascimento = :data", params,
+                (rs, i) -> candidato(rs));
+        mesmaData.removeIf(c -> c.id.equals(novo.id));
+        if (mesmaData.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Candidato> porId = new HashMap<>();
+        mesmaData.forEach(c -> porId.put(c.id, c));
+        if (novo.id != null) {
+            porId.put(novo.id, novo);
+        }
+        carregarResponsaveis(SELECT_CPFS_RESPONSAVEIS + " AND ar.aluno_id IN (:ids)",
+                new MapSqlParameterSource("ids", porId.keySet()), porId);
+
+        List<DuplicidadeAlunoDTO> resultado = new ArrayList<>();
+        for (Candidato c : mesmaData) {
+            DuplicidadeAlunoDTO par = comparar(novo, c, true);
+            if (par != null) resultado.add(par);
+        }
+        resultado.sort(Comparator.comparingDouble(DuplicidadeAlunoDTO::getSemelhanca).reversed());
+        return resultado;
+    }
+
+    // ===== Comparação =====
+
+    private List<DuplicidadeAlunoDTO> compararGrupo(List<Candidato> grupo, boolean mesmaData) {
+        if (grupo.size() < 2) {
+            return List.of();
+        }
+        List<DuplicidadeAlunoDTO> pares = new ArrayList<>();
+        for (int i = 0; i < grupo.size(); i++) {
+            Candidato a = grupo.get(i);
+            for (int j = i + 1; j < grupo.size(); j++) {
+                Candidato b = grupo.get(j);
+                // No grupo por nome só entram datas quase iguais; datas iguais já foram comparadas no outro grupo
+                if (!mesmaData && (Objects.equals(a.dataNascimento, b.dataNascimento)
+                        || !datasParecidas(a.dataNascimento, b.dataNascimento))) {
+                    continue;
+                }
+                DuplicidadeAlunoDTO par = comparar(a, b, mesmaData);
+                if (par != null) pares.add(par);
+            }
+        }
+        return pares;
+    }
+
+    private DuplicidadeAlunoDTO comparar(Candidato a, Candidato b, boolean mesmaData) {
+        if (a.cpf != null && b.cpf != null && !a.cpf.equals(b.cpf)) {
+            return null;
+        }
+        double nome = Math.max(
+                Math.max(SemelhancaNomes.semelhanca(a.palavrasNome, b.palavrasNome),
+                        SemelhancaNomes.semelhanca(a.palavrasNomeSocial, b.palavrasNome)),
+                Math.max(SemelhancaNomes.semelhanca(a.palavrasNome, b.palavrasNomeSocial),
+                        SemelhancaNomes.semelhanca(a.palavrasNomeSocial, b.palavrasNomeSocial)));
+        // Descarte rápido: os ajustes abaixo não somam o suficiente para alcançar o limiar
+        if (nome + BONUS_RESPONSAVEL_COMUM < LIMIAR) {
+            return null;
+        }
+
+        double semelhanca = nome;
+        List<String> motivos = new ArrayList<>();
+        motivos.add(nome >= 0.999 ? "mesmo nome" : "nome parecido");
+        motivos.add(mesmaData ? "mesma data de nascimento" : "data de nascimento parecida");
+        if (!mesmaData) {
+            semelhanca -= PENALIDADE_DATA_DIFERENTE;
+        }
+        if (a.cpfsResponsaveis.length > 0 && b.cpfsResponsaveis.length > 0) {
+            if (temEmComum(a.cpfsResponsaveis, b.cpfsResponsaveis)) {
+                semelhanca += BONUS_RESPONSAVEL_COMUM;
+                motivos.add("responsável em comum");
+            } else {
+                semelhanca -= PENALIDADE_FAMILIAS_DIFERENTES;
+            }
+        }
+        if (semelhanca < LIMIAR) {
+            return null;
+        }
+        return new DuplicidadeAlunoDTO(a.id, a.nome, a.dataNascimento, b.id, b.nome, b.dataNascimento,
+                Math.min(1, semelhanca), String.join(", ", motivos));
+    }
+
+    // Um único componente diferente (erro de digitação) ou dia e mês trocados
+    private static boolean datasParecidas(LocalDate a, LocalDate b) {
+        if (a == null || b == null) return false;
+        int diferentes = (a.getYear() != b.getYear() ? 1 : 0)
+                + (a.getMonthValue() != b.getMonthValue() ? 1 : 0)
+                + (a.getDayOfMonth() != b.getDayOfMonth() ? 1 : 0);
+        boolean trocados = a.getYear() == b.getYear()
+                && a.getDayOfMonth() == b.getMonthValue() && a.getMonthValue() == b.getDayOfMonth();
+        return diferentes == 1 || trocados;
+    }
+
+    private static boolean temEmComum(long[] a, long[] b) {
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] == b[j]) return true;
+            if (a[i] < b[j]) i++;
+            else j++;
+        }
+        return false;
+    }
+
+    // ===== Leitura =====
+
+    private static Candidato candidato(ResultSet rs) throws SQLException {
+        Date data = rs.getDate("data_nascimento");
+        return new Candidato(rs.getLong("id"), rs.getString("nome_completo"), rs.getString("nome_social"),
+                data != null ? data.toLocalDate() : null, rs.getString("cpf"));
+    }
+
+    private void carregarResponsaveis(String sql, MapSqlParameterSource params, Map<Long, Candidato> porId) {
+        Map<Long, List<Long>> cpfs = new HashMap<>();
+        jdbc.query(sql, params, rs -> {
+            Long alunoId = rs.getLong(1);
+            String cpf = DocumentoUtil.somenteDigitos(rs.getString(2));
+            if (porId.containsKey(alunoId) && cpf != null) {
+                cpfs.computeIfAbsent(alunoId, k -> new ArrayList<>(2)).add(Long.parseLong(cpf));
+            }
+        });
+        cpfs.forEach((alunoId, lista) -> porId.get(alunoId).cpfsResponsaveis =
+                lista.stream().mapToLong(Long::longValue).sorted().toArray());
+    }
+
+    private static <K> Map<K, List<Candidato>> agrupar(Collection<Candidato> alunos,
+                                                        Function<Candidato, K> chave) {
+        return alunos.stream()
+                .filter(c -> chave.apply(c) != null)
+                .collect(Collectors.groupingBy(chave, HashMap::new, Collectors.toList()));
+    }
+
+    private void requireAdmin(Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+    }
+}
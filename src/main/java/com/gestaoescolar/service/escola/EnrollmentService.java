@@ -1,5 +1,7 @@
 package com.gestaoescolar.service.escola;
 
+import com.gestaoescolar.dto.MatriculaAtivaDTO;
+import com.gestaoescolar.dto.MatriculaLoteResultadoDTO;
 import com.gestaoescolar.model.Aluno;
 import com.gestaoescolar.model.Matricula;
 import com.gestaoescolar.model.Turma;
@@ -8,11 +10,22 @@ import com.gestaoescolar.model.enums.MatriculaStatus;
 import com.gestaoescolar.repository.AlunoRepository;
 import com.gestaoescolar.repository.MatriculaRepository;
 import com.gestaoescolar.repository.TurmaRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class EnrollmentService {
@@ -20,13 +33,24 @@ public class EnrollmentService {
     private final MatriculaRepository matriculaRepository;
     private final AlunoRepository alunoRepository;
     private final TurmaRepository turmaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Inserção em lote (enrollStudents): com id IDENTITY o Hibernate não agrupa INSERTs, por isso JDBC direto
+    private static final String INSERT_MATRICULA =
+            "INSERT INTO matricula (aluno_id, turma_id, status, data_inicio, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
 
     public EnrollmentService(MatriculaRepository matriculaRepository,
                              AlunoRepository alunoRepository,
-                             TurmaRepository turmaRepository) {
+                             TurmaRepository turmaRepository,
+                             JdbcTemplate jdbcTemplate,
+                             ApplicationEventPublisher eventPublisher) {
         this.matriculaRepository = matriculaRepository;
         this.alunoRepository = alunoRepository;
         this.turmaRepository = turmaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
     }
 
     private void requireAdmin(Usuario usuario) {
@@ -43,7 +67,9 @@ public class EnrollmentService {
             dataInicio = LocalDate.now();
         }
 
-        Aluno aluno = alunoRepository.findById(alunoId)
+        // Concorrência: a linha do aluno fica travada até o commit, então as verificações de exclusividade
+        // abaixo não correm em paralelo para o mesmo aluno; a vaga é reservada por UPDATE condicional na turma.
+        Aluno aluno = alunoRepository.findForUpdateById(alunoId)
                 .orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
         Turma turma = turmaRepository.findById(turmaId)
                 .orElseThrow(() -> new IllegalArgumentException("Turma não encontrada"));
@@ -60,28 +86,17 @@ public class EnrollmentService {
                     .existsByAlunoIdAndTurma_AnoLetivo_IdAndStatus(alunoId, anoLetivoId, MatriculaStatus.ATIVA);
             if (jaTemNoAno) {
                 // Mensagem amigável com ano e, se possível, turma atual
-                Integer ano = turma.getAnoLetivo().getAno();
-                String baseMsg = "O aluno já possui matrícula ativa no ano letivo " + (ano != null ? ano : "") + ".";
                 var atualOpt = matriculaRepository
                         .findFirstByAlunoIdAndTurma_AnoLetivo_IdAndStatusOrderByIdDesc(alunoId, anoLetivoId, MatriculaStatus.ATIVA);
-                if (atualOpt.isPresent() && atualOpt.get().getTurma() != null) {
-                    var t = atualOpt.get().getTurma();
-                    String codigo = t.getCodigo() != null ? t.getCodigo() : "";
-                    String nome = t.getNomeTurma() != null ? t.getNomeTurma() : "";
-                    throw new IllegalArgumentException(baseMsg + " (Turma " + codigo + (nome.isBlank() ? "" : " - " + nome) + ").");
-                } else {
-                    throw new IllegalArgumentException(baseMsg);
-                }
+                Turma t = atualOpt.map(Matricula::getTurma).orElse(null);
+                throw new IllegalArgumentException(mensagemMatriculaNoAno(turma.getAnoLetivo().getAno(),
+                        t != null ? t.getCodigo() : null, t != null ? t.getNomeTurma() : null, t != null));
             }
         }
 
-        // Capacidade da turma (se informada)
-        Integer capacidade = turma.getCapacidade();
-        if (capacidade != null && capacidade > 0) {
-            long ativas = matriculaRepository.countByTurmaIdAndStatus(turmaId, MatriculaStatus.ATIVA);
-            if (ativas >= capacidade) {
-                throw new IllegalArgumentException("Turma sem vagas disponíveis.");
-            }
+        // Capacidade da turma: ocupa a vaga no contador (UPDATE condicional); em caso de erro o rollback devolve
+        if (turmaRepository.ocuparVaga(turmaId) == 0) {
+            throw new IllegalArgumentException("Turma sem vagas disponíveis.");
         }
 
         Matricula m = new Matricula();
@@ -89,13 +104,107 @@ public class EnrollmentService {
         m.setTurma(turma);
         m.setStatus(MatriculaStatus.ATIVA);
         m.setDataInicio(dataInicio);
+        eventPublisher.publishEvent(new MatriculasAlteradasEvent(turma, 1));
+        eventPublisher.publishEvent(new FichaAlunoAlteradaEvent(List.of(alunoId)));
         return matriculaRepository.save(m);
     }
 
+    /**
+     * Matrícula de vários alunos na mesma turma em uma única transação (ex.: início do ano letivo).
+     * Mesmas regras de {@link #enrollStudent}, com poucas idas ao banco: alunos travados em uma consulta,
+     * exclusividade (turma e ano letivo) verificada em outra, vagas reservadas de uma vez e
+     * matrículas inseridas em lote. Um aluno recusado não impede os demais; o retorno traz
+     * um resultado por aluno, na ordem recebida (ids repetidos são considerados uma vez).
+     */
+    @Transactional
+    public List<MatriculaLoteResultadoDTO> enrollStudents(Long turmaId, List<Long> alunoIds, LocalDate dataInicio, Usuario usuario) {
+        requireAdmin(usuario);
+        if (alunoIds == null || alunoIds.isEmpty()) {
+            return List.of();
+        }
+        if (dataInicio == null) {
+            dataInicio = LocalDate.now();
+        }
+        Set<Long> ids = alunoIds.stream().filter(Objects::nonNull).collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // Mesma ordem de travas de enrollStudent (alunos, depois turma) para não gerar deadlock entre os dois
+        Map<Long, Aluno> alunos = alunoRepository.findForUpdateByIdInOrderByIdAsc(ids).stream()
+                .collect(Collectors.toMap(Aluno::getId, Function.identity()));
+        Turma turma = turmaRepository.findForUpdateById(turmaId)
+                .orElseThrow(() -> new IllegalArgumentException("Turma não encontrada"));
+
+        // Exclusividade: uma consulta para todos os alunos; matrícula na própria turma tem prioridade na mensagem
+        Long anoLetivoId = turma.getAnoLetivo() != null ? turma.getAnoLetivo().getId() : null;
+        Map<Long, MatriculaAtivaDTO> ativas = new HashMap<>();
+        if (!alunos.isEmpty()) {
+            for (MatriculaAtivaDTO dto : matriculaRepository.findAtivasByAlunoIdsNaTurmaOuAno(alunos.keySet(), turmaId, anoLetivoId)) {
+                if (turmaId.equals(dto.getTurmaId())) {
+                    ativas.put(dto.getAlunoId(), dto);
+                } else {
+                    ativas.putIfAbsent(dto.getAlunoId(), dto);
+                }
+            }
+        }
+
+        // Vagas: a turma está travada, então o contador lido é o que vale até o commit
+        int vagasLivres;
+        if (turma.getCapacidade() == null) {
+            vagasLivres = Integer.MAX_VALUE;
+        } else {
+            vagasLivres = turma.getVagasDisponiveis() != null ? Math.max(0, turma.getVagasDisponiveis()) : 0;
+        }
+
+        List<MatriculaLoteResultadoDTO> resultados = new ArrayList<>(ids.size());
+        List<Object[]> inserts = new ArrayList<>();
+        LocalDateTime agora = LocalDateTime.now();
+        for (Long alunoId : ids) {
+            Aluno aluno = alunos.get(alunoId);
+            if (aluno == null) {
+                resultados.add(new MatriculaLoteResultadoDTO(alunoId, null, false, "Aluno não encontrado"));
+                continue;
+            }
+            MatriculaAtivaDTO ativa = ativas.get(alunoId);
+            if (ativa != null) {
+                String msg = turmaId.equals(ativa.getTurmaId())
+                        ? "O aluno já possui matrícula ativa nesta turma."
+                        : mensagemMatriculaNoAno(turma.getAnoLetivo().getAno(), ativa.getCodigoTurma(), ativa.getNomeTurma(), true);
+                resultados.add(new MatriculaLoteResultadoDTO(alunoId, aluno.getNomeCompleto(), false, msg));
+                continue;
+            }
+            if (inserts.size() >= vagasLivres) {
+                resultados.add(new MatriculaLoteResultadoDTO(alunoId, aluno.getNomeCompleto(), false, "Turma sem vagas disponíveis."));
+                continue;
+            }
+            inserts.add(new Object[]{alunoId, turmaId, MatriculaStatus.ATIVA.name(), dataInicio, agora, agora});
+            resultados.add(new MatriculaLoteResultadoDTO(alunoId, aluno.getNomeCompleto(), true, "Matriculado"));
+        }
+
+        if (!inserts.isEmpty()) {
+            if (turmaRepository.ocuparVagas(turmaId, inserts.size()) == 0) {
+                throw new IllegalArgumentException("Turma sem vagas disponíveis.");
+            }
+            jdbcTemplate.batchUpdate(INSERT_MATRICULA, inserts);
+            eventPublisher.publishEvent(new MatriculasAlteradasEvent(turma, inserts.size()));
+            eventPublisher.publishEvent(new FichaAlunoAlteradaEvent(
+                    inserts.stream().map(linha -> (Long) linha[0]).toList()));
+        }
+        return resultados;
+    }
+
+    private String mensagemMatriculaNoAno(Integer ano, String codigoTurma, String nomeTurma, boolean comTurma) {
+        String baseMsg = "O aluno já possui matrícula ativa no ano letivo " + (ano != null ? ano : "") + ".";
+        if (!comTurma) {
+            return baseMsg;
+        }
+        String codigo = codigoTurma != null ? codigoTurma : "";
+        String nome = nomeTurma != null ? nomeTurma : "";
+        return baseMsg + " (Turma " + codigo + (nome.isBlank() ? "" : " - " + nome) + ").";
+    }
+
     @Transactional
     public Matricula cancelEnrollment(Long matriculaId, LocalDate dataCancelamento, String motivo, Usuario usuario) {
         requireAdmin(usuario);
-        Matricula m = matriculaRepository.findById(matriculaId)
+        Matricula m = matriculaRepository.findForUpdateById(matriculaId)
                 .orElseThrow(() -> new IllegalArgumentException("Matrícula não encontrada"));
 
         if (m.getStatus() != MatriculaStatus.ATIVA) {
@@ -105,13 +214,16 @@ public class EnrollmentService {
         m.setStatus(MatriculaStatus.CANCELADA);
         m.setDataTermino(dataCancelamento != null ? dataCancelamento : LocalDate.now());
         m.setMotivo(motivo);
+        turmaRepository.liberarVaga(m.getTurma().getId());
+        eventPublisher.publishEvent(new MatriculasAlteradasEvent(m.getTurma(), -1));
+        eventPublisher.publishEvent(new FichaAlunoAlteradaEvent(List.of(m.getAluno().getId())));
         return matriculaRepository.save(m);
     }
 
     @Transactional
     public Matricula concludeEnrollment(Long matriculaId, LocalDate dataConclusao, Usuario usuario) {
         requireAdmin(usuario);
-        Matricula m = matriculaRepository.findById(matriculaId)
+        Matricula m = matriculaRepository.findForUpdateById(matriculaId)
                 .orElseThrow(() -> new IllegalArgumentException("Matrícula não encontrada"));
 
         if (m.getStatus() != MatriculaStatus.ATIVA) {
@@ -120,6 +232,9 @@ public class EnrollmentService {
 
         m.setStatus(MatriculaStatus.CONCLUIDA);
         m.setDataTermino(dataConclusao != null ? dataConclusao : LocalDate.now());
+        turmaRepository.liberarVaga(m.getTurma().getId());
+        eventPublisher.publishEvent(new MatriculasAlteradasEvent(m.getTurma(), -1));
+        eventPublisher.publishEvent(new FichaAlunoAlteradaEvent(List.of(m.getAluno().getId())));
         return matriculaRepository.save(m);
     }
 
@@ -128,7 +243,7 @@ public class EnrollmentService {
         requireAdmin(usuario);
         if (dataTransferencia == null) dataTransferencia = LocalDate.now();
 
-        Matricula atual = matriculaRepository.findById(matriculaId)
+        Matricula atual = matriculaRepository.findForUpdateById(matriculaId)
                 .orElseThrow(() -> new IllegalArgumentException("Matrícula não encontrada"));
 
         if (atual.getStatus() != MatriculaStatus.ATIVA) {
@@ -138,13 +253,19 @@ public class EnrollmentService {
         Turma novaTurma = turmaRepository.findById(novaTurmaId)
                 .orElseThrow(() -> new IllegalArgumentException("Nova turma não encontrada"));
 
-        // Capacidade na nova turma
-        Integer capacidade = novaTurma.getCapacidade();
-        if (capacidade != null && capacidade > 0) {
-            long ativas = matriculaRepository.countByTurmaIdAndStatus(novaTurmaId, MatriculaStatus.ATIVA);
-            if (ativas >= capacidade) {
-                throw new IllegalArgumentException("Nova turma sem vagas disponíveis.");
-            }
+        Long turmaOrigemId = atual.getTurma().getId();
+        if (turmaOrigemId.equals(novaTurmaId)) {
+            throw new IllegalArgumentException("A nova turma deve ser diferente da turma atual.");
+        }
+
+        // Vagas: ocupa na nova turma (UPDATE condicional) e devolve na origem.
+        // As duas linhas de turma são travadas sempre na ordem dos ids, evitando deadlock entre transferências cruzadas.
+        if (novaTurmaId < turmaOrigemId) {
+            ocuparVagaNaNovaTurma(novaTurmaId);
+            turmaRepository.liberarVaga(turmaOrigemId);
+        } else {
+            turmaRepository.liberarVaga(turmaOrigemId);
+            ocuparVagaNaNovaTurma(novaTurmaId);
         }
 
         // Fechar matrícula atual
@@ -152,6 +273,9 @@ public class EnrollmentService {
         atual.setDataTermino(dataTransferencia.minusDays(1));
         atual.setMotivo(motivo);
         matriculaRepository.save(atual);
+        eventPublisher.publishEvent(new MatriculasAlteradasEvent(atual.getTurma(), -1));
+        eventPublisher.publishEvent(new MatriculasAlteradasEvent(novaTurma, 1));
+        eventPublisher.publishEvent(new FichaAlunoAlteradaEvent(List.of(atual.getAluno().getId())));
 
         // Abrir nova matrícula
         Matricula nova = new Matricula();
@@ -162,6 +286,12 @@ public class EnrollmentService {
         return matriculaRepository.save(nova);
     }
 
+    private void ocuparVagaNaNovaTurma(Long novaTurmaId) {
+        if (turmaRepository.ocuparVaga(novaTurmaId) == 0) {
+            throw new IllegalArgumentException("Nova turma sem vagas disponíveis.");
+        }
+    }
+
     public List<Matricula> listEnrollmentsByClass(Long turmaId, Usuario usuario) {
         requireAdmin(usuario);
         return matriculaRepository.findByTurmaId(turmaId);
@@ -0,0 +1,198 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.CensoAlunoDTO;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.MatriculaStatus;
+import com.gestaoescolar.repository.MatriculaRepository;
+import com.gestaoescolar.util.DocumentoUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Exportação dos alunos matriculados para o Censo Escolar (Educacenso/INEP).
+ * Segue o arquivo de migração do Educacenso de forma simplificada: campos separados por "|",
+ * texto em maiúsculas sem acento, um registro 30 (pessoa física) e um registro 60 (vínculo
+ * com a turma) por matrícula ATIVA no ano letivo.
+ * As linhas são lidas do banco por cursor e escritas direto no destino, então a memória usada
+ * não depende da quantidade de alunos.
+ */
+@Service
+public class ExportacaoCensoService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportacaoCensoService.class);
+
+    private static final String SEPARADOR = "|";
+    private static final String FIM_LINHA = "\r\n";
+    private static final int INTERVALO_PROGRESSO = 1000;
+    private static final DateTimeFormatter DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    // Compilados uma vez: texto() roda para cada campo de cada matrícula exportada
+    private static final Pattern MARCAS_ACENTO = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADOR_OU_QUEBRA = Pattern.compile("[|\\r\\n]+");
+    private static final Pattern ESPACOS_REPETIDOS = Pattern.compile("\\s{2,}");
+    private static final Pattern CODIGO_COR_RACA = Pattern.compile("[0-5]");
+
+    private final MatriculaRepository matriculaRepository;
+    private final String codigoInepEscola;
+
+    public ExportacaoCensoService(MatriculaRepository matriculaRepository,
+                                  @Value("${gestaoescolar.censo.codigo-inep-escola:}") String codigoInepEscola) {
+        this.matriculaRepository = matriculaRepository;
+        this.codigoInepEscola = codigoInepEscola;
+    }
+
+    // Quantidade de matrículas que a exportação do ano vai gerar (para exibir antes do download)
+    @Transactional(readOnly = true)
+    public long contarMatriculas(Long anoLetivoId, Usuario usuario) {
+        verificarAcesso(usuario);
+        return matriculaRepository.countByTurma_AnoLetivo_IdAndStatus(anoLetivoId, MatriculaStatus.ATIVA);
+    }
+
+    /**
+     * Escreve o arquivo do ano letivo em "destino" (que não é fechado aqui) e devolve quantas
+     * matrículas foram exportadas. "progresso" (opcional) recebe o total escrito a cada mil matrículas e no fim.
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Long anoLetivoId, OutputStream destino, Usuario usuario, LongConsumer progresso) throws IOException {
+        verificarAcesso(usuario);
+        if (anoLetivoId == null) {
+            throw new IllegalArgumentException("Selecione o ano letivo");
+        }
+        long inicio = System.currentTimeMillis();
+        Writer out = new BufferedWriter(new OutputStreamWriter(destino, StandardCharsets.UTF_8), 64 * 1024);
+        StringBuilder linha = new StringBuilder(512);
+        long total = 0;
+
+        try (Stream<CensoAlunoDTO> matriculas = matriculaRepository.streamCensoAtivasNoAno(anoLetivoId)) {
+            Iterator<CensoAlunoDTO> it = matriculas.iterator();
+            while (it.hasNext()) {
+                CensoAlunoDTO m = it.next();
+                escreverRegistro30(linha, m);
+                out.append(linha);
+                escreverRegistro60(linha, m);
+                out.append(linha);
+                total++;
+                if (progresso != null && total % INTERVALO_PROGRESSO == 0) {
+                    progresso.accept(total);
+                }
+            }
+        }
+        out.flush();
+        if (progresso != null) {
+            progresso.accept(total);
+        }
+        log.info("Exportação do Censo: {} matrícula(s) do ano letivo {} em {} ms",
+                total, anoLetivoId, System.currentTimeMillis() - inicio);
+        return total;
+    }
+
+    private void verificarAcesso(Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+    }
+
+    // ===== Registros =====
+
+    // 30 - pessoa física: identificação, documentos e endereço do aluno
+    private void escreverRegistro30(StringBuilder sb, CensoAlunoDTO m) {
+        sb.setLength(0);
+        sb.append("30");
+        campo(sb, codigoInepEscola);
+        campo(sb, String.valueOf(m.getAlunoId()));   // código da pessoa no sistema próprio
+        campo(sb, DocumentoUtil.somenteDigitos(m.getInep()));
+        campo(sb, DocumentoUtil.somenteDigitos(m.getCpf()));
+        campo(sb, texto(m.getNomeCompleto()));
+        campo(sb, data(m.getDataNascimento()));
+        campo(sb, sexo(m.getGenero()));
+        campo(sb, corRaca(m.getCorRaca()));
+        campo(sb, DocumentoUtil.somenteDigitos(m.getNis()));
+        campo(sb, texto(m.getDocTipo()));
+        campo(sb, texto(m.getDocNumero()));
+        campo(sb, DocumentoUtil.somenteDigitos(m.getCep()));
+        campo(sb, texto(m.getLogradouro()));
+        campo(sb, texto(m.getNumero()));
+        campo(sb, texto(m.getComplemento()));
+        campo(sb, texto(m.getBairro()));
+        campo(sb, texto(m.getCidade()));
+        campo(sb, texto(m.getUf()));
+        sb.append(FIM_LINHA);
+    }
+
+    // 60 - vínculo do aluno com a turma
+    private void escreverRegistro60(StringBuilder sb, CensoAlunoDTO m) {
+        sb.setLength(0);
+        sb.append("60");
+        campo(sb, codigoInepEscola);
+        campo(sb, String.valueOf(m.getAlunoId()));
+        campo(sb, DocumentoUtil.somenteDigitos(m.getInep()));
+        campo(sb, texto(m.getCodigoTurma()));        // código da turma no sistema próprio
+        campo(sb, String.valueOf(m.getMatriculaId()));
+        campo(sb, data(m.getDataInicio()));
+        campo(sb, m.getSerie() != null ? texto(m.getSerie().getNome()) : "");
+        campo(sb, m.getTurno() != null ? texto(m.getTurno().getDescricao()) : "");
+        sb.append(FIM_LINHA);
+    }
+
+    private static void campo(StringBuilder sb, String valor) {
+        sb.append(SEPARADOR);
+        if (valor != null) {
+            sb.append(valor);
+        }
+    }
+
+    // ===== Formatação =====
+
+    // Maiúsculas, sem acentos (NFKD também troca "º"/"ª" por O/A) e sem o separador/quebras de linha
+    private static String texto(String valor) {
+        if (valor == null || valor.isBlank()) {
+            return "";
+        }
+        String semAcento = MARCAS_ACENTO.matcher(Normalizer.normalize(valor.trim(), Normalizer.Form.NFKD)).replaceAll("");
+        String semQuebras = SEPARADOR_OU_QUEBRA.matcher(semAcento.toUpperCase(Locale.ROOT)).replaceAll(" ");
+        return ESPACOS_REPETIDOS.matcher(semQuebras).replaceAll(" ");
+    }
+
+    private static String data(LocalDate data) {
+        return data == null ? "" : DATA.format(data);
+    }
+
+    // Educacenso: 1 = masculino, 2 = feminino (demais opções ficam em branco)
+    private static String sexo(Genero genero) {
+        if (genero == Genero.MASCULINO) return "1";
+        if (genero == Genero.FEMININO) return "2";
+        return "";
+    }
+
+    // Educacenso: 0 não declarada, 1 branca, 2 preta, 3 parda, 4 amarela, 5 indígena.
+    // O cadastro guarda texto livre; códigos já numéricos são mantidos.
+    private static String corRaca(String valor) {
+        String v = texto(valor);
+        if (CODIGO_COR_RACA.matcher(v).matches()) return v;
+        if (v.startsWith("BRANC")) return "1";
+        if (v.startsWith("PRET") || v.startsWith("NEGR")) return "2";
+        if (v.startsWith("PARD")) return "3";
+        if (v.startsWith("AMAREL")) return "4";
+        if (v.startsWith("INDIGEN")) return "5";
+        return "0";
+    }
+}
@@ -0,0 +1,29 @@
+package com.gestaoescolar.service.escola;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Publicado ao alterar o cadastro, os responsáveis ou as matrículas de alunos.
+ * Depois do commit as fichas em cache desses alunos deixam de valer; sem ids, vale para todos.
+ */
+public class FichaAlunoAlteradaEvent {
+
+    private final Set<Long> alunoIds;
+
+    public FichaAlunoAlteradaEvent(Collection<Long> alunoIds) {
+        this.alunoIds = Set.copyOf(alunoIds);
+    }
+
+    public static FichaAlunoAlteradaEvent todos() {
+        return new FichaAlunoAlteradaEvent(Set.of());
+    }
+
+    public Set<Long> getAlunoIds() {
+        return alunoIds;
+    }
+
+    public boolean isTodos() {
+        return alunoIds.isEmpty();
+    }
+}
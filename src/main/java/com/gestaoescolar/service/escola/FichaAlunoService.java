@@ -0,0 +1,102 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.FichaAlunoDTO;
+import com.gestaoescolar.model.Aluno;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.TipoPessoa;
+import com.gestaoescolar.repository.AlunoRepository;
+import com.gestaoescolar.repository.AlunoResponsavelRepository;
+import com.gestaoescolar.repository.MatriculaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ficha do aluno (cadastro + responsáveis + histórico de matrículas) em uma única chamada; o cadastro
+ * vem na ficha e a tela de edição não relê o aluno. Três consultas planejadas na mesma transação, cada uma já trazendo as associações que a tela usa,
+ * em vez das leituras separadas (e dos carregamentos sob demanda) de cada diálogo.
+ *
+ * As telas guardam as fichas lidas (ver FichaAlunoCache) e perguntam aqui se ainda valem:
+ * cada alteração recebe um número de uma sequência e a ficha vale enquanto nenhuma alteração
+ * do aluno (ou geral) tiver número maior que o da leitura.
+ */
+@Service
+public class FichaAlunoService {
+
+    private final AlunoRepository alunoRepository;
+    private final AlunoResponsavelRepository alunoResponsavelRepository;
+    private final MatriculaRepository matriculaRepository;
+
+    private final AtomicLong sequencia = new AtomicLong();
+    // Última alteração de cada aluno e a última que atingiu todos (dados de responsável ou de turma)
+    private final Map<Long, Long> ultimaAlteracao = new ConcurrentHashMap<>();
+    private final AtomicLong ultimaAlteracaoGeral = new AtomicLong();
+
+    public FichaAlunoService(AlunoRepository alunoRepository,
+                             AlunoResponsavelRepository alunoResponsavelRepository,
+                             MatriculaRepository matriculaRepository) {
+        this.alunoRepository = alunoRepository;
+        this.alunoResponsavelRepository = alunoResponsavelRepository;
+        this.matriculaRepository = matriculaRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public FichaAlunoDTO carregar(Long alunoId, Usuario usuario) {
+        requireAdmin(usuario);
+        // Lida antes das consultas: uma alteração concorrente deixa a ficha desatualizada, nunca o contrário
+        long versao = sequencia.get();
+        Aluno aluno = alunoRepository.findById(alunoId)
+                .orElseThrow(() -> new IllegalArgumentException("Aluno não encontrado"));
+        return new FichaAlunoDTO(FichaAlunoDTO.DadosAluno.de(aluno),
+                alunoResponsavelRepository.findByAlunoIdAndAtivoTrue(alunoId).stream()
+                        .map(FichaAlunoDTO.ResponsavelFicha::de).toList(),
+                matriculaRepository.findByAlunoIdOrderByDataInicioDescIdDesc(alunoId).stream()
+                        .map(FichaAlunoDTO.MatriculaFicha::de).toList(),
+                versao);
+    }
+
+    public boolean estaAtual(FichaAlunoDTO ficha) {
+        long versao = ficha.getVersao();
+        return ultimaAlteracaoGeral.get() <= versao
+                && ultimaAlteracao.getOrDefault(ficha.getAlunoId(), 0L) <= versao;
+    }
+
+    // ===== Invalidação (depois do commit) =====
+    // Listeners concorrentes podem gravar fora de ordem: fica sempre o maior número, nunca um anterior
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFichaAlterada(FichaAlunoAlteradaEvent event) {
+        long n = sequencia.incrementAndGet();
+        if (event.isTodos()) {
+            ultimaAlteracaoGeral.accumulateAndGet(n, Math::max);
+        } else {
+            event.getAlunoIds().forEach(id -> ultimaAlteracao.merge(id, n, Math::max));
+        }
+    }
+
+    // Nome/contatos de um responsável aparecem na ficha de todos os alunos a que ele está vinculado
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPessoaAlterada(PessoaAlteradaEvent event) {
+        if (event.getTipo() == TipoPessoa.RESPONSAVEL) {
+            ultimaAlteracaoGeral.accumulateAndGet(sequencia.incrementAndGet(), Math::max);
+        }
+    }
+
+    // Código/nome da turma aparecem no histórico de matrículas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIndicadoresAlterados(IndicadoresAlteradosEvent event) {
+        if (event.getArea() == IndicadoresAlteradosEvent.Area.TURMAS) {
+            ultimaAlteracaoGeral.accumulateAndGet(sequencia.incrementAndGet(), Math::max);
+        }
+    }
+
+    private void requireAdmin(Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.enums.Turno;
+
+import java.time.DayOfWeek;
+
+/**
+ * Posições ("slots") das aulas na semana, comuns a todos os turnos para que choques entre turnos apareçam:
+ * cada dia útil tem 5 aulas de manhã, 5 à tarde e 4 à noite, numeradas de 0 a 13; o integral ocupa
+ * manhã e tarde. O slot da semana é dia * AULAS_POR_DIA + aula do dia.
+ */
+public final class HorarioSemanal {
+
+    public static final int DIAS = 5;               // segunda a sexta
+    public static final int AULAS_POR_DIA = 14;
+    public static final int SLOTS = DIAS * AULAS_POR_DIA;
+
+    private HorarioSemanal() {
+    }
+
+    // Primeira aula do turno no dia (0 = primeira da manhã)
+    public static int primeiraAula(Turno turno) {
+        return switch (turno) {
+            case MANHA, INTEGRAL -> 0;
+            case TARDE -> 5;
+            case NOITE -> 10;
+        };
+    }
+
+    public static int aulasNoTurno(Turno turno) {
+        return switch (turno) {
+            case MANHA, TARDE -> 5;
+            case NOITE -> 4;
+            case INTEGRAL -> 10;
+        };
+    }
+
+    // "aula" = número da aula dentro do turno, a partir de 1 (como em HorarioAula)
+    public static int slot(Turno turno, DayOfWeek dia, int aula) {
+        return (dia.getValue() - 1) * AULAS_POR_DIA + primeiraAula(turno) + aula - 1;
+    }
+
+    public static DayOfWeek dia(int slot) {
+        return DayOfWeek.of(slot / AULAS_POR_DIA + 1);
+    }
+
+    public static int aulaNoTurno(Turno turno, int slot) {
+        return slot % AULAS_POR_DIA - primeiraAula(turno) + 1;
+    }
+
+    // Dois turnos dividem alguma aula do dia (ex.: integral e manhã)
+    public static boolean turnosSeSobrepoem(Turno a, Turno b) {
+        int inicioA = primeiraAula(a), inicioB = primeiraAula(b);
+        return inicioA < inicioB + aulasNoTurno(b) && inicioB < inicioA + aulasNoTurno(a);
+    }
+}
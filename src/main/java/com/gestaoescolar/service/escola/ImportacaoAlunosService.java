@@ -0,0 +1,551 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.ImportacaoResultadoDTO;
+import com.gestaoescolar.dto.PessoaNomeDTO;
+import com.gestaoescolar.model.Aluno;
+import com.gestaoescolar.model.Responsavel;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.TipoPessoa;
+import com.gestaoescolar.repository.AlunoRepository;
+import com.gestaoescolar.repository.ResponsavelRepository;
+import com.gestaoescolar.util.LeitorCsv;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Importação de alunos (e até dois responsáveis por aluno) a partir de CSV.
+ * O arquivo é lido em lotes de {@link #TAMANHO_LOTE} linhas: a validação de cada lote roda em paralelo,
+ * os CPFs são conferidos com uma consulta IN por lote e a gravação usa batch JDBC, em uma transação por lote.
+ * Linhas inválidas são apenas registradas no resultado; a importação continua.
+ * Cada responsável é criado ou atualizado uma única vez por importação (pelo CPF).
+ */
+@Service
+public class ImportacaoAlunosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportacaoAlunosService.class);
+
+    static final int TAMANHO_LOTE = 500;
+
+    // Colunas do CSV (cabeçalho obrigatório; nomes sem acento, minúsculos, com "_" no lugar de espaço)
+    public static final List<String> COLUNAS_ALUNO = List.of(
+            "nome_completo", "nome_social", "data_nascimento", "genero", "cor_raca",
+            "cpf", "doc_tipo", "doc_numero", "inep", "nis",
+            "cep", "logradouro", "numero", "complemento", "bairro", "cidade", "uf",
+            "telefone", "email", "alergias", "observacoes_saude", "observacoes");
+    public static final List<String> COLUNAS_RESPONSAVEL = List.of(
+            "nome", "cpf", "parentesco", "rg", "telefone1", "telefone2", "email",
+            "didatico", "financeiro", "legal");
+    private static final String[] PREFIXOS_RESPONSAVEL = {"resp1_", "resp2_"};
+
+    private static final DateTimeFormatter DATA_BR = DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private static final String INSERT_ALUNO =
+            "INSERT INTO aluno (ativo, nome_completo, nome_social, data_nascimento, genero, cor_raca, " +
+            "cpf, doc_tipo, doc_numero, inep, nis, cep, logradouro, numero, complemento, bairro, cidade, uf, " +
+            "telefone, email, alergias, observacoes_saude, observacoes, created_at, updated_at) " +
+            "VALUES (TRUE, :nomeCompleto, :nomeSocial, :dataNascimento, :genero, :corRaca, " +
+            ":cpf, :docTipo, :docNumero, :inep, :nis, :cep, :logradouro, :numero, :complemento, :bairro, :cidade, :uf, " +
+            ":telefone, :email, :alergias, :observacoesSaude, :observacoes, :agora, :agora)";
+
+    private static final String INSERT_RESPONSAVEL =
+            "INSERT INTO responsavel (nome, cpf, rg, parentesco, telefone1, telefone2, email, created_at, updated_at) " +
+            "VALUES (:nome, :cpf, :rg, :parentesco, :telefone1, :telefone2, :email, :agora, :agora)";
+
+    private static final String UPDATE_RESPONSAVEL =
+            "UPDATE responsavel SET nome = :nome, rg = :rg, parentesco = :parentesco, telefone1 = :telefone1, " +
+            "telefone2 = :telefone2, email = :email, updated_at = :agora WHERE id = :id";
+
+    private static final String INSERT_VINCULO =
+            "INSERT INTO aluno_responsavel (aluno_id, responsavel_id, responsavel_didatico, responsavel_financeiro, " +
+            "responsavel_legal, ativo, created_at, updated_at) " +
+            "VALUES (:alunoId, :responsavelId, :didatico, :financeiro, :legal, TRUE, :agora, :agora)";
+
+    private final AlunoService alunoService;
+    private final AlunoRepository alunoRepository;
+    private final ResponsavelRepository responsavelRepository;
+    private final BuscaPessoasService buscaPessoasService;
+    private final NamedParameterJdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResponsavelCache responsavelCache;
+
+    // Uma importação por vez, fora do thread da tela
+    private final ExecutorService importacoes = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "importacao-alunos");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ImportacaoAlunosService(AlunoService alunoService,
+                                   AlunoRepository alunoRepository,
+                                   ResponsavelRepository responsavelRepository,
+                                   BuscaPessoasService buscaPessoasService,
+                                   NamedParameterJdbcTemplate jdbc,
+                                   PlatformTransactionManager transactionManager,
+                                   ApplicationEventPublisher eventPublisher,
+                                   ResponsavelCache responsavelCache) {
+        this.alunoService = alunoService;
+        this.alunoRepository = alunoRepository;
+        this.responsavelRepository = responsavelRepository;
+        this.buscaPessoasService = buscaPessoasService;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.responsavelCache = responsavelCache;
+    }
+
+    // Uma linha do CSV já convertida e validada (ou com o erro encontrado)
+    private static final class Linha {
+        final int numero;
+        Aluno aluno;
+        Long alunoId;                      // preenchido ao gravar
+        final List<VinculoCsv> responsaveis = new ArrayList<>(2);
+        String erro;
+
+        Linha(int numero) {
+            this.numero = numero;
+        }
+    }
+
+    private record VinculoCsv(Responsavel dados, boolean didatico, boolean financeiro, boolean legal) {}
+
+    /**
+     * Valida o acesso e enfileira a importação do arquivo; o resultado (ou o erro) chega pelo future,
+     * fora do thread de quem chamou. O arquivo é aberto e fechado no thread da importação.
+     *
+     * @param progresso opcional; chamado (no thread da importação) ao fim de cada lote
+     */
+    public CompletableFuture<ImportacaoResultadoDTO> iniciarImportacao(Path arquivo, Usuario usuario,
+                                                                       Consumer<Integer> progresso) {
+        verificarAcesso(usuario);
+        return CompletableFuture.supplyAsync(() -> {
+            try (InputStream in = Files.newInputStream(arquivo)) {
+                return importar(in, usuario, progresso);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, importacoes);
+    }
+
+    @PreDestroy
+    void encerrar() {
+        importacoes.shutdownNow();
+    }
+
+    /**
+     * Importa o CSV (UTF-8, separador ';' ou ',') com cabeçalho no thread de quem chamou.
+     *
+     * @param progresso opcional; recebe o total de linhas processadas ao fim de cada lote
+     */
+    public ImportacaoResultadoDTO importar(InputStream csv, Usuario usuario, Consumer<Integer> progresso) {
+        verificarAcesso(usuario);
+        long inicio = System.currentTimeMillis();
+        ImportacaoResultadoDTO resultado = new ImportacaoResultadoDTO();
+
+        LeitorCsv leitor = new LeitorCsv(new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8)));
+        String[] cabecalho = leitor.proximo();
+        if (cabecalho == null) {
+            throw new IllegalArgumentException("Arquivo CSV vazio");
+        }
+        Map<String, Integer> colunas = mapearColunas(cabecalho);
+
+        // CPF do responsável -> id, para criar/atualizar cada responsável uma única vez na importação
+        Map<String, Long> responsaveisGravados = new HashMap<>();
+
+        List<String[]> registros = new ArrayList<>(TAMANHO_LOTE);
+        List<Integer> numeros = new ArrayList<>(TAMANHO_LOTE);
+        String[] registro;
+        while ((registro = leitor.proximo()) != null) {
+            registros.add(registro);
+            numeros.add(leitor.getLinhaInicioRegistro());
+            if (registros.size() == TAMANHO_LOTE) {
+                processarLote(registros, numeros, colunas, responsaveisGravados, resultado);
+                registros.clear();
+                numeros.clear();
+                if (progresso != null) progresso.accept(resultado.getLinhasLidas());
+            }
+        }
+        if (!registros.isEmpty()) {
+            processarLote(registros, numeros, colunas, responsaveisGravados, resultado);
+            if (progresso != null) progresso.accept(resultado.getLinhasLidas());
+        }
+
+        if (resultado.getAlunosCriados() > 0) {
+            eventPublisher.publishEvent(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.ALUNOS));
+        }
+        if (resultado.getResponsaveisAtualizados() > 0) {
+            // Responsáveis atualizados aparecem nas fichas de alunos já cadastrados
+            eventPublisher.publishEvent(FichaAlunoAlteradaEvent.todos());
+        }
+        log.info("Importação de alunos: {} linhas, {} alunos, {} responsáveis novos, {} erros em {} ms",
+                resultado.getLinhasLidas(), resultado.getAlunosCriados(), resultado.getResponsaveisCriados(),
+                resultado.getTotalErros(), System.currentTimeMillis() - inicio);
+        return resultado;
+    }
+
+    private static void verificarAcesso(Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+    }
+
+    private void processarLote(List<String[]> registros, List<Integer> numeros, Map<String, Integer> colunas,
+                               Map<String, Long> responsaveisGravados, ImportacaoResultadoDTO resultado) {
+        resultado.addLinhasLidas(registros.size());
+
+        // 1) Conversão e validação sem banco, em paralelo (a ordem das linhas é mantida)
+        List<Linha> linhas = IntStream.range(0, registros.size()).parallel()
+                .mapToObj(i -> converter(registros.get(i), numeros.get(i), colunas))
+                .toList();
+
+        // 2) CPF de aluno repetido no próprio lote ou já cadastrado (uma consulta IN)
+        Set<String> cpfsNoLote = new HashSet<>();
+        for (Linha l : linhas) {
+            String cpf = l.erro == null ? l.aluno.getCpf() : null;
+            if (cpf != null && !cpfsNoLote.add(cpf)) {
+                l.erro = "CPF do aluno repetido no arquivo";
+            }
+        }
+        if (!cpfsNoLote.isEmpty()) {
+            Set<String> existentes = new HashSet<>(alunoRepository.findCpfsExistentes(cpfsNoLote));
+            for (Linha l : linhas) {
+                if (l.erro == null && l.aluno.getCpf() != null && existentes.contains(l.aluno.getCpf())) {
+                    l.erro = "Já existe um aluno com este CPF";
+                }
+            }
+        }
+
+        List<Linha> validas = linhas.stream().filter(l -> l.erro == null).toList();
+        if (!validas.isEmpty()) {
+            try {
+                gravarLote(validas, responsaveisGravados, resultado);
+            } catch (RuntimeException ex) {
+                // Falha de banco no lote (ex.: CPF gravado ao mesmo tempo por outra tela): o lote inteiro volta
+                // e é regravado linha a linha, para que só as linhas que realmente falham fiquem com erro
+                log.warn("Lote de importação não gravado (linhas {} a {}), regravando linha a linha: {}",
+                        validas.get(0).numero, validas.get(validas.size() - 1).numero, ex.getMessage());
+                for (Linha l : validas) {
+                    try {
+                        gravarLote(List.of(l), responsaveisGravados, resultado);
+                    } catch (RuntimeException exLinha) {
+                        l.erro = "Linha não gravada: " + (exLinha.getMessage() != null
+                                ? exLinha.getMessage() : exLinha.getClass().getSimpleName());
+                    }
+                }
+            }
+        }
+
+        for (Linha l : linhas) {
+            if (l.erro != null) resultado.addErro(l.numero, l.erro);
+        }
+    }
+
+    // Grava as linhas numa transação; contadores e índice de busca só são atualizados depois do commit
+    private void gravarLote(List<Linha> linhas, Map<String, Long> responsaveisGravados,
+                            ImportacaoResultadoDTO resultado) {
+        ImportacaoResultadoDTO lote = new ImportacaoResultadoDTO();
+        Map<String, Long> novosResponsaveis = tx.execute(status -> gravar(linhas, responsaveisGravados, lote));
+        responsaveisGravados.putAll(novosResponsaveis);
+        // Responsáveis criados ou atualizados pelo lote não podem ser servidos desatualizados
+        responsavelCache.descartar(novosResponsaveis.keySet());
+        resultado.addAlunosCriados(lote.getAlunosCriados());
+        resultado.addResponsaveisCriados(lote.getResponsaveisCriados());
+        resultado.addResponsaveisAtualizados(lote.getResponsaveisAtualizados());
+        resultado.addVinculosCriados(lote.getVinculosCriados());
+        indexar(linhas, novosResponsaveis);
+    }
+
+    // Grava responsáveis, alunos e vínculos do lote; devolve CPF -> id dos responsáveis gravados pela primeira vez
+    private Map<String, Long> gravar(List<Linha> linhas, Map<String, Long> responsaveisGravados,
+                                     ImportacaoResultadoDTO resultado) {
+        Timestamp agora = Timestamp.valueOf(LocalDateTime.now());
+
+        // Responsáveis ainda não vistos nesta importação (primeira ocorrência de cada CPF prevalece)
+        Map<String, Responsavel> pendentes = new LinkedHashMap<>();
+        for (Linha l : linhas) {
+            for (VinculoCsv v : l.responsaveis) {
+                String cpf = v.dados().getCpf();
+                if (!responsaveisGravados.containsKey(cpf)) pendentes.putIfAbsent(cpf, v.dados());
+            }
+        }
+
+        Map<String, Long> idsResponsaveis = new HashMap<>();
+        if (!pendentes.isEmpty()) {
+            List<SqlParameterSource> updates = new ArrayList<>();
+            for (Responsavel existente : responsavelRepository.findByCpfIn(pendentes.keySet())) {
+                Responsavel dados = pendentes.remove(existente.getCpf());
+                idsResponsaveis.put(existente.getCpf(), existente.getId());
+                updates.add(parametrosResponsavel(dados, agora).addValue("id", existente.getId()));
+            }
+            if (!updates.isEmpty()) {
+                jdbc.batchUpdate(UPDATE_RESPONSAVEL, updates.toArray(new SqlParameterSource[0]));
+                resultado.addResponsaveisAtualizados(updates.size());
+            }
+
+            List<Responsavel> novos = new ArrayList<>(pendentes.values());
+            if (!novos.isEmpty()) {
+                SqlParameterSource[] inserts = novos.stream()
+                        .map(r -> parametrosResponsavel(r, agora)).toArray(SqlParameterSource[]::new);
+                List<Long> ids = inserirComChaves(INSERT_RESPONSAVEL, inserts);
+                for (int i = 0; i < novos.size(); i++) {
+                    idsResponsaveis.put(novos.get(i).getCpf(), ids.get(i));
+                }
+                resultado.addResponsaveisCriados(novos.size());
+            }
+        }
+
+        SqlParameterSource[] alunos = linhas.stream()
+                .map(l -> parametrosAluno(l.aluno, agora)).toArray(SqlParameterSource[]::new);
+        List<Long> idsAlunos = inserirComChaves(INSERT_ALUNO, alunos);
+
+        List<SqlParameterSource> vinculos = new ArrayList<>();
+        for (int i = 0; i < linhas.size(); i++) {
+            Linha l = linhas.get(i);
+            l.alunoId = idsAlunos.get(i);
+            for (VinculoCsv v : l.responsaveis) {
+                String cpf = v.dados().getCpf();
+                Long responsavelId = idsResponsaveis.getOrDefault(cpf, responsaveisGravados.get(cpf));
+                vinculos.add(new MapSqlParameterSource()
+                        .addValue("alunoId", l.alunoId)
+                        .addValue("responsavelId", responsavelId)
+                        .addValue("didatico", v.didatico())
+                        .addValue("financeiro", v.financeiro())
+                        .addValue("legal", v.legal())
+                        .addValue("agora", agora));
+            }
+        }
+        if (!vinculos.isEmpty()) {
+            jdbc.batchUpdate(INSERT_VINCULO, vinculos.toArray(new SqlParameterSource[0]));
+        }
+
+        resultado.addAlunosCriados(linhas.size());
+        resultado.addVinculosCriados(vinculos.size());
+        return idsResponsaveis;
+    }
+
+    private List<Long> inserirComChaves(String sql, SqlParameterSource[] parametros) {
+        GeneratedKeyHolder chaves = new GeneratedKeyHolder();
+        jdbc.batchUpdate(sql, parametros, chaves, new String[]{"id"});
+        List<Long> ids = new ArrayList<>(parametros.length);
+        for (Map<String, Object> chave : chaves.getKeyList()) {
+            ids.add(((Number) chave.values().iterator().next()).longValue());
+        }
+        if (ids.size() != parametros.length) {
+            throw new IllegalStateException("O banco não devolveu os ids gerados no lote");
+        }
+        return ids;
+    }
+
+    // Depois do commit: a busca de pessoas passa a encontrar os novos nomes sem reler do banco
+    private void indexar(List<Linha> linhas, Map<String, Long> novosResponsaveis) {
+        buscaPessoasService.indexar(TipoPessoa.ALUNO, linhas.stream()
+                .map(l -> new PessoaNomeDTO(l.alunoId, l.aluno.getNomeCompleto(), l.aluno.getNomeSocial()))
+                .toList());
+        if (!novosResponsaveis.isEmpty()) {
+            Map<String, String> nomes = new HashMap<>();
+            linhas.forEach(l -> l.responsaveis.forEach(v -> nomes.putIfAbsent(v.dados().getCpf(), v.dados().getNome())));
+            buscaPessoasService.indexar(TipoPessoa.RESPONSAVEL, novosResponsaveis.entrySet().stream()
+                    .map(e -> new PessoaNomeDTO(e.getValue(), nomes.get(e.getKey())))
+                    .toList());
+        }
+    }
+
+    // ===== Conversão das linhas =====
+
+    private Linha converter(String[] campos, int numero, Map<String, Integer> colunas) {
+        Linha linha = new Linha(numero);
+        try {
+            Aluno a = new Aluno();
+            a.setNomeCompleto(valor(campos, colunas, "nome_completo"));
+            a.setNomeSocial(valor(campos, colunas, "nome_social"));
+            a.setDataNascimento(data(valor(campos, colunas, "data_nascimento")));
+            a.setGenero(genero(valor(campos, colunas, "genero")));
+            a.setCorRaca(valor(campos, colunas, "cor_raca"));
+            a.setCpf(valor(campos, colunas, "cpf"));
+            a.setDocTipo(valor(campos, colunas, "doc_tipo"));
+            a.setDocNumero(valor(campos, colunas, "doc_numero"));
+            a.setInep(valor(campos, colunas, "inep"));
+            a.setNis(valor(campos, colunas, "nis"));
+            a.setCep(valor(campos, colunas, "cep"));
+            a.setLogradouro(valor(campos, colunas, "logradouro"));
+            a.setNumero(valor(campos, colunas, "numero"));
+            a.setComplemento(valor(campos, colunas, "complemento"));
+            a.setBairro(valor(campos, colunas, "bairro"));
+            a.setCidade(valor(campos, colunas, "cidade"));
+            a.setUf(valor(campos, colunas, "uf"));
+            a.setTelefone(valor(campos, colunas, "telefone"));
+            a.setEmail(valor(campos, colunas, "email"));
+            a.setAlergias(valor(campos, colunas, "alergias"));
+            a.setObservacoesSaude(valor(campos, colunas, "observacoes_saude"));
+            a.setObservacoes(valor(campos, colunas, "observacoes"));
+            alunoService.normalizeStudentFields(a);
+            alunoService.validateStudentFields(a);
+            linha.aluno = a;
+
+            for (int i = 0; i < PREFIXOS_RESPONSAVEL.length; i++) {
+                VinculoCsv v = responsavel(campos, colunas, PREFIXOS_RESPONSAVEL[i], i + 1);
+                if (v == null) continue;
+                for (VinculoCsv outro : linha.responsaveis) {
+                    if (outro.dados().getCpf().equals(v.dados().getCpf())) {
+                        throw new IllegalArgumentException("Os dois responsáveis têm o mesmo CPF");
+                    }
+                }
+                linha.responsaveis.add(v);
+            }
+        } catch (IllegalArgumentException ex) {
+            linha.erro = ex.getMessage();
+        }
+        return linha;
+    }
+
+    private VinculoCsv responsavel(String[] campos, Map<String, Integer> colunas, String prefixo, int ordem) {
+        boolean informado = COLUNAS_RESPONSAVEL.stream().anyMatch(c -> valor(campos, colunas, prefixo + c) != null);
+        if (!informado) {
+            return null;
+        }
+        Responsavel r = new Responsavel();
+        r.setNome(valor(campos, colunas, prefixo + "nome"));
+        r.setCpf(valor(campos, colunas, prefixo + "cpf"));
+        r.setParentesco(valor(campos, colunas, prefixo + "parentesco"));
+        r.setRg(valor(campos, colunas, prefixo + "rg"));
+        r.setTelefone1(valor(campos, colunas, prefixo + "telefone1"));
+        r.setTelefone2(valor(campos, colunas, prefixo + "telefone2"));
+        r.setEmail(valor(campos, colunas, prefixo + "email"));
+        try {
+            alunoService.normalizeAndValidateGuardian(r);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Responsável " + ordem + ": " + ex.getMessage());
+        }
+        return new VinculoCsv(r,
+                simNao(valor(campos, colunas, prefixo + "didatico")),
+                simNao(valor(campos, colunas, prefixo + "financeiro")),
+                simNao(valor(campos, colunas, prefixo + "legal")));
+    }
+
+    private static Map<String, Integer> mapearColunas(String[] cabecalho) {
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < cabecalho.length; i++) {
+            colunas.putIfAbsent(IndiceTrigramas.normalizar(cabecalho[i]).replace(' ', '_'), i);
+        }
+        for (String obrigatoria : List.of("nome_completo", "data_nascimento")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new IllegalArgumentException("Cabeçalho do CSV sem a coluna obrigatória: " + obrigatoria);
+            }
+        }
+        return colunas;
+    }
+
+    private static String valor(String[] campos, Map<String, Integer> colunas, String coluna) {
+        Integer i = colunas.get(coluna);
+        if (i == null || i >= campos.length || campos[i].isBlank()) return null;
+        return campos[i].trim();
+    }
+
+    private static LocalDate data(String texto) {
+        if (texto == null) return null;
+        try {
+            return texto.contains("/") ? LocalDate.parse(texto, DATA_BR) : LocalDate.parse(texto);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Data de nascimento inválida: " + texto);
+        }
+    }
+
+    private static Genero genero(String texto) {
+        if (texto == null) return null;
+        String t = IndiceTrigramas.normalizar(texto);
+        for (Genero g : Genero.values()) {
+            if (t.equals(IndiceTrigramas.normalizar(g.name())) || t.equals(IndiceTrigramas.normalizar(g.getDescricao()))) {
+                return g;
+            }
+        }
+        return switch (t) {
+            case "m" -> Genero.MASCULINO;
+            case "f" -> Genero.FEMININO;
+            default -> throw new IllegalArgumentException("Gênero inválido: " + texto);
+        };
+    }
+
+    private static boolean simNao(String texto) {
+        if (texto == null) return false;
+        return switch (IndiceTrigramas.normalizar(texto)) {
+            case "sim", "s", "x", "true", "1" -> true;
+            default -> false;
+        };
+    }
+
+    private static MapSqlParameterSource parametrosAluno(Aluno a, Timestamp agora) {
+        return new MapSqlParameterSource()
+                .addValue("nomeCompleto", a.getNomeCompleto())
+                .addValue("nomeSocial", a.getNomeSocial())
+                .addValue("dataNascimento", a.getDataNascimento())
+                .addValue("genero", a.getGenero() != null ? a.getGenero().name() : null)
+                .addValue("corRaca", a.getCorRaca())
+                .addValue("cpf", a.getCpf())
+                .addValue("docTipo", a.getDocTipo())
+                .addValue("docNumero", a.getDocNumero())
+                .addValue("inep", a.getInep())
+                .addValue("nis", a.getNis())
+                .addValue("cep", a.getCep())
+                .addValue("logradouro", a.getLogradouro())
+                .addValue("numero", a.getNumero())
+                .addValue("complemento", a.getComplemento())
+                .addValue("bairro", a.getBairro())
+                .addValue("cidade", a.getCidade())
+                .addValue("uf", a.getUf())
+                .addValue("telefone", a.getTelefone())
+                .addValue("email", a.getEmail())
+                .addValue("alergias", a.getAlergias())
+                .addValue("observacoesSaude", a.getObservacoesSaude())
+                .addValue("observacoes", a.getObservacoes())
+                .addValue("agora", agora);
+    }
+
+    private static MapSqlParameterSource parametrosResponsavel(Responsavel r, Timestamp agora) {
+        return new MapSqlParameterSource()
+                .addValue("nome", r.getNome())
+                .addValue("cpf", r.getCpf())
+                .addValue("rg", r.getRg())
+                .addValue("parentesco", r.getParentesco())
+                .addValue("telefone1", r.getTelefone1())
+                .addValue("telefone2", r.getTelefone2())
+                .addValue("email", r.getEmail())
+                .addValue("agora", agora);
+    }
+}
@@ -0,0 +1,20 @@
+package com.gestaoescolar.service.escola;
+
+/**
+ * Publicado pelos serviços ao alterar dados que entram no dashboard.
+ * Depois do commit o DashboardService recalcula apenas a área informada.
+ */
+public class IndicadoresAlteradosEvent {
+
+    public enum Area { ALUNOS, TURMAS, PROFESSORES }
+
+    private final Area area;
+
+    public IndicadoresAlteradosEvent(Area area) {
+        this.area = area;
+    }
+
+    public Area getArea() {
+        return area;
+    }
+}
@@ -0,0 +1,310 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.PessoaBuscaResultadoDTO;
+import com.gestaoescolar.dto.PessoaNomeDTO;
+import com.gestaoescolar.model.enums.TipoPessoa;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido de trigramas dos nomes, sem acentos e em minúsculas ("João" e "Joao" geram os mesmos trigramas).
+ * Cada pessoa ocupa uma posição; cada trigrama guarda a lista de posições em que aparece.
+ * A busca conta quantos trigramas da consulta cada posição contém, então erros de digitação
+ * custam só alguns trigramas em vez de descartar o nome.
+ * Alterar uma pessoa invalida a posição antiga e acrescenta uma nova; o índice é compactado
+ * quando as posições invalidadas passam de um quarto do total.
+ */
+final class IndiceTrigramas {
+
+    private static final int ALFABETO = 37;    // espaço, a-z, 0-9
+    private static final int TOTAL_TRIGRAMAS = ALFABETO * ALFABETO * ALFABETO;
+
+    // Fração mínima dos trigramas da consulta que um nome precisa conter para entrar no resultado
+    private static final double COBERTURA_MINIMA = 0.4;
+
+    // Soma à relevância quando a consulta aparece inteira no nome (já normalizado)
+    private static final double BONUS_TRECHO_EXATO = 0.5;
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+
+    private static final class Entrada {
+        final TipoPessoa tipo;
+        final Long id;
+        final String nome;
+        final String[] normalizados;
+        final int[] trigramas;
+
+        Entrada(TipoPessoa tipo, Long id, String nome, String[] normalizados, int[] trigramas) {
+            this.tipo = tipo;
+            this.id = id;
+            this.nome = nome;
+            this.normalizados = normalizados;
+            this.trigramas = trigramas;
+        }
+
+        boolean contem(String consulta) {
+            for (String n : normalizados) {
+                if (n.contains(consulta)) return true;
+            }
+            return false;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Contadores de acertos por posição, reaproveitados entre buscas da mesma thread (a cada tecla):
+    // voltam a zero pelas posições tocadas, sem realocar nem varrer o índice inteiro
+    private final ThreadLocal<int[]> contadores = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final int[][] posicoes = new int[TOTAL_TRIGRAMAS][];
+    private final int[] tamanhos = new int[TOTAL_TRIGRAMAS];
+    private final List<Entrada> entradas = new ArrayList<>();           // índice = posição; null = invalidada
+    private final Map<TipoPessoa, Map<Long, Integer>> posicaoPorPessoa = new EnumMap<>(TipoPessoa.class);
+    private int invalidadas;
+
+    IndiceTrigramas() {
+        for (TipoPessoa tipo : TipoPessoa.values()) {
+            posicaoPorPessoa.put(tipo, new HashMap<>());
+        }
+    }
+
+    // Descarta tudo e indexa as listas informadas
+    void recriar(Map<TipoPessoa, List<PessoaNomeDTO>> pessoas) {
+        lock.writeLock().lock();
+        try {
+            limpar();
+            pessoas.forEach((tipo, lista) -> lista.forEach(p -> inserir(tipo, p)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void atualizar(TipoPessoa tipo, PessoaNomeDTO pessoa) {
+        lock.writeLock().lock();
+        try {
+            invalidar(tipo, pessoa.getId());
+            inserir(tipo, pessoa);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remover(TipoPessoa tipo, Long id) {
+        lock.writeLock().lock();
+        try {
+            invalidar(tipo, id);
+            compactarSeNecessario();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int tamanho() {
+        lock.readLock().lock();
+        try {
+            return entradas.size() - invalidadas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<PessoaBuscaResultadoDTO> buscar(String texto, int limite) {
+        String consulta = normalizar(texto);
+        if (consulta.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+        // A última palavra pode estar incompleta (busca enquanto digita): sem o espaço final
+        int[] trigramas = trigramas(consulta, true);
+        int minimo = Math.max(1, (int) Math.ceil(trigramas.length * COBERTURA_MINIMA));
+
+        Comparator<PessoaBuscaResultadoDTO> porRelevancia = Comparator
+                .comparingDouble(PessoaBuscaResultadoDTO::getRelevancia)
+                .thenComparing(PessoaBuscaResultadoDTO::getNome, Comparator.reverseOrder());
+        PriorityQueue<PessoaBuscaResultadoDTO> melhores = new PriorityQueue<>(limite + 1, porRelevancia);
+
+        lock.readLock().lock();
+        try {
+            // Quem atinge o mínimo aparece em pelo menos uma das (n - mínimo + 1) listas mais curtas:
+            // só elas geram candidatos; nas listas longas restantes apenas conferimos os candidatos
+            // (busca binária, pois cada lista está em ordem crescente de posição)
+            int[] ordem = Arrays.stream(trigramas).boxed()
+                    .sorted(Comparator.comparingInt(t -> tamanhos[t]))
+                    .mapToInt(Integer::intValue).toArray();
+            int geradoras = ordem.length - minimo + 1;
+
+            int[] acertos = contadores.get();
+            if (acertos.length < entradas.size()) {
+                acertos = new int[Math.max(entradas.size(), acertos.length * 2)];
+                contadores.set(acertos);
+            }
+            int[] tocadas = new int[64];
+            int totalTocadas = 0;
+            try {
+                for (int k = 0; k < geradoras; k++) {
+                    int t = ordem[k];
+                    int[] lista = posicoes[t];
+                    for (int i = 0; i < tamanhos[t]; i++) {
+                        int pos = lista[i];
+                        if (acertos[pos]++ == 0) {
+                            if (totalTocadas == tocadas.length) tocadas = Arrays.copyOf(tocadas, totalTocadas * 2);
+                            tocadas[totalTocadas++] = pos;
+                        }
+                    }
+                }
+                for (int k = geradoras; k < ordem.length; k++) {
+                    int t = ordem[k];
+                    int[] lista = posicoes[t];
+                    int tamanho = tamanhos[t];
+                    if ((long) totalTocadas * 20 < tamanho) {
+                        for (int i = 0; i < totalTocadas; i++) {
+                            if (Arrays.binarySearch(lista, 0, tamanho, tocadas[i]) >= 0) acertos[tocadas[i]]++;
+                        }
+                    } else {
+                        for (int i = 0; i < tamanho; i++) {
+                            if (acertos[lista[i]] > 0) acertos[lista[i]]++;
+                        }
+                    }
+                }
+
+                // piso = menor relevância entre os "limite" melhores; candidatos que não o superam nem são montados
+                double piso = -1;
+                for (int i = 0; i < totalTocadas; i++) {
+                    int pos = tocadas[i];
+                    if (acertos[pos] < minimo) continue;
+                    Entrada e = entradas.get(pos);
+                    if (e == null) continue;
+                    double relevancia = 0.8 * acertos[pos] / trigramas.length + 0.2 * acertos[pos] / e.trigramas.length;
+                    if (relevancia + BONUS_TRECHO_EXATO <= piso) continue;
+                    if (e.contem(consulta)) relevancia += BONUS_TRECHO_EXATO;
+                    if (relevancia <= piso) continue;
+
+                    melhores.add(new PessoaBuscaResultadoDTO(e.tipo, e.id, e.nome, relevancia));
+                    if (melhores.size() > limite) melhores.poll();
+                    if (melhores.size() == limite) piso = melhores.peek().getRelevancia();
+                }
+            } finally {
+                for (int i = 0; i < totalTocadas; i++) {
+                    acertos[tocadas[i]] = 0;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<PessoaBuscaResultadoDTO> resultado = new ArrayList<>(melhores);
+        resultado.sort(porRelevancia.reversed());
+        return resultado;
+    }
+
+    // ===== Manutenção (chamadas com o lock de escrita) =====
+
+    private void inserir(TipoPessoa tipo, PessoaNomeDTO pessoa) {
+        String nome = pessoa.getNome() != null ? pessoa.getNome().trim() : "";
+        String alternativo = pessoa.getNomeAlternativo() != null ? pessoa.getNomeAlternativo().trim() : "";
+        String nomeNormalizado = normalizar(nome);
+        String alternativoNormalizado = normalizar(alternativo);
+
+        List<String> textos = new ArrayList<>(2);
+        if (!nomeNormalizado.isEmpty()) textos.add(nomeNormalizado);
+        if (!alternativoNormalizado.isEmpty() && !alternativoNormalizado.equals(nomeNormalizado)) textos.add(alternativoNormalizado);
+        if (textos.isEmpty()) {
+            return;
+        }
+        String[] normalizados = textos.toArray(new String[0]);
+        String exibicao = normalizados.length == 2 ? alternativo + " (" + nome + ")"
+                : (nomeNormalizado.isEmpty() ? alternativo : nome);
+
+        int[] codigos = trigramas(String.join(" ", normalizados), false);
+        int posicao = entradas.size();
+        entradas.add(new Entrada(tipo, pessoa.getId(), exibicao, normalizados, codigos));
+        for (int t : codigos) {
+            acrescentar(t, posicao);
+        }
+        posicaoPorPessoa.get(tipo).put(pessoa.getId(), posicao);
+    }
+
+    private void acrescentar(int trigrama, int posicao) {
+        int[] lista = posicoes[trigrama];
+        if (lista == null) {
+            lista = posicoes[trigrama] = new int[4];
+        } else if (tamanhos[trigrama] == lista.length) {
+            lista = posicoes[trigrama] = Arrays.copyOf(lista, lista.length * 2);
+        }
+        lista[tamanhos[trigrama]++] = posicao;
+    }
+
+    private void invalidar(TipoPessoa tipo, Long id) {
+        Integer posicao = posicaoPorPessoa.get(tipo).remove(id);
+        if (posicao != null) {
+            entradas.set(posicao, null);
+            invalidadas++;
+        }
+    }
+
+    private void compactarSeNecessario() {
+        if (invalidadas < 1024 || invalidadas * 4 < entradas.size()) {
+            return;
+        }
+        List<Entrada> vivas = entradas.stream().filter(e -> e != null).toList();
+        limpar();
+        for (Entrada e : vivas) {
+            int posicao = entradas.size();
+            entradas.add(e);
+            for (int t : e.trigramas) {
+                acrescentar(t, posicao);
+            }
+            posicaoPorPessoa.get(e.tipo).put(e.id, posicao);
+        }
+    }
+
+    private void limpar() {
+        Arrays.fill(tamanhos, 0);
+        entradas.clear();
+        posicaoPorPessoa.values().forEach(Map::clear);
+        invalidadas = 0;
+    }
+
+    // ===== Texto =====
+
+    // Minúsculas, sem acentos, apenas letras/dígitos separados por um espaço
+    static String normalizar(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return "";
+        }
+        String semAcento = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcento.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", " ").trim();
+    }
+
+    // Trigramas distintos (ordenados) de cada palavra, com dois espaços antes e um depois, como no pg_trgm
+    private static int[] trigramas(String normalizado, boolean ultimaPalavraParcial) {
+        String[] palavras = normalizado.split(" ");
+        int[] codigos = new int[normalizado.length() + 3 * palavras.length];
+        int n = 0;
+        for (int p = 0; p < palavras.length; p++) {
+            boolean parcial = ultimaPalavraParcial && p == palavras.length - 1;
+            String w = "  " + palavras[p] + (parcial ? "" : " ");
+            for (int i = 0; i + 3 <= w.length(); i++) {
+                codigos[n++] = (codigo(w.charAt(i)) * ALFABETO + codigo(w.charAt(i + 1))) * ALFABETO + codigo(w.charAt(i + 2));
+            }
+        }
+        return Arrays.stream(codigos, 0, n).sorted().distinct().toArray();
+    }
+
+    private static int codigo(char c) {
+        if (c >= 'a' && c <= 'z') return c - 'a' + 1;
+        if (c >= '0' && c <= '9') return c - '0' + 27;
+        return 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+
+/**
+ * Variação de matrículas ATIVAS em uma turma (positiva ao matricular, negativa ao encerrar).
+ * Aplicada como incremento nos contadores do dashboard depois do commit.
+ */
+public class MatriculasAlteradasEvent {
+
+    private final Serie serie;
+    private final Turno turno;
+    private final boolean turmaComCapacidade;
+    private final int variacao;
+
+    public MatriculasAlteradasEvent(Turma turma, int variacao) {
+        this.serie = turma.getSerie();
+        this.turno = turma.getTurno();
+        this.turmaComCapacidade = turma.isAtiva() && turma.getCapacidade() != null;
+        this.variacao = variacao;
+    }
+
+    public Serie getSerie() {
+        return serie;
+    }
+
+    public Turno getTurno() {
+        return turno;
+    }
+
+    public boolean isTurmaComCapacidade() {
+        return turmaComCapacidade;
+    }
+
+    public int getVariacao() {
+        return variacao;
+    }
+}
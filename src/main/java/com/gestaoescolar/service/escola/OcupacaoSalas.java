@@ -0,0 +1,237 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.TurmaSalaDTO;
+import com.gestaoescolar.model.Sala;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.TurmaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Índice em memória de quem ocupa cada sala: (sala, parte do dia, ano letivo) -> turma.
+ * Turma integral ocupa manhã e tarde. Montado na subida da aplicação com uma consulta e mantido
+ * pelo {@link TurmaService} a cada criação, edição, ativação ou desativação de turma.
+ * A reserva entra no índice na hora (outra edição simultânea já enxerga a sala ocupada) e é
+ * desfeita se a transação que a fez não for confirmada; a sala que a turma deixa só é liberada
+ * depois da confirmação, para que ninguém a tome enquanto a troca ainda pode ser desfeita.
+ */
+@Component
+public class OcupacaoSalas {
+
+    private static final Logger log = LoggerFactory.getLogger(OcupacaoSalas.class);
+
+    // Partes do dia em que uma sala pode ser ocupada
+    public static final List<Turno> PARTES = List.of(Turno.MANHA, Turno.TARDE, Turno.NOITE);
+
+    public record Ocupante(Long turmaId, String codigoTurma, Turno turno) {
+    }
+
+    private record Chave(String sala, Turno parte, Long anoLetivoId) {
+    }
+
+    // Chave, na transação corrente, da pendência de uma turma
+    private record Reserva(Long turmaId) {
+    }
+
+    private final TurmaRepository turmaRepository;
+
+    private final Map<Chave, Ocupante> ocupacao = new HashMap<>();
+    private final Map<Long, List<Chave>> chavesDaTurma = new HashMap<>();
+
+    public OcupacaoSalas(TurmaRepository turmaRepository) {
+        this.turmaRepository = turmaRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruir() {
+        long inicio = System.currentTimeMillis();
+        List<TurmaSalaDTO> turmas = turmaRepository.listarSalasOcupadas();
+        int conflitos = 0;
+        synchronized (this) {
+            ocupacao.clear();
+            chavesDaTurma.clear();
+            for (TurmaSalaDTO t : turmas) {
+                List<Chave> chaves = chaves(Sala.normalizarCodigo(t.getSala()), t.getTurno(), t.getAnoLetivoId());
+                // Dados anteriores ao cadastro de salas podem ter choques: fica a primeira turma
+                if (chaves.isEmpty() || chaves.stream().anyMatch(ocupacao::containsKey)) {
+                    conflitos += chaves.isEmpty() ? 0 : 1;
+                    continue;
+                }
+                Ocupante o = new Ocupante(t.getTurmaId(), t.getCodigoTurma(), t.getTurno());
+                chaves.forEach(c -> ocupacao.put(c, o));
+                chavesDaTurma.put(t.getTurmaId(), chaves);
+            }
+        }
+        log.info("Índice de ocupação de salas montado: {} turmas em {} ms", turmas.size(), System.currentTimeMillis() - inicio);
+        if (conflitos > 0) {
+            log.warn("{} turma(s) ativas dividem sala e turno com outra turma do mesmo ano letivo", conflitos);
+        }
+    }
+
+    // Turma (diferente de ignorarTurmaId) que já ocupa a sala em alguma parte do turno, se houver
+    public synchronized Optional<Ocupante> ocupante(String sala, Turno turno, Long anoLetivoId, Long ignorarTurmaId) {
+        for (Chave c : chaves(Sala.normalizarCodigo(sala), turno, anoLetivoId)) {
+            Ocupante o = ocupacao.get(c);
+            if (o != null && !o.turmaId().equals(ignorarTurmaId)) {
+                return Optional.of(o);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // Ocupação de uma sala em um ano letivo, por parte do dia
+    public synchronized Map<Turno, Ocupante> ocupacaoDaSala(String sala, Long anoLetivoId) {
+        Map<Turno, Ocupante> partes = new EnumMap<>(Turno.class);
+        for (Turno parte : PARTES) {
+            Ocupante o = ocupacao.get(new Chave(sala, parte, anoLetivoId));
+            if (o != null) {
+                partes.put(parte, o);
+            }
+        }
+        return partes;
+    }
+
+    // Salas com alguma ocupação no ano letivo (inclusive as que ainda não estão cadastradas)
+    public synchronized List<String> salasOcupadas(Long anoLetivoId) {
+        return ocupacao.keySet().stream()
+                .filter(c -> c.anoLetivoId().equals(anoLetivoId))
+                .map(Chave::sala)
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Registra a sala da turma já gravada (ativa); a que ela ocupava antes só é liberada quando a
+     * transação for confirmada. Lança IllegalArgumentException se outra turma ocupa a sala no mesmo
+     * turno e ano letivo.
+     */
+    public synchronized void reservar(Turma turma) {
+        if (!turma.isAtiva()) {
+            liberar(turma.getId());
+            return;
+        }
+        List<Chave> novas = chaves(Sala.normalizarCodigo(turma.getSala()), turma.getTurno(), turma.getAnoLetivo().getId());
+        for (Chave c : novas) {
+            Ocupante o = ocupacao.get(c);
+            if (o != null && !o.turmaId().equals(turma.getId())) {
+                throw new IllegalArgumentException("Sala " + c.sala() + " já está ocupada no turno da "
+                        + c.parte().getDescricao().toLowerCase() + " pela turma " + o.codigoTurma());
+            }
+        }
+        Pendencia pendencia = pendencia(turma.getId());
+        Ocupante novo = new Ocupante(turma.getId(), turma.getCodigo(), turma.getTurno());
+        novas.forEach(c -> ocupacao.put(c, novo));
+        if (pendencia == null) {
+            confirmar(turma.getId(), chavesDaTurma.getOrDefault(turma.getId(), List.of()), novas);
+            return;
+        }
+        pendencia.reservadas.addAll(novas);
+        pendencia.finais = novas;
+    }
+
+    // Turma desativada: a sala fica livre quando a transação for confirmada
+    public synchronized void liberar(Long turmaId) {
+        Pendencia pendencia = pendencia(turmaId);
+        if (pendencia == null) {
+            confirmar(turmaId, chavesDaTurma.getOrDefault(turmaId, List.of()), List.of());
+            return;
+        }
+        pendencia.finais = List.of();
+    }
+
+    // Alterações de uma turma na transação corrente; as salas anteriores continuam reservadas até o fim dela
+    private static final class Pendencia {
+        final List<Chave> anteriores;
+        final Ocupante anterior;
+        final Set<Chave> reservadas = new HashSet<>();
+        List<Chave> finais;
+
+        Pendencia(List<Chave> anteriores, Ocupante anterior) {
+            this.anteriores = anteriores;
+            this.anterior = anterior;
+            this.finais = anteriores;
+        }
+    }
+
+    // Pendência da turma na transação corrente (criada na primeira gravação); null fora de transação
+    private Pendencia pendencia(Long turmaId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Reserva reserva = new Reserva(turmaId);
+        Pendencia pendencia = (Pendencia) TransactionSynchronizationManager.getResource(reserva);
+        if (pendencia != null) {
+            return pendencia;
+        }
+        List<Chave> anteriores = chavesDaTurma.getOrDefault(turmaId, List.of());
+        Pendencia nova = new Pendencia(anteriores, anteriores.isEmpty() ? null : ocupacao.get(anteriores.get(0)));
+        TransactionSynchronizationManager.bindResource(reserva, nova);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(reserva);
+                if (status == STATUS_COMMITTED) {
+                    concluir(turmaId, nova);
+                } else {
+                    reverter(turmaId, nova);
+                }
+            }
+        });
+        return nova;
+    }
+
+    private synchronized void concluir(Long turmaId, Pendencia pendencia) {
+        Set<Chave> ocupadas = new HashSet<>(pendencia.anteriores);
+        ocupadas.addAll(pendencia.reservadas);
+        confirmar(turmaId, ocupadas, pendencia.finais);
+    }
+
+    // A turma fica só com as chaves finais; as demais que ela ocupava são liberadas
+    private void confirmar(Long turmaId, Collection<Chave> ocupadas, List<Chave> finais) {
+        for (Chave c : ocupadas) {
+            if (!finais.contains(c)) {
+                ocupacao.computeIfPresent(c, (k, o) -> o.turmaId().equals(turmaId) ? null : o);
+            }
+        }
+        if (finais.isEmpty()) {
+            chavesDaTurma.remove(turmaId);
+        } else {
+            chavesDaTurma.put(turmaId, finais);
+        }
+    }
+
+    // Sem transação confirmada a gravação não aconteceu: saem as salas novas e as anteriores, que nunca
+    // foram liberadas, voltam ao ocupante de antes (código e turno podem ter mudado na edição desfeita)
+    private synchronized void reverter(Long turmaId, Pendencia pendencia) {
+        for (Chave c : pendencia.reservadas) {
+            if (!pendencia.anteriores.contains(c)) {
+                ocupacao.computeIfPresent(c, (k, o) -> o.turmaId().equals(turmaId) ? null : o);
+            }
+        }
+        pendencia.anteriores.forEach(c -> ocupacao.put(c, pendencia.anterior));
+    }
+
+    private static List<Chave> chaves(String sala, Turno turno, Long anoLetivoId) {
+        if (sala == null || turno == null || anoLetivoId == null) {
+            return List.of();
+        }
+        return turno == Turno.INTEGRAL
+                ? List.of(new Chave(sala, Turno.MANHA, anoLetivoId), new Chave(sala, Turno.TARDE, anoLetivoId))
+                : List.of(new Chave(sala, turno, anoLetivoId));
+    }
+}
@@ -0,0 +1,26 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.enums.TipoPessoa;
+
+/**
+ * Publicado ao gravar o nome de um aluno, professor ou responsável.
+ * Depois do commit o BuscaPessoasService reindexa apenas essa pessoa.
+ */
+public class PessoaAlteradaEvent {
+
+    private final TipoPessoa tipo;
+    private final Long id;
+
+    public PessoaAlteradaEvent(TipoPessoa tipo, Long id) {
+        this.tipo = tipo;
+        this.id = id;
+    }
+
+    public TipoPessoa getTipo() {
+        return tipo;
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
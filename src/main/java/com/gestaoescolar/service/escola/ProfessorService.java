@@ -1,26 +1,37 @@
 package com.gestaoescolar.service.escola;
 
+import com.gestaoescolar.dto.ProfessorResumoDTO;
 import com.gestaoescolar.model.Professor;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.model.enums.FormacaoAcademica;
 import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.TipoPessoa;
 import com.gestaoescolar.repository.ProfessorRepository;
+import com.gestaoescolar.util.DocumentoUtil;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 
 @Service
 public class ProfessorService {
 
     private final ProfessorRepository professorRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
-    public ProfessorService(ProfessorRepository professorRepository) {
+    public ProfessorService(ProfessorRepository professorRepository, ApplicationEventPublisher eventPublisher) {
         this.professorRepository = professorRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    private void professoresAlterados() {
+        eventPublisher.publishEvent(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.PROFESSORES));
     }
 
     // CREATE - Criar novo professor
@@ -37,7 +48,10 @@ public class ProfessorService {
             novoProfessor.setDataAdmissao(LocalDate.now());
         }
 
-        return professorRepository.save(novoProfessor);
+        professoresAlterados();
+        Professor salvo = professorRepository.save(novoProfessor);
+        eventPublisher.publishEvent(new PessoaAlteradaEvent(TipoPessoa.PROFESSOR, salvo.getId()));
+        return salvo;
     }
 
     // READ - Listar todos os professores
@@ -46,6 +60,22 @@ public class ProfessorService {
         return professorRepository.findAllByOrderByNomeCompleto();
     }
 
+    // READ - Resumos para as listas (sem endereço e observações). "termo" com 11 dígitos busca o CPF; senão, parte do nome
+    public List<ProfessorResumoDTO> listarResumos(String termo, Boolean ativo, FormacaoAcademica formacao,
+                                                  Usuario usuarioLogado) {
+        validarPermissaoAdministrativa(usuarioLogado);
+        String nome = null;
+        String cpf = null;
+        if (termo != null && !termo.isBlank()) {
+            if (DocumentoUtil.contarDigitos(termo) == 11) {
+                cpf = DocumentoUtil.somenteDigitos(termo);
+            } else {
+                nome = "%" + termo.trim().toLowerCase(Locale.ROOT) + "%";
+            }
+        }
+        return professorRepository.listarResumos(nome, cpf, ativo, formacao);
+    }
+
     // READ - Buscar professor por ID
     public Optional<Professor> buscarPorId(Long id, Usuario usuarioLogado) {
         validarPermissaoAdministrativa(usuarioLogado);
@@ -55,7 +85,7 @@ public class ProfessorService {
     // READ - Buscar professor por CPF
     public Optional<Professor> buscarPorCpf(String cpf, Usuario usuarioLogado) {
         validarPermissaoAdministrativa(usuarioLogado);
-        return professorRepository.findByCpf(cpf);
+        return professorRepository.findByCpf(DocumentoUtil.somenteDigitos(cpf));
     }
 
     // READ - Listar professores ativos
@@ -128,6 +158,8 @@ public class ProfessorService {
         professorExistente.setEspecializacao(dadosAtualizados.getEspecializacao());
         professorExistente.setObservacoes(dadosAtualizados.getObservacoes());
 
+        professoresAlterados();
+        eventPublisher.publishEvent(new PessoaAlteradaEvent(TipoPessoa.PROFESSOR, id));
         return professorRepository.save(professorExistente);
     }
 
@@ -141,6 +173,7 @@ public class ProfessorService {
 
         professor.setAtivo(!professor.isAtivo());
         professorRepository.save(professor);
+        professoresAlterados();
     }
 
     // UPDATE - Demitir professor
@@ -158,6 +191,7 @@ public class ProfessorService {
         professor.setDataDemissao(dataDemissao != null ? dataDemissao : LocalDate.now());
         professor.setAtivo(false);
 
+        professoresAlterados();
         return professorRepository.save(professor);
     }
 
@@ -173,6 +207,7 @@ public class ProfessorService {
         professor.setDataAdmissao(dataAdmissao != null ? dataAdmissao : LocalDate.now());
         professor.setAtivo(true);
 
+        professoresAlterados();
         return professorRepository.save(professor);
     }
 
@@ -186,6 +221,7 @@ public class ProfessorService {
 
         professor.setAtivo(false);
         professorRepository.save(professor);
+        professoresAlterados();
     }
 
     // DELETE - Reativar professor
@@ -198,6 +234,7 @@ public class ProfessorService {
 
         professor.setAtivo(true);
         professorRepository.save(professor);
+        professoresAlterados();
     }
 
     // VALIDAÇÕES
@@ -216,6 +253,12 @@ public class ProfessorService {
             throw new IllegalArgumentException("CPF é obrigatório");
         }
 
+        // CPF gravado só com dígitos (como o de alunos e responsáveis)
+        professor.setCpf(DocumentoUtil.somenteDigitos(professor.getCpf()));
+        if (!DocumentoUtil.cpfValido(professor.getCpf())) {
+            throw new IllegalArgumentException("CPF inválido");
+        }
+
         if (professor.getEmail() == null || professor.getEmail().trim().isEmpty()) {
             throw new IllegalArgumentException("Email é obrigatório");
         }
@@ -224,6 +267,8 @@ public class ProfessorService {
             throw new IllegalArgumentException("Telefone é obrigatório");
         }
 
+        validarFormatoContato(professor);
+
         if (professor.getDataNascimento() == null) {
             throw new IllegalArgumentException("Data de nascimento é obrigatória");
         }
@@ -253,7 +298,8 @@ public class ProfessorService {
     }
 
     private void validarAtualizacaoProfessor(Professor professorExistente, Professor dadosNovos) {
-        // Validar se está tentando alterar CPF (não permitido)
+        // Validar se está tentando alterar CPF (não permitido); a comparação ignora a pontuação
+        dadosNovos.setCpf(DocumentoUtil.somenteDigitos(dadosNovos.getCpf()));
         if (!professorExistente.getCpf().equals(dadosNovos.getCpf())) {
             throw new IllegalArgumentException("Não é possível alterar o CPF do professor");
         }
@@ -263,6 +309,20 @@ public class ProfessorService {
                 professorRepository.existsByEmail(dadosNovos.getEmail())) {
             throw new IllegalArgumentException("Já existe um professor com este email");
         }
+
+        validarFormatoContato(dadosNovos);
+    }
+
+    // Telefone com DDD (10 ou 11 dígitos, pontuação livre) e e-mail bem formado, quando informados
+    private void validarFormatoContato(Professor professor) {
+        if (professor.getTelefone() != null && !professor.getTelefone().isBlank()
+                && !DocumentoUtil.telefoneValido(professor.getTelefone())) {
+            throw new IllegalArgumentException("Telefone inválido");
+        }
+        if (professor.getEmail() != null && !professor.getEmail().isBlank()
+                && !DocumentoUtil.emailValido(professor.getEmail().trim())) {
+            throw new IllegalArgumentException("Email inválido");
+        }
     }
 
     // MÉTODOS AUXILIARES E ESTATÍSTICAS
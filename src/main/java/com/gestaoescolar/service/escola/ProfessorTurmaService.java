@@ -1,5 +1,8 @@
 package com.gestaoescolar.service.escola;
 
+import com.gestaoescolar.dto.AtribuicaoLoteResultadoDTO;
+import com.gestaoescolar.dto.AtribuicaoProfessorDTO;
+import com.gestaoescolar.dto.ProfessorAtribuidoDTO;
 import com.gestaoescolar.model.Professor;
 import com.gestaoescolar.model.ProfessorTurma;
 import com.gestaoescolar.model.Turma;
@@ -7,12 +10,20 @@ import com.gestaoescolar.repository.ProfessorTurmaRepository;
 import com.gestaoescolar.repository.TurmaRepository;
 import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Serviço responsável pela associação Professor <-> Turma.
@@ -21,23 +32,40 @@ import java.util.Optional;
  * - Impede atribuir professor inativo/demitido.
  * - Valida período (início <= término).
  * - Evita sobreposição de períodos para mesmo professor/turma/mesma disciplina.
+ * As sobreposições são verificadas por consulta de intervalo no banco (custo não cresce com o
+ * histórico de vínculos da turma ou do professor); o lote compara as linhas entre si em memória.
  */
 @Service
 @Transactional
 public class ProfessorTurmaService {
 
+    private static final String MSG_TITULAR_NO_PERIODO = "Já existe um professor titular para esta turma no período informado.";
+
     private final ProfessorTurmaRepository repo;
     private final TurmaRepository turmaRepository;
     private final EntityManager em;
+    private final ApplicationEventPublisher eventPublisher;
     // Alias em inglês para padronização de chamadas na UI
     public java.util.List<com.gestaoescolar.dto.VinculoProfessorTurmaDTO> listAssignmentSummariesByProfessor(Long professorId) {
         return repo.findVinculosResumoByProfessorId(professorId);
     }
 
-    public ProfessorTurmaService(ProfessorTurmaRepository repo, TurmaRepository turmaRepository, EntityManager em) {
+    public ProfessorTurmaService(ProfessorTurmaRepository repo, TurmaRepository turmaRepository, EntityManager em,
+                                 ApplicationEventPublisher eventPublisher) {
         this.repo = repo;
         this.turmaRepository = turmaRepository;
         this.em = em;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // Titular da turma mudou: atualiza o indicador de turmas sem titular
+    private void titularAlterado() {
+        eventPublisher.publishEvent(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.TURMAS));
+    }
+
+    // Qualquer vínculo gravado ou removido muda a agenda usada na busca de substitutos
+    private void vinculosAlterados() {
+        eventPublisher.publishEvent(new AgendaProfessoresAlteradaEvent());
     }
 
     public ProfessorTurma assignProfessorToTurma(Long professorId, Long turmaId,
@@ -61,10 +89,12 @@ public class ProfessorTurmaService {
             pt.setDataInicio(dataInicio);
             pt.setDataTermino(dataTermino);
             pt = repo.save(pt);
+            vinculosAlterados();
 
             if (papel == ProfessorTurma.Papel.TITULAR) {
                 turmaRef.setProfessorTitular(professorRef);
                 turmaRepository.save(turmaRef);
+                titularAlterado();
             }
             return pt;
         }
@@ -77,10 +107,12 @@ public class ProfessorTurmaService {
         pt.setDataInicio(dataInicio);
         pt.setDataTermino(dataTermino);
         pt = repo.save(pt);
+        vinculosAlterados();
 
         if (papel == ProfessorTurma.Papel.TITULAR) {
             turmaRef.setProfessorTitular(professorRef);
             turmaRepository.save(turmaRef);
+            titularAlterado();
         }
 
         return pt;
@@ -95,8 +127,10 @@ public class ProfessorTurmaService {
                     && turma.getProfessorTitular().equals(pt.getProfessor())) {
                 turma.setProfessorTitular(null);
                 turmaRepository.save(turma);
+                titularAlterado();
             }
             repo.deleteById(assignmentId);
+            vinculosAlterados();
         });
     }
 
@@ -111,9 +145,127 @@ public class ProfessorTurmaService {
                     && turma.getProfessorTitular().getId().equals(professorId)) {
                 turma.setProfessorTitular(null);
                 turmaRepository.save(turma);
+                titularAlterado();
             }
             repo.delete(pt);
+            vinculosAlterados();
+        }
+    }
+
+    /**
+     * Atribuição de vários professores a turmas em uma única transação (ex.: montagem do quadro no início do ano).
+     * Mesmas regras de {@link #assignProfessorToTurma}, verificadas numa única passada: professores, turmas e
+     * vínculos que podem conflitar são lidos em uma consulta cada, e cada linha é comparada com esses vínculos
+     * e com as linhas já aceitas no próprio lote. Uma linha recusada não impede as demais; o retorno traz
+     * um resultado por linha, na ordem recebida.
+     */
+    public List<AtribuicaoLoteResultadoDTO> assignProfessorsToTurmas(List<AtribuicaoProfessorDTO> itens) {
+        if (itens == null || itens.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> professorIds = new HashSet<>();
+        Set<Long> turmaIds = new HashSet<>();
+        LocalDate vigentesDesde = LocalDate.MAX;
+        for (AtribuicaoProfessorDTO item : itens) {
+            if (item.getProfessorId() == null || item.getTurmaId() == null) {
+                continue;
+            }
+            professorIds.add(item.getProfessorId());
+            turmaIds.add(item.getTurmaId());
+            // Titulares encerrados antes do menor início do lote não conflitam com nenhuma linha
+            if (vigentesDesde != null) {
+                vigentesDesde = item.getDataInicio() == null || item.getDataInicio().isBefore(vigentesDesde)
+                        ? item.getDataInicio() : vigentesDesde;
+            }
+        }
+
+        Map<Long, Professor> professores = new HashMap<>();
+        Map<Long, Turma> turmas = new HashMap<>();
+        // Titulares por turma e vínculo existente por professor/turma (no máximo um: chave única)
+        Map<Long, List<ProfessorTurma>> titulares = new HashMap<>();
+        Map<List<Long>, ProfessorTurma> vinculos = new HashMap<>();
+        if (!turmaIds.isEmpty()) {
+            em.createQuery("select p from Professor p where p.id in :ids", Professor.class)
+                    .setParameter("ids", professorIds)
+                    .getResultList()
+                    .forEach(p -> professores.put(p.getId(), p));
+            turmaRepository.findAllById(turmaIds).forEach(t -> turmas.put(t.getId(), t));
+            for (ProfessorTurma pt : repo.findConflitosPossiveis(turmaIds, professorIds, vigentesDesde)) {
+                Long turmaId = pt.getTurma().getId();
+                if (pt.getPapel() == ProfessorTurma.Papel.TITULAR) {
+                    titulares.computeIfAbsent(turmaId, k -> new ArrayList<>()).add(pt);
+                }
+                vinculos.put(List.of(pt.getProfessor().getId(), turmaId), pt);
+            }
+        }
+
+        List<AtribuicaoLoteResultadoDTO> resultados = new ArrayList<>(itens.size());
+        List<ProfessorTurma> gravar = new ArrayList<>();
+        Set<List<Long>> noLote = new HashSet<>();
+        boolean titularMudou = false;
+        for (AtribuicaoProfessorDTO item : itens) {
+            Long professorId = item.getProfessorId();
+            Long turmaId = item.getTurmaId();
+            String recusa = null;
+            Professor professor = professores.get(professorId);
+            Turma turma = turmas.get(turmaId);
+            List<Long> chave = professorId != null && turmaId != null ? List.of(professorId, turmaId) : null;
+            ProfessorTurma existente = chave != null ? vinculos.get(chave) : null;
+
+            if (chave == null) {
+                recusa = "Informe o professor e a turma.";
+            } else if (item.getDataInicio() != null && item.getDataTermino() != null
+                    && item.getDataInicio().isAfter(item.getDataTermino())) {
+                recusa = "Data de início não pode ser posterior à data de término.";
+            } else if (professor == null) {
+                recusa = "Professor não encontrado.";
+            } else if (!professor.isAtivo() || professor.getDataDemissao() != null) {
+                recusa = "Não é possível atribuir um professor inativo ou demitido.";
+            } else if (turma == null) {
+                recusa = "Turma não encontrada.";
+            } else if (noLote.contains(chave)) {
+                // Com uma linha por professor/turma, a regra da mesma disciplina não tem outro vínculo a comparar
+                recusa = "Professor já atribuído a esta turma neste lote.";
+            } else if (item.getPapel() == ProfessorTurma.Papel.TITULAR
+                    && titulares.getOrDefault(turmaId, List.of()).stream()
+                    .anyMatch(t -> t != existente && periodOverlap(item.getDataInicio(), item.getDataTermino(),
+                            t.getDataInicio(), t.getDataTermino()))) {
+                recusa = MSG_TITULAR_NO_PERIODO;
+            }
+            if (recusa != null) {
+                resultados.add(new AtribuicaoLoteResultadoDTO(professorId, turmaId, false, recusa));
+                continue;
+            }
+
+            ProfessorTurma pt = existente != null ? existente : new ProfessorTurma();
+            pt.setProfessor(professor);
+            pt.setTurma(turma);
+            pt.setPapel(item.getPapel());
+            pt.setDisciplina(item.getDisciplina());
+            pt.setDataInicio(item.getDataInicio());
+            pt.setDataTermino(item.getDataTermino());
+            gravar.add(pt);
+            noLote.add(chave);
+
+            // As próximas linhas do lote passam a considerar este vínculo
+            List<ProfessorTurma> daTurma = titulares.computeIfAbsent(turmaId, k -> new ArrayList<>());
+            daTurma.removeIf(t -> t == pt);
+            if (item.getPapel() == ProfessorTurma.Papel.TITULAR) {
+                daTurma.add(pt);
+                turma.setProfessorTitular(professor);
+                titularMudou = true;
+            }
+            resultados.add(new AtribuicaoLoteResultadoDTO(professorId, turmaId, true, null));
+        }
+
+        repo.saveAll(gravar);
+        if (!gravar.isEmpty()) {
+            vinculosAlterados();
+        }
+        if (titularMudou) {
+            titularAlterado();
         }
+        return resultados;
     }
 
     public List<ProfessorTurma> listByProfessor(Long professorId) {
@@ -124,6 +276,23 @@ public class ProfessorTurmaService {
         return repo.findByTurmaId(turmaId);
     }
 
+    // Aviso da tela de atribuição: já há titular na turma em parte do período?
+    public boolean existeTitularNoPeriodo(Long turmaId, LocalDate dataInicio, LocalDate dataTermino) {
+        return repo.existeTitularNoPeriodo(turmaId, null, dataInicio, dataTermino);
+    }
+
+    /**
+     * Resumo dos professores atribuídos a um conjunto de turmas (ex.: página da grid),
+     * agrupado por id da turma. Executa uma única consulta, independente da quantidade de turmas.
+     */
+    public Map<Long, List<ProfessorAtribuidoDTO>> listAssignmentSummariesByTurmas(Collection<Long> turmaIds) {
+        if (turmaIds == null || turmaIds.isEmpty()) {
+            return Map.of();
+        }
+        return repo.findAtribuicoesResumoByTurmaIds(turmaIds).stream()
+                .collect(Collectors.groupingBy(ProfessorAtribuidoDTO::getTurmaId));
+    }
+
     // ===================== Validações de negócio =====================
 
     private void validarAtribuicao(Long professorId,
@@ -147,41 +316,17 @@ public class ProfessorTurmaService {
             throw new IllegalArgumentException("Não é possível atribuir um professor inativo ou demitido.");
         }
 
-        // 3) Regra do Titular único na turma (considerando período)
-        if (papel == ProfessorTurma.Papel.TITULAR) {
-            List<ProfessorTurma> daTurma = repo.findByTurmaId(turmaId);
-            for (ProfessorTurma pt : daTurma) {
-                if (pt.getId() != null && currentAssignmentId != null && pt.getId().equals(currentAssignmentId)) {
-                    continue; // é o próprio registro em atualização
-                }
-                if (pt.getPapel() == ProfessorTurma.Papel.TITULAR) {
-                    // Verifica sobreposição de período
-                    if (periodOverlap(dataInicio, dataTermino, pt.getDataInicio(), pt.getDataTermino())) {
-                        throw new IllegalArgumentException("Já existe um professor titular para esta turma no período informado.");
-                    }
-                }
-            }
+        // 3) Regra do Titular único na turma (considerando período) — verificada no banco
+        if (papel == ProfessorTurma.Papel.TITULAR
+                && repo.existeTitularNoPeriodo(turmaId, currentAssignmentId, dataInicio, dataTermino)) {
+            throw new IllegalArgumentException(MSG_TITULAR_NO_PERIODO);
         }
 
         // 4) Evitar sobreposição para mesma disciplina (quando informada)
         String discNorm = normalizeDisciplina(disciplina);
-        if (!discNorm.isBlank()) {
-            List<ProfessorTurma> doProfessor = repo.findByProfessorId(professorId);
-            for (ProfessorTurma pt : doProfessor) {
-                if (pt.getId() != null && currentAssignmentId != null && pt.getId().equals(currentAssignmentId)) {
-                    continue; // é o próprio em atualização
-                }
-                if (pt.getTurma() != null
-                        && pt.getTurma().getId() != null
-                        && pt.getTurma().getId().equals(turmaId)) {
-                    String discExist = normalizeDisciplina(pt.getDisciplina());
-                    if (!discExist.isBlank() && discExist.equals(discNorm)) {
-                        if (periodOverlap(dataInicio, dataTermino, pt.getDataInicio(), pt.getDataTermino())) {
-                            throw new IllegalArgumentException("Já existe um vínculo para esta disciplina nesta turma no período informado.");
-                        }
-                    }
-                }
-            }
+        if (!discNorm.isBlank()
+                && repo.existeDisciplinaNoPeriodo(professorId, turmaId, discNorm, currentAssignmentId, dataInicio, dataTermino)) {
+            throw new IllegalArgumentException("Já existe um vínculo para esta disciplina nesta turma no período informado.");
         }
     }
 
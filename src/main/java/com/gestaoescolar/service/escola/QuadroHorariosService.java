@@ -0,0 +1,290 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.QuadroHorariosResultadoDTO;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.HorarioAula;
+import com.gestaoescolar.model.ProfessorTurmaDisciplina;
+import com.gestaoescolar.model.Sala;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.TurmaDisciplina;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.AnoLetivoRepository;
+import com.gestaoescolar.repository.HorarioAulaRepository;
+import com.gestaoescolar.repository.ProfessorTurmaDisciplinaRepository;
+import com.gestaoescolar.repository.TurmaDisciplinaRepository;
+import com.gestaoescolar.repository.TurmaRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Geração do quadro de horários de um ano letivo.
+ * <p>
+ * Cada oferta ativa (turma-disciplina) gera tantas aulas semanais quanto a sua carga horária (ou a da
+ * disciplina), com o professor atribuído à oferta (o titular, se houver mais de um) e a sala da turma.
+ * A distribuição nos slots fica com o {@link QuadroHorariosSolver}, que roda fora de transação; o
+ * quadro do ano é então regravado de uma vez. Com "aproveitarAtual" o quadro gravado é o ponto de
+ * partida e as aulas só mudam de horário quando isso reduz conflitos ou penalidades.
+ * <p>
+ * A geração leva até o tempo máximo configurado: roda em um thread próprio (a tela recebe o
+ * resultado quando terminar) e a busca usa um pool exclusivo, sem ocupar o pool comum usado
+ * pelos streams paralelos da importação e da detecção de duplicidades.
+ */
+@Service
+public class QuadroHorariosService {
+
+    private static final Logger log = LoggerFactory.getLogger(QuadroHorariosService.class);
+
+    private static final String DELETE_QUADRO =
+            "DELETE FROM horario_aula WHERE turma_id IN (SELECT id FROM turmas WHERE ano_letivo_id = ? AND ativa = TRUE)";
+    private static final String INSERT_AULA =
+            "INSERT INTO horario_aula (turma_id, turma_disciplina_id, professor_id, sala, dia_semana, aula) " +
+            "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final AnoLetivoRepository anoLetivoRepository;
+    private final TurmaRepository turmaRepository;
+    private final TurmaDisciplinaRepository turmaDisciplinaRepository;
+    private final ProfessorTurmaDisciplinaRepository professorTurmaDisciplinaRepository;
+    private final HorarioAulaRepository horarioAulaRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long tempoMaximoMs;
+
+    // Anos letivos com geração em andamento
+    private final Set<Long> emGeracao = ConcurrentHashMap.newKeySet();
+
+    // Uma geração por vez (cada uma já ocupa todos os núcleos); o pool da busca é só do solver
+    private final ExecutorService geracoes = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "quadro-horarios");
+        t.setDaemon(true);
+        return t;
+    });
+    private final ForkJoinPool poolSolver = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    public QuadroHorariosService(AnoLetivoRepository anoLetivoRepository,
+                                 TurmaRepository turmaRepository,
+                                 TurmaDisciplinaRepository turmaDisciplinaRepository,
+                                 ProfessorTurmaDisciplinaRepository professorTurmaDisciplinaRepository,
+                                 HorarioAulaRepository horarioAulaRepository,
+                                 JdbcTemplate jdbcTemplate,
+                                 PlatformTransactionManager transactionManager,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${gestaoescolar.horarios.tempo-maximo-segundos:50}") long tempoMaximoSegundos) {
+        this.anoLetivoRepository = anoLetivoRepository;
+        this.turmaRepository = turmaRepository;
+        this.turmaDisciplinaRepository = turmaDisciplinaRepository;
+        this.professorTurmaDisciplinaRepository = professorTurmaDisciplinaRepository;
+        this.horarioAulaRepository = horarioAulaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.tempoMaximoMs = tempoMaximoSegundos * 1000;
+    }
+
+    // Aulas da semana a gerar, uma posição por aula (índices de turma, oferta, professor e sala do solver)
+    private record Entrada(List<Turma> turmas, List<TurmaDisciplina> ofertas, List<Long> professorIds,
+                           List<String> salas, int[] turmaDe, int[] ofertaDe, int[] professorDe, int[] salaDe,
+                           int[] anterior, int ofertasSemProfessor) {
+    }
+
+    /**
+     * Valida e enfileira a geração do quadro; o resultado (ou o erro) chega pelo future, fora do
+     * thread de quem chamou. Acesso e geração já em andamento para o ano são recusados na hora.
+     */
+    public CompletableFuture<QuadroHorariosResultadoDTO> gerar(Long anoLetivoId, boolean aproveitarAtual, Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+        if (anoLetivoId == null) {
+            throw new IllegalArgumentException("Selecione o ano letivo");
+        }
+        if (!emGeracao.add(anoLetivoId)) {
+            throw new IllegalArgumentException("Já existe uma geração do quadro de horários em andamento para este ano letivo.");
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> executar(anoLetivoId, aproveitarAtual), geracoes);
+        } catch (RejectedExecutionException ex) {
+            emGeracao.remove(anoLetivoId);
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    void encerrar() {
+        geracoes.shutdownNow();
+        poolSolver.shutdownNow();
+    }
+
+    private QuadroHorariosResultadoDTO executar(Long anoLetivoId, boolean aproveitarAtual) {
+        try {
+            long inicio = System.currentTimeMillis();
+            Entrada e = tx.execute(status -> carregar(anoLetivoId, aproveitarAtual));
+
+            Turno[] turnos = e.turmas().stream().map(Turma::getTurno).toArray(Turno[]::new);
+            QuadroHorariosSolver.Resultado r = new QuadroHorariosSolver(
+                    e.turmaDe(), e.ofertaDe(), e.professorDe(), e.salaDe(), e.anterior(), turnos)
+                    .resolver(tempoMaximoMs, poolSolver);
+
+            tx.executeWithoutResult(status -> {
+                gravar(anoLetivoId, e, r.slots);
+                eventPublisher.publishEvent(new AgendaProfessoresAlteradaEvent());
+            });
+            long tempo = System.currentTimeMillis() - inicio;
+            log.info("Quadro de horários do ano letivo {}: {} turma(s), {} aula(s), {} conflito(s), penalidade {} em {} ms",
+                    anoLetivoId, e.turmas().size(), r.slots.length, r.conflitos, r.penalidade, tempo);
+            return new QuadroHorariosResultadoDTO(e.turmas().size(), r.slots.length, r.conflitos, r.penalidade,
+                    e.ofertasSemProfessor(), tempo);
+        } finally {
+            emGeracao.remove(anoLetivoId);
+        }
+    }
+
+    // Aulas da turma no quadro atual, por dia e aula
+    @Transactional(readOnly = true)
+    public List<HorarioAula> quadroDaTurma(Long turmaId) {
+        List<HorarioAula> aulas = new ArrayList<>(horarioAulaRepository.findByTurmaId(turmaId));
+        aulas.sort(Comparator.comparing(HorarioAula::getDiaSemana).thenComparingInt(HorarioAula::getAula));
+        return aulas;
+    }
+
+    private Entrada carregar(Long anoLetivoId, boolean aproveitarAtual) {
+        AnoLetivo ano = anoLetivoRepository.findById(anoLetivoId)
+                .orElseThrow(() -> new IllegalArgumentException("Ano letivo não encontrado."));
+        List<Turma> turmas = new ArrayList<>(turmaRepository.findByAnoLetivoAndAtivaTrue(ano));
+        turmas.sort(Comparator.comparing(Turma::getId));
+        if (turmas.isEmpty()) {
+            throw new IllegalArgumentException("O ano letivo não tem turmas ativas.");
+        }
+        Map<Long, Integer> indiceTurma = new HashMap<>();
+        for (Turma t : turmas) {
+            indiceTurma.put(t.getId(), indiceTurma.size());
+        }
+
+        List<TurmaDisciplina> ofertas = turmaDisciplinaRepository.findByTurmaIdIn(indiceTurma.keySet()).stream()
+                .filter(TurmaDisciplina::isAtiva)
+                .sorted(Comparator.comparing(TurmaDisciplina::getId))
+                .toList();
+
+        // Professor de cada oferta: o titular, senão o primeiro atribuído
+        Map<Long, ProfessorTurmaDisciplina> professorDaOferta = new HashMap<>();
+        if (!ofertas.isEmpty()) {
+            for (ProfessorTurmaDisciplina ptd : professorTurmaDisciplinaRepository.findByTurmaDisciplinaIdIn(
+                    ofertas.stream().map(TurmaDisciplina::getId).toList())) {
+                professorDaOferta.merge(ptd.getTurmaDisciplina().getId(), ptd, (atual, outro) ->
+                        (outro.isTitular() && !atual.isTitular())
+                                || (outro.isTitular() == atual.isTitular() && outro.getId() < atual.getId())
+                                ? outro : atual);
+            }
+        }
+
+        // Horário atual de cada oferta (slots), consumido na ordem das aulas geradas
+        Map<Long, Deque<Integer>> atual = new HashMap<>();
+        if (aproveitarAtual) {
+            for (HorarioAula h : horarioAulaRepository.findByAnoLetivoId(anoLetivoId)) {
+                Integer t = indiceTurma.get(h.getTurma().getId());
+                if (t == null) {
+                    continue;
+                }
+                Turno turno = turmas.get(t).getTurno();
+                if (h.getAula() >= 1 && h.getAula() <= HorarioSemanal.aulasNoTurno(turno)
+                        && h.getDiaSemana().getValue() <= HorarioSemanal.DIAS) {
+                    atual.computeIfAbsent(h.getTurmaDisciplina().getId(), k -> new ArrayDeque<>())
+                            .add(HorarioSemanal.slot(turno, h.getDiaSemana(), h.getAula()));
+                }
+            }
+        }
+
+        Map<Long, Integer> indiceProfessor = new HashMap<>();
+        List<Long> professorIds = new ArrayList<>();
+        Map<String, Integer> indiceSala = new HashMap<>();
+        List<String> salas = new ArrayList<>();
+        List<int[]> aulas = new ArrayList<>();   // {turma, oferta, professor, sala, anterior}
+        int semProfessor = 0;
+        for (int o = 0; o < ofertas.size(); o++) {
+            TurmaDisciplina td = ofertas.get(o);
+            Integer carga = td.getCargaHoraria() != null ? td.getCargaHoraria() : td.getDisciplina().getCargaHoraria();
+            if (carga == null || carga <= 0) {
+                continue;
+            }
+            int t = indiceTurma.get(td.getTurma().getId());
+            ProfessorTurmaDisciplina ptd = professorDaOferta.get(td.getId());
+            int p = -1;
+            if (ptd != null) {
+                Long professorId = ptd.getProfessor().getId();
+                p = indiceProfessor.computeIfAbsent(professorId, k -> {
+                    professorIds.add(k);
+                    return professorIds.size() - 1;
+                });
+            } else {
+                semProfessor++;
+            }
+            String sala = Sala.normalizarCodigo(turmas.get(t).getSala());
+            int s = sala == null ? -1 : indiceSala.computeIfAbsent(sala, k -> {
+                salas.add(k);
+                return salas.size() - 1;
+            });
+            Deque<Integer> anteriores = atual.getOrDefault(td.getId(), new ArrayDeque<>());
+            for (int i = 0; i < carga; i++) {
+                Integer anterior = anteriores.poll();
+                aulas.add(new int[]{t, o, p, s, anterior != null ? anterior : -1});
+            }
+        }
+
+        int n = aulas.size();
+        int[] turmaDe = new int[n], ofertaDe = new int[n], professorDe = new int[n], salaDe = new int[n], anterior = new int[n];
+        for (int l = 0; l < n; l++) {
+            int[] a = aulas.get(l);
+            turmaDe[l] = a[0];
+            ofertaDe[l] = a[1];
+            professorDe[l] = a[2];
+            salaDe[l] = a[3];
+            anterior[l] = a[4];
+        }
+        return new Entrada(turmas, ofertas, professorIds, salas, turmaDe, ofertaDe, professorDe, salaDe, anterior,
+                semProfessor);
+    }
+
+    private void gravar(Long anoLetivoId, Entrada e, int[] slots) {
+        jdbcTemplate.update(DELETE_QUADRO, anoLetivoId);
+        List<Object[]> linhas = new ArrayList<>(slots.length);
+        for (int l = 0; l < slots.length; l++) {
+            Turma turma = e.turmas().get(e.turmaDe()[l]);
+            TurmaDisciplina oferta = e.ofertas().get(e.ofertaDe()[l]);
+            int p = e.professorDe()[l];
+            int s = e.salaDe()[l];
+            linhas.add(new Object[]{
+                    turma.getId(),
+                    oferta.getId(),
+                    p >= 0 ? e.professorIds().get(p) : null,
+                    s >= 0 ? e.salas().get(s) : null,
+                    HorarioSemanal.dia(slots[l]).name(),
+                    HorarioSemanal.aulaNoTurno(turma.getTurno(), slots[l])
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_AULA, linhas);
+    }
+}
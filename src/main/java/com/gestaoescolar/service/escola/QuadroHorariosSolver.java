@@ -0,0 +1,366 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.enums.Turno;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static com.gestaoescolar.service.escola.HorarioSemanal.AULAS_POR_DIA;
+import static com.gestaoescolar.service.escola.HorarioSemanal.DIAS;
+import static com.gestaoescolar.service.escola.HorarioSemanal.SLOTS;
+
+/**
+ * Distribui as aulas semanais nos slots de {@link HorarioSemanal} por busca local.
+ * <p>
+ * Restrições fortes (cada choque conta 1 conflito): turma, professor ou sala com duas aulas no mesmo slot.
+ * Restrições fracas (penalidade): mais aulas da mesma disciplina num dia do que o necessário para
+ * espalhá-las na semana, janelas (aulas vagas entre aulas) da turma e do professor e, na melhoria
+ * incremental, aulas que saem do horário anterior.
+ * <p>
+ * Cada aula só muda de slot dentro do turno da turma, então o custo de um movimento é calculado só
+ * com os contadores dos slots envolvidos. A busca roda em rodadas: em cada uma, um trabalhador por
+ * núcleo parte da melhor solução até então com sementes diferentes (late acceptance hill climbing) e
+ * a melhor volta como ponto de partida da próxima. Pára sem conflitos e sem melhora, ou no prazo.
+ * <p>
+ * Estrutura só de arrays de int; os índices de turma, oferta, professor e sala são atribuídos por quem chama.
+ */
+final class QuadroHorariosSolver {
+
+    static final long PESO_CONFLITO = 1_000_000L;
+    private static final int PESO_CONCENTRACAO = 4;
+    private static final int PESO_JANELA_TURMA = 3;
+    private static final int PESO_JANELA_PROFESSOR = 1;
+    private static final int PESO_MUDANCA = 1;
+
+    private static final int HISTORICO = 1000;          // tamanho da lista do late acceptance
+    private static final long RODADA_MINIMA_MS = 300;
+    private static final int RODADAS_SEM_MELHORA = 2;
+
+    // Bits de cada parte do dia na máscara diária: janelas só contam dentro da mesma parte
+    private static final int[] PARTES_DO_DIA = {0b11111, 0b11111 << 5, 0b1111 << 10};
+
+    private final int n;
+    private final int[] turmaDe;
+    private final int[] ofertaDe;
+    private final int[] professorDe;     // -1 = sem professor
+    private final int[] salaDe;          // -1 = sem sala
+    private final int[] anterior;        // -1 = sem horário anterior
+    private final int[][] slotsDaTurma;
+    private final int[][] aulasDaTurma;
+    private final int[] limiteDiario;
+    private final int turmas;
+    private final int professores;
+    private final int salas;
+    private final int ofertas;
+
+    /**
+     * Uma posição por aula semanal. "anterior" traz o slot da aula no quadro atual (ou -1) para a
+     * melhoria incremental; slots fora do turno da turma são ignorados.
+     */
+    QuadroHorariosSolver(int[] turmaDe, int[] ofertaDe, int[] professorDe, int[] salaDe, int[] anterior,
+                         Turno[] turnoDaTurma) {
+        this.n = turmaDe.length;
+        this.turmaDe = turmaDe;
+        this.ofertaDe = ofertaDe;
+        this.professorDe = professorDe;
+        this.salaDe = salaDe;
+        this.turmas = turnoDaTurma.length;
+        this.professores = Arrays.stream(professorDe).max().orElse(-1) + 1;
+        this.salas = Arrays.stream(salaDe).max().orElse(-1) + 1;
+        this.ofertas = Arrays.stream(ofertaDe).max().orElse(-1) + 1;
+
+        slotsDaTurma = new int[turmas][];
+        for (int t = 0; t < turmas; t++) {
+            int primeira = HorarioSemanal.primeiraAula(turnoDaTurma[t]);
+            int quantidade = HorarioSemanal.aulasNoTurno(turnoDaTurma[t]);
+            int[] slots = new int[DIAS * quantidade];
+            for (int d = 0, i = 0; d < DIAS; d++) {
+                for (int a = 0; a < quantidade; a++) {
+                    slots[i++] = d * AULAS_POR_DIA + primeira + a;
+                }
+            }
+            slotsDaTurma[t] = slots;
+        }
+
+        List<List<Integer>> porTurma = new ArrayList<>();
+        for (int t = 0; t < turmas; t++) {
+            porTurma.add(new ArrayList<>());
+        }
+        int[] aulasPorOferta = new int[ofertas];
+        this.anterior = new int[n];
+        for (int l = 0; l < n; l++) {
+            porTurma.get(turmaDe[l]).add(l);
+            aulasPorOferta[ofertaDe[l]]++;
+            this.anterior[l] = Arrays.binarySearch(slotsDaTurma[turmaDe[l]], anterior[l]) >= 0 ? anterior[l] : -1;
+        }
+        aulasDaTurma = new int[turmas][];
+        for (int t = 0; t < turmas; t++) {
+            aulasDaTurma[t] = porTurma.get(t).stream().mapToInt(Integer::intValue).toArray();
+        }
+        // Espalhar = no máximo ceil(aulas / dias) aulas da disciplina por dia
+        limiteDiario = new int[ofertas];
+        for (int o = 0; o < ofertas; o++) {
+            limiteDiario[o] = (aulasPorOferta[o] + DIAS - 1) / DIAS;
+        }
+    }
+
+    /** Slots da melhor solução encontrada, na ordem das aulas, com conflitos e penalidade. */
+    static final class Resultado {
+        final int[] slots;
+        final long conflitos;
+        final long penalidade;
+
+        private Resultado(int[] slots, long conflitos, long penalidade) {
+            this.slots = slots;
+            this.conflitos = conflitos;
+            this.penalidade = penalidade;
+        }
+
+        long custo() {
+            return conflitos * PESO_CONFLITO + penalidade;
+        }
+    }
+
+    // Os trabalhadores rodam no pool informado (um por nível de paralelismo), não no pool comum
+    Resultado resolver(long tempoMaximoMs, ForkJoinPool pool) {
+        long prazo = System.nanoTime() + tempoMaximoMs * 1_000_000L;
+        Resultado melhor = avaliar(inicial());
+        if (n == 0) {
+            return melhor;
+        }
+        int trabalhadores = pool.getParallelism();
+        long rodada = Math.max(RODADA_MINIMA_MS, tempoMaximoMs / 30) * 1_000_000L;
+        int semMelhora = 0;
+        long semente = 1;
+        while (melhor.custo() > 0 && System.nanoTime() < prazo
+                && (melhor.conflitos > 0 || semMelhora < RODADAS_SEM_MELHORA)) {
+            long fim = Math.min(prazo, System.nanoTime() + rodada);
+            int[] base = melhor.slots;
+            long s = semente;
+            // Stream paralelo disparado de dentro de uma tarefa do pool usa os threads desse pool
+            Resultado r = pool.submit(() -> IntStream.range(0, trabalhadores).parallel()
+                    .mapToObj(w -> buscar(base, s + w, fim))
+                    .min(Comparator.comparingLong(Resultado::custo))
+                    .orElseThrow()).join();
+            semente += trabalhadores;
+            if (r.custo() < melhor.custo()) {
+                melhor = r;
+                semMelhora = 0;
+            } else {
+                semMelhora++;
+            }
+        }
+        return melhor;
+    }
+
+    // Horário anterior quando houver; as demais aulas vão, uma a uma, para o slot que menos aumenta o custo
+    private int[] inicial() {
+        Estado e = new Estado();
+        for (int l = 0; l < n; l++) {
+            if (anterior[l] >= 0) {
+                e.colocar(l, anterior[l]);
+            }
+        }
+        for (int l = 0; l < n; l++) {
+            if (anterior[l] >= 0) {
+                continue;
+            }
+            int melhorSlot = -1;
+            long melhorCusto = Long.MAX_VALUE;
+            for (int s : slotsDaTurma[turmaDe[l]]) {
+                e.colocar(l, s);
+                long c = e.custo();
+                e.retirar(l);
+                if (c < melhorCusto) {
+                    melhorCusto = c;
+                    melhorSlot = s;
+                }
+            }
+            e.colocar(l, melhorSlot);
+        }
+        return e.slot;
+    }
+
+    private Resultado avaliar(int[] slots) {
+        Estado e = new Estado(slots);
+        return new Resultado(slots.clone(), e.conflitos, e.penalidade);
+    }
+
+    // Late acceptance hill climbing: aceita o movimento se não piora o custo atual ou o de HISTORICO passos atrás
+    private Resultado buscar(int[] inicio, long semente, long prazo) {
+        Estado e = new Estado(inicio);
+        SplittableRandom r = new SplittableRandom(semente);
+        long custo = e.custo();
+        long melhorCusto = custo;
+        int[] melhor = e.slot.clone();
+        long[] historico = new long[HISTORICO];
+        Arrays.fill(historico, custo);
+
+        for (long it = 0; melhorCusto > 0; it++) {
+            if ((it & 1023) == 0 && System.nanoTime() > prazo) {
+                break;
+            }
+            int l = r.nextInt(n);
+            int t = turmaDe[l];
+            int origem = e.slot[l];
+            int outra = -1;
+            int destino;
+            long delta;
+            if (r.nextBoolean()) {
+                int[] slots = slotsDaTurma[t];
+                destino = slots[r.nextInt(slots.length)];
+                if (destino == origem) {
+                    continue;
+                }
+                delta = e.mover(l, destino);
+            } else {
+                // Troca com outra aula da mesma turma: mantém a ocupação da turma
+                int[] aulas = aulasDaTurma[t];
+                outra = aulas[r.nextInt(aulas.length)];
+                destino = e.slot[outra];
+                if (destino == origem) {
+                    continue;
+                }
+                delta = e.mover(l, destino) + e.mover(outra, origem);
+            }
+
+            long novo = custo + delta;
+            int v = (int) (it % HISTORICO);
+            if (delta <= 0 || novo <= historico[v]) {
+                custo = novo;
+                if (custo < melhorCusto) {
+                    melhorCusto = custo;
+                    System.arraycopy(e.slot, 0, melhor, 0, n);
+                }
+            } else {
+                if (outra >= 0) {
+                    e.mover(outra, destino);
+                }
+                e.mover(l, origem);
+            }
+            historico[v] = custo;
+        }
+        return avaliar(melhor);
+    }
+
+    private static int janelas(int mascara) {
+        int total = 0;
+        for (int parte : PARTES_DO_DIA) {
+            int m = mascara & parte;
+            if (m != 0) {
+                total += (32 - Integer.numberOfLeadingZeros(m)) - Integer.numberOfTrailingZeros(m) - Integer.bitCount(m);
+            }
+        }
+        return total;
+    }
+
+    /** Solução em construção: slot de cada aula e contadores de ocupação mantidos a cada movimento. */
+    private final class Estado {
+        final int[] slot = new int[n];
+        private final int[] ocupacaoTurma = new int[turmas * SLOTS];
+        private final int[] ocupacaoProfessor = new int[professores * SLOTS];
+        private final int[] ocupacaoSala = new int[salas * SLOTS];
+        private final int[] aulasNoDia = new int[ofertas * DIAS];
+        private final int[] mascaraTurma = new int[turmas * DIAS];
+        private final int[] mascaraProfessor = new int[professores * DIAS];
+        long conflitos;
+        long penalidade;
+
+        Estado() {
+            Arrays.fill(slot, -1);
+        }
+
+        Estado(int[] slots) {
+            this();
+            for (int l = 0; l < n; l++) {
+                colocar(l, slots[l]);
+            }
+        }
+
+        long custo() {
+            return conflitos * PESO_CONFLITO + penalidade;
+        }
+
+        long mover(int l, int destino) {
+            long antes = custo();
+            retirar(l);
+            colocar(l, destino);
+            return custo() - antes;
+        }
+
+        void colocar(int l, int s) {
+            slot[l] = s;
+            int dia = s / AULAS_POR_DIA;
+            int bit = 1 << (s % AULAS_POR_DIA);
+            int t = turmaDe[l];
+            if (ocupacaoTurma[t * SLOTS + s]++ > 0) {
+                conflitos++;
+            } else {
+                alterarMascara(mascaraTurma, t * DIAS + dia, bit, true, PESO_JANELA_TURMA);
+            }
+            int p = professorDe[l];
+            if (p >= 0) {
+                if (ocupacaoProfessor[p * SLOTS + s]++ > 0) {
+                    conflitos++;
+                } else {
+                    alterarMascara(mascaraProfessor, p * DIAS + dia, bit, true, PESO_JANELA_PROFESSOR);
+                }
+            }
+            int sala = salaDe[l];
+            if (sala >= 0 && ocupacaoSala[sala * SLOTS + s]++ > 0) {
+                conflitos++;
+            }
+            int o = ofertaDe[l];
+            if (aulasNoDia[o * DIAS + dia]++ >= limiteDiario[o]) {
+                penalidade += PESO_CONCENTRACAO;
+            }
+            if (anterior[l] >= 0 && anterior[l] != s) {
+                penalidade += PESO_MUDANCA;
+            }
+        }
+
+        void retirar(int l) {
+            int s = slot[l];
+            int dia = s / AULAS_POR_DIA;
+            int bit = 1 << (s % AULAS_POR_DIA);
+            int t = turmaDe[l];
+            if (--ocupacaoTurma[t * SLOTS + s] > 0) {
+                conflitos--;
+            } else {
+                alterarMascara(mascaraTurma, t * DIAS + dia, bit, false, PESO_JANELA_TURMA);
+            }
+            int p = professorDe[l];
+            if (p >= 0) {
+                if (--ocupacaoProfessor[p * SLOTS + s] > 0) {
+                    conflitos--;
+                } else {
+                    alterarMascara(mascaraProfessor, p * DIAS + dia, bit, false, PESO_JANELA_PROFESSOR);
+                }
+            }
+            int sala = salaDe[l];
+            if (sala >= 0 && --ocupacaoSala[sala * SLOTS + s] > 0) {
+                conflitos--;
+            }
+            int o = ofertaDe[l];
+            if (--aulasNoDia[o * DIAS + dia] >= limiteDiario[o]) {
+                penalidade -= PESO_CONCENTRACAO;
+            }
+            if (anterior[l] >= 0 && anterior[l] != s) {
+                penalidade -= PESO_MUDANCA;
+            }
+            slot[l] = -1;
+        }
+
+        private void alterarMascara(int[] mascaras, int indice, int bit, boolean ocupar, int peso) {
+            int antes = mascaras[indice];
+            int depois = ocupar ? antes | bit : antes & ~bit;
+            mascaras[indice] = depois;
+            penalidade += (long) peso * (janelas(depois) - janelas(antes));
+        }
+    }
+}
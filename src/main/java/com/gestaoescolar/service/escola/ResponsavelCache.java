@@ -0,0 +1,68 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.Responsavel;
+import com.gestaoescolar.model.enums.TipoPessoa;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Responsáveis consultados recentemente, por CPF (só dígitos), para o preenchimento automático
+ * no cadastro de responsável. Guarda apenas os mais recentes (LRU) e devolve cópias, então
+ * quem recebe pode alterar o objeto sem afetar o cache.
+ * Uma entrada é descartada depois do commit de qualquer gravação do responsável
+ * ({@link PessoaAlteradaEvent}) e a próxima consulta relê do banco.
+ */
+@Component
+public class ResponsavelCache {
+
+    private static final int CAPACIDADE = 1000;
+
+    private final Map<String, Responsavel> porCpf = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Responsavel> maisAntigo) {
+            return size() > CAPACIDADE;
+        }
+    };
+
+    public synchronized Optional<Responsavel> buscar(String cpf) {
+        Responsavel r = porCpf.get(cpf);
+        return r != null ? Optional.of(copiar(r)) : Optional.empty();
+    }
+
+    public synchronized void guardar(Responsavel responsavel) {
+        if (responsavel.getCpf() != null) {
+            porCpf.put(responsavel.getCpf(), copiar(responsavel));
+        }
+    }
+
+    // Gravações que não passam pelo AlunoService (ex.: importação em lote)
+    public synchronized void descartar(Collection<String> cpfs) {
+        cpfs.forEach(porCpf::remove);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPessoaAlterada(PessoaAlteradaEvent event) {
+        if (event.getTipo() == TipoPessoa.RESPONSAVEL && event.getId() != null) {
+            porCpf.values().removeIf(r -> event.getId().equals(r.getId()));
+        }
+    }
+
+    private static Responsavel copiar(Responsavel r) {
+        Responsavel c = new Responsavel();
+        c.setId(r.getId());
+        c.setNome(r.getNome());
+        c.setCpf(r.getCpf());
+        c.setRg(r.getRg());
+        c.setParentesco(r.getParentesco());
+        c.setTelefone1(r.getTelefone1());
+        c.setTelefone2(r.getTelefone2());
+        c.setEmail(r.getEmail());
+        c.setDocGuarda(r.getDocGuarda());
+        return c;
+    }
+}
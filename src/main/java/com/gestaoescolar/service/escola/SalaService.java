@@ -0,0 +1,117 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.UtilizacaoSalaDTO;
+import com.gestaoescolar.model.Sala;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.SalaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Cadastro de salas e relatório de utilização. Quem ocupa cada sala vem do índice em memória
+ * ({@link OcupacaoSalas}); o cadastro só define quais códigos podem ser usados nas turmas.
+ */
+@Service
+public class SalaService {
+
+    private final SalaRepository salaRepository;
+    private final OcupacaoSalas ocupacaoSalas;
+
+    public SalaService(SalaRepository salaRepository, OcupacaoSalas ocupacaoSalas) {
+        this.salaRepository = salaRepository;
+        this.ocupacaoSalas = ocupacaoSalas;
+    }
+
+    public List<Sala> listarTodas() {
+        return salaRepository.findAllByOrderByCodigoAsc();
+    }
+
+    // Códigos que podem ser escolhidos para uma turma
+    public List<String> listarCodigosAtivos() {
+        return salaRepository.findByAtivaTrueOrderByCodigoAsc().stream().map(Sala::getCodigo).toList();
+    }
+
+    public boolean isCadastradaEAtiva(String codigo) {
+        String normalizado = Sala.normalizarCodigo(codigo);
+        return normalizado != null && salaRepository.existsByCodigoAndAtivaTrue(normalizado);
+    }
+
+    @Transactional
+    public Sala salvar(Sala sala, Usuario usuarioLogado) {
+        validarPermissaoAdministrativa(usuarioLogado);
+        String codigo = Sala.normalizarCodigo(sala.getCodigo());
+        if (codigo == null) {
+            throw new IllegalArgumentException("Código da sala é obrigatório");
+        }
+        if (codigo.length() > 10) {
+            throw new IllegalArgumentException("Código da sala deve ter no máximo 10 caracteres");
+        }
+        if (sala.getCapacidade() != null && sala.getCapacidade() <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser maior que zero");
+        }
+        salaRepository.findByCodigo(codigo)
+                .filter(existente -> !existente.getId().equals(sala.getId()))
+                .ifPresent(existente -> {
+                    throw new IllegalArgumentException("Já existe uma sala com o código " + codigo);
+                });
+        if (sala.getId() != null) {
+            // Turmas guardam o código da sala: renomear deixaria as ocupações apontando para um código que não existe
+            salaRepository.findById(sala.getId())
+                    .filter(anterior -> !anterior.getCodigo().equals(codigo))
+                    .ifPresent(anterior -> {
+                        throw new IllegalArgumentException("O código de uma sala cadastrada não pode ser alterado");
+                    });
+        }
+        sala.setCodigo(codigo);
+        return salaRepository.save(sala);
+    }
+
+    // Sala desativada deixa de ser oferecida para novas turmas; as que já a usam continuam com ela
+    @Transactional
+    public void toggleAtiva(Long id, Usuario usuarioLogado) {
+        validarPermissaoAdministrativa(usuarioLogado);
+        Sala sala = salaRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Sala não encontrada"));
+        sala.setAtiva(!sala.isAtiva());
+        salaRepository.save(sala);
+    }
+
+    // Todas as salas (cadastradas ou só citadas em turmas) com a turma de cada parte do dia no ano letivo
+    public List<UtilizacaoSalaDTO> relatorioUtilizacao(Long anoLetivoId, Usuario usuarioLogado) {
+        validarPermissaoAdministrativa(usuarioLogado);
+        Map<String, Sala> cadastradas = new HashMap<>();
+        salaRepository.findAll().forEach(s -> cadastradas.put(s.getCodigo(), s));
+
+        Set<String> codigos = new TreeSet<>(cadastradas.keySet());
+        codigos.addAll(ocupacaoSalas.salasOcupadas(anoLetivoId));
+
+        List<UtilizacaoSalaDTO> relatorio = new ArrayList<>(codigos.size());
+        for (String codigo : codigos) {
+            Sala sala = cadastradas.get(codigo);
+            Map<Turno, String> turmas = new EnumMap<>(Turno.class);
+            ocupacaoSalas.ocupacaoDaSala(codigo, anoLetivoId).forEach((parte, o) -> turmas.put(parte, o.codigoTurma()));
+            relatorio.add(new UtilizacaoSalaDTO(codigo,
+                    sala != null ? sala.getDescricao() : null,
+                    sala != null ? sala.getCapacidade() : null,
+                    sala != null,
+                    turmas,
+                    OcupacaoSalas.PARTES.size()));
+        }
+        return relatorio;
+    }
+
+    private void validarPermissaoAdministrativa(Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.gestaoescolar.service.escola;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Comparação de nomes de pessoas tolerante a grafias diferentes ("Tiago"/"Thiago", "Luiz"/"Luis",
+ * "Ludmila"/"Ludmilla"). Cada nome vira uma lista de palavras normalizadas (sem acento, sem
+ * "da/de/do/dos/das/e") e reescritas por regras fonéticas simples do português; as palavras
+ * são comparadas por Jaro-Winkler.
+ */
+final class SemelhancaNomes {
+
+    private static final Set<String> CONECTIVOS = Set.of("da", "de", "do", "das", "dos", "e");
+
+    // Primeiros nomes muito diferentes quase sempre são pessoas diferentes (ex.: gêmeos)
+    private static final double MINIMO_PRIMEIRO_NOME = 0.8;
+    private static final double FATOR_PRIMEIRO_NOME_DIFERENTE = 0.8;
+
+    private SemelhancaNomes() {
+    }
+
+    // Palavras do nome já na forma fonética; vazio quando não há nome
+    static String[] palavras(String nome) {
+        String normalizado = IndiceTrigramas.normalizar(nome);
+        if (normalizado.isEmpty()) {
+            return new String[0];
+        }
+        List<String> palavras = new ArrayList<>();
+        for (String p : normalizado.split(" ")) {
+            if (!CONECTIVOS.contains(p)) {
+                palavras.add(fonetica(p));
+            }
+        }
+        return palavras.toArray(new String[0]);
+    }
+
+    // Chave de agrupamento: primeiro e último nome na forma fonética
+    static String chave(String[] palavras) {
+        if (palavras.length == 0) return "";
+        return palavras.length == 1 ? palavras[0] : palavras[0] + " " + palavras[palavras.length - 1];
+    }
+
+    /**
+     * Semelhança entre 0 e 1. Cada palavra do nome mais curto é casada com a mais parecida ainda livre do outro
+     * (média ponderada pelo tamanho); palavras a mais no nome longo (ex.: sobrenome omitido) pesam pouco.
+     */
+    static double semelhanca(String[] a, String[] b) {
+        if (a.length == 0 || b.length == 0) return 0;
+        String[] curto = a.length <= b.length ? a : b;
+        String[] longo = curto == a ? b : a;
+
+        // Cada palavra do nome longo casa com no máximo uma do curto ("Silva Silva" não vale por "Silva Souza")
+        boolean[] usada = new boolean[longo.length];
+        double soma = 0;
+        int letrasCurto = 0;
+        for (String p : curto) {
+            double melhor = 0;
+            int escolhida = -1;
+            for (int j = 0; j < longo.length; j++) {
+                if (usada[j]) continue;
+                double jw = jaroWinkler(p, longo[j]);
+                if (jw > melhor) {
+                    melhor = jw;
+                    escolhida = j;
+                    if (jw == 1) break;
+                }
+            }
+            if (escolhida >= 0) usada[escolhida] = true;
+            soma += melhor * p.length();
+            letrasCurto += p.length();
+        }
+        int letrasLongo = 0;
+        for (String q : longo) letrasLongo += q.length();
+
+        double media = soma / letrasCurto;
+        double cobertura = (double) letrasCurto / letrasLongo;
+        double resultado = media * (0.9 + 0.1 * cobertura);
+        if (jaroWinkler(a[0], b[0]) < MINIMO_PRIMEIRO_NOME) {
+            resultado *= FATOR_PRIMEIRO_NOME_DIFERENTE;
+        }
+        return resultado;
+    }
+
+    static double jaroWinkler(String s, String t) {
+        if (s.equals(t)) return 1;
+        int n = s.length(), m = t.length();
+        if (n == 0 || m == 0) return 0;
+
+        int janela = Math.max(0, Math.max(n, m) / 2 - 1);
+        boolean[] usadoS = new boolean[n];
+        boolean[] usadoT = new boolean[m];
+        int iguais = 0;
+        for (int i = 0; i < n; i++) {
+            int fim = Math.min(m, i + janela + 1);
+            for (int j = Math.max(0, i - janela); j < fim; j++) {
+                if (!usadoT[j] && s.charAt(i) == t.charAt(j)) {
+                    usadoS[i] = true;
+                    usadoT[j] = true;
+                    iguais++;
+                    break;
+                }
+            }
+        }
+        if (iguais == 0) return 0;
+
+        int trocas = 0;
+        for (int i = 0, j = 0; i < n; i++) {
+            if (!usadoS[i]) continue;
+            while (!usadoT[j]) j++;
+            if (s.charAt(i) != t.charAt(j)) trocas++;
+            j++;
+        }
+        double jaro = ((double) iguais / n + (double) iguais / m + (iguais - trocas / 2.0) / iguais) / 3;
+
+        int prefixo = 0;
+        while (prefixo < 4 && prefixo < n && prefixo < m && s.charAt(prefixo) == t.charAt(prefixo)) prefixo++;
+        return jaro + prefixo * 0.1 * (1 - jaro);
+    }
+
+    // ===== Fonética =====
+
+    // Reescreve a palavra (já sem acento e minúscula) pelo som: ph->f, ch/sh->x, c/q->k ou s, z->s, y->i, ...
+    // e junta letras repetidas. Simplificação das regras usadas em buscas fonéticas em português.
+    static String fonetica(String p) {
+        StringBuilder sb = new StringBuilder(p.length());
+        int n = p.length();
+        for (int i = 0; i < n; i++) {
+            char c = p.charAt(i);
+            char prox = i + 1 < n ? p.charAt(i + 1) : 0;
+            char depois = i + 2 < n ? p.charAt(i + 2) : 0;
+            char som;
+            switch (c) {
+                case 'h' -> {
+                    continue;                                   // mudo (dígrafos tratados abaixo)
+                }
+                case 'c' -> {
+                    if (prox == 'h') { som = 'x'; i++; }
+                    else som = frontal(prox) ? 's' : 'k';
+                }
+                case 's' -> {
+                    if (prox == 'h') { som = 'x'; i++; }
+                    else if (prox == 'c' && frontal(depois)) { som = 's'; i++; }
+                    else som = 's';
+                }
+                case 'p' -> {
+                    if (prox == 'h') { som = 'f'; i++; }
+                    else som = 'p';
+                }
+                case 'l', 'n', 't' -> {
+                    if (prox == 'h') i++;                       // lh, nh, th
+                    som = c;
+                }
+                case 'q' -> {
+                    if (prox == 'u' && frontal(depois)) i++;
+                    som = 'k';
+                }
+                case 'g' -> {
+                    if (prox == 'u' && frontal(depois)) { som = 'g'; i++; }
+                    else som = frontal(prox) ? 'j' : 'g';
+                }
+                case 'm' -> som = i == n - 1 ? 'n' : 'm';
+                case 'y' -> som = 'i';
+                case 'w' -> som = 'v';
+                case 'z' -> som = 's';
+                default -> som = c;
+            }
+            if (sb.isEmpty() || sb.charAt(sb.length() - 1) != som) {
+                sb.append(som);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean frontal(char c) {
+        return c == 'e' || c == 'i' || c == 'y';
+    }
+}
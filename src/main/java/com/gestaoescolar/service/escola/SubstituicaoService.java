@@ -0,0 +1,367 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.SubstitutoCandidatoDTO;
+import com.gestaoescolar.model.Disciplina;
+import com.gestaoescolar.model.HorarioAula;
+import com.gestaoescolar.model.Professor;
+import com.gestaoescolar.model.ProfessorTurma;
+import com.gestaoescolar.model.ProfessorTurmaDisciplina;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.DisciplinaRepository;
+import com.gestaoescolar.repository.HorarioAulaRepository;
+import com.gestaoescolar.repository.ProfessorRepository;
+import com.gestaoescolar.repository.ProfessorTurmaDisciplinaRepository;
+import com.gestaoescolar.repository.ProfessorTurmaRepository;
+import com.gestaoescolar.repository.TurmaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Busca de professor substituto para uma turma, disciplina e período.
+ * <p>
+ * Para cada ano letivo fica em memória a agenda de cada professor: um mapa de bits com os slots da
+ * semana ({@link HorarioSemanal}) ocupados pelas suas aulas no quadro de horários. Turma em que o
+ * professor ainda não aparece no quadro ocupa o turno inteiro de todos os dias, e vínculos com datas
+ * (ex.: outras substituições) só contam nos dias em que estão vigentes. A busca é então uma interseção
+ * de bits por professor, sem ir ao banco. Vínculos, quadro, turmas e professores alterados descartam
+ * as agendas depois do commit ({@link AgendaProfessoresAlteradaEvent} e afins) e a próxima busca
+ * recarrega o ano com três consultas.
+ */
+@Service
+public class SubstituicaoService {
+
+    // Quem já dá a disciplina vem primeiro, depois especialização, formação e agenda mais livre
+    private static final Comparator<SubstitutoCandidatoDTO> ORDEM = Comparator
+            .comparing(SubstitutoCandidatoDTO::isLecionaDisciplina, Comparator.reverseOrder())
+            .thenComparing(SubstitutoCandidatoDTO::isEspecializacaoNaDisciplina, Comparator.reverseOrder())
+            .thenComparing(c -> c.getFormacao() != null ? c.getFormacao().ordinal() : -1, Comparator.reverseOrder())
+            .thenComparingInt(SubstitutoCandidatoDTO::getAulasNaSemana)
+            .thenComparing(SubstitutoCandidatoDTO::getNome);
+
+    private final TurmaRepository turmaRepository;
+    private final DisciplinaRepository disciplinaRepository;
+    private final ProfessorRepository professorRepository;
+    private final ProfessorTurmaRepository professorTurmaRepository;
+    private final ProfessorTurmaDisciplinaRepository professorTurmaDisciplinaRepository;
+    private final HorarioAulaRepository horarioAulaRepository;
+    private final ProfessorTurmaService professorTurmaService;
+    private final TransactionTemplate tx;
+
+    // anoLetivoId -> agendas do ano; qualquer alteração descarta todos os anos
+    private volatile Map<Long, AgendaAno> agendas = Map.of();
+
+    // Slots ocupados entre inicio e termino (null = sem limite)
+    private record Periodo(LocalDate inicio, LocalDate termino, BitSet slots) {
+        boolean sobrepoe(LocalDate de, LocalDate ate) {
+            return (inicio == null || !inicio.isAfter(ate)) && (termino == null || !termino.isBefore(de));
+        }
+    }
+
+    private static final class AgendaProfessor {
+        final Long id;
+        final String nome;
+        final boolean disponivel;            // ativo e não demitido
+        final LocalDate dataAdmissao;
+        final FormacaoAcademica formacao;
+        final String especializacao;         // normalizada
+        final BitSet fixo = new BitSet(HorarioSemanal.SLOTS);
+        final List<Periodo> periodos = new ArrayList<>();
+        final Set<String> disciplinas = new HashSet<>();    // nomes normalizados
+        final Set<Long> turmasComVinculo = new HashSet<>(); // ProfessorTurma
+        final Set<String> ofertas = new HashSet<>();        // turmaId|disciplina
+
+        AgendaProfessor(Professor p) {
+            id = p.getId();
+            nome = p.getNomeCompleto();
+            disponivel = p.isAtivo() && p.getDataDemissao() == null;
+            dataAdmissao = p.getDataAdmissao();
+            formacao = p.getFormacao();
+            especializacao = IndiceTrigramas.normalizar(p.getEspecializacao());
+        }
+    }
+
+    // Agendas de um ano letivo e as aulas de cada turma por disciplina (nome normalizado)
+    private record AgendaAno(Map<Long, AgendaProfessor> professores, Map<Long, Map<String, BitSet>> aulasDasTurmas) {
+    }
+
+    // Substituição pedida, já validada: aulas da disciplina na turma em cada dia útil
+    private record Pedido(Turma turma, Disciplina disciplina, String chaveDisciplina, LocalDate inicio,
+                          LocalDate termino, Map<DayOfWeek, BitSet> aulasPorDia, AgendaAno agenda) {
+    }
+
+    public SubstituicaoService(TurmaRepository turmaRepository,
+                               DisciplinaRepository disciplinaRepository,
+                               ProfessorRepository professorRepository,
+                               ProfessorTurmaRepository professorTurmaRepository,
+                               ProfessorTurmaDisciplinaRepository professorTurmaDisciplinaRepository,
+                               HorarioAulaRepository horarioAulaRepository,
+                               ProfessorTurmaService professorTurmaService,
+                               PlatformTransactionManager transactionManager) {
+        this.turmaRepository = turmaRepository;
+        this.disciplinaRepository = disciplinaRepository;
+        this.professorRepository = professorRepository;
+        this.professorTurmaRepository = professorTurmaRepository;
+        this.professorTurmaDisciplinaRepository = professorTurmaDisciplinaRepository;
+        this.horarioAulaRepository = horarioAulaRepository;
+        this.professorTurmaService = professorTurmaService;
+        this.tx = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Professores ativos, habilitados e livres em todas as aulas da disciplina na turma entre inicio e
+     * termino (termino null = só o dia inicio), do mais indicado para o menos indicado. Habilitado:
+     * já leciona a disciplina, tem especialização nela ou tem ao menos graduação completa.
+     */
+    public List<SubstitutoCandidatoDTO> buscarSubstitutos(Long turmaId, Long disciplinaId, LocalDate inicio,
+                                                          LocalDate termino, Usuario usuario) {
+        validarPermissaoAdministrativa(usuario);
+        return candidatos(pedido(turmaId, disciplinaId, inicio, termino));
+    }
+
+    /**
+     * Registra o professor como SUBSTITUTO da turma no período, com o nome da disciplina no vínculo.
+     * A disponibilidade é conferida de novo na mesma transação; designações simultâneas são feitas
+     * uma de cada vez para que a segunda já veja a agenda com a primeira.
+     */
+    public ProfessorTurma designarSubstituto(Long professorId, Long turmaId, Long disciplinaId, LocalDate inicio,
+                                             LocalDate termino, Usuario usuario) {
+        validarPermissaoAdministrativa(usuario);
+        synchronized (this) {
+            return tx.execute(status -> {
+                Pedido pedido = pedido(turmaId, disciplinaId, inicio, termino);
+                boolean livre = candidatos(pedido).stream().anyMatch(c -> c.getProfessorId().equals(professorId));
+                if (!livre) {
+                    throw new IllegalArgumentException(
+                            "O professor não está livre ou habilitado para esta substituição no período informado.");
+                }
+                return professorTurmaService.assignProfessorToTurma(professorId, turmaId, ProfessorTurma.Papel.SUBSTITUTO,
+                        pedido.disciplina().getNome(), pedido.inicio(), pedido.termino());
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAgendaProfessoresAlterada(AgendaProfessoresAlteradaEvent e) {
+        agendas = Map.of();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onCargaHorariaAlterada(CargaHorariaAlteradaEvent e) {
+        agendas = Map.of();
+    }
+
+    // Turma ativada/desativada ou com turno alterado; professor ativado, desligado ou com formação alterada
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onIndicadoresAlterados(IndicadoresAlteradosEvent e) {
+        if (e.getArea() == IndicadoresAlteradosEvent.Area.TURMAS || e.getArea() == IndicadoresAlteradosEvent.Area.PROFESSORES) {
+            agendas = Map.of();
+        }
+    }
+
+    // ===================== Busca =====================
+
+    private Pedido pedido(Long turmaId, Long disciplinaId, LocalDate inicio, LocalDate termino) {
+        if (inicio == null) {
+            throw new IllegalArgumentException("Informe a data da substituição.");
+        }
+        LocalDate fim = termino != null ? termino : inicio;
+        if (inicio.isAfter(fim)) {
+            throw new IllegalArgumentException("Data de início não pode ser posterior à data de término.");
+        }
+        Turma turma = turmaRepository.findById(turmaId)
+                .filter(Turma::isAtiva)
+                .orElseThrow(() -> new IllegalArgumentException("Turma não encontrada."));
+        Disciplina disciplina = disciplinaRepository.findById(disciplinaId)
+                .orElseThrow(() -> new IllegalArgumentException("Disciplina não encontrada."));
+        AgendaAno agenda = agenda(turma.getAnoLetivo().getId());
+        String chave = IndiceTrigramas.normalizar(disciplina.getNome());
+
+        // Sem a disciplina no quadro da turma, qualquer aula do turno pode ser dela
+        BitSet doQuadro = agenda.aulasDasTurmas().getOrDefault(turma.getId(), Map.of()).get(chave);
+        Map<DayOfWeek, BitSet> aulasPorDia = new EnumMap<>(DayOfWeek.class);
+        for (int d = 1; d <= HorarioSemanal.DIAS; d++) {
+            DayOfWeek dia = DayOfWeek.of(d);
+            BitSet aulas = turnoNoDia(turma.getTurno(), dia);
+            if (doQuadro != null) {
+                aulas.and(doQuadro);
+            }
+            aulasPorDia.put(dia, aulas);
+        }
+        if (aulasEntre(aulasPorDia, inicio, fim).isEmpty()) {
+            throw new IllegalArgumentException("A turma não tem aulas de " + disciplina.getNome() + " no período informado.");
+        }
+        return new Pedido(turma, disciplina, chave, inicio, fim, aulasPorDia, agenda);
+    }
+
+    private List<SubstitutoCandidatoDTO> candidatos(Pedido pedido) {
+        Long turmaId = pedido.turma().getId();
+        String oferta = turmaId + "|" + pedido.chaveDisciplina();
+        BitSet aulas = aulasEntre(pedido.aulasPorDia(), pedido.inicio(), pedido.termino());
+
+        List<SubstitutoCandidatoDTO> candidatos = new ArrayList<>();
+        for (AgendaProfessor a : pedido.agenda().professores().values()) {
+            // Quem já tem vínculo com a turma (inclusive o professor ausente) não entra: o vínculo seria sobrescrito
+            if (!a.disponivel
+                    || (a.dataAdmissao != null && a.dataAdmissao.isAfter(pedido.inicio()))
+                    || a.turmasComVinculo.contains(turmaId)
+                    || a.ofertas.contains(oferta)
+                    || a.fixo.intersects(aulas)
+                    || ocupadoEmPeriodo(a, pedido)) {
+                continue;
+            }
+            boolean leciona = a.disciplinas.contains(pedido.chaveDisciplina());
+            boolean especialista = !pedido.chaveDisciplina().isEmpty()
+                    && (" " + a.especializacao + " ").contains(" " + pedido.chaveDisciplina() + " ");
+            boolean graduado = a.formacao != null && a.formacao.compareTo(FormacaoAcademica.GRADUACAO_COMPLETA) >= 0;
+            if (leciona || especialista || graduado) {
+                candidatos.add(new SubstitutoCandidatoDTO(a.id, a.nome, a.formacao, leciona, especialista,
+                        a.fixo.cardinality()));
+            }
+        }
+        candidatos.sort(ORDEM);
+        return candidatos;
+    }
+
+    // Vínculos com datas: só as aulas dos dias em que o vínculo e a substituição coincidem
+    private static boolean ocupadoEmPeriodo(AgendaProfessor a, Pedido pedido) {
+        for (Periodo p : a.periodos) {
+            if (!p.sobrepoe(pedido.inicio(), pedido.termino())) {
+                continue;
+            }
+            LocalDate de = p.inicio() != null && p.inicio().isAfter(pedido.inicio()) ? p.inicio() : pedido.inicio();
+            LocalDate ate = p.termino() != null && p.termino().isBefore(pedido.termino()) ? p.termino() : pedido.termino();
+            if (p.slots().intersects(aulasEntre(pedido.aulasPorDia(), de, ate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // União das aulas dos dias úteis entre as datas (no máximo uma semana é percorrida)
+    private static BitSet aulasEntre(Map<DayOfWeek, BitSet> aulasPorDia, LocalDate de, LocalDate ate) {
+        BitSet uniao = new BitSet(HorarioSemanal.SLOTS);
+        for (LocalDate d = de; !d.isAfter(ate) && !d.isAfter(de.plusDays(6)); d = d.plusDays(1)) {
+            BitSet doDia = aulasPorDia.get(d.getDayOfWeek());
+            if (doDia != null) {
+                uniao.or(doDia);
+            }
+        }
+        return uniao;
+    }
+
+    private static BitSet turnoNoDia(Turno turno, DayOfWeek dia) {
+        BitSet slots = new BitSet(HorarioSemanal.SLOTS);
+        int primeiro = HorarioSemanal.slot(turno, dia, 1);
+        slots.set(primeiro, primeiro + HorarioSemanal.aulasNoTurno(turno));
+        return slots;
+    }
+
+    private static BitSet turnoNaSemana(Turno turno) {
+        BitSet slots = new BitSet(HorarioSemanal.SLOTS);
+        for (int d = 1; d <= HorarioSemanal.DIAS; d++) {
+            slots.or(turnoNoDia(turno, DayOfWeek.of(d)));
+        }
+        return slots;
+    }
+
+    // ===================== Agendas =====================
+
+    private AgendaAno agenda(Long anoLetivoId) {
+        AgendaAno agenda = agendas.get(anoLetivoId);
+        return agenda != null ? agenda : carregar(anoLetivoId);
+    }
+
+    // Sincronizado com o descarte: um descarte não se perde no meio de uma carga
+    private synchronized AgendaAno carregar(Long anoLetivoId) {
+        AgendaAno agenda = agendas.get(anoLetivoId);
+        if (agenda != null) {
+            return agenda;
+        }
+        Map<Long, AgendaProfessor> professores = new HashMap<>();
+        for (Professor p : professorRepository.findAll()) {
+            professores.put(p.getId(), new AgendaProfessor(p));
+        }
+
+        // Quadro de horários: aulas de cada turma por disciplina e slots de cada professor
+        Map<Long, Map<String, BitSet>> aulasDasTurmas = new HashMap<>();
+        Set<String> noQuadro = new HashSet<>(); // turmaId|professorId
+        for (HorarioAula h : horarioAulaRepository.findAgendaByAnoLetivoId(anoLetivoId)) {
+            Turma t = h.getTurma();
+            int slot = HorarioSemanal.slot(t.getTurno(), h.getDiaSemana(), h.getAula());
+            aulasDasTurmas.computeIfAbsent(t.getId(), k -> new HashMap<>())
+                    .computeIfAbsent(IndiceTrigramas.normalizar(h.getTurmaDisciplina().getDisciplina().getNome()),
+                            k -> new BitSet(HorarioSemanal.SLOTS))
+                    .set(slot);
+            AgendaProfessor a = h.getProfessor() != null ? professores.get(h.getProfessor().getId()) : null;
+            if (a != null) {
+                a.fixo.set(slot);
+                noQuadro.add(t.getId() + "|" + a.id);
+            }
+        }
+
+        // Ofertas atribuídas: disciplinas que o professor leciona; fora do quadro, o turno inteiro
+        Map<Turno, BitSet> turnos = new EnumMap<>(Turno.class);
+        for (ProfessorTurmaDisciplina ptd : professorTurmaDisciplinaRepository.findAtivasByAnoLetivoId(anoLetivoId)) {
+            AgendaProfessor a = professores.get(ptd.getProfessor().getId());
+            Turma t = ptd.getTurmaDisciplina().getTurma();
+            String disciplina = IndiceTrigramas.normalizar(ptd.getTurmaDisciplina().getDisciplina().getNome());
+            a.disciplinas.add(disciplina);
+            a.ofertas.add(t.getId() + "|" + disciplina);
+            if (!noQuadro.contains(t.getId() + "|" + a.id)) {
+                a.fixo.or(turnos.computeIfAbsent(t.getTurno(), SubstituicaoService::turnoNaSemana));
+            }
+        }
+
+        // Vínculos professor-turma: as aulas da disciplina do vínculo no quadro ou, sem elas, o turno inteiro
+        for (ProfessorTurma pt : professorTurmaRepository.findByAnoLetivoId(anoLetivoId)) {
+            AgendaProfessor a = professores.get(pt.getProfessor().getId());
+            Turma t = pt.getTurma();
+            a.turmasComVinculo.add(t.getId());
+            String disciplina = IndiceTrigramas.normalizar(pt.getDisciplina());
+            if (!disciplina.isEmpty()) {
+                a.disciplinas.add(disciplina);
+            }
+            if (noQuadro.contains(t.getId() + "|" + a.id)) {
+                continue;
+            }
+            BitSet slots = aulasDasTurmas.getOrDefault(t.getId(), Map.of()).get(disciplina);
+            if (slots == null) {
+                slots = turnos.computeIfAbsent(t.getTurno(), SubstituicaoService::turnoNaSemana);
+            }
+            if (pt.getDataInicio() == null && pt.getDataTermino() == null) {
+                a.fixo.or(slots);
+            } else {
+                a.periodos.add(new Periodo(pt.getDataInicio(), pt.getDataTermino(), slots));
+            }
+        }
+
+        agenda = new AgendaAno(professores, aulasDasTurmas);
+        Map<Long, AgendaAno> novas = new HashMap<>(agendas);
+        novas.put(anoLetivoId, agenda);
+        agendas = novas;
+        return agenda;
+    }
+
+    private void validarPermissaoAdministrativa(Usuario usuario) {
+        if (usuario == null || !usuario.isAdministrativo()) {
+            throw new SecurityException("Acesso restrito à administração");
+        }
+    }
+}
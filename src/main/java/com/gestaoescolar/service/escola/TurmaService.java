@@ -1,25 +1,64 @@
 package com.gestaoescolar.service.escola;
 
+import com.gestaoescolar.dto.TurmaFiltro;
+import com.gestaoescolar.dto.TurmaLoteItemDTO;
+import com.gestaoescolar.model.Sala;
 import com.gestaoescolar.model.Turma;
 import com.gestaoescolar.model.AnoLetivo;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.model.enums.NivelEscolar;
 import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.SerieHelper;
 import com.gestaoescolar.model.enums.Turno;
 import com.gestaoescolar.repository.TurmaRepository;
+import com.gestaoescolar.repository.TurmaSpecifications;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 public class TurmaService {
 
     private final TurmaRepository turmaRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
+    private final SalaService salaService;
+    private final OcupacaoSalas ocupacaoSalas;
 
-    public TurmaService(TurmaRepository turmaRepository) {
+    private static final int LIMITE_BUSCA_NOME = 50;
+
+    // Geração em lote: id IDENTITY impede o Hibernate de agrupar INSERTs, então vai por JDBC
+    private static final String INSERT_TURMA =
+            "INSERT INTO turmas (nome_turma, serie, nivel, turno, codigo, ano_letivo_id, capacidade, ativa, vagas_disponiveis) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE, ?)";
+
+    public TurmaService(TurmaRepository turmaRepository, ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate,
+                        SalaService salaService, OcupacaoSalas ocupacaoSalas) {
         this.turmaRepository = turmaRepository;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
+        this.salaService = salaService;
+        this.ocupacaoSalas = ocupacaoSalas;
+    }
+
+    private void turmasAlteradas() {
+        eventPublisher.publishEvent(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.TURMAS));
     }
 
     //chamar ano letivo para grid
@@ -32,12 +71,78 @@ public class TurmaService {
     public Turma criarTurma(Turma novaTurma, Usuario usuarioLogado) {
         validarPermissaoAdministrativa(usuarioLogado);
         validarDadosTurma(novaTurma);
+        novaTurma.setSala(validarSala(novaTurma.getSala(), null));
 
         // Garantir que é uma turma nova
         novaTurma.setId(null);
         novaTurma.setAtiva(true);
 
-        return turmaRepository.save(novaTurma);
+        turmasAlteradas();
+        Turma salva = turmaRepository.save(novaTurma);
+        // Sala ocupada por outra turma no mesmo turno e ano: a exceção desfaz a gravação
+        ocupacaoSalas.reservar(salva);
+        return salva;
+    }
+
+    // CREATE - Gerar as turmas de um ano letivo de uma vez (série × turno × quantidade × capacidade).
+    // Nomes A, B, C... a partir da primeira letra livre em cada série/turno; códigos alocados em memória
+    // contra os já existentes no ano; tudo em uma transação e um INSERT em lote. Retorna os códigos criados.
+    @Transactional
+    public List<String> gerarTurmasEmLote(AnoLetivo anoLetivo, List<TurmaLoteItemDTO> itens, Usuario usuarioLogado) {
+        validarPermissaoAdministrativa(usuarioLogado);
+        if (anoLetivo == null || anoLetivo.getId() == null) {
+            throw new IllegalArgumentException("Ano letivo é obrigatório");
+        }
+        if (itens == null || itens.isEmpty()) {
+            return List.of();
+        }
+
+        // Uma consulta: nomes ocupados por série/turno e códigos já usados no ano
+        Map<String, Set<String>> nomesOcupados = new HashMap<>();
+        Set<String> codigos = new HashSet<>();
+        for (Turma t : turmaRepository.findByAnoLetivo(anoLetivo)) {
+            nomesOcupados.computeIfAbsent(t.getSerie() + "|" + t.getTurno(), k -> new HashSet<>()).add(t.getNomeTurma());
+            codigos.add(t.getCodigo());
+        }
+
+        List<Object[]> inserts = new ArrayList<>();
+        List<String> criados = new ArrayList<>();
+        for (TurmaLoteItemDTO item : itens) {
+            if (item.getSerie() == null || item.getTurno() == null) {
+                throw new IllegalArgumentException("Série e turno são obrigatórios");
+            }
+            if (item.getQuantidade() <= 0) {
+                continue;
+            }
+            if (item.getCapacidade() != null && item.getCapacidade() <= 0) {
+                throw new IllegalArgumentException("Capacidade deve ser maior que zero");
+            }
+            Set<String> ocupados = nomesOcupados.computeIfAbsent(item.getSerie() + "|" + item.getTurno(), k -> new HashSet<>());
+            int restantes = item.getQuantidade();
+            for (char letra = 'A'; letra <= 'Z' && restantes > 0; letra++) {
+                String nome = String.valueOf(letra);
+                String codigo = Turma.gerarCodigo(anoLetivo.getAno(), item.getSerie(), nome, item.getTurno());
+                if (ocupados.contains(nome) || codigos.contains(codigo)) {
+                    continue;
+                }
+                ocupados.add(nome);
+                codigos.add(codigo);
+                inserts.add(new Object[]{nome, item.getSerie().name(), SerieHelper.getNivelPorSerie(item.getSerie()).name(),
+                        item.getTurno().name(), codigo, anoLetivo.getId(), item.getCapacidade(), item.getCapacidade()});
+                criados.add(codigo);
+                restantes--;
+            }
+            if (restantes > 0) {
+                throw new IllegalArgumentException("Não há nomes livres (A a Z) suficientes para " +
+                        item.getSerie().getNome() + " - " + item.getTurno().getDescricao());
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TURMA, inserts);
+            turmasAlteradas();
+        }
+        return criados;
     }
 
     // READ - Listar todas as turmas
@@ -46,6 +151,17 @@ public class TurmaService {
         return turmaRepository.findAll();
     }
 
+    // READ - Busca filtrada e paginada (grid de turmas)
+    public Page<Turma> buscarTurmas(TurmaFiltro filtro, Pageable pageable, Usuario usuarioLogado) {
+        validarPermissaoAdministrativa(usuarioLogado);
+        return turmaRepository.findAll(TurmaSpecifications.porFiltro(filtro), comOrdenacaoPadrao(pageable));
+    }
+
+    public long contarTurmas(TurmaFiltro filtro, Usuario usuarioLogado) {
+        validarPermissaoAdministrativa(usuarioLogado);
+        return turmaRepository.count(TurmaSpecifications.porFiltro(filtro));
+    }
+
     // READ - Buscar turma por ID
     public Optional<Turma> buscarPorId(Long id, Usuario usuarioLogado) {
         validarPermissaoAdministrativa(usuarioLogado);
@@ -115,16 +231,31 @@ public class TurmaService {
                 .orElseThrow(() -> new IllegalArgumentException("Turma não encontrada"));
 
         validarAtualizacaoTurma(turmaExistente, dadosAtualizados);
+        String sala = validarSala(dadosAtualizados.getSala(), turmaExistente.getSala());
+        Integer capacidadeAnterior = turmaExistente.getCapacidade();
 
         // Atualizar campos permitidos
         turmaExistente.setNomeTurma(dadosAtualizados.getNomeTurma());
         turmaExistente.setSerie(dadosAtualizados.getSerie());
         turmaExistente.setTurno(dadosAtualizados.getTurno());
         turmaExistente.setCapacidade(dadosAtualizados.getCapacidade());
-        turmaExistente.setSala(dadosAtualizados.getSala());
+        turmaExistente.setSala(sala);
         turmaExistente.setProfessorTitular(dadosAtualizados.getProfessorTitular());
 
-        return turmaRepository.save(turmaExistente);
+        Turma salva = turmaRepository.save(turmaExistente);
+        ocupacaoSalas.reservar(salva);
+        turmasAlteradas();
+
+        // Capacidade alterada: o contador de vagas é refeito a partir das matrículas ativas
+        if (!Objects.equals(capacidadeAnterior, salva.getCapacidade())) {
+            turmaRepository.recalcularVagas(id);
+            Integer vagas = turmaRepository.findVagasDisponiveisById(id);
+            if (vagas != null && vagas < 0) {
+                throw new IllegalArgumentException("Capacidade menor que o número de alunos com matrícula ativa na turma");
+            }
+            salva.setVagasDisponiveis(vagas);
+        }
+        return salva;
     }
 
     // UPDATE - Ativar/desativar turma
@@ -137,6 +268,8 @@ public class TurmaService {
 
         turma.setAtiva(!turma.isAtiva());
         turmaRepository.save(turma);
+        ocupacaoSalas.reservar(turma);
+        turmasAlteradas();
     }
 
     // UPDATE - Atribuir professor titular
@@ -166,6 +299,7 @@ public class TurmaService {
                 .orElseThrow(() -> new IllegalArgumentException("Turma não encontrada"));
 
         turma.setProfessorTitular(null);
+        turmasAlteradas();
         return turmaRepository.save(turma);
     }
 
@@ -182,6 +316,8 @@ public class TurmaService {
 
         turma.setAtiva(false);
         turmaRepository.save(turma);
+        ocupacaoSalas.liberar(turma.getId());
+        turmasAlteradas();
     }
 
     // DELETE - Reativar turma
@@ -194,6 +330,19 @@ public class TurmaService {
 
         turma.setAtiva(true);
         turmaRepository.save(turma);
+        ocupacaoSalas.reservar(turma);
+        turmasAlteradas();
+    }
+
+    // Sem ordenação informada: ano mais recente primeiro; o id garante paginação estável
+    private Pageable comOrdenacaoPadrao(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return pageable;
+        }
+        Sort sort = pageable.getSort().isSorted()
+                ? pageable.getSort().and(Sort.by("id"))
+                : Sort.by(Sort.Order.desc("anoLetivo.ano"), Sort.Order.asc("codigo"), Sort.Order.asc("id"));
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
     }
 
     // VALIDAÇÕES
@@ -249,6 +398,20 @@ public class TurmaService {
                 throw new IllegalArgumentException("Já existe uma turma com este nome, série e turno no ano letivo");
             }
         }
+
+        // Sem limite é capacidade em branco (null); 0 voltaria a ser ambíguo
+        if (dadosNovos.getCapacidade() != null && dadosNovos.getCapacidade() <= 0) {
+            throw new IllegalArgumentException("Capacidade deve ser maior que zero");
+        }
+    }
+
+    // Sala normalizada; precisa estar cadastrada e ativa, exceto a que a turma já usava antes do cadastro de salas
+    private String validarSala(String sala, String salaAtual) {
+        String codigo = Sala.normalizarCodigo(sala);
+        if (codigo != null && !codigo.equals(Sala.normalizarCodigo(salaAtual)) && !salaService.isCadastradaEAtiva(codigo)) {
+            throw new IllegalArgumentException("Sala " + codigo + " não está cadastrada ou está inativa");
+        }
+        return codigo;
     }
 
     private void validarDesativacaoTurma(Turma turma) {
@@ -261,9 +424,17 @@ public class TurmaService {
         System.out.println("Validando desativação da turma: " + turma.getDescricaoCompleta());
     }
 
+    // Reconstrói os contadores de vagas de todas as turmas a partir das matrículas ativas.
+    // Antes normaliza a capacidade 0 de dados antigos para "sem limite" (null), que era o seu significado.
+    @Transactional
+    public int reconciliarVagas() {
+        turmaRepository.converterCapacidadeZeroEmSemLimite();
+        return turmaRepository.recalcularTodasAsVagas();
+    }
+
     // MÉTODOS AUXILIARES E ESTATÍSTICAS
     public long contarTurmasAtivas() {
-        return turmaRepository.findByAtivaTrue().size();
+        return turmaRepository.countByAtivaTrue();
     }
 
     public long contarTurmasPorAnoLetivo(AnoLetivo anoLetivo) {
@@ -275,14 +446,24 @@ public class TurmaService {
     }
 
     public boolean existeTurmaComCodigo(String codigo) {
-        return turmaRepository.findByCodigo(codigo).isPresent();
+        return turmaRepository.existsByCodigo(codigo);
     }
 
+    // Busca turmas cujo nome ou código começa com o texto informado (no máximo LIMITE_BUSCA_NOME resultados)
     public List<Turma> buscarTurmasPorNome(String nome, Usuario usuarioLogado) {
         validarPermissaoAdministrativa(usuarioLogado);
-        // Implementação futura: busca por parte do nome
-        return turmaRepository.findAll().stream()
-                .filter(t -> t.getNomeTurma().toLowerCase().contains(nome.toLowerCase()))
+        if (nome == null || nome.isBlank()) {
+            return List.of();
+        }
+        String prefixo = TurmaSpecifications.escaparLike(nome.trim()).toUpperCase(Locale.ROOT) + "%";
+        PageRequest limite = PageRequest.of(0, LIMITE_BUSCA_NOME);
+        // Os primeiros da união, na ordem de nome e id, estão entre os primeiros de cada consulta
+        Map<Long, Turma> encontradas = new HashMap<>();
+        turmaRepository.buscarPorPrefixoNome(prefixo, limite).forEach(t -> encontradas.put(t.getId(), t));
+        turmaRepository.buscarPorPrefixoCodigo(prefixo, limite).forEach(t -> encontradas.putIfAbsent(t.getId(), t));
+        return encontradas.values().stream()
+                .sorted(Comparator.comparing(Turma::getNomeTurma).thenComparing(Turma::getId))
+                .limit(LIMITE_BUSCA_NOME)
                 .toList();
     }
 }
\ No newline at end of file
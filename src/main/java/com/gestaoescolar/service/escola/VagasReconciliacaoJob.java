@@ -0,0 +1,41 @@
+package com.gestaoescolar.service.escola;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reconstrói periodicamente o contador de vagas das turmas a partir das matrículas ativas.
+ * O contador é mantido incrementalmente pelo EnrollmentService; esta rotina corrige
+ * eventuais divergências (dados antigos, alterações feitas fora da aplicação).
+ * Em seguida recarrega os indicadores do dashboard.
+ */
+@Component
+public class VagasReconciliacaoJob {
+
+    private static final Logger log = LoggerFactory.getLogger(VagasReconciliacaoJob.class);
+
+    private final TurmaService turmaService;
+    private final DashboardService dashboardService;
+
+    public VagasReconciliacaoJob(TurmaService turmaService, DashboardService dashboardService) {
+        this.turmaService = turmaService;
+        this.dashboardService = dashboardService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void aoIniciar() {
+        reconciliar();
+    }
+
+    @Scheduled(cron = "${gestaoescolar.vagas.reconciliacao-cron:0 0 3 * * *}")
+    public void reconciliar() {
+        int turmas = turmaService.reconciliarVagas();
+        log.info("Contador de vagas reconciliado em {} turma(s)", turmas);
+        // Recarga completa dos indicadores do dashboard a partir dos contadores corrigidos
+        dashboardService.recarregar();
+    }
+}
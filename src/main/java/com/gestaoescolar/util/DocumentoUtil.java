@@ -0,0 +1,155 @@
+package com.gestaoescolar.util;
+
+import java.util.regex.Pattern;
+
+/**
+ * Normalização e validação de documentos brasileiros (CPF, CNPJ, NIS/PIS, CEP, telefone, códigos INEP).
+ * Trabalha direto sobre o texto digitado, ignorando pontuação ("123.456.789-09" ou "12345678909"),
+ * sem expressões regulares nem strings intermediárias: a validação é chamada por linha nas
+ * importações em lote.
+ */
+public final class DocumentoUtil {
+
+    private static final int[] PESOS_CNPJ = {6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+    private static final int[] PESOS_NIS = {3, 2, 9, 8, 7, 6, 5, 4, 3, 2};
+
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    private DocumentoUtil() {
+    }
+
+    // ===== Normalização =====
+
+    // Apenas os dígitos do texto; null quando não há nenhum. Não copia se o texto já for só dígitos.
+    public static String somenteDigitos(CharSequence s) {
+        if (s == null) return null;
+        int n = s.length();
+        int digitos = contarDigitos(s);
+        if (digitos == 0) return null;
+        if (digitos == n) return s.toString();
+        char[] d = new char[digitos];
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') d[j++] = c;
+        }
+        return new String(d);
+    }
+
+    public static int contarDigitos(CharSequence s) {
+        if (s == null) return 0;
+        int total = 0;
+        for (int i = 0, n = s.length(); i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= '0' && c <= '9') total++;
+        }
+        return total;
+    }
+
+    // ===== Documentos com dígito verificador =====
+
+    // Somas dos dois verificadores acumuladas na mesma passada
+    public static boolean cpfValido(CharSequence cpf) {
+        if (cpf == null) return false;
+        int j = 0, soma1 = 0, soma2 = 0, primeiro = 0, dv1 = 0, dv2 = 0;
+        boolean iguais = true;
+        for (int i = 0, n = cpf.length(); i < n; i++) {
+            char c = cpf.charAt(i);
+            if (c < '0' || c > '9') continue;
+            if (j == 11) return false;
+            int v = c - '0';
+            if (j == 0) primeiro = v;
+            else if (v != primeiro) iguais = false;
+            if (j < 9) {
+                soma1 += v * (10 - j);
+                soma2 += v * (11 - j);
+            } else if (j == 9) {
+                dv1 = v;
+                soma2 += v * 2;
+            } else {
+                dv2 = v;
+            }
+            j++;
+        }
+        // iguais: evita 000... ou 111...
+        return j == 11 && !iguais && dv1 == dvModulo11(soma1) && dv2 == dvModulo11(soma2);
+    }
+
+    public static boolean cnpjValido(CharSequence cnpj) {
+        if (cnpj == null) return false;
+        int j = 0, soma1 = 0, soma2 = 0, primeiro = 0, dv1 = 0, dv2 = 0;
+        boolean iguais = true;
+        for (int i = 0, n = cnpj.length(); i < n; i++) {
+            char c = cnpj.charAt(i);
+            if (c < '0' || c > '9') continue;
+            if (j == 14) return false;
+            int v = c - '0';
+            if (j == 0) primeiro = v;
+            else if (v != primeiro) iguais = false;
+            if (j < 12) {
+                soma1 += v * PESOS_CNPJ[j + 1];
+                soma2 += v * PESOS_CNPJ[j];
+            } else if (j == 12) {
+                dv1 = v;
+                soma2 += v * PESOS_CNPJ[12];
+            } else {
+                dv2 = v;
+            }
+            j++;
+        }
+        return j == 14 && !iguais && dv1 == dvModulo11(soma1) && dv2 == dvModulo11(soma2);
+    }
+
+    // NIS / PIS / PASEP / NIT: 11 dígitos, o último é verificador
+    public static boolean nisValido(CharSequence nis) {
+        if (nis == null) return false;
+        int j = 0, soma = 0, primeiro = 0, dv = 0;
+        boolean iguais = true;
+        for (int i = 0, n = nis.length(); i < n; i++) {
+            char c = nis.charAt(i);
+            if (c < '0' || c > '9') continue;
+            if (j == 11) return false;
+            int v = c - '0';
+            if (j == 0) primeiro = v;
+            else if (v != primeiro) iguais = false;
+            if (j < 10) soma += v * PESOS_NIS[j];
+            else dv = v;
+            j++;
+        }
+        return j == 11 && !iguais && dv == dvModulo11(soma);
+    }
+
+    // ===== Documentos validados pelo tamanho =====
+
+    public static boolean cepValido(CharSequence cep) {
+        return contarDigitos(cep) == 8;
+    }
+
+    // Fixo (DDD + 8) ou celular (DDD + 9)
+    public static boolean telefoneValido(CharSequence telefone) {
+        int n = contarDigitos(telefone);
+        return n == 10 || n == 11;
+    }
+
+    // Código INEP do aluno (identificação única do Educacenso): 12 dígitos
+    public static boolean inepAlunoValido(CharSequence inep) {
+        return contarDigitos(inep) == 12;
+    }
+
+    // Código INEP da escola: 8 dígitos
+    public static boolean inepEscolaValido(CharSequence inep) {
+        return contarDigitos(inep) == 8;
+    }
+
+    public static boolean emailValido(CharSequence email) {
+        return email != null && EMAIL_PATTERN.matcher(email).matches();
+    }
+
+    // ===== Auxiliares =====
+
+    private static int dvModulo11(int soma) {
+        int r = 11 - (soma % 11);
+        return r >= 10 ? 0 : r;
+    }
+}
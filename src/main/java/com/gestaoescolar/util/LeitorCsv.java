@@ -0,0 +1,107 @@
+package com.gestaoescolar.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitor de CSV registro a registro (não carrega o arquivo inteiro).
+ * Aceita ';' ou ',' como separador (detectado pela primeira linha), campos entre aspas
+ * com aspas duplicadas e quebras de linha dentro de aspas.
+ */
+public class LeitorCsv {
+
+    private final BufferedReader reader;
+    private final char separador;
+    private String primeiraLinha;        // lida para detectar o separador; devolvida pela primeira leitura
+    private int linhaAtual;              // última linha física lida
+    private int linhaInicioRegistro;     // linha física onde começou o último registro devolvido
+
+    public LeitorCsv(BufferedReader reader) {
+        this.reader = reader;
+        try {
+            String primeira = reader.readLine();
+            if (primeira != null && !primeira.isEmpty() && primeira.charAt(0) == '\uFEFF') {
+                primeira = primeira.substring(1); // BOM do Excel
+            }
+            this.primeiraLinha = primeira;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.separador = detectarSeparador(primeiraLinha);
+    }
+
+    public int getLinhaInicioRegistro() {
+        return linhaInicioRegistro;
+    }
+
+    /** Próximo registro, ou null no fim do arquivo. Linhas em branco são ignoradas. */
+    public String[] proximo() {
+        try {
+            String linha;
+            do {
+                linha = lerLinha();
+                if (linha == null) return null;
+                linhaAtual++;
+            } while (linha.isBlank());
+
+            List<String> campos = new ArrayList<>();
+            StringBuilder campo = new StringBuilder();
+            boolean entreAspas = false;
+            int inicio = linhaAtual;
+            while (true) {
+                for (int i = 0; i < linha.length(); i++) {
+                    char c = linha.charAt(i);
+                    if (entreAspas) {
+                        if (c == '"') {
+                            if (i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                                campo.append('"');
+                                i++;
+                            } else {
+                                entreAspas = false;
+                            }
+                        } else {
+                            campo.append(c);
+                        }
+                    } else if (c == '"') {
+                        entreAspas = true;
+                    } else if (c == separador) {
+                        campos.add(campo.toString().trim());
+                        campo.setLength(0);
+                    } else {
+                        campo.append(c);
+                    }
+                }
+                if (!entreAspas) break;
+                linha = lerLinha();
+                if (linha == null) break;   // aspas não fechadas: aproveita o que foi lido
+                linhaAtual++;
+                campo.append('\n');
+            }
+            campos.add(campo.toString().trim());
+            linhaInicioRegistro = inicio;
+            return campos.toArray(new String[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String lerLinha() throws IOException {
+        if (primeiraLinha != null) {
+            String linha = primeiraLinha;
+            primeiraLinha = null;
+            return linha;
+        }
+        return reader.readLine();
+    }
+
+    // Pela primeira linha inteira (cabeçalho de qualquer tamanho, sem mark/reset do reader)
+    private static char detectarSeparador(String primeira) {
+        if (primeira == null) return ';';
+        long pontoEVirgula = primeira.chars().filter(c -> c == ';').count();
+        long virgula = primeira.chars().filter(c -> c == ',').count();
+        return virgula > pontoEVirgula ? ',' : ';';
+    }
+}
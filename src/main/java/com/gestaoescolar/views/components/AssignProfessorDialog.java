@@ -1,9 +1,11 @@
 package com.gestaoescolar.views.components;
 
-import com.gestaoescolar.model.Professor;
+import com.gestaoescolar.dto.CargaHorariaProfessorDTO;
+import com.gestaoescolar.dto.ProfessorResumoDTO;
 import com.gestaoescolar.model.ProfessorTurma;
 import com.gestaoescolar.model.Turma;
 import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.escola.CargaHorariaService;
 import com.gestaoescolar.service.escola.ProfessorService;
 import com.gestaoescolar.service.escola.ProfessorTurmaService;
 import com.vaadin.flow.component.button.Button;
@@ -20,20 +22,24 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * Diálogo para atribuir um Professor a uma Turma.
  * Simplificado: apenas avisa (mensagem visual) se já existir Titular no período.
  * Não bloqueia, não muda o papel automaticamente. O service continua validando as regras.
+ * Cada professor da lista mostra a carga horária semanal atual no ano letivo da turma (totais em memória).
  */
 public class AssignProfessorDialog extends Dialog {
 
     private final ProfessorService professorService;
     private final ProfessorTurmaService professorTurmaService;
+    private final CargaHorariaService cargaHorariaService;
     private final Turma turma;
     private final Usuario usuarioLogado;
 
-    private final ComboBox<Professor> professorCombo = new ComboBox<>("Professor");
+    private final ComboBox<ProfessorResumoDTO> professorCombo = new ComboBox<>("Professor");
     private final ComboBox<ProfessorTurma.Papel> papelCombo = new ComboBox<>("Papel");
     private final TextField disciplina = new TextField("Disciplina (opcional)");
     private final DatePicker dataInicio = new DatePicker("Data Início");
@@ -43,14 +49,21 @@ public class AssignProfessorDialog extends Dialog {
 
     // Aviso sobre disponibilidade do titular
     private final Span infoTitular = new Span();
+    // Carga horária do professor selecionado
+    private final Span infoCarga = new Span();
+
+    // Carga no ano letivo da turma, por id do professor (sem entrada = sem aulas no ano)
+    private Map<Long, CargaHorariaProfessorDTO> cargas = Map.of();
 
     public AssignProfessorDialog(Turma turma,
                                  ProfessorService professorService,
                                  ProfessorTurmaService professorTurmaService,
+                                 CargaHorariaService cargaHorariaService,
                                  Usuario usuarioLogado) {
         this.turma = turma;
         this.professorService = professorService;
         this.professorTurmaService = professorTurmaService;
+        this.cargaHorariaService = cargaHorariaService;
         this.usuarioLogado = usuarioLogado;
 
         setWidth("520px");
@@ -68,9 +81,13 @@ public class AssignProfessorDialog extends Dialog {
     private void configurarCampos() {
         professorCombo.setItemLabelGenerator(p -> {
             String cpf = p.getCpf() == null ? "" : formatCpf(p.getCpf());
-            return p.getNomeCompleto() + (cpf.isBlank() ? "" : " (" + cpf + ")");
+            CargaHorariaProfessorDTO carga = cargas.get(p.getId());
+            long horas = carga != null ? carga.getTotal() : 0;
+            return p.getNomeCompleto() + (cpf.isBlank() ? "" : " (" + cpf + ")") + " · " + horas + "h/sem"
+                    + (carga != null && carga.isAcimaDoLimite() ? " ⚠" : "");
         });
         professorCombo.setPlaceholder("Selecione um professor");
+        professorCombo.addValueChangeListener(e -> atualizarCarga());
 
         papelCombo.setItems(ProfessorTurma.Papel.values());
         papelCombo.setValue(ProfessorTurma.Papel.TITULAR);
@@ -86,6 +103,7 @@ public class AssignProfessorDialog extends Dialog {
         // Aparência do aviso
         infoTitular.getElement().getThemeList().add("badge error");
         infoTitular.setVisible(false);
+        infoCarga.setVisible(false);
     }
 
     private void configurarDatePickersPtBR() {
@@ -114,7 +132,8 @@ public class AssignProfessorDialog extends Dialog {
     private void createLayout() {
         FormLayout form = new FormLayout();
         // Coloca o aviso logo abaixo do campo de Papel
-        form.add(professorCombo, papelCombo, infoTitular, disciplina, dataInicio, dataTermino, salvar, cancelar);
+        form.add(professorCombo, infoCarga, papelCombo, infoTitular, disciplina, dataInicio, dataTermino, salvar, cancelar);
+        form.setColspan(infoCarga, 2);
         form.setColspan(infoTitular, 2);
         add(form);
     }
@@ -126,7 +145,9 @@ public class AssignProfessorDialog extends Dialog {
                 close();
                 return;
             }
-            List<Professor> lista = professorService.listarTodosProfessores(usuarioLogado);
+            List<ProfessorResumoDTO> lista = professorService.listarResumos(null, null, null, usuarioLogado);
+            Long anoLetivoId = turma != null && turma.getAnoLetivo() != null ? turma.getAnoLetivo().getId() : null;
+            cargas = cargaHorariaService.cargasNoAno(anoLetivoId);
             professorCombo.setItems(lista);
             if (!lista.isEmpty()) {
                 professorCombo.setValue(lista.get(0));
@@ -141,7 +162,7 @@ public class AssignProfessorDialog extends Dialog {
     }
 
     private void onSalvar() {
-        Professor selecionado = professorCombo.getValue();
+        ProfessorResumoDTO selecionado = professorCombo.getValue();
         if (selecionado == null) {
             Notification.show("Selecione um professor", 2500, Notification.Position.MIDDLE);
             return;
@@ -185,6 +206,30 @@ public class AssignProfessorDialog extends Dialog {
         }
     }
 
+    // ===================== Carga horária =====================
+
+    private void atualizarCarga() {
+        ProfessorResumoDTO selecionado = professorCombo.getValue();
+        if (selecionado == null) {
+            infoCarga.setVisible(false);
+            return;
+        }
+        CargaHorariaProfessorDTO carga = cargas.get(selecionado.getId());
+        long limite = cargaHorariaService.getLimiteSemanal();
+        if (carga == null) {
+            infoCarga.setText("Sem aulas atribuídas no ano letivo (limite " + limite + "h semanais).");
+        } else {
+            String porTurno = carga.getHorasPorTurno().entrySet().stream()
+                    .map(t -> t.getKey().getDescricao() + " " + t.getValue() + "h")
+                    .collect(Collectors.joining(", "));
+            infoCarga.setText("Carga atual: " + carga.getTotal() + "h semanais (" + porTurno + "), limite "
+                    + limite + "h" + (carga.isAcimaDoLimite() ? " — acima do limite" : "") + ".");
+        }
+        infoCarga.getElement().getThemeList().set("badge", true);
+        infoCarga.getElement().getThemeList().set("error", carga != null && carga.isAcimaDoLimite());
+        infoCarga.setVisible(true);
+    }
+
     // ===================== Aviso de titular =====================
 
     private void atualizarAvisoTitular() {
@@ -197,19 +242,7 @@ public class AssignProfessorDialog extends Dialog {
     }
 
     private boolean existeTitularNoPeriodoSelecionado() {
-        LocalDate inicioSel = dataInicio.getValue();
-        LocalDate terminoSel = dataTermino.getValue();
-        return professorTurmaService.listByTurma(turma.getId()).stream()
-                .filter(pt -> pt.getPapel() == ProfessorTurma.Papel.TITULAR)
-                .anyMatch(pt -> periodOverlap(inicioSel, terminoSel, pt.getDataInicio(), pt.getDataTermino()));
-    }
-
-    private boolean periodOverlap(LocalDate aStart, LocalDate aEnd, LocalDate bStart, LocalDate bEnd) {
-        LocalDate as = aStart != null ? aStart : LocalDate.MIN;
-        LocalDate ae = aEnd != null ? aEnd : LocalDate.MAX;
-        LocalDate bs = bStart != null ? bStart : LocalDate.MIN;
-        LocalDate be = bEnd != null ? bEnd : LocalDate.MAX;
-        return !ae.isBefore(bs) && !be.isBefore(as);
+        return professorTurmaService.existeTitularNoPeriodo(turma.getId(), dataInicio.getValue(), dataTermino.getValue());
     }
 
     private String formatCpf(String input) {
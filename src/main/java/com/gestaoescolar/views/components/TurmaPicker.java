@@ -0,0 +1,102 @@
+package com.gestaoescolar.views.components;
+
+import com.gestaoescolar.dto.TurmaFiltro;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.AnoLetivoService;
+import com.gestaoescolar.service.escola.TurmaService;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.customfield.CustomField;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+/**
+ * Seleção de turma em duas etapas: ano letivo (padrão: o ano ativo) e turma.
+ * As turmas são filtradas no banco pelo texto digitado e carregadas por página,
+ * então o custo de abrir o campo não depende de quantos anos existem no banco.
+ */
+public class TurmaPicker extends CustomField<Turma> {
+
+    private final TurmaService turmaService;
+    private final Usuario usuario;
+
+    private final ComboBox<AnoLetivo> anoLetivo = new ComboBox<>();
+    private final ComboBox<Turma> turma = new ComboBox<>();
+
+    private final List<AnoLetivo> anos;
+    private boolean somenteComVagas;
+
+    public TurmaPicker(String label,
+                       TurmaService turmaService,
+                       AnoLetivoService anoLetivoService,
+                       Usuario usuario) {
+        this.turmaService = turmaService;
+        this.usuario = usuario;
+        setLabel(label);
+
+        anoLetivo.setPlaceholder("Ano letivo");
+        anos = anoLetivoService.findAll();
+        anoLetivo.setItems(anos);
+        anoLetivo.setItemLabelGenerator(a -> String.valueOf(a.getAno()));
+        anoLetivo.setWidth("8em");
+        anoLetivoService.findAnoLetivoAtivo().ifPresent(anoLetivo::setValue);
+        anoLetivo.addValueChangeListener(e -> {
+            turma.clear();
+            turma.getDataProvider().refreshAll();
+        });
+
+        turma.setPlaceholder("Digite o nome ou código");
+        turma.setItemLabelGenerator(t -> t.getCodigo() + " - " + t.getNomeTurma());
+        turma.setItems(
+                query -> turmaService.buscarTurmas(
+                        criarFiltro(query.getFilter().orElse(null)),
+                        PageRequest.of(query.getPage(), query.getPageSize()),
+                        usuario
+                ).stream(),
+                query -> (int) turmaService.contarTurmas(criarFiltro(query.getFilter().orElse(null)), usuario)
+        );
+        turma.setWidthFull();
+        turma.addValueChangeListener(e -> updateValue());
+
+        HorizontalLayout layout = new HorizontalLayout(anoLetivo, turma);
+        layout.setPadding(false);
+        layout.setWidthFull();
+        layout.setFlexGrow(1, turma);
+        add(layout);
+    }
+
+    /** Restringe a lista a turmas ativas com vaga livre (matrícula e transferência). */
+    public void setSomenteComVagas(boolean somenteComVagas) {
+        this.somenteComVagas = somenteComVagas;
+        turma.getDataProvider().refreshAll();
+    }
+
+    /** Troca o ano letivo exibido (ex.: o ano da turma de origem em uma transferência). */
+    public void setAnoLetivoId(Long anoLetivoId) {
+        anos.stream()
+                .filter(a -> a.getId().equals(anoLetivoId))
+                .findFirst()
+                .ifPresent(anoLetivo::setValue);
+    }
+
+    private TurmaFiltro criarFiltro(String texto) {
+        TurmaFiltro filtro = new TurmaFiltro();
+        filtro.setTexto(texto);
+        filtro.setAnoLetivo(anoLetivo.getValue());
+        filtro.setSomenteComVagas(somenteComVagas);
+        return filtro;
+    }
+
+    @Override
+    protected Turma generateModelValue() {
+        return turma.getValue();
+    }
+
+    @Override
+    protected void setPresentationValue(Turma value) {
+        turma.setValue(value);
+    }
+}
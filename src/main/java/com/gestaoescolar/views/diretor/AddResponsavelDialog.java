@@ -1,16 +1,23 @@
 package com.gestaoescolar.views.diretor;
 
+import com.gestaoescolar.dto.PessoaNomeDTO;
 import com.gestaoescolar.model.Responsavel;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.service.escola.AlunoService;
+import com.gestaoescolar.util.DocumentoUtil;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.checkbox.Checkbox;
+import com.vaadin.flow.component.combobox.MultiSelectComboBox;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.textfield.EmailField;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
+
+import java.util.ArrayList;
+import java.util.List;
 
 public class AddResponsavelDialog extends Dialog {
 
@@ -35,6 +42,12 @@ public class AddResponsavelDialog extends Dialog {
     private final Checkbox papelFinanceiro = new Checkbox("Responsável financeiro");
     private final Checkbox papelDidatico = new Checkbox("Responsável didático");
 
+    // Irmãos (alunos com responsável em comum) que recebem o mesmo vínculo
+    private final MultiSelectComboBox<PessoaNomeDTO> irmaos = new MultiSelectComboBox<>("Vincular também a (irmãos)");
+
+    // Último CPF consultado no preenchimento automático (evita repetir a consulta a cada tecla)
+    private String ultimoCpfConsultado;
+
     private final Button salvar = new Button("Salvar");
     private final Button cancelar = new Button("Cancelar");
 
@@ -91,8 +104,16 @@ public class AddResponsavelDialog extends Dialog {
             papelDidatico.setValue(didatico);
             papelFinanceiro.setValue(financeiro);
             papelLegal.setValue(legal);
+        } else {
+            cpf.setValueChangeMode(ValueChangeMode.LAZY);
+            cpf.addValueChangeListener(e -> preencherPorCpf(e.getValue()));
         }
 
+        List<PessoaNomeDTO> listaIrmaos = alunoService.listSiblings(alunoId, usuario);
+        irmaos.setItems(listaIrmaos);
+        irmaos.setItemLabelGenerator(PessoaNomeDTO::getNome);
+        irmaos.setVisible(!listaIrmaos.isEmpty());
+
         FormLayout form = new FormLayout();
         form.setWidthFull();
         form.setResponsiveSteps(
@@ -104,6 +125,8 @@ public class AddResponsavelDialog extends Dialog {
         form.setColspan(docGuarda, 2);
 
         form.add(papelLegal, papelFinanceiro, papelDidatico);
+        form.add(irmaos);
+        form.setColspan(irmaos, 2);
         HorizontalLayout actions = new HorizontalLayout(salvar, cancelar);
         form.add(actions);
         form.setColspan(actions, 2);
@@ -127,8 +150,12 @@ public class AddResponsavelDialog extends Dialog {
             r.setEmail(email.getValue());
             r.setDocGuarda(docGuarda.getValue());
 
-            alunoService.attachGuardian(
-                    alunoId,
+            List<Long> alunos = new ArrayList<>();
+            alunos.add(alunoId);
+            irmaos.getSelectedItems().forEach(i -> alunos.add(i.getId()));
+
+            alunoService.attachGuardianToStudents(
+                    alunos,
                     r,
                     papelDidatico.getValue(),
                     papelFinanceiro.getValue(),
@@ -143,6 +170,25 @@ public class AddResponsavelDialog extends Dialog {
         }
     }
 
+    // CPF de responsável já cadastrado (ex.: de um irmão): preenche os demais campos
+    private void preencherPorCpf(String valor) {
+        String digitos = normalizeDigits(valor);
+        if (digitos.equals(ultimoCpfConsultado) || !DocumentoUtil.cpfValido(digitos)) {
+            return;
+        }
+        ultimoCpfConsultado = digitos;
+        alunoService.findGuardianByCpf(digitos, usuario).ifPresent(r -> {
+            nome.setValue(nullToEmpty(r.getNome()));
+            parentesco.setValue(nullToEmpty(r.getParentesco()));
+            rg.setValue(nullToEmpty(r.getRg()));
+            telefone1.setValue(formatPhone(r.getTelefone1()));
+            telefone2.setValue(formatPhone(r.getTelefone2()));
+            email.setValue(nullToEmpty(r.getEmail()));
+            docGuarda.setValue(nullToEmpty(r.getDocGuarda()));
+            Notification.show("Responsável já cadastrado: dados preenchidos.", 2500, Notification.Position.BOTTOM_START);
+        });
+    }
+
     // ===== Helpers de máscara (null-safe) =====
     private void applyCpfMask(TextField field) {
         field.addFocusListener(e -> field.setValue(normalizeDigits(field.getValue())));
@@ -1,10 +1,12 @@
 package com.gestaoescolar.views.diretor;
 
+import com.gestaoescolar.dto.DuplicidadeAlunoDTO;
+import com.gestaoescolar.dto.FichaAlunoDTO;
 import com.gestaoescolar.model.Aluno;
-import com.gestaoescolar.model.AlunoResponsavel;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.model.enums.Genero;
 import com.gestaoescolar.service.escola.AlunoService;
+import com.gestaoescolar.service.escola.DuplicidadeAlunoService;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEvent;
 import com.vaadin.flow.component.ComponentEventListener;
@@ -26,12 +28,14 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.shared.Registration;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Locale;
 
 public class AlunoForm extends FormLayout {
 
     private final AlunoService alunoService;
+    private final DuplicidadeAlunoService duplicidadeService;
     private final Usuario usuarioLogado;
 
     private Aluno aluno;
@@ -83,11 +87,16 @@ public class AlunoForm extends FormLayout {
     private final Button fechar = new Button("Fechar");
 
     // Responsáveis (grid + botão)
-    private final Grid<AlunoResponsavel> gridResponsaveis = new Grid<>(AlunoResponsavel.class, false);
+    private final Grid<FichaAlunoDTO.ResponsavelFicha> gridResponsaveis = new Grid<>();
     private final Button addResponsavel = new Button("Adicionar responsável");
 
-    public AlunoForm(AlunoService alunoService, Usuario usuarioLogado) {
+    // Aviso de possível cadastro duplicado (aluno novo): salvar de novo com os mesmos suspeitos confirma
+    private final Span avisoDuplicidade = new Span();
+    private List<Long> duplicadosAvisados = List.of();
+
+    public AlunoForm(AlunoService alunoService, DuplicidadeAlunoService duplicidadeService, Usuario usuarioLogado) {
         this.alunoService = alunoService;
+        this.duplicidadeService = duplicidadeService;
         this.usuarioLogado = usuarioLogado;
 
         // Layout do formulário: colado à esquerda, largura total com limite
@@ -171,6 +180,10 @@ public class AlunoForm extends FormLayout {
         box.setWidthFull();
         box.getStyle().set("margin", "0");
         box.add(nomeCompleto, nomeSocial, dataNascimento, genero, corRaca, telefone, email);
+        avisoDuplicidade.getStyle().set("color", "var(--lumo-error-text-color)");
+        avisoDuplicidade.setVisible(false);
+        box.add(avisoDuplicidade);
+        box.setColspan(avisoDuplicidade, 2);
         box.setResponsiveSteps(
                 new ResponsiveStep("0", 1),
                 new ResponsiveStep("900px", 2)
@@ -211,27 +224,28 @@ public class AlunoForm extends FormLayout {
         box.setWidthFull();
         box.getStyle().set("margin", "0");
 
-        gridResponsaveis.addColumn(ar -> ar.getResponsavel().getNome()).setHeader("Nome").setAutoWidth(true);
-        gridResponsaveis.addColumn(ar -> ar.getResponsavel().getCpf()).setHeader("CPF").setAutoWidth(true);
-        gridResponsaveis.addColumn(ar -> ar.getResponsavel().getParentesco()).setHeader("Parentesco").setAutoWidth(true);
-        gridResponsaveis.addColumn(ar -> ar.isResponsavelLegal() ? "Sim" : "Não").setHeader("Legal").setAutoWidth(true);
-        gridResponsaveis.addColumn(ar -> ar.isResponsavelFinanceiro() ? "Sim" : "Não").setHeader("Financeiro").setAutoWidth(true);
-        gridResponsaveis.addColumn(ar -> ar.isResponsavelDidatico() ? "Sim" : "Não").setHeader("Didático").setAutoWidth(true);
+        gridResponsaveis.addColumn(FichaAlunoDTO.ResponsavelFicha::nome).setHeader("Nome").setAutoWidth(true);
+        gridResponsaveis.addColumn(FichaAlunoDTO.ResponsavelFicha::cpf).setHeader("CPF").setAutoWidth(true);
+        gridResponsaveis.addColumn(FichaAlunoDTO.ResponsavelFicha::parentesco).setHeader("Parentesco").setAutoWidth(true);
+        gridResponsaveis.addColumn(ar -> ar.legal() ? "Sim" : "Não").setHeader("Legal").setAutoWidth(true);
+        gridResponsaveis.addColumn(ar -> ar.financeiro() ? "Sim" : "Não").setHeader("Financeiro").setAutoWidth(true);
+        gridResponsaveis.addColumn(ar -> ar.didatico() ? "Sim" : "Não").setHeader("Didático").setAutoWidth(true);
 
         // Coluna de ações: Editar + Remover
         gridResponsaveis.addComponentColumn(ar -> {
             Button editar = new Button("Editar", e -> {
                 try {
-                    var resp = ar.getResponsavel();
+                    // A linha é uma cópia: o diálogo edita o responsável lido agora do banco
+                    var resp = alunoService.findGuardianById(ar.responsavelId(), usuarioLogado);
                     AddResponsavelDialog dlg = new AddResponsavelDialog(
                             alunoService,
                             usuarioLogado,
                             aluno.getId(),
                             this::refreshResponsaveis,
                             resp,
-                            ar.isResponsavelDidatico(),
-                            ar.isResponsavelFinanceiro(),
-                            ar.isResponsavelLegal()
+                            ar.didatico(),
+                            ar.financeiro(),
+                            ar.legal()
                     );
                     dlg.open();
                 } catch (Exception ex) {
@@ -241,7 +255,7 @@ public class AlunoForm extends FormLayout {
 
             Button remover = new Button("Remover", e -> {
                 try {
-                    alunoService.detachGuardian(aluno.getId(), ar.getResponsavel().getId(), usuarioLogado);
+                    alunoService.detachGuardian(aluno.getId(), ar.responsavelId(), usuarioLogado);
                     refreshResponsaveis();
                 } catch (Exception ex) {
                     Notification.show("Erro ao remover responsável: " + ex.getMessage(), 4000, Notification.Position.MIDDLE);
@@ -336,6 +350,9 @@ public class AlunoForm extends FormLayout {
             aluno.setObservacoesSaude(observacoesSaude.getValue());
             aluno.setObservacoes(observacoes.getValue());
 
+            if (aluno.getId() == null && !confirmouDuplicidade()) {
+                return;
+            }
             fireEvent(new SaveEvent(this, aluno));
         } catch (Exception ex) {
             Notification.show("Erro ao preparar dados: " + ex.getMessage(), 4000, Notification.Position.MIDDLE);
@@ -343,6 +360,47 @@ public class AlunoForm extends FormLayout {
     }
 
     public void setAluno(Aluno a) {
+        preencher(a);
+        if (a != null) {
+            refreshResponsaveis();
+        }
+    }
+
+    // O formulário altera uma cópia do cadastro da ficha já lida; a ficha (guardada no cache) não muda
+    public void setFicha(FichaAlunoDTO ficha) {
+        preencher(ficha.getAluno().paraEdicao());
+        gridResponsaveis.setItems(ficha.getResponsaveis());
+    }
+
+    // Primeiro clique com suspeitos: mostra o aviso e não salva; o segundo (mesmos suspeitos) confirma
+    private boolean confirmouDuplicidade() {
+        List<DuplicidadeAlunoDTO> suspeitos = duplicidadeService.possiveisDuplicados(aluno, usuarioLogado);
+        List<Long> ids = suspeitos.stream().map(DuplicidadeAlunoDTO::getOutroAlunoId).toList();
+        if (ids.isEmpty() || ids.equals(duplicadosAvisados)) {
+            return true;
+        }
+        duplicadosAvisados = ids;
+        DateTimeFormatter df = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        StringBuilder texto = new StringBuilder("Possível cadastro duplicado: ");
+        suspeitos.stream().limit(3).forEach(d -> texto.append(d.getNomeOutroAluno())
+                .append(" (nasc. ").append(df.format(d.getDataNascimentoOutro())).append("; ")
+                .append(d.getMotivo()).append(") "));
+        texto.append("— clique em \"Salvar mesmo assim\" para cadastrar.");
+        avisoDuplicidade.setText(texto.toString());
+        avisoDuplicidade.setVisible(true);
+        salvar.setText("Salvar mesmo assim");
+        tabs.setSelectedTab(tabDados);
+        return false;
+    }
+
+    private void limparAvisoDuplicidade() {
+        duplicadosAvisados = List.of();
+        avisoDuplicidade.setVisible(false);
+        salvar.setText("Salvar");
+    }
+
+    private void preencher(Aluno a) {
+        limparAvisoDuplicidade();
         this.aluno = a;
         if (a == null) {
             clearFields();
@@ -377,8 +435,6 @@ public class AlunoForm extends FormLayout {
         observacoesSaude.setValue(nullToEmpty(a.getObservacoesSaude()));
 
         observacoes.setValue(nullToEmpty(a.getObservacoes()));
-
-        refreshResponsaveis();
     }
 
     private void refreshResponsaveis() {
@@ -387,7 +443,9 @@ public class AlunoForm extends FormLayout {
             return;
         }
         try {
-            gridResponsaveis.setItems(alunoService.listActiveGuardians(aluno.getId(), usuarioLogado));
+            gridResponsaveis.setItems(alunoService.listActiveGuardians(aluno.getId(), usuarioLogado).stream()
+                    .map(FichaAlunoDTO.ResponsavelFicha::de)
+                    .toList());
         } catch (Exception ex) {
             Notification.show("Erro ao carregar responsáveis: " + ex.getMessage(), 4000, Notification.Position.MIDDLE);
         }
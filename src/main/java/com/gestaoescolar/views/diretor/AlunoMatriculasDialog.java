@@ -1,44 +1,33 @@
 package com.gestaoescolar.views.diretor;
 
-import com.gestaoescolar.model.Aluno;
-import com.gestaoescolar.model.Matricula;
-import com.gestaoescolar.model.Turma;
-import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.dto.FichaAlunoDTO;
 import com.gestaoescolar.model.enums.MatriculaStatus;
-import com.gestaoescolar.service.escola.EnrollmentService;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Span;
-import com.vaadin.flow.component.notification.Notification;
 
 import java.time.format.DateTimeFormatter;
-import java.util.List;
 
+// Histórico de matrículas a partir da ficha do aluno (turma e ano letivo já carregados)
 public class AlunoMatriculasDialog extends Dialog {
 
-    private final EnrollmentService enrollmentService;
-    private final Usuario usuario;
-    private final Aluno aluno;
-
-    private final Grid<Matricula> grid = new Grid<>(Matricula.class, false);
+    private final Grid<FichaAlunoDTO.MatriculaFicha> grid = new Grid<>();
     private final DateTimeFormatter df = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
-    public AlunoMatriculasDialog(EnrollmentService enrollmentService,
-                                 Usuario usuario,
-                                 Aluno aluno) {
-        this.enrollmentService = enrollmentService;
-        this.usuario = usuario;
-        this.aluno = aluno;
-
-        setHeaderTitle("Matrículas de " + (aluno.getNomeCompleto() != null ? aluno.getNomeCompleto() : "Aluno"));
+    public AlunoMatriculasDialog(FichaAlunoDTO ficha) {
+        String nomeAluno = ficha.getNomeAluno();
+        setHeaderTitle("Matrículas de " + (nomeAluno != null ? nomeAluno : "Aluno"));
         setWidth("900px");
         setHeight("70vh");
         setDraggable(true);
         setResizable(true);
 
         configureGrid();
-        refresh();
+        grid.setItems(ficha.getMatriculas());
+        if (ficha.getMatriculas().isEmpty()) {
+            getHeader().add(new Span(" (sem matrículas)"));
+        }
 
         Button fechar = new Button("Fechar", e -> close());
         getFooter().add(fechar);
@@ -50,45 +39,27 @@ public class AlunoMatriculasDialog extends Dialog {
         grid.setSizeFull();
 
         grid.addColumn(m -> {
-            Turma t = m.getTurma();
-            if (t == null) return "";
-            String codigo = t.getCodigo() != null ? t.getCodigo() : "";
-            String nome = t.getNomeTurma() != null ? t.getNomeTurma() : "";
+            String codigo = m.codigoTurma() != null ? m.codigoTurma() : "";
+            String nome = m.nomeTurma() != null ? m.nomeTurma() : "";
             return codigo + (nome.isBlank() ? "" : " - " + nome);
         }).setHeader("Turma").setAutoWidth(true);
 
-        grid.addColumn(m -> {
-            Turma t = m.getTurma();
-            if (t == null || t.getAnoLetivo() == null) return "";
-            Integer ano = t.getAnoLetivo().getAno();
-            return ano != null ? ano.toString() : "";
-        }).setHeader("Ano Letivo").setAutoWidth(true);
+        grid.addColumn(m -> m.anoLetivo() != null ? m.anoLetivo().toString() : "")
+                .setHeader("Ano Letivo").setAutoWidth(true);
 
-        grid.addColumn(m -> mapStatus(m.getStatus()))
+        grid.addColumn(m -> mapStatus(m.status()))
                 .setHeader("Status").setAutoWidth(true);
 
-        grid.addColumn(m -> m.getDataInicio() != null ? df.format(m.getDataInicio()) : "")
+        grid.addColumn(m -> m.dataInicio() != null ? df.format(m.dataInicio()) : "")
                 .setHeader("Início").setAutoWidth(true);
 
-        grid.addColumn(m -> m.getDataTermino() != null ? df.format(m.getDataTermino()) : "")
+        grid.addColumn(m -> m.dataTermino() != null ? df.format(m.dataTermino()) : "")
                 .setHeader("Término").setAutoWidth(true);
 
-        grid.addColumn(m -> m.getMotivo() != null ? m.getMotivo() : "")
+        grid.addColumn(m -> m.motivo() != null ? m.motivo() : "")
                 .setHeader("Motivo").setAutoWidth(true);
     }
 
-    private void refresh() {
-        try {
-            List<Matricula> list = enrollmentService.listEnrollmentsByStudent(aluno.getId(), usuario);
-            grid.setItems(list);
-            if (list.isEmpty()) {
-                getHeader().add(new Span(" (sem matrículas)"));
-            }
-        } catch (Exception ex) {
-            Notification.show(ex.getMessage() != null ? ex.getMessage() : "Erro ao carregar matrículas", 4000, Notification.Position.MIDDLE);
-        }
-    }
-
     private String mapStatus(MatriculaStatus s) {
         if (s == null) return "";
         return switch (s) {
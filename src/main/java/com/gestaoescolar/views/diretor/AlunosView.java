@@ -1,10 +1,18 @@
 package com.gestaoescolar.views.diretor;
 
+import com.gestaoescolar.dto.AlunoFiltro;
+import com.gestaoescolar.dto.AlunoResumoDTO;
 import com.gestaoescolar.model.Aluno;
 import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.AnoLetivoService;
 import com.gestaoescolar.service.auth.AuthService;
 import com.gestaoescolar.service.escola.AlunoService;
+import com.gestaoescolar.service.escola.DuplicidadeAlunoService;
+import com.gestaoescolar.service.escola.ExportacaoCensoService;
+import com.gestaoescolar.service.escola.FichaAlunoService;
+import com.gestaoescolar.service.escola.ImportacaoAlunosService;
 import com.gestaoescolar.views.shared.MainLayout;
+import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.grid.Grid;
@@ -13,37 +21,58 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.data.value.ValueChangeMode;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 
 import java.time.format.DateTimeFormatter;
-import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 @Route(value = "diretor/alunos", layout = MainLayout.class)
 @PageTitle("Gestão de Alunos")
-public class AlunosView extends VerticalLayout {
+public class AlunosView extends VerticalLayout implements BeforeEnterObserver {
 
     private final AlunoService alunoService;
     private final AuthService authService;
     private final Usuario usuarioLogado;
     private final com.gestaoescolar.service.escola.EnrollmentService enrollmentService;
     private final com.gestaoescolar.service.escola.TurmaService turmaService;
+    private final AnoLetivoService anoLetivoService;
+    private final ImportacaoAlunosService importacaoService;
+    private final ExportacaoCensoService exportacaoCensoService;
+    private final FichaAlunoCache fichas;
+    private final DuplicidadeAlunoService duplicidadeService;
 
-    private final Grid<Aluno> grid = new Grid<>(Aluno.class, false);
+    private final Grid<AlunoResumoDTO> grid = new Grid<>(AlunoResumoDTO.class, false);
     private AlunoForm form;
 
     private final TextField filtro = new TextField();
     private final ComboBox<String> filtroStatus = new ComboBox<>();
+    private final Button filtroResponsavel = new Button("Só alunos do responsável (limpar)");
+    private Long responsavelId;   // vindo da busca global (?responsavel=id)
 
     public AlunosView(AlunoService alunoService,
                       AuthService authService,
                       com.gestaoescolar.service.escola.EnrollmentService enrollmentService,
-                      com.gestaoescolar.service.escola.TurmaService turmaService) {
+                      com.gestaoescolar.service.escola.TurmaService turmaService,
+                      AnoLetivoService anoLetivoService,
+                      ImportacaoAlunosService importacaoService,
+                      ExportacaoCensoService exportacaoCensoService,
+                      FichaAlunoService fichaAlunoService,
+                      DuplicidadeAlunoService duplicidadeService) {
         this.alunoService = alunoService;
         this.authService = authService;
         this.enrollmentService = enrollmentService;
         this.turmaService = turmaService;
+        this.anoLetivoService = anoLetivoService;
+        this.importacaoService = importacaoService;
+        this.exportacaoCensoService = exportacaoCensoService;
+        this.fichas = FichaAlunoCache.da(UI.getCurrent(), fichaAlunoService);
+        this.duplicidadeService = duplicidadeService;
         this.usuarioLogado = authService.getUsuarioLogado();
 
         setSizeFull();
@@ -51,21 +80,22 @@ public class AlunosView extends VerticalLayout {
         add(new H2("Gestão de Alunos"));
 
         configureGrid();
+        configureDataProvider();
         configureForm();
         add(createToolbar(), grid, form);
 
-        updateList();
         closeEditor();
     }
 
     private HorizontalLayout createToolbar() {
         filtro.setPlaceholder("Filtrar por nome ou CPF");
         filtro.setClearButtonVisible(true);
-        filtro.addValueChangeListener(e -> applyFilters());
+        filtro.setValueChangeMode(ValueChangeMode.LAZY);
+        filtro.addValueChangeListener(e -> updateList());
 
         filtroStatus.setItems("Todos", "Ativos", "Inativos");
         filtroStatus.setValue("Todos");
-        filtroStatus.addValueChangeListener(e -> applyFilters());
+        filtroStatus.addValueChangeListener(e -> updateList());
 
         Button novoAluno = new Button("Novo Aluno", e -> {
             Aluno novo = new Aluno();
@@ -73,64 +103,97 @@ public class AlunosView extends VerticalLayout {
             form.setVisible(true);
         });
 
-        HorizontalLayout toolbar = new HorizontalLayout(filtro, filtroStatus, novoAluno);
+        filtroResponsavel.setVisible(false);
+        filtroResponsavel.addClickListener(e -> {
+            responsavelId = null;
+            filtroResponsavel.setVisible(false);
+            updateList();
+        });
+
+        Button importar = new Button("Importar CSV", e ->
+                new ImportarAlunosDialog(importacaoService, usuarioLogado, this::updateList).open());
+        Button exportarCenso = new Button("Exportar Censo", e ->
+                new ExportarCensoDialog(exportacaoCensoService, anoLetivoService, usuarioLogado).open());
+
+        Button duplicados = new Button("Duplicados", e ->
+                new DuplicadosAlunosDialog(duplicidadeService, usuarioLogado, this::abrirCadastro).open());
+
+        HorizontalLayout toolbar = new HorizontalLayout(filtro, filtroStatus, filtroResponsavel,
+                new HorizontalLayout(importar, exportarCenso, duplicados, novoAluno));
         toolbar.setWidthFull();
         toolbar.setJustifyContentMode(JustifyContentMode.BETWEEN);
         return toolbar;
     }
 
-    private void applyFilters() {
-        String termo = filtro.getValue();
-        String status = filtroStatus.getValue();
+    // Grid preguiçosa: busca no banco apenas a página visível, já filtrada e ordenada
+    private void configureDataProvider() {
+        grid.setItems(
+                query -> alunoService.searchStudents(
+                        criarFiltro(), VaadinSpringDataHelpers.toSpringPageRequest(query), usuarioLogado
+                ).stream(),
+                query -> (int) alunoService.countStudents(criarFiltro(), usuarioLogado)
+        );
+    }
 
-        List<Aluno> lista = alunoService.listStudents(usuarioLogado);
-        if (lista == null) {
-            grid.setItems(Collections.emptyList());
-            return;
+    private AlunoFiltro criarFiltro() {
+        AlunoFiltro f = new AlunoFiltro();
+        f.setTexto(filtro.getValue());
+        f.setResponsavelId(responsavelId);
+        String status = filtroStatus.getValue();
+        if ("Ativos".equals(status)) {
+            f.setAtivo(true);
+        } else if ("Inativos".equals(status)) {
+            f.setAtivo(false);
         }
+        return f;
+    }
 
-        if (termo != null && !termo.isBlank()) {
-            String t = termo.trim();
-            String digits = t.replaceAll("\\D", "");
-            if (digits.length() == 11) {
-                var a = alunoService.findStudentByCpf(digits, usuarioLogado);
-                lista = a != null ? List.of(a) : Collections.emptyList();
-            } else {
-                lista = alunoService.searchStudentsByName(t, usuarioLogado);
-            }
-        }
+    // Links da busca global: ?aluno=id abre o cadastro; ?responsavel=id lista os alunos vinculados
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        Map<String, List<String>> params = event.getLocation().getQueryParameters().getParameters();
+        responsavelId = parametroId(params, "responsavel");
+        filtroResponsavel.setVisible(responsavelId != null);
+        updateList();
 
-        if ("Ativos".equals(status)) {
-            lista = lista.stream().filter(Aluno::isAtivo).toList();
-        } else if ("Inativos".equals(status)) {
-            lista = lista.stream().filter(a -> !a.isAtivo()).toList();
+        Long alunoId = parametroId(params, "aluno");
+        if (alunoId != null) {
+            abrirCadastro(alunoId);
         }
+    }
 
-        grid.setItems(lista);
+    private static Long parametroId(Map<String, List<String>> params, String nome) {
+        List<String> valores = params.get(nome);
+        if (valores == null || valores.isEmpty()) return null;
+        try {
+            return Long.valueOf(valores.get(0));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
     }
 
     // SUBSTITUA APENAS O MÉTODO configureGrid() PELO BLOCO ABAIXO
     private void configureGrid() {
-        grid.addColumn(Aluno::getNomeCompleto).setHeader("Nome").setAutoWidth(true);
-        grid.addColumn(Aluno::getCpf).setHeader("CPF").setAutoWidth(true);
+        grid.addColumn(AlunoResumoDTO::getNomeCompleto).setHeader("Nome").setAutoWidth(true).setSortProperty("nomeCompleto");
+        grid.addColumn(AlunoResumoDTO::getCpf).setHeader("CPF").setAutoWidth(true).setSortProperty("cpf");
         grid.addColumn(a -> a.getDataNascimento() != null ? a.getDataNascimento().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) : "")
-                .setHeader("Nascimento").setAutoWidth(true);
-        grid.addColumn(a -> a.isAtivo() ? "Sim" : "Não").setHeader("Ativo").setAutoWidth(true);
+                .setHeader("Nascimento").setAutoWidth(true).setSortProperty("dataNascimento");
+        grid.addColumn(a -> a.isAtivo() ? "Sim" : "Não").setHeader("Ativo").setAutoWidth(true).setSortProperty("ativo");
 
         grid.addComponentColumn(a -> {
-            Button editar = new Button("Editar", ev -> editAluno(a));
+            Button editar = new Button("Editar", ev -> abrirCadastro(a));
             Button verMatriculas = new Button("Ver matrículas", ev -> {
-                AlunoMatriculasDialog dlg = new AlunoMatriculasDialog(
-                        enrollmentService,
-                        usuarioLogado,
-                        a
-                );
-                dlg.open();
+                try {
+                    new AlunoMatriculasDialog(fichas.carregar(a.getId(), usuarioLogado)).open();
+                } catch (Exception ex) {
+                    Notification.show(ex.getMessage() != null ? ex.getMessage() : "Erro ao carregar matrículas", 4000, Notification.Position.MIDDLE);
+                }
             });
             Button matricular = new Button("Matricular", ev -> {
                 MatricularAlunoDialog dlg = new MatricularAlunoDialog(
                         enrollmentService,
                         turmaService,
+                        anoLetivoService,
                         usuarioLogado,
                         a.getId(),
                         this::updateList
@@ -150,11 +213,11 @@ public class AlunosView extends VerticalLayout {
         }).setHeader("Ações").setAutoWidth(true);
 
         grid.setSizeFull();
-        grid.asSingleSelect().addValueChangeListener(event -> editAluno(event.getValue()));
+        grid.asSingleSelect().addValueChangeListener(event -> abrirCadastro(event.getValue()));
     }
 
     private void configureForm() {
-        form = new AlunoForm(alunoService, usuarioLogado);
+        form = new AlunoForm(alunoService, duplicidadeService, usuarioLogado);
         form.setWidthFull(); // ocupa a largura do container
         form.getStyle().set("max-width", "980px"); // mas limita a largura máxima
         form.addSaveListener(this::salvarAluno);
@@ -179,12 +242,22 @@ public class AlunosView extends VerticalLayout {
         }
     }
 
-    private void editAluno(Aluno aluno) {
-        if (aluno == null) {
+    // A linha da grid traz só o resumo: a ficha completa (cadastro e responsáveis) vem do cache da UI ou do banco
+    private void abrirCadastro(AlunoResumoDTO resumo) {
+        if (resumo == null) {
             closeEditor();
         } else {
-            form.setAluno(aluno);
+            abrirCadastro(resumo.getId());
+        }
+    }
+
+    private void abrirCadastro(Long alunoId) {
+        try {
+            form.setFicha(fichas.carregar(alunoId, usuarioLogado));
             form.setVisible(true);
+        } catch (IllegalArgumentException ex) {
+            Notification.show(ex.getMessage(), 4000, Notification.Position.MIDDLE);
+            closeEditor();
         }
     }
 
@@ -195,6 +268,6 @@ public class AlunosView extends VerticalLayout {
     }
 
     private void updateList() {
-        grid.setItems(alunoService.listStudents(usuarioLogado));
+        grid.getDataProvider().refreshAll();
     }
 }
\ No newline at end of file
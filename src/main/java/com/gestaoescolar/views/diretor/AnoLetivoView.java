@@ -2,6 +2,8 @@ package com.gestaoescolar.views.diretor;
 
 import com.gestaoescolar.model.AnoLetivo;
 import com.gestaoescolar.service.AnoLetivoService;
+import com.gestaoescolar.service.auth.AuthService;
+import com.gestaoescolar.service.escola.AnoLetivoRolloverService;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.H1;
@@ -22,10 +24,16 @@ import com.gestaoescolar.views.shared.MainLayout;
 public class AnoLetivoView extends VerticalLayout {
 
     private final AnoLetivoService anoLetivoService;
+    private final AnoLetivoRolloverService rolloverService;
+    private final AuthService authService;
     private final Grid<AnoLetivo> grid = new Grid<>(AnoLetivo.class);
 
-    public AnoLetivoView(AnoLetivoService anoLetivoService) {
+    public AnoLetivoView(AnoLetivoService anoLetivoService,
+                         AnoLetivoRolloverService rolloverService,
+                         AuthService authService) {
         this.anoLetivoService = anoLetivoService;
+        this.rolloverService = rolloverService;
+        this.authService = authService;
 
         setSizeFull();
         setPadding(true);
@@ -71,7 +79,11 @@ public class AnoLetivoView extends VerticalLayout {
             getUI().ifPresent(ui -> ui.navigate(""));
         });
 
-        HorizontalLayout toolbar = new HorizontalLayout(voltarButton, addButton);
+        Button viradaButton = new Button("Virada de Ano", new Icon(VaadinIcon.FORWARD));
+        viradaButton.addClickListener(e -> new ViradaAnoLetivoDialog(rolloverService,
+                anoLetivoService.findAll(), authService.getUsuarioLogado(), this::updateList).open());
+
+        HorizontalLayout toolbar = new HorizontalLayout(voltarButton, new HorizontalLayout(viradaButton, addButton));
         toolbar.setWidthFull();
         toolbar.setJustifyContentMode(JustifyContentMode.BETWEEN);
         return toolbar;
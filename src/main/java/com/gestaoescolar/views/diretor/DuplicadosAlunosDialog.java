@@ -0,0 +1,73 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.DuplicidadeAlunoDTO;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.escola.DuplicidadeAlunoService;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Pares de alunos que parecem ser a mesma criança cadastrada duas vezes.
+ * A varredura é feita ao abrir; "Abrir" leva ao cadastro do aluno para conferir e desativar o duplicado.
+ */
+public class DuplicadosAlunosDialog extends Dialog {
+
+    private final DateTimeFormatter df = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    public DuplicadosAlunosDialog(DuplicidadeAlunoService duplicidadeService, Usuario usuario, Consumer<Long> abrirAluno) {
+        setHeaderTitle("Possíveis alunos duplicados");
+        setWidth("1100px");
+        setHeight("75vh");
+        setDraggable(true);
+        setResizable(true);
+
+        Grid<DuplicidadeAlunoDTO> grid = new Grid<>(DuplicidadeAlunoDTO.class, false);
+        grid.setSizeFull();
+        grid.addColumn(DuplicidadeAlunoDTO::getNomeAluno).setHeader("Aluno").setAutoWidth(true);
+        grid.addColumn(d -> data(d.getDataNascimento())).setHeader("Nascimento").setAutoWidth(true);
+        grid.addColumn(DuplicidadeAlunoDTO::getNomeOutroAluno).setHeader("Possível duplicado").setAutoWidth(true);
+        grid.addColumn(d -> data(d.getDataNascimentoOutro())).setHeader("Nascimento").setAutoWidth(true);
+        grid.addColumn(d -> Math.round(d.getSemelhanca() * 100) + "%").setHeader("Semelhança").setAutoWidth(true);
+        grid.addColumn(DuplicidadeAlunoDTO::getMotivo).setHeader("Motivo").setAutoWidth(true);
+        grid.addComponentColumn(d -> {
+            Button primeiro = new Button("Abrir 1º", e -> abrir(abrirAluno, d.getAlunoId()));
+            Button segundo = new Button("Abrir 2º", e -> abrir(abrirAluno, d.getOutroAlunoId()));
+            primeiro.addThemeVariants(ButtonVariant.LUMO_SMALL);
+            segundo.addThemeVariants(ButtonVariant.LUMO_SMALL);
+            return new HorizontalLayout(primeiro, segundo);
+        }).setHeader("Ações").setAutoWidth(true);
+
+        Paragraph resumo = new Paragraph();
+        try {
+            List<DuplicidadeAlunoDTO> pares = duplicidadeService.detectarDuplicados(usuario);
+            grid.setItems(pares);
+            resumo.setText(pares.isEmpty()
+                    ? "Nenhum possível cadastro duplicado encontrado."
+                    : pares.size() + " par(es) para conferir (mesma data ou data parecida e nome semelhante).");
+        } catch (Exception ex) {
+            Notification.show(ex.getMessage() != null ? ex.getMessage() : "Erro na verificação", 4000, Notification.Position.MIDDLE);
+        }
+
+        getFooter().add(new Button("Fechar", e -> close()));
+        add(resumo, grid);
+    }
+
+    private void abrir(Consumer<Long> abrirAluno, Long alunoId) {
+        close();
+        abrirAluno.accept(alunoId);
+    }
+
+    private String data(LocalDate d) {
+        return d != null ? df.format(d) : "";
+    }
+}
@@ -0,0 +1,91 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.AnoLetivoService;
+import com.gestaoescolar.service.escola.ExportacaoCensoService;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.html.Anchor;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.server.StreamResource;
+
+/**
+ * Download do arquivo do Censo Escolar de um ano letivo.
+ * O arquivo é gerado enquanto é enviado ao navegador (sem montar tudo em memória); o andamento
+ * chega à tela por push enquanto o download corre.
+ */
+public class ExportarCensoDialog extends Dialog {
+
+    private final ExportacaoCensoService exportacaoService;
+    private final Usuario usuario;
+
+    private final ComboBox<AnoLetivo> anoLetivo = new ComboBox<>("Ano letivo");
+    private final Paragraph resumo = new Paragraph();
+    private final ProgressBar andamento = new ProgressBar();
+    private final Anchor download = new Anchor();
+
+    public ExportarCensoDialog(ExportacaoCensoService exportacaoService, AnoLetivoService anoLetivoService, Usuario usuario) {
+        this.exportacaoService = exportacaoService;
+        this.usuario = usuario;
+
+        setHeaderTitle("Exportar Censo Escolar");
+        setWidth("480px");
+
+        anoLetivo.setItems(anoLetivoService.findAll());
+        anoLetivo.setItemLabelGenerator(a -> String.valueOf(a.getAno()));
+        anoLetivo.addValueChangeListener(e -> atualizar());
+
+        Button baixar = new Button("Baixar arquivo");
+        baixar.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        download.add(baixar);
+        download.getElement().setAttribute("download", true);
+
+        getFooter().add(new Button("Fechar", e -> close()), download);
+        andamento.setVisible(false);
+        add(anoLetivo, resumo, andamento);
+
+        anoLetivoService.findAnoLetivoAtivo().ifPresent(anoLetivo::setValue);
+        atualizar();
+    }
+
+    private void atualizar() {
+        AnoLetivo ano = anoLetivo.getValue();
+        download.setEnabled(ano != null);
+        if (ano == null) {
+            resumo.setText("Selecione o ano letivo.");
+            download.removeHref();
+            return;
+        }
+        long total = exportacaoService.contarMatriculas(ano.getId(), usuario);
+        resumo.setText(total + " matrícula(s) ativa(s) serão exportadas.");
+        andamento.setVisible(false);
+
+        Long anoLetivoId = ano.getId();
+        UI ui = UI.getCurrent();
+        download.setHref(new StreamResource("censo-" + ano.getAno() + ".txt",
+                (out, session) -> exportacaoService.exportar(anoLetivoId, out, usuario,
+                        escritas -> mostrarAndamento(ui, escritas, total))));
+    }
+
+    // Chamado pela thread do download (fora do lock da sessão)
+    private void mostrarAndamento(UI ui, long escritas, long total) {
+        try {
+            ui.access(() -> {
+                boolean concluido = escritas >= total;
+                andamento.setVisible(!concluido);
+                andamento.setValue(total == 0 ? 1 : Math.min(1, (double) escritas / total));
+                resumo.setText(concluido
+                        ? escritas + " matrícula(s) exportada(s)."
+                        : "Exportando: " + escritas + " de " + total + " matrícula(s)...");
+            });
+        } catch (UIDetachedException fechada) {
+            // Tela fechada durante o download: o arquivo continua sendo enviado
+        }
+    }
+}
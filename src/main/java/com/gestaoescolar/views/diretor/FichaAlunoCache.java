@@ -0,0 +1,50 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.FichaAlunoDTO;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.escola.FichaAlunoService;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fichas de aluno já abertas nesta aba do navegador (UI): reabrir o cadastro ou as matrículas
+ * do mesmo aluno não volta ao banco enquanto o FichaAlunoService disser que a ficha está atual.
+ * Acessado só pela thread da UI, por isso sem sincronização.
+ */
+public class FichaAlunoCache {
+
+    private static final int CAPACIDADE = 50;
+
+    private final FichaAlunoService fichaAlunoService;
+    private final Map<Long, FichaAlunoDTO> fichas = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, FichaAlunoDTO> maisAntiga) {
+            return size() > CAPACIDADE;
+        }
+    };
+
+    private FichaAlunoCache(FichaAlunoService fichaAlunoService) {
+        this.fichaAlunoService = fichaAlunoService;
+    }
+
+    public static FichaAlunoCache da(UI ui, FichaAlunoService fichaAlunoService) {
+        FichaAlunoCache cache = ComponentUtil.getData(ui, FichaAlunoCache.class);
+        if (cache == null) {
+            cache = new FichaAlunoCache(fichaAlunoService);
+            ComponentUtil.setData(ui, FichaAlunoCache.class, cache);
+        }
+        return cache;
+    }
+
+    public FichaAlunoDTO carregar(Long alunoId, Usuario usuario) {
+        FichaAlunoDTO ficha = fichas.get(alunoId);
+        if (ficha == null || !fichaAlunoService.estaAtual(ficha)) {
+            ficha = fichaAlunoService.carregar(alunoId, usuario);
+            fichas.put(alunoId, ficha);
+        }
+        return ficha;
+    }
+}
@@ -0,0 +1,99 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.TurmaLoteItemDTO;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.service.escola.TurmaService;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.CheckboxGroup;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.combobox.MultiSelectComboBox;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Cria de uma vez as turmas de um ano letivo: para cada série × turno escolhidos,
+ * "quantidade" turmas (A, B, C...) com a capacidade informada.
+ */
+public class GerarTurmasDialog extends Dialog {
+
+    private final TurmaService turmaService;
+    private final Usuario usuario;
+    private final Runnable onSaved;
+
+    private final ComboBox<AnoLetivo> anoLetivo = new ComboBox<>("Ano letivo");
+    private final MultiSelectComboBox<Serie> series = new MultiSelectComboBox<>("Séries");
+    private final CheckboxGroup<Turno> turnos = new CheckboxGroup<>("Turnos");
+    private final IntegerField quantidade = new IntegerField("Turmas por série/turno");
+    private final IntegerField capacidade = new IntegerField("Capacidade");
+
+    public GerarTurmasDialog(TurmaService turmaService, List<AnoLetivo> anos, Usuario usuario, Runnable onSaved) {
+        this.turmaService = turmaService;
+        this.usuario = usuario;
+        this.onSaved = onSaved;
+
+        setHeaderTitle("Gerar Turmas em Lote");
+        setWidth("640px");
+        setDraggable(true);
+
+        anoLetivo.setItems(anos);
+        anoLetivo.setItemLabelGenerator(a -> "Ano " + a.getAno());
+        series.setItems(Arrays.asList(Serie.values()));
+        series.setItemLabelGenerator(Serie::getNome);
+        turnos.setItems(Arrays.asList(Turno.values()));
+        turnos.setItemLabelGenerator(Turno::getDescricao);
+
+        quantidade.setMin(1);
+        quantidade.setMax(26);
+        quantidade.setValue(1);
+        quantidade.setStepButtonsVisible(true);
+        capacidade.setMin(1);
+        capacidade.setMax(50);
+        capacidade.setHelperText("Em branco = sem limite");
+
+        FormLayout form = new FormLayout(anoLetivo, series, turnos, quantidade, capacidade);
+        form.setResponsiveSteps(
+                new FormLayout.ResponsiveStep("0", 1),
+                new FormLayout.ResponsiveStep("520px", 2)
+        );
+
+        Button gerar = new Button("Gerar", e -> onGerar());
+        gerar.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        Button cancelar = new Button("Cancelar", e -> close());
+
+        add(form, new HorizontalLayout(gerar, cancelar));
+    }
+
+    private void onGerar() {
+        if (anoLetivo.getValue() == null || series.getValue().isEmpty() || turnos.getValue().isEmpty()
+                || quantidade.getValue() == null) {
+            Notification.show("Informe ano letivo, séries, turnos e quantidade.", 3000, Notification.Position.MIDDLE);
+            return;
+        }
+        List<TurmaLoteItemDTO> itens = new ArrayList<>();
+        for (Serie s : series.getValue().stream().sorted().toList()) {
+            for (Turno t : turnos.getValue().stream().sorted().toList()) {
+                itens.add(new TurmaLoteItemDTO(s, t, quantidade.getValue(), capacidade.getValue()));
+            }
+        }
+        try {
+            List<String> criadas = turmaService.gerarTurmasEmLote(anoLetivo.getValue(), itens, usuario);
+            Notification.show(criadas.size() + " turma(s) criada(s).", 3000, Notification.Position.BOTTOM_START);
+            close();
+            if (onSaved != null) onSaved.run();
+        } catch (Exception ex) {
+            String msg = ex.getMessage() != null ? ex.getMessage() : "Erro ao gerar turmas";
+            Notification.show(msg, 4000, Notification.Position.MIDDLE);
+        }
+    }
+}
@@ -5,8 +5,12 @@ import com.gestaoescolar.model.GradeCurricular;
 import com.gestaoescolar.model.GradeCurricularItem;
 import com.gestaoescolar.model.enums.Serie;
 import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.AnoLetivoService;
+import com.gestaoescolar.service.auth.AuthService;
 import com.gestaoescolar.service.escola.CurriculumService;
 import com.gestaoescolar.service.escola.TurmaService;
+import com.gestaoescolar.views.components.TurmaPicker;
 import com.gestaoescolar.views.shared.MainLayout;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.combobox.ComboBox;
@@ -32,6 +36,8 @@ public class GradeCurricularView extends VerticalLayout {
 
     private final CurriculumService curriculumService;
     private final TurmaService turmaService;
+    private final AnoLetivoService anoLetivoService;
+    private final Usuario usuarioLogado;
 
     private final Grid<GradeCurricular> gridGrades = new Grid<>(GradeCurricular.class, false);
     private final Grid<GradeCurricularItem> gridItens = new Grid<>(GradeCurricularItem.class, false);
@@ -45,9 +51,13 @@ public class GradeCurricularView extends VerticalLayout {
     private GradeCurricular editing;
 
     public GradeCurricularView(CurriculumService curriculumService,
-                               TurmaService turmaService) {
+                               TurmaService turmaService,
+                               AnoLetivoService anoLetivoService,
+                               AuthService authService) {
         this.curriculumService = curriculumService;
         this.turmaService = turmaService;
+        this.anoLetivoService = anoLetivoService;
+        this.usuarioLogado = authService.getUsuarioLogado();
 
         setSizeFull();
         setPadding(true);
@@ -224,9 +234,7 @@ public class GradeCurricularView extends VerticalLayout {
         Dialog d = new Dialog();
         d.setHeaderTitle("Selecionar turma");
 
-        ComboBox<Turma> cbTurma = new ComboBox<>("Turma");
-        cbTurma.setItems(turmaService.listarTodasComAnoLetivo());
-        cbTurma.setItemLabelGenerator(t -> t.getCodigo() + " - " + t.getNomeTurma());
+        TurmaPicker cbTurma = new TurmaPicker("Turma", turmaService, anoLetivoService, usuarioLogado);
         cbTurma.setWidthFull();
 
         Button continuar = new Button("Continuar", ev -> {
@@ -0,0 +1,146 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.ImportacaoErroDTO;
+import com.gestaoescolar.dto.ImportacaoResultadoDTO;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.escola.ImportacaoAlunosService;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.component.upload.Upload;
+import com.vaadin.flow.component.upload.receivers.FileBuffer;
+import com.vaadin.flow.server.Command;
+
+import java.io.File;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * Importação de alunos e responsáveis por arquivo CSV.
+ * O arquivo enviado fica em disco (FileBuffer) e é lido em lotes pelo serviço, fora do request;
+ * as linhas processadas chegam à tela por push.
+ */
+public class ImportarAlunosDialog extends Dialog {
+
+    private final ImportacaoAlunosService importacaoService;
+    private final Usuario usuario;
+    private final Runnable onDone;
+
+    private final FileBuffer buffer = new FileBuffer();
+    private final Upload upload = new Upload(buffer);
+    private final ProgressBar andamento = new ProgressBar();
+    private final Div resumo = new Div();
+    private final Grid<ImportacaoErroDTO> erros = new Grid<>(ImportacaoErroDTO.class, false);
+
+    public ImportarAlunosDialog(ImportacaoAlunosService importacaoService, Usuario usuario, Runnable onDone) {
+        this.importacaoService = importacaoService;
+        this.usuario = usuario;
+        this.onDone = onDone;
+
+        setHeaderTitle("Importar Alunos (CSV)");
+        setWidth("820px");
+        setDraggable(true);
+        setResizable(true);
+
+        Paragraph ajuda = new Paragraph("Arquivo UTF-8 separado por ';' ou ',', com cabeçalho. Obrigatórias: nome_completo "
+                + "e data_nascimento (dd/MM/aaaa). Opcionais: "
+                + String.join(", ", ImportacaoAlunosService.COLUNAS_ALUNO.subList(3, ImportacaoAlunosService.COLUNAS_ALUNO.size()))
+                + ", nome_social. Até dois responsáveis com os prefixos resp1_ e resp2_: "
+                + ImportacaoAlunosService.COLUNAS_RESPONSAVEL.stream().collect(Collectors.joining(", "))
+                + " (didatico/financeiro/legal: sim ou não).");
+        ajuda.getStyle().set("font-size", "var(--lumo-font-size-s)");
+
+        upload.setAcceptedFileTypes(".csv", "text/csv");
+        upload.setMaxFiles(1);
+        upload.addSucceededListener(e -> importar());
+        upload.addFileRejectedListener(e -> Notification.show(e.getErrorMessage(), 4000, Notification.Position.MIDDLE));
+
+        erros.addColumn(ImportacaoErroDTO::getLinha).setHeader("Linha").setAutoWidth(true).setFlexGrow(0);
+        erros.addColumn(ImportacaoErroDTO::getMensagem).setHeader("Erro").setAutoWidth(true);
+        erros.setHeight("260px");
+        erros.setVisible(false);
+        andamento.setIndeterminate(true);
+        andamento.setVisible(false);
+
+        Button fechar = new Button("Fechar", e -> close());
+        getFooter().add(fechar);
+
+        add(ajuda, upload, andamento, resumo, erros);
+    }
+
+    // Arquivos grandes levam minutos: a importação roda fora do request e o arquivo é apagado ao final
+    private void importar() {
+        File arquivo = buffer.getFileData().getFile();
+        UI ui = UI.getCurrent();
+        try {
+            importacaoService.iniciarImportacao(arquivo.toPath(), usuario, linhas -> acessar(ui, () -> mostrarAndamento(linhas)))
+                    .whenComplete((r, ex) -> {
+                        arquivo.delete();
+                        acessar(ui, () -> concluirImportacao(r, ex));
+                    });
+            upload.setVisible(false);
+            resumo.removeAll();
+            resumo.add(new Paragraph("Importando..."));
+            erros.setVisible(false);
+            andamento.setVisible(true);
+        } catch (Exception ex) {
+            arquivo.delete();
+            upload.clearFileList();
+            mostrarErro(ex);
+        }
+    }
+
+    private static void acessar(UI ui, Command comando) {
+        try {
+            ui.access(comando);
+        } catch (UIDetachedException fechada) {
+            // Tela fechada durante a importação: ela continua e o resultado fica no log
+        }
+    }
+
+    private void mostrarAndamento(int linhas) {
+        resumo.removeAll();
+        resumo.add(new Paragraph("Importando... linhas processadas: " + linhas));
+    }
+
+    private void concluirImportacao(ImportacaoResultadoDTO r, Throwable ex) {
+        andamento.setVisible(false);
+        upload.clearFileList();
+        upload.setVisible(true);
+        if (ex != null) {
+            resumo.removeAll();
+            mostrarErro(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            return;
+        }
+        mostrarResumo(r);
+        Notification.show("Importação concluída.", 3000, Notification.Position.BOTTOM_START);
+        if (onDone != null) onDone.run();
+    }
+
+    private static void mostrarErro(Throwable ex) {
+        String msg = ex.getMessage() != null ? ex.getMessage() : "Erro na importação";
+        Notification.show(msg, 5000, Notification.Position.MIDDLE);
+    }
+
+    private void mostrarResumo(ImportacaoResultadoDTO r) {
+        resumo.removeAll();
+        resumo.add(new Paragraph("Linhas lidas: " + r.getLinhasLidas()
+                + " — alunos criados: " + r.getAlunosCriados()
+                + ", responsáveis novos: " + r.getResponsaveisCriados()
+                + ", responsáveis atualizados: " + r.getResponsaveisAtualizados()
+                + ", vínculos: " + r.getVinculosCriados()));
+        if (r.getTotalErros() > 0) {
+            String detalhe = r.getTotalErros() > r.getErros().size()
+                    ? " (exibindo as primeiras " + r.getErros().size() + ")" : "";
+            resumo.add(new Paragraph("Linhas com erro: " + r.getTotalErros() + detalhe));
+        }
+        erros.setItems(r.getErros());
+        erros.setVisible(!r.getErros().isEmpty());
+    }
+}
@@ -3,14 +3,15 @@ package com.gestaoescolar.views.diretor;
 import com.gestaoescolar.model.Turma;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.service.escola.EnrollmentService;
+import com.gestaoescolar.service.AnoLetivoService;
 import com.gestaoescolar.service.escola.TurmaService;
+import com.gestaoescolar.views.components.TurmaPicker;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.formlayout.FormLayout;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
-import com.vaadin.flow.component.select.Select;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -24,7 +25,7 @@ public class MatricularAlunoDialog extends Dialog {
     private final Long alunoId;
     private final Runnable onSaved;
 
-    private final Select<Turma> turmaSelect = new Select<>();
+    private final TurmaPicker turmaPicker;
     private final DatePicker dataInicio = new DatePicker("Data de início");
 
     private final Button salvar = new Button("Matricular");
@@ -32,6 +33,7 @@ public class MatricularAlunoDialog extends Dialog {
 
     public MatricularAlunoDialog(EnrollmentService enrollmentService,
                                  TurmaService turmaService,
+                                 AnoLetivoService anoLetivoService,
                                  Usuario usuario,
                                  Long alunoId,
                                  Runnable onSaved) {
@@ -46,11 +48,9 @@ public class MatricularAlunoDialog extends Dialog {
         setDraggable(true);
         setResizable(true);
 
-        // Turmas (pode filtrar só ativas; use o método disponível no seu TurmaService)
-        List<Turma> turmas = turmaService.listarTodasComAnoLetivo(); // ajuste se houver método específico
-        turmaSelect.setLabel("Turma");
-        turmaSelect.setItems(turmas);
-        turmaSelect.setItemLabelGenerator(t -> t.getCodigo() + " - " + t.getNomeTurma());
+        // Turmas do ano letivo ativo com vaga livre, buscadas por página conforme a digitação
+        turmaPicker = new TurmaPicker("Turma", turmaService, anoLetivoService, usuario);
+        turmaPicker.setSomenteComVagas(true);
 
         configurarDatePickerPtBR(dataInicio);
         dataInicio.setValue(LocalDate.now());
@@ -62,7 +62,7 @@ public class MatricularAlunoDialog extends Dialog {
                 new FormLayout.ResponsiveStep("520px", 2)
         );
 
-        form.add(turmaSelect, dataInicio);
+        form.add(turmaPicker, dataInicio);
         HorizontalLayout actions = new HorizontalLayout(salvar, cancelar);
         form.add(actions);
         form.setColspan(actions, 2);
@@ -75,7 +75,7 @@ public class MatricularAlunoDialog extends Dialog {
 
     private void onSave() {
         try {
-            Turma turma = turmaSelect.getValue();
+            Turma turma = turmaPicker.getValue();
             if (turma == null) {
                 Notification.show("Selecione uma turma.", 3000, Notification.Position.MIDDLE);
                 return;
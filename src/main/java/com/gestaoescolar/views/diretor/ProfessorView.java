@@ -1,5 +1,6 @@
 package com.gestaoescolar.views.diretor;
 
+import com.gestaoescolar.dto.ProfessorResumoDTO;
 import com.gestaoescolar.dto.VinculoProfessorTurmaDTO;
 import com.gestaoescolar.model.Professor;
 import com.gestaoescolar.model.ProfessorTurma;
@@ -19,23 +20,22 @@ import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.BeforeEnterEvent;
+import com.vaadin.flow.router.BeforeEnterObserver;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
 
-import java.util.Collections;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Route(value = "diretor/professores", layout = MainLayout.class)
 @PageTitle("Gestão de Professores")
-public class ProfessorView extends VerticalLayout {
+public class ProfessorView extends VerticalLayout implements BeforeEnterObserver {
 
     private final ProfessorService professorService;
     private final ProfessorTurmaService professorTurmaService;
     private final AuthService authService;
 
-    private Grid<Professor> grid = new Grid<>(Professor.class, false);
+    private Grid<ProfessorResumoDTO> grid = new Grid<>(ProfessorResumoDTO.class, false);
     private ProfessorForm form;
     private Usuario usuarioLogado;
 
@@ -89,57 +89,25 @@ public class ProfessorView extends VerticalLayout {
         return toolbar;
     }
 
+    // Filtros aplicados na consulta; a grid recebe só as colunas exibidas
     private void applyFilters() {
-        String termo = filtro.getValue();
         String status = filtroStatus.getValue();
-        FormacaoAcademica formacao = filtroFormacao.getValue();
-
-        List<Professor> lista = professorService.listarTodosProfessores(usuarioLogado);
-        if (lista == null) {
-            grid.setItems(Collections.emptyList());
-            return;
-        }
-
-        List<Professor> filtrada = lista;
-
-        if (termo != null && !termo.isBlank()) {
-            String t = termo.trim().toLowerCase();
-            String digits = t.replaceAll("\\D", "");
-            if (digits.length() == 11) {
-                var opt = professorService.buscarPorCpf(digits, usuarioLogado);
-                filtrada = opt.map(List::of).orElseGet(Collections::emptyList);
-            } else {
-                filtrada = professorService.buscarPorNome(t, usuarioLogado);
-            }
-        }
-
-        if ("Ativos".equals(status)) {
-            filtrada = filtrada.stream().filter(Professor::isAtivo).collect(Collectors.toList());
-        } else if ("Inativos".equals(status)) {
-            filtrada = filtrada.stream().filter(p -> !p.isAtivo()).collect(Collectors.toList());
-        }
-
-        if (formacao != null) {
-            filtrada = filtrada.stream()
-                    .filter(p -> Objects.equals(p.getFormacao(), formacao))
-                    .collect(Collectors.toList());
-        }
-
-        grid.setItems(filtrada);
+        Boolean ativo = "Ativos".equals(status) ? Boolean.TRUE : "Inativos".equals(status) ? Boolean.FALSE : null;
+        grid.setItems(professorService.listarResumos(filtro.getValue(), ativo, filtroFormacao.getValue(), usuarioLogado));
     }
 
     private void configureGrid() {
         grid.removeAllColumns();
-        grid.addColumn(Professor::getNomeCompleto).setHeader("Nome").setAutoWidth(true).setSortable(true);
-        grid.addColumn(Professor::getCpf).setHeader("CPF").setAutoWidth(true).setSortable(true);;
-        grid.addColumn(Professor::getEmail).setHeader("Email").setAutoWidth(true).setSortable(true);
-        grid.addColumn(Professor::getTelefone).setHeader("Telefone").setAutoWidth(true).setSortable(true);
-        grid.addColumn(Professor::getFormacao).setHeader("Formação").setAutoWidth(true).setSortable(true);
+        grid.addColumn(ProfessorResumoDTO::getNomeCompleto).setHeader("Nome").setAutoWidth(true).setSortable(true);
+        grid.addColumn(ProfessorResumoDTO::getCpf).setHeader("CPF").setAutoWidth(true).setSortable(true);
+        grid.addColumn(ProfessorResumoDTO::getEmail).setHeader("Email").setAutoWidth(true).setSortable(true);
+        grid.addColumn(ProfessorResumoDTO::getTelefone).setHeader("Telefone").setAutoWidth(true).setSortable(true);
+        grid.addColumn(ProfessorResumoDTO::getFormacao).setHeader("Formação").setAutoWidth(true).setSortable(true);
         grid.addColumn(prof -> prof.isAtivo() ? "Sim" : "Não").setHeader("Ativo").setAutoWidth(true);
 
         grid.addComponentColumn(prof -> {
-            Button editar = new Button("Editar", ev -> editProfessor(prof));
-            Button verTurmas = new Button("Ver Turmas", ev -> openTurmasDialog(prof));
+            Button editar = new Button("Editar", ev -> abrirCadastro(prof));
+            Button verTurmas = new Button("Ver Turmas", ev -> openTurmasDialog(prof.getId(), prof.getNomeCompleto()));
             Button toggle = new Button(prof.isAtivo() ? "Desativar" : "Reativar", ev -> {
                 try {
                     if (prof.isAtivo()) {
@@ -156,21 +124,21 @@ public class ProfessorView extends VerticalLayout {
         }).setHeader("Ações").setAutoWidth(true);
 
         grid.setSizeFull();
-        grid.asSingleSelect().addValueChangeListener(event -> editProfessor(event.getValue()));
+        grid.asSingleSelect().addValueChangeListener(event -> abrirCadastro(event.getValue()));
     }
 
     // exibir turma cadastradas por professor
 
-    private void openTurmasDialog(Professor professor) {
+    private void openTurmasDialog(Long professorId, String nomeProfessor) {
         Dialog dialog = new Dialog();
-        dialog.setHeaderTitle("Turmas atribuídas a " + professor.getNomeCompleto());
+        dialog.setHeaderTitle("Turmas atribuídas a " + nomeProfessor);
         dialog.setWidth("900px");
         dialog.setHeight("70vh");
         dialog.setDraggable(true);
         dialog.setResizable(true);
 
         List<VinculoProfessorTurmaDTO> rows =
-                professorTurmaService.listAssignmentSummariesByProfessor(professor.getId());
+                professorTurmaService.listAssignmentSummariesByProfessor(professorId);
 
         if (rows == null || rows.isEmpty()) {
             dialog.add(new H3("Nenhuma turma atribuída."));
@@ -228,6 +196,27 @@ public class ProfessorView extends VerticalLayout {
         }
     }
 
+    // Link da busca global: ?professor=id abre o cadastro
+    @Override
+    public void beforeEnter(BeforeEnterEvent event) {
+        List<String> ids = event.getLocation().getQueryParameters().getParameters().get("professor");
+        if (ids == null || ids.isEmpty()) return;
+        try {
+            professorService.buscarPorId(Long.valueOf(ids.get(0)), usuarioLogado).ifPresent(this::editProfessor);
+        } catch (NumberFormatException ignored) {
+            // parâmetro inválido: apenas abre a lista
+        }
+    }
+
+    // A linha da grid traz só o resumo: o cadastro completo é lido do banco ao abrir o formulário
+    private void abrirCadastro(ProfessorResumoDTO resumo) {
+        if (resumo == null) {
+            closeEditor();
+            return;
+        }
+        professorService.buscarPorId(resumo.getId(), usuarioLogado).ifPresentOrElse(this::editProfessor, this::closeEditor);
+    }
+
     private void editProfessor(Professor professor) {
         if (professor == null) {
             closeEditor();
@@ -244,6 +233,6 @@ public class ProfessorView extends VerticalLayout {
     }
 
     private void updateList() {
-        grid.setItems(professorService.listarTodosProfessores(usuarioLogado));
+        applyFilters();
     }
 }
\ No newline at end of file
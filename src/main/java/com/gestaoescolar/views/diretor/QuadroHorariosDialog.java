@@ -0,0 +1,176 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.QuadroHorariosResultadoDTO;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.HorarioAula;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.AnoLetivoService;
+import com.gestaoescolar.service.escola.HorarioSemanal;
+import com.gestaoescolar.service.escola.QuadroHorariosService;
+import com.gestaoescolar.service.escola.TurmaService;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.checkbox.Checkbox;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+
+import java.time.DayOfWeek;
+import java.time.format.TextStyle;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.stream.IntStream;
+
+/**
+ * Geração do quadro de horários do ano letivo e consulta do horário semanal de cada turma.
+ */
+public class QuadroHorariosDialog extends Dialog {
+
+    private static final Locale PT_BR = new Locale("pt", "BR");
+
+    private final QuadroHorariosService quadroService;
+    private final TurmaService turmaService;
+    private final Usuario usuario;
+
+    private final ComboBox<AnoLetivo> anoLetivo = new ComboBox<>("Ano letivo");
+    private final Checkbox aproveitarAtual = new Checkbox("Partir do quadro atual", true);
+    private final Paragraph resumo = new Paragraph();
+    private final ComboBox<Turma> turma = new ComboBox<>("Turma");
+    private final Grid<Integer> grade = new Grid<>();
+    private final Button gerar = new Button("Gerar quadro", e -> onGerar());
+    private final ProgressBar andamento = new ProgressBar();
+
+    // Aula (número no turno) -> dia -> "Disciplina (Professor)" da turma selecionada
+    private final Map<Integer, Map<DayOfWeek, String>> celulas = new HashMap<>();
+
+    public QuadroHorariosDialog(QuadroHorariosService quadroService, AnoLetivoService anoLetivoService,
+                                TurmaService turmaService, Usuario usuario) {
+        this.quadroService = quadroService;
+        this.turmaService = turmaService;
+        this.usuario = usuario;
+
+        setHeaderTitle("Quadro de Horários");
+        setWidth("960px");
+        setDraggable(true);
+
+        anoLetivo.setItems(anoLetivoService.findAll());
+        anoLetivo.setItemLabelGenerator(a -> "Ano " + a.getAno());
+        anoLetivo.addValueChangeListener(e -> carregarTurmas());
+        aproveitarAtual.setTooltipText("Mantém as aulas já posicionadas sempre que possível");
+
+        turma.setItemLabelGenerator(t -> t.getCodigo() + " - " + t.getNomeTurma());
+        turma.addValueChangeListener(e -> mostrarQuadro());
+
+        grade.addColumn(a -> a + "ª aula").setHeader("Aula").setAutoWidth(true).setFlexGrow(0);
+        for (int d = 1; d <= HorarioSemanal.DIAS; d++) {
+            DayOfWeek dia = DayOfWeek.of(d);
+            grade.addColumn(a -> celulas.getOrDefault(a, Map.of()).getOrDefault(dia, ""))
+                    .setHeader(dia.getDisplayName(TextStyle.SHORT, PT_BR));
+        }
+        grade.addThemeVariants(GridVariant.LUMO_COLUMN_BORDERS, GridVariant.LUMO_COMPACT);
+        grade.setAllRowsVisible(true);
+
+        gerar.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        gerar.setDisableOnClick(true);
+        andamento.setIndeterminate(true);
+        andamento.setVisible(false);
+
+        add(new HorizontalLayout(anoLetivo, aproveitarAtual, gerar), andamento, resumo, turma, grade);
+        getFooter().add(new Button("Fechar", e -> close()));
+
+        anoLetivoService.findAnoLetivoAtivo().ifPresent(anoLetivo::setValue);
+    }
+
+    // A geração pode levar quase um minuto: roda fora do request e o resultado chega por push
+    private void onGerar() {
+        AnoLetivo ano = anoLetivo.getValue();
+        if (ano == null) {
+            Notification.show("Selecione o ano letivo.", 3000, Notification.Position.MIDDLE);
+            gerar.setEnabled(true);
+            return;
+        }
+        UI ui = UI.getCurrent();
+        try {
+            quadroService.gerar(ano.getId(), aproveitarAtual.getValue(), usuario)
+                    .whenComplete((r, ex) -> {
+                        try {
+                            ui.access(() -> concluirGeracao(r, ex));
+                        } catch (UIDetachedException fechada) {
+                            // Tela fechada durante a geração: o quadro já foi gravado
+                        }
+                    });
+            resumo.setText("Gerando o quadro de horários...");
+            andamento.setVisible(true);
+        } catch (Exception ex) {
+            gerar.setEnabled(true);
+            mostrarErro(ex);
+        }
+    }
+
+    private void concluirGeracao(QuadroHorariosResultadoDTO r, Throwable ex) {
+        andamento.setVisible(false);
+        gerar.setEnabled(true);
+        if (ex != null) {
+            resumo.setText("");
+            mostrarErro(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            return;
+        }
+        String texto = r.getAulas() + " aula(s) de " + r.getTurmas() + " turma(s) distribuídas em "
+                + (r.getTempoMs() / 1000) + " s. ";
+        texto += r.getConflitos() == 0
+                ? "Sem choques de turma, professor ou sala."
+                : r.getConflitos() + " choque(s) não resolvido(s): revise cargas horárias e atribuições.";
+        if (r.getOfertasSemProfessor() > 0) {
+            texto += " " + r.getOfertasSemProfessor() + " disciplina(s) sem professor atribuído.";
+        }
+        resumo.setText(texto);
+        mostrarQuadro();
+    }
+
+    private static void mostrarErro(Throwable ex) {
+        String msg = ex.getMessage() != null ? ex.getMessage() : "Erro ao gerar o quadro de horários";
+        Notification.show(msg, 4000, Notification.Position.MIDDLE);
+    }
+
+    private void carregarTurmas() {
+        AnoLetivo ano = anoLetivo.getValue();
+        List<Turma> turmas = ano == null ? List.of() : turmaService.listarAtivasPorAnoLetivo(ano, usuario).stream()
+                .sorted(Comparator.comparing(Turma::getCodigo))
+                .toList();
+        turma.setItems(turmas);
+        turma.setValue(turmas.isEmpty() ? null : turmas.get(0));
+        resumo.setText("");
+    }
+
+    private void mostrarQuadro() {
+        celulas.clear();
+        Turma t = turma.getValue();
+        if (t == null) {
+            grade.setItems(List.of());
+            return;
+        }
+        for (HorarioAula h : quadroService.quadroDaTurma(t.getId())) {
+            String texto = h.getTurmaDisciplina().getDisciplina().getNome()
+                    + (h.getProfessor() != null ? " (" + primeiroNome(h.getProfessor().getNomeCompleto()) + ")" : "");
+            celulas.computeIfAbsent(h.getAula(), a -> new HashMap<>()).merge(h.getDiaSemana(), texto, (x, y) -> x + " / " + y);
+        }
+        grade.setItems(IntStream.rangeClosed(1, HorarioSemanal.aulasNoTurno(t.getTurno())).boxed().toList());
+    }
+
+    private static String primeiroNome(String nome) {
+        int espaco = nome.indexOf(' ');
+        return espaco > 0 ? nome.substring(0, espaco) : nome;
+    }
+}
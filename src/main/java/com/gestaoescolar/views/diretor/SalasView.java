@@ -0,0 +1,158 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.UtilizacaoSalaDTO;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Sala;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.service.AnoLetivoService;
+import com.gestaoescolar.service.auth.AuthService;
+import com.gestaoescolar.service.escola.OcupacaoSalas;
+import com.gestaoescolar.service.escola.SalaService;
+import com.gestaoescolar.views.shared.MainLayout;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.orderedlayout.VerticalLayout;
+import com.vaadin.flow.component.textfield.IntegerField;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.router.PageTitle;
+import com.vaadin.flow.router.Route;
+
+import java.util.List;
+
+@Route(value = "diretor/salas", layout = MainLayout.class)
+@PageTitle("Salas | Gestão Escolar")
+public class SalasView extends VerticalLayout {
+
+    private final SalaService salaService;
+    private final Usuario usuarioLogado;
+
+    private final Grid<Sala> grid = new Grid<>(Sala.class, false);
+
+    private final TextField codigo = new TextField("Código");
+    private final TextField descricao = new TextField("Descrição");
+    private final IntegerField capacidade = new IntegerField("Capacidade");
+
+    // Utilização das salas no ano letivo: turma de cada parte do dia
+    private final ComboBox<AnoLetivo> anoLetivo = new ComboBox<>("Ano letivo");
+    private final Grid<UtilizacaoSalaDTO> utilizacao = new Grid<>(UtilizacaoSalaDTO.class, false);
+
+    private Sala editing;
+
+    public SalasView(SalaService salaService, AnoLetivoService anoLetivoService, AuthService authService) {
+        this.salaService = salaService;
+        this.usuarioLogado = authService.getUsuarioLogado();
+        setSizeFull();
+        add(new H2("Salas"));
+
+        configureGrid();
+        configureUtilizacao(anoLetivoService);
+        add(createForm(), grid, new H3("Utilização no ano letivo"), anoLetivo, utilizacao);
+
+        updateList();
+        anoLetivoService.findAnoLetivoAtivo().ifPresent(anoLetivo::setValue);
+    }
+
+    private void configureGrid() {
+        grid.addColumn(Sala::getCodigo).setHeader("Código").setAutoWidth(true);
+        grid.addColumn(Sala::getDescricao).setHeader("Descrição").setAutoWidth(true);
+        grid.addColumn(s -> s.getCapacidade() != null ? s.getCapacidade().toString() : "").setHeader("Capacidade");
+        grid.addColumn(s -> s.isAtiva() ? "Ativa" : "Inativa").setHeader("Status");
+        grid.setHeight("300px");
+        grid.asSingleSelect().addValueChangeListener(ev -> edit(ev.getValue()));
+    }
+
+    private void configureUtilizacao(AnoLetivoService anoLetivoService) {
+        anoLetivo.setItems(anoLetivoService.findAll());
+        anoLetivo.setItemLabelGenerator(a -> "Ano " + a.getAno());
+        anoLetivo.addValueChangeListener(e -> updateUtilizacao());
+
+        utilizacao.addColumn(u -> u.isCadastrada() ? u.getSala() : u.getSala() + " (não cadastrada)")
+                .setHeader("Sala").setAutoWidth(true);
+        for (Turno parte : OcupacaoSalas.PARTES) {
+            utilizacao.addColumn(u -> u.getTurma(parte)).setHeader(parte.getDescricao()).setAutoWidth(true);
+        }
+        utilizacao.addColumn(u -> u.getPercentualOcupacao() + "%").setHeader("Ocupação");
+        utilizacao.addThemeVariants(GridVariant.LUMO_COMPACT);
+    }
+
+    private FormLayout createForm() {
+        FormLayout form = new FormLayout();
+        codigo.setMaxLength(10);
+        codigo.setPlaceholder("Ex: 101, B12");
+        capacidade.setMin(1);
+        form.add(codigo, descricao, capacidade);
+
+        Button salvar = new Button("Salvar", e -> onSave());
+        Button novo = new Button("Novo", e -> {
+            grid.asSingleSelect().clear();
+            editing = new Sala();
+            clearForm();
+        });
+        Button ativar = new Button("Ativar/Desativar", e -> {
+            if (editing != null && editing.getId() != null) {
+                try {
+                    salaService.toggleAtiva(editing.getId(), usuarioLogado);
+                    updateList();
+                } catch (Exception ex) {
+                    Notification.show("Erro: " + ex.getMessage(), 4000, Notification.Position.MIDDLE);
+                }
+            }
+        });
+
+        form.add(new HorizontalLayout(salvar, novo, ativar));
+        return form;
+    }
+
+    private void edit(Sala s) {
+        this.editing = s;
+        if (s == null) {
+            clearForm();
+            return;
+        }
+        codigo.setValue(s.getCodigo() != null ? s.getCodigo() : "");
+        codigo.setReadOnly(s.getId() != null);
+        descricao.setValue(s.getDescricao() != null ? s.getDescricao() : "");
+        capacidade.setValue(s.getCapacidade());
+    }
+
+    private void clearForm() {
+        codigo.clear();
+        codigo.setReadOnly(false);
+        descricao.clear();
+        capacidade.clear();
+    }
+
+    private void onSave() {
+        try {
+            if (editing == null) editing = new Sala();
+            editing.setCodigo(codigo.getValue());
+            editing.setDescricao(descricao.getValue());
+            editing.setCapacidade(capacidade.getValue());
+
+            salaService.salvar(editing, usuarioLogado);
+            Notification.show("Sala salva.", 2500, Notification.Position.BOTTOM_START);
+            updateList();
+        } catch (Exception ex) {
+            Notification.show("Erro ao salvar: " + ex.getMessage(), 4000, Notification.Position.MIDDLE);
+        }
+    }
+
+    private void updateList() {
+        grid.setItems(salaService.listarTodas());
+        updateUtilizacao();
+    }
+
+    private void updateUtilizacao() {
+        AnoLetivo ano = anoLetivo.getValue();
+        List<UtilizacaoSalaDTO> linhas = ano == null ? List.of() : salaService.relatorioUtilizacao(ano.getId(), usuarioLogado);
+        utilizacao.setItems(linhas);
+    }
+}
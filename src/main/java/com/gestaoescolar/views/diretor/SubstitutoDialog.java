@@ -0,0 +1,109 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.SubstitutoCandidatoDTO;
+import com.gestaoescolar.model.Disciplina;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.TurmaDisciplina;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.escola.CurriculumService;
+import com.gestaoescolar.service.escola.SubstituicaoService;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.datepicker.DatePicker;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.grid.GridVariant;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Busca de professor substituto para uma disciplina da turma em um período e designação do escolhido.
+ */
+public class SubstitutoDialog extends Dialog {
+
+    private final SubstituicaoService substituicaoService;
+    private final Turma turma;
+    private final Usuario usuario;
+
+    private final ComboBox<Disciplina> disciplina = new ComboBox<>("Disciplina");
+    private final DatePicker inicio = new DatePicker("De");
+    private final DatePicker termino = new DatePicker("Até");
+    private final Grid<SubstitutoCandidatoDTO> candidatos = new Grid<>(SubstitutoCandidatoDTO.class, false);
+    private final Button designar = new Button("Designar substituto", e -> onDesignar());
+
+    public SubstitutoDialog(Turma turma, SubstituicaoService substituicaoService, CurriculumService curriculumService,
+                            Usuario usuario) {
+        this.substituicaoService = substituicaoService;
+        this.turma = turma;
+        this.usuario = usuario;
+
+        setHeaderTitle("Substituto - " + turma.getCodigo());
+        setWidth("820px");
+        setDraggable(true);
+
+        disciplina.setItems(curriculumService.listByTurma(turma.getId()).stream()
+                .filter(TurmaDisciplina::isAtiva)
+                .map(TurmaDisciplina::getDisciplina)
+                .toList());
+        disciplina.setItemLabelGenerator(Disciplina::getNome);
+        inicio.setValue(LocalDate.now());
+        termino.setHelperText("Vazio = só o primeiro dia");
+
+        candidatos.addColumn(SubstitutoCandidatoDTO::getNome).setHeader("Professor").setAutoWidth(true);
+        candidatos.addColumn(c -> c.getFormacao() != null ? c.getFormacao().getDescricao() : "").setHeader("Formação");
+        candidatos.addColumn(c -> c.isLecionaDisciplina() ? "Sim" : "").setHeader("Leciona a disciplina");
+        candidatos.addColumn(c -> c.isEspecializacaoNaDisciplina() ? "Sim" : "").setHeader("Especialização");
+        candidatos.addColumn(SubstitutoCandidatoDTO::getAulasNaSemana).setHeader("Aulas na semana");
+        candidatos.addThemeVariants(GridVariant.LUMO_COMPACT);
+        candidatos.setHeight("320px");
+        candidatos.addSelectionListener(e -> designar.setEnabled(e.getFirstSelectedItem().isPresent()));
+
+        Button buscar = new Button("Buscar livres", e -> onBuscar());
+        designar.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        designar.setEnabled(false);
+
+        add(new HorizontalLayout(disciplina, inicio, termino, buscar), candidatos);
+        getFooter().add(new Button("Fechar", e -> close()), designar);
+    }
+
+    private void onBuscar() {
+        if (disciplina.getValue() == null) {
+            Notification.show("Selecione a disciplina.", 3000, Notification.Position.MIDDLE);
+            return;
+        }
+        try {
+            List<SubstitutoCandidatoDTO> lista = substituicaoService.buscarSubstitutos(turma.getId(),
+                    disciplina.getValue().getId(), inicio.getValue(), termino.getValue(), usuario);
+            candidatos.setItems(lista);
+            if (lista.isEmpty()) {
+                Notification.show("Nenhum professor livre e habilitado no período.", 3000, Notification.Position.MIDDLE);
+            }
+        } catch (Exception ex) {
+            candidatos.setItems(List.of());
+            Notification.show(ex.getMessage() != null ? ex.getMessage() : "Erro ao buscar substitutos",
+                    4000, Notification.Position.MIDDLE);
+        }
+    }
+
+    private void onDesignar() {
+        SubstitutoCandidatoDTO escolhido = candidatos.asSingleSelect().getValue();
+        if (escolhido == null || disciplina.getValue() == null) {
+            return;
+        }
+        try {
+            substituicaoService.designarSubstituto(escolhido.getProfessorId(), turma.getId(),
+                    disciplina.getValue().getId(), inicio.getValue(), termino.getValue(), usuario);
+            Notification.show(escolhido.getNome() + " designado(a) como substituto(a).", 3000,
+                    Notification.Position.BOTTOM_START);
+            close();
+        } catch (Exception ex) {
+            Notification.show(ex.getMessage() != null ? ex.getMessage() : "Erro ao designar substituto",
+                    4000, Notification.Position.MIDDLE);
+            onBuscar();
+        }
+    }
+}
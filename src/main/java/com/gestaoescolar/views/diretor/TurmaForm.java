@@ -5,6 +5,7 @@ import com.gestaoescolar.model.AnoLetivo;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.model.enums.Serie;
 import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.service.escola.SalaService;
 import com.gestaoescolar.service.escola.TurmaService;
 import com.gestaoescolar.service.AnoLetivoService;
 import com.vaadin.flow.component.button.Button;
@@ -20,12 +21,15 @@ import com.vaadin.flow.component.textfield.IntegerField;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.binder.Binder;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 public class TurmaForm extends Dialog {
 
     private final TurmaService turmaService;
     private final AnoLetivoService anoLetivoService;
+    private final SalaService salaService;
     private final Usuario usuarioLogado;
 
     private final Runnable refreshCallback;
@@ -36,7 +40,7 @@ public class TurmaForm extends Dialog {
     private final ComboBox<Turno> turnoField = new ComboBox<>("Turno");
     private final ComboBox<AnoLetivo> anoLetivoField = new ComboBox<>("Ano Letivo");
     private final IntegerField capacidadeField = new IntegerField("Capacidade");
-    private final TextField salaField = new TextField("Sala");
+    private final ComboBox<String> salaField = new ComboBox<>("Sala");
 
     // Campo de código (apenas leitura)
     private final TextField codigoField = new TextField("Código da Turma");
@@ -44,10 +48,11 @@ public class TurmaForm extends Dialog {
 
     private final Binder<Turma> binder = new Binder<>(Turma.class);
 
-    public TurmaForm(TurmaService turmaService, AnoLetivoService anoLetivoService, Usuario usuarioLogado,
-                     Turma turma, Runnable refreshCallback) {
+    public TurmaForm(TurmaService turmaService, AnoLetivoService anoLetivoService, SalaService salaService,
+                     Usuario usuarioLogado, Turma turma, Runnable refreshCallback) {
         this.turmaService = turmaService;
         this.anoLetivoService = anoLetivoService;
+        this.salaService = salaService;
         this.refreshCallback = refreshCallback;
         this.usuarioLogado = usuarioLogado;
 
@@ -61,6 +66,13 @@ public class TurmaForm extends Dialog {
         createFormLayout();
         createButtons();
 
+        // Sala que a turma já usava antes do cadastro de salas continua selecionável
+        List<String> salas = new ArrayList<>(salaService.listarCodigosAtivos());
+        if (turma.getSala() != null && !salas.contains(turma.getSala())) {
+            salas.add(0, turma.getSala());
+        }
+        salaField.setItems(salas);
+
         binder.setBean(turma);
 
         // Atualizar código e nível quando campos mudarem
@@ -95,8 +107,9 @@ public class TurmaForm extends Dialog {
         capacidadeField.setStep(1);
         capacidadeField.setHelperText("Número máximo de alunos");
 
-        salaField.setMaxLength(10);
-        salaField.setPlaceholder("Ex: 101, B12");
+        salaField.setClearButtonVisible(true);
+        salaField.setPlaceholder("Sem sala");
+        salaField.setHelperText("Salas cadastradas em Salas");
 
         codigoField.setReadOnly(true);
         codigoField.setHelperText("Gerado automaticamente");
@@ -5,7 +5,9 @@ import com.gestaoescolar.model.Turma;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.model.enums.MatriculaStatus;
 import com.gestaoescolar.service.escola.EnrollmentService;
+import com.gestaoescolar.service.AnoLetivoService;
 import com.gestaoescolar.service.escola.TurmaService;
+import com.gestaoescolar.views.components.TurmaPicker;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.datepicker.DatePicker;
 import com.vaadin.flow.component.dialog.Dialog;
@@ -14,7 +16,6 @@ import com.vaadin.flow.component.grid.Grid;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.notification.Notification;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
-import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextArea;
 
 import java.time.LocalDate;
@@ -26,6 +27,7 @@ public class TurmaMatriculasDialog extends Dialog {
 
     private final EnrollmentService enrollmentService;
     private final TurmaService turmaService;
+    private final AnoLetivoService anoLetivoService;
     private final Usuario usuario;
     private final Turma turma;
     private final Runnable onChanged;
@@ -35,11 +37,13 @@ public class TurmaMatriculasDialog extends Dialog {
 
     public TurmaMatriculasDialog(EnrollmentService enrollmentService,
                                  TurmaService turmaService,
+                                 AnoLetivoService anoLetivoService,
                                  Usuario usuario,
                                  Turma turma,
                                  Runnable onChanged) {
         this.enrollmentService = enrollmentService;
         this.turmaService = turmaService;
+        this.anoLetivoService = anoLetivoService;
         this.usuario = usuario;
         this.turma = turma;
         this.onChanged = onChanged;
@@ -160,12 +164,10 @@ public class TurmaMatriculasDialog extends Dialog {
         Dialog d = new Dialog();
         d.setHeaderTitle("Transferir matrícula");
 
-        Select<Turma> turmaSelect = new Select<>();
-        turmaSelect.setLabel("Nova turma");
-        List<Turma> turmas = turmaService.listarTodasComAnoLetivo(); // pode filtrar por ano, se desejar
-        turmaSelect.setItems(turmas);
-        turmaSelect.setItemLabelGenerator(t -> t.getCodigo() + " - " + t.getNomeTurma());
-        turmaSelect.setValue(null);
+        // Começa no ano da turma atual; só lista turmas com vaga livre
+        TurmaPicker turmaPicker = new TurmaPicker("Nova turma", turmaService, anoLetivoService, usuario);
+        turmaPicker.setAnoLetivoId(turma.getAnoLetivo().getId());
+        turmaPicker.setSomenteComVagas(true);
 
         DatePicker data = new DatePicker("Data de transferência");
         configurarDatePickerPtBR(data);
@@ -178,12 +180,12 @@ public class TurmaMatriculasDialog extends Dialog {
         FormLayout form = new FormLayout();
         form.setWidthFull();
         form.add(new Span("Aluno: " + (m.getAluno() != null ? m.getAluno().getNomeCompleto() : "")));
-        form.add(turmaSelect, data, motivo);
+        form.add(turmaPicker, data, motivo);
         form.setColspan(motivo, 2);
 
         Button salvar = new Button("Transferir", e -> {
             try {
-                Turma nova = turmaSelect.getValue();
+                Turma nova = turmaPicker.getValue();
                 if (nova == null) {
                     Notification.show("Selecione a nova turma.", 3000, Notification.Position.MIDDLE);
                     return;
@@ -1,13 +1,18 @@
 package com.gestaoescolar.views.diretor;
 
+import com.gestaoescolar.dto.ProfessorAtribuidoDTO;
+import com.gestaoescolar.dto.TurmaFiltro;
 import com.gestaoescolar.model.Turma;
 import com.gestaoescolar.model.AnoLetivo;
 import com.gestaoescolar.model.Usuario;
-import com.gestaoescolar.model.ProfessorTurma;
 import com.gestaoescolar.model.enums.Serie;
 import com.gestaoescolar.model.enums.Turno;
 import com.gestaoescolar.service.AnoLetivoService;
 import com.gestaoescolar.service.auth.AuthService;
+import com.gestaoescolar.service.escola.CargaHorariaService;
+import com.gestaoescolar.service.escola.QuadroHorariosService;
+import com.gestaoescolar.service.escola.SalaService;
+import com.gestaoescolar.service.escola.SubstituicaoService;
 import com.gestaoescolar.service.escola.ProfessorService;
 import com.gestaoescolar.service.escola.ProfessorTurmaService;
 import com.gestaoescolar.service.escola.TurmaService;
@@ -26,11 +31,14 @@ import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.value.ValueChangeMode;
 import com.vaadin.flow.router.PageTitle;
 import com.vaadin.flow.router.Route;
+import com.vaadin.flow.spring.data.VaadinSpringDataHelpers;
 import com.gestaoescolar.service.escola.CurriculumService;
 import java.time.format.DateTimeFormatter;
 
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Route(value = "diretor/turmas", layout = MainLayout.class)
@@ -47,6 +55,10 @@ public class TurmasView extends VerticalLayout {
     private final CurriculumService curriculumService; // ADICIONE ESTE CAMPO
     private final com.gestaoescolar.service.escola.AcademicPolicyService academicPolicyService;
     private final EnrollmentService enrollmentService; // ADICIONE ESTE CAMPO
+    private final CargaHorariaService cargaHorariaService;
+    private final QuadroHorariosService quadroHorariosService;
+    private final SalaService salaService;
+    private final SubstituicaoService substituicaoService;
 
     private final Grid<Turma> grid = new Grid<>(Turma.class);
     private final TextField filterText = new TextField();
@@ -55,6 +67,18 @@ public class TurmasView extends VerticalLayout {
     private final ComboBox<Turno> filterTurno = new ComboBox<>();
     private final ComboBox<Boolean> filterAtiva = new ComboBox<>();
 
+    // Professores atribuídos às turmas exibidas, carregados em lote a cada página buscada pela grid.
+    // As páginas se acumulam: o DataCommunicator pode buscar várias páginas antes de gerar as linhas.
+    // Limitado às turmas usadas mais recentemente para não crescer com a rolagem; zerado em updateList().
+    private static final int MAX_TURMAS_COM_PROFESSORES = 1000;
+    private final Map<Long, List<ProfessorAtribuidoDTO>> professoresPorTurma =
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, List<ProfessorAtribuidoDTO>> maisAntiga) {
+                    return size() > MAX_TURMAS_COM_PROFESSORES;
+                }
+            };
+
     // AJUSTE O CONSTRUTOR PARA RECEBER enrollmentService
     public TurmasView(TurmaService turmaService,
                       AnoLetivoService anoLetivoService,
@@ -64,7 +88,11 @@ public class TurmasView extends VerticalLayout {
                       ProfessorTurmaService professorTurmaService,
                       EnrollmentService enrollmentService,
                       com.gestaoescolar.service.escola.CurriculumService curriculumService,
-                      com.gestaoescolar.service.escola.AcademicPolicyService academicPolicyService) { // <- novo parâmetro
+                      com.gestaoescolar.service.escola.AcademicPolicyService academicPolicyService, // <- novo parâmetro
+                      CargaHorariaService cargaHorariaService,
+                      QuadroHorariosService quadroHorariosService,
+                      SalaService salaService,
+                      SubstituicaoService substituicaoService) {
         this.turmaService = turmaService;
         this.anoLetivoService = anoLetivoService;
         this.authService = authService;
@@ -74,6 +102,10 @@ public class TurmasView extends VerticalLayout {
         this.enrollmentService = enrollmentService; // atribuição
         this.curriculumService = curriculumService; // atribuição
         this.academicPolicyService = academicPolicyService;
+        this.cargaHorariaService = cargaHorariaService;
+        this.quadroHorariosService = quadroHorariosService;
+        this.salaService = salaService;
+        this.substituicaoService = substituicaoService;
 
         setSizeFull();
         setPadding(true);
@@ -81,9 +113,8 @@ public class TurmasView extends VerticalLayout {
         add(new H2("Gestão de Turmas"));
         add(createToolbar());
         configureGrid();
+        configureDataProvider();
         add(grid);
-
-        updateList();
     }
 
     private HorizontalLayout createToolbar() {
@@ -119,7 +150,15 @@ public class TurmasView extends VerticalLayout {
         filters.setAlignItems(Alignment.END);
         filters.setSpacing(true);
 
-        HorizontalLayout toolbar = new HorizontalLayout(filters, addButton);
+        Button gerarButton = new Button("Gerar Turmas", new Icon(VaadinIcon.GRID_SMALL));
+        gerarButton.addClickListener(e -> new GerarTurmasDialog(turmaService, anoLetivoService.findAll(),
+                usuarioLogado, this::updateList).open());
+
+        Button horariosButton = new Button("Quadro de Horários", new Icon(VaadinIcon.CALENDAR_CLOCK));
+        horariosButton.addClickListener(e -> new QuadroHorariosDialog(quadroHorariosService, anoLetivoService,
+                turmaService, usuarioLogado).open());
+
+        HorizontalLayout toolbar = new HorizontalLayout(filters, new HorizontalLayout(horariosButton, gerarButton, addButton));
         toolbar.setWidthFull();
         toolbar.setJustifyContentMode(JustifyContentMode.BETWEEN);
         toolbar.setAlignItems(Alignment.END);
@@ -131,12 +170,13 @@ public class TurmasView extends VerticalLayout {
         grid.setSizeFull();
         grid.removeAllColumns();
 
-        grid.addColumn(Turma::getCodigo).setHeader("Código").setAutoWidth(true).setSortable(true);
-        grid.addColumn(Turma::getNomeTurma).setHeader("Nome").setAutoWidth(true).setSortable(true);
-        grid.addColumn(turma -> turma.getSerie().getNome()).setHeader("Série").setAutoWidth(true).setSortable(true);
-        grid.addColumn(turma -> turma.getNivel().getDescricao()).setHeader("Nível").setAutoWidth(true).setSortable(true);
-        grid.addColumn(turma -> turma.getTurno().getDescricao()).setHeader("Turno").setAutoWidth(true).setSortable(true);
-        grid.addColumn(turma -> turma.getAnoLetivo().getAno()).setHeader("Ano Letivo").setAutoWidth(true).setSortable(true);
+        // Ordenação feita no banco: cada coluna informa a propriedade da entidade
+        grid.addColumn(Turma::getCodigo).setHeader("Código").setAutoWidth(true).setSortProperty("codigo");
+        grid.addColumn(Turma::getNomeTurma).setHeader("Nome").setAutoWidth(true).setSortProperty("nomeTurma");
+        grid.addColumn(turma -> turma.getSerie().getNome()).setHeader("Série").setAutoWidth(true).setSortProperty("serie");
+        grid.addColumn(turma -> turma.getNivel().getDescricao()).setHeader("Nível").setAutoWidth(true).setSortProperty("nivel");
+        grid.addColumn(turma -> turma.getTurno().getDescricao()).setHeader("Turno").setAutoWidth(true).setSortProperty("turno");
+        grid.addColumn(turma -> turma.getAnoLetivo().getAno()).setHeader("Ano Letivo").setAutoWidth(true).setSortProperty("anoLetivo.ano");
 
         grid.addColumn(turma ->
                 turma.getCapacidade() != null ?
@@ -170,13 +210,11 @@ public class TurmasView extends VerticalLayout {
     }
 
     private String formatarProfessoresAtribuidos(Long turmaId) {
-        List<ProfessorTurma> atribuicoes = professorTurmaService.listByTurma(turmaId);
+        List<ProfessorAtribuidoDTO> atribuicoes = professoresPorTurma.get(turmaId);
         if (atribuicoes == null || atribuicoes.isEmpty()) return "Sem professor";
         return atribuicoes.stream()
                 .map(pt -> {
-                    String nome = (pt.getProfessor() != null && pt.getProfessor().getNomeCompleto() != null)
-                            ? pt.getProfessor().getNomeCompleto()
-                            : "(sem nome)";
+                    String nome = pt.getNomeProfessor() != null ? pt.getNomeProfessor() : "(sem nome)";
                     String papel = switch (pt.getPapel()) {
                         case TITULAR -> "Titular";
                         case SUBSTITUTO -> "Substituto";
@@ -205,7 +243,15 @@ public class TurmasView extends VerticalLayout {
         assignButton.setTooltipText("Atribuir professor");
         assignButton.addClickListener(e -> {
             AssignProfessorDialog dialog = new AssignProfessorDialog(
-                    turma, professorService, professorTurmaService, usuarioLogado);
+                    turma, professorService, professorTurmaService, cargaHorariaService, usuarioLogado);
+            dialog.open();
+            dialog.addDetachListener(dl -> updateList());
+        });
+
+        Button substitutoButton = new Button(new Icon(VaadinIcon.USER_CLOCK));
+        substitutoButton.setTooltipText("Buscar substituto");
+        substitutoButton.addClickListener(e -> {
+            SubstitutoDialog dialog = new SubstitutoDialog(turma, substituicaoService, curriculumService, usuarioLogado);
             dialog.open();
             dialog.addDetachListener(dl -> updateList());
         });
@@ -216,6 +262,7 @@ public class TurmasView extends VerticalLayout {
             TurmaMatriculasDialog d = new TurmaMatriculasDialog(
                     enrollmentService,
                     turmaService,
+                    anoLetivoService,
                     usuarioLogado,
                     turma,
                     this::updateList
@@ -269,19 +316,44 @@ public class TurmasView extends VerticalLayout {
 
         layout.add(aplicarGrade);
 
-        layout.add(editButton, statusButton, assignButton, matriculasButton);
+        layout.add(editButton, statusButton, assignButton, substitutoButton, matriculasButton);
         return layout;
 
 
     }
 
+    // Grid preguiçosa: busca no banco apenas a página visível, já filtrada e ordenada
+    private void configureDataProvider() {
+        grid.setItems(
+                query -> {
+                    List<Turma> pagina = turmaService.buscarTurmas(
+                            criarFiltro(), VaadinSpringDataHelpers.toSpringPageRequest(query), usuarioLogado
+                    ).getContent();
+                    professoresPorTurma.putAll(professorTurmaService.listAssignmentSummariesByTurmas(
+                            pagina.stream().map(Turma::getId).toList()));
+                    return pagina.stream();
+                },
+                query -> (int) turmaService.contarTurmas(criarFiltro(), usuarioLogado)
+        );
+    }
+
+    private TurmaFiltro criarFiltro() {
+        TurmaFiltro filtro = new TurmaFiltro();
+        filtro.setTexto(filterText.getValue());
+        filtro.setAnoLetivo(filterAnoLetivo.getValue());
+        filtro.setSerie(filterSerie.getValue());
+        filtro.setTurno(filterTurno.getValue());
+        filtro.setAtiva(filterAtiva.getValue());
+        return filtro;
+    }
+
     private void updateList() {
-        List<Turma> turmas = turmaService.listarTodasComAnoLetivo();
-        grid.setItems(turmas);
+        professoresPorTurma.clear();
+        grid.getDataProvider().refreshAll();
     }
 
     private void openForm(Turma turma) {
-        TurmaForm form = new TurmaForm(turmaService, anoLetivoService, usuarioLogado, turma, this::updateList);
+        TurmaForm form = new TurmaForm(turmaService, anoLetivoService, salaService, usuarioLogado, turma, this::updateList);
         form.open();
     }
 
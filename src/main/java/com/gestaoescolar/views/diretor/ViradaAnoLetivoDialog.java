@@ -0,0 +1,160 @@
+package com.gestaoescolar.views.diretor;
+
+import com.gestaoescolar.dto.MatriculaLoteResultadoDTO;
+import com.gestaoescolar.dto.RolloverProgressoDTO;
+import com.gestaoescolar.dto.RolloverResultadoDTO;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.service.escola.AnoLetivoRolloverService;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.button.ButtonVariant;
+import com.vaadin.flow.component.combobox.ComboBox;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.formlayout.FormLayout;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.notification.Notification;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
+import com.vaadin.flow.component.progressbar.ProgressBar;
+import com.vaadin.flow.server.Command;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Virada de ano letivo: escolhe os anos de origem e destino e mostra o resumo da execução.
+ * Pode ser executada de novo para completar uma virada interrompida. A execução roda em segundo
+ * plano e o andamento de cada lote chega à tela por push.
+ */
+public class ViradaAnoLetivoDialog extends Dialog {
+
+    private final AnoLetivoRolloverService rolloverService;
+    private final Usuario usuario;
+    private final Runnable onDone;
+
+    private final ComboBox<AnoLetivo> origem = new ComboBox<>("Ano de origem");
+    private final ComboBox<AnoLetivo> destino = new ComboBox<>("Ano de destino");
+    private final Div resumo = new Div();
+    private final ProgressBar andamento = new ProgressBar();
+
+    private final Button executar = new Button("Executar virada");
+    private final Button fechar = new Button("Fechar");
+
+    public ViradaAnoLetivoDialog(AnoLetivoRolloverService rolloverService,
+                                 List<AnoLetivo> anos,
+                                 Usuario usuario,
+                                 Runnable onDone) {
+        this.rolloverService = rolloverService;
+        this.usuario = usuario;
+        this.onDone = onDone;
+
+        setHeaderTitle("Virada de Ano Letivo");
+        setWidth("640px");
+        setDraggable(true);
+
+        List<AnoLetivo> ordenados = anos.stream().sorted(Comparator.comparing(AnoLetivo::getAno)).toList();
+        origem.setItems(ordenados);
+        destino.setItems(ordenados);
+        origem.setItemLabelGenerator(a -> String.valueOf(a.getAno()));
+        destino.setItemLabelGenerator(a -> String.valueOf(a.getAno()));
+        if (ordenados.size() >= 2) {
+            origem.setValue(ordenados.get(ordenados.size() - 2));
+            destino.setValue(ordenados.get(ordenados.size() - 1));
+        }
+
+        FormLayout form = new FormLayout(origem, destino);
+        form.setResponsiveSteps(
+                new FormLayout.ResponsiveStep("0", 1),
+                new FormLayout.ResponsiveStep("520px", 2)
+        );
+
+        Paragraph ajuda = new Paragraph("Copia a política acadêmica e as turmas ativas (com disciplinas) para o ano de destino "
+                + "e matricula os alunos com matrícula concluída na turma da série seguinte, de mesmo nome e turno.");
+
+        executar.addThemeVariants(ButtonVariant.LUMO_PRIMARY);
+        executar.setDisableOnClick(true);
+        executar.addClickListener(e -> onExecutar());
+        fechar.addClickListener(e -> close());
+        andamento.setVisible(false);
+
+        add(ajuda, form, andamento, resumo, new HorizontalLayout(executar, fechar));
+    }
+
+    // A virada pode levar minutos: roda fora do request e o andamento chega por push
+    private void onExecutar() {
+        if (origem.getValue() == null || destino.getValue() == null) {
+            Notification.show("Selecione os anos de origem e destino.", 3000, Notification.Position.MIDDLE);
+            executar.setEnabled(true);
+            return;
+        }
+        UI ui = UI.getCurrent();
+        try {
+            rolloverService.iniciarVirada(origem.getValue().getId(), destino.getValue().getId(), usuario,
+                            p -> acessar(ui, () -> mostrarAndamento(p)))
+                    .whenComplete((r, ex) -> acessar(ui, () -> concluirVirada(r, ex)));
+            resumo.removeAll();
+            resumo.add(new Paragraph("Executando a virada de ano letivo..."));
+            andamento.setIndeterminate(true);
+            andamento.setVisible(true);
+        } catch (Exception ex) {
+            executar.setEnabled(true);
+            mostrarErro(ex);
+        }
+    }
+
+    private static void acessar(UI ui, Command comando) {
+        try {
+            ui.access(comando);
+        } catch (UIDetachedException fechada) {
+            // Tela fechada durante a virada: ela continua e o resultado fica no log
+        }
+    }
+
+    private void mostrarAndamento(RolloverProgressoDTO p) {
+        andamento.setIndeterminate(p.getTotal() == 0);
+        if (p.getTotal() > 0) {
+            andamento.setValue(Math.min(1, (double) p.getConcluidos() / p.getTotal()));
+        }
+        resumo.removeAll();
+        resumo.add(new Paragraph(p.getEtapa() + ": " + p.getConcluidos() + " de " + p.getTotal()));
+    }
+
+    private void concluirVirada(RolloverResultadoDTO r, Throwable ex) {
+        andamento.setVisible(false);
+        executar.setEnabled(true);
+        if (ex != null) {
+            resumo.removeAll();
+            mostrarErro(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            return;
+        }
+        mostrarResumo(r);
+        Notification.show("Virada de ano letivo concluída.", 3000, Notification.Position.BOTTOM_START);
+        if (onDone != null) onDone.run();
+    }
+
+    private static void mostrarErro(Throwable ex) {
+        String msg = ex.getMessage() != null ? ex.getMessage() : "Erro na virada de ano letivo";
+        Notification.show(msg, 5000, Notification.Position.MIDDLE);
+    }
+
+    private void mostrarResumo(RolloverResultadoDTO r) {
+        resumo.removeAll();
+        resumo.add(new Paragraph("Política acadêmica: " + (r.isPoliticaCopiada() ? "copiada" : "já existente ou sem política na origem")));
+        resumo.add(new Paragraph("Turmas criadas: " + r.getTurmasCriadas()
+                + " (já existentes: " + r.getTurmasExistentes() + "), disciplinas copiadas: " + r.getOfertasCopiadas()));
+        resumo.add(new Paragraph("Alunos promovidos: " + r.getAlunosPromovidos()
+                + ", já matriculados: " + r.getAlunosJaMatriculados()
+                + ", concluintes da última série: " + r.getAlunosConcluintes()
+                + ", sem turma de destino: " + r.getAlunosSemTurmaDestino()));
+        if (!r.getRecusados().isEmpty()) {
+            resumo.add(new Paragraph("Não matriculados (" + r.getRecusados().size() + "):"));
+            for (MatriculaLoteResultadoDTO rec : r.getRecusados()) {
+                String nome = rec.getNomeAluno() != null ? rec.getNomeAluno() : "Aluno " + rec.getAlunoId();
+                resumo.add(new Paragraph(nome + " — " + rec.getMensagem()));
+            }
+        }
+    }
+}
@@ -1,40 +1,121 @@
 package com.gestaoescolar.views.shared;
 
+import com.gestaoescolar.dto.IndicadoresDashboardDTO;
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.service.escola.DashboardService;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.Div;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.H2;
+import com.vaadin.flow.component.html.H3;
 import com.vaadin.flow.component.html.Paragraph;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.orderedlayout.FlexLayout;
+import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.PageTitle;
 
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+
 @Route(value = "", layout = MainLayout.class)
 @PageTitle("Dashboard | Gestão Escolar")
 public class DashboardView extends VerticalLayout {
 
-    public DashboardView() {
+    public DashboardView(DashboardService dashboardService) {
         setSizeFull();
-        setAlignItems(Alignment.CENTER);
-        setJustifyContentMode(JustifyContentMode.CENTER);
         setPadding(true);
         setSpacing(true);
 
         H1 titulo = new H1("Sistema de Gestão Escolar");
         titulo.getStyle()
                 .set("color", "var(--lumo-primary-text-color)")
-                .set("margin-bottom", "2rem");
+                .set("margin-bottom", "0");
 
-        H2 subtitulo = new H2("Bem-vindo ao Sistema de Gestão");
+        H2 subtitulo = new H2("Indicadores");
         subtitulo.getStyle()
                 .set("color", "var(--lumo-secondary-text-color)")
-                .set("margin-bottom", "1.5rem");
+                .set("margin-top", "0");
+
+        // Leitura da fotografia em memória; não consulta o banco
+        IndicadoresDashboardDTO ind = dashboardService.getIndicadores();
 
-        Paragraph descricao = new Paragraph(
-                "Use o menu lateral para navegar entre as funcionalidades."
+        FlexLayout cards = new FlexLayout(
+                card("Alunos ativos", String.valueOf(ind.getAlunosAtivos())),
+                card("Matrículas ativas", String.valueOf(ind.getTotalMatriculasAtivas())),
+                card("Ocupação de vagas", String.format(new Locale("pt", "BR"), "%.1f%%", ind.getOcupacaoPercentual()),
+                        (ind.getCapacidadeTotal() - ind.getVagasLivres()) + " de " + ind.getCapacidadeTotal()),
+                card("Turmas ativas", String.valueOf(ind.getTurmasAtivas())),
+                card("Turmas sem titular", String.valueOf(ind.getTurmasSemTitular())),
+                card("Professores ativos", String.valueOf(ind.getProfessoresAtivos()))
         );
-        descricao.getStyle()
-                .set("text-align", "center")
-                .set("max-width", "600px");
+        cards.setFlexWrap(FlexLayout.FlexWrap.WRAP);
+        cards.getStyle().set("gap", "var(--lumo-space-m)");
+
+        HorizontalLayout detalhes = new HorizontalLayout(matriculasPorSerie(ind), professoresPorFormacao(ind));
+        detalhes.setWidthFull();
+
+        Paragraph atualizado = new Paragraph("Atualizado em "
+                + ind.getAtualizadoEm().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss")));
+        atualizado.getStyle().set("color", "var(--lumo-secondary-text-color)").set("font-size", "var(--lumo-font-size-s)");
+
+        add(titulo, subtitulo, cards, detalhes, atualizado);
+    }
+
+    private Div card(String rotulo, String valor) {
+        return card(rotulo, valor, null);
+    }
+
+    private Div card(String rotulo, String valor, String detalhe) {
+        Span r = new Span(rotulo);
+        r.getStyle().set("color", "var(--lumo-secondary-text-color)").set("font-size", "var(--lumo-font-size-s)");
+        Span v = new Span(valor);
+        v.getStyle().set("font-size", "var(--lumo-font-size-xxl)").set("font-weight", "600");
+
+        Div card = new Div(r, new Div(v));
+        if (detalhe != null) {
+            Span d = new Span(detalhe);
+            d.getStyle().set("font-size", "var(--lumo-font-size-xs)").set("color", "var(--lumo-secondary-text-color)");
+            card.add(new Div(d));
+        }
+        card.getStyle()
+                .set("background", "var(--lumo-contrast-5pct)")
+                .set("border-radius", "var(--lumo-border-radius-l)")
+                .set("padding", "var(--lumo-space-m)")
+                .set("min-width", "180px");
+        return card;
+    }
+
+    // Linhas: série; colunas: turnos
+    private VerticalLayout matriculasPorSerie(IndicadoresDashboardDTO ind) {
+        Grid<Map.Entry<Serie, Map<Turno, Long>>> grid = new Grid<>();
+        grid.addColumn(e -> e.getKey().getNome()).setHeader("Série").setAutoWidth(true);
+        for (Turno turno : Turno.values()) {
+            grid.addColumn(e -> e.getValue().getOrDefault(turno, 0L)).setHeader(turno.getDescricao()).setAutoWidth(true);
+        }
+        grid.setItems(ind.getMatriculasAtivas().entrySet());
+        grid.setAllRowsVisible(true);
+
+        VerticalLayout box = new VerticalLayout(new H3("Matrículas ativas por série e turno"), grid);
+        box.setPadding(false);
+        box.setWidth("65%");
+        return box;
+    }
+
+    private VerticalLayout professoresPorFormacao(IndicadoresDashboardDTO ind) {
+        Grid<Map.Entry<FormacaoAcademica, Long>> grid = new Grid<>();
+        grid.addColumn(e -> e.getKey().getDescricao()).setHeader("Formação").setAutoWidth(true);
+        grid.addColumn(Map.Entry::getValue).setHeader("Professores").setAutoWidth(true);
+        grid.setItems(ind.getProfessoresPorFormacao().entrySet());
+        grid.setAllRowsVisible(true);
 
-        add(titulo, subtitulo, descricao);
+        VerticalLayout box = new VerticalLayout(new H3("Professores ativos por formação"), grid);
+        box.setPadding(false);
+        box.setWidth("35%");
+        return box;
     }
-}
\ No newline at end of file
+}
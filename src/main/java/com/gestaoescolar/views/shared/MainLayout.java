@@ -1,12 +1,15 @@
 package com.gestaoescolar.views.shared;
 
+import com.gestaoescolar.dto.PessoaBuscaResultadoDTO;
 import com.gestaoescolar.model.Usuario;
 import com.gestaoescolar.model.enums.PerfilUsuario;
 import com.gestaoescolar.views.diretor.*;
 import com.gestaoescolar.service.auth.AuthService;
+import com.gestaoescolar.service.escola.BuscaPessoasService;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.applayout.AppLayout;
 import com.vaadin.flow.component.applayout.DrawerToggle;
+import com.vaadin.flow.component.combobox.ComboBox;
 import com.vaadin.flow.component.html.H1;
 import com.vaadin.flow.component.html.Span;
 import com.vaadin.flow.component.icon.Icon;
@@ -15,15 +18,20 @@ import com.vaadin.flow.component.orderedlayout.FlexComponent;
 import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.tabs.Tab;
 import com.vaadin.flow.component.tabs.Tabs;
+import com.vaadin.flow.router.QueryParameters;
 import com.vaadin.flow.router.RouterLink;
 
+import java.util.Map;
+
 public class MainLayout extends AppLayout {
 
     private final AuthService authService;
+    private final BuscaPessoasService buscaPessoasService;
     private Usuario usuarioLogado;
 
-    public MainLayout(AuthService authService) {
+    public MainLayout(AuthService authService, BuscaPessoasService buscaPessoasService) {
         this.authService = authService;
+        this.buscaPessoasService = buscaPessoasService;
         this.usuarioLogado = authService.getUsuarioLogado();
 
         criarHeader();
@@ -48,6 +56,12 @@ public class MainLayout extends AppLayout {
                 saudacao
         );
 
+        if (usuarioLogado != null && usuarioLogado.isAdministrativo()) {
+            ComboBox<PessoaBuscaResultadoDTO> busca = criarBuscaGlobal();
+            header.add(busca);
+            header.setFlexGrow(1, busca);
+        }
+
         header.setDefaultVerticalComponentAlignment(FlexComponent.Alignment.CENTER);
         header.setWidth("100%");
         header.addClassNames("py-0", "px-m");
@@ -55,6 +69,37 @@ public class MainLayout extends AppLayout {
         addToNavbar(header);
     }
 
+    // Busca de alunos, professores e responsáveis pelo índice em memória (sem acento, tolera erros de digitação)
+    private ComboBox<PessoaBuscaResultadoDTO> criarBuscaGlobal() {
+        ComboBox<PessoaBuscaResultadoDTO> busca = new ComboBox<>();
+        busca.setPlaceholder("Buscar aluno, professor ou responsável");
+        busca.setPrefixComponent(VaadinIcon.SEARCH.create());
+        busca.setMaxWidth("28em");
+        busca.setWidthFull();
+        busca.setItemLabelGenerator(p -> p.getNome() + " — " + p.getTipo().getDescricao());
+        busca.setItems(query -> buscaPessoasService
+                .buscar(query.getFilter().orElse(""), BuscaPessoasService.LIMITE_PADRAO, usuarioLogado)
+                .stream()
+                .skip(query.getOffset())
+                .limit(query.getLimit()));
+        busca.addValueChangeListener(e -> {
+            PessoaBuscaResultadoDTO p = e.getValue();
+            if (p == null) return;
+            busca.clear();
+            String id = String.valueOf(p.getId());
+            switch (p.getTipo()) {
+                case ALUNO -> navegar("diretor/alunos", "aluno", id);
+                case PROFESSOR -> navegar("diretor/professores", "professor", id);
+                case RESPONSAVEL -> navegar("diretor/alunos", "responsavel", id);
+            }
+        });
+        return busca;
+    }
+
+    private void navegar(String rota, String parametro, String valor) {
+        getUI().ifPresent(ui -> ui.navigate(rota, QueryParameters.simple(Map.of(parametro, valor))));
+    }
+
     private void criarDrawer() {
         Tabs tabs = new Tabs();
         tabs.setOrientation(Tabs.Orientation.VERTICAL);
@@ -68,6 +113,7 @@ public class MainLayout extends AppLayout {
             tabs.add(criarTab(VaadinIcon.GROUP, "Professores", ProfessorView.class));
             tabs.add(criarTab(VaadinIcon.USER, "Alunos", AlunosView.class));
             tabs.add(criarTab(VaadinIcon.BOOK,"Disciplinas", DisciplinaView.class));
+            tabs.add(criarTab(VaadinIcon.BUILDING,"Salas", SalasView.class));
             tabs.add(criarTab(VaadinIcon.ARCHIVES,"Grade Curricular", GradeCurricularView.class));
             tabs.add(criarTab(VaadinIcon.PACKAGE,"Política Acadêmica", AcademicPolicyView.class));
         }
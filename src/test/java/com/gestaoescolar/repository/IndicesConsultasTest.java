@@ -0,0 +1,242 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.MatriculaStatus;
+import jakarta.persistence.EntityManager;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Confere no H2, com uma massa de dados realista, que as consultas mais frequentes dos repositórios
+ * usam os índices compostos declarados nas entidades. O SQL examinado é o que o Hibernate gera ao
+ * chamar o método do repositório (capturado por {@link CapturaSql}); o EXPLAIN mostra o índice
+ * escolhido como comentário (ex.: PUBLIC.IDX_...) e "tableScan" quando a tabela é lida inteira.
+ */
+@DataJpaTest(properties = {
+        "logging.level.org.hibernate=WARN",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.gestaoescolar.repository.IndicesConsultasTest$CapturaSql"
+})
+class IndicesConsultasTest {
+
+    // Guarda os comandos preparados pelo Hibernate na thread do teste
+    public static class CapturaSql implements StatementInspector {
+        static final ThreadLocal<List<String>> COMANDOS = ThreadLocal.withInitial(ArrayList::new);
+
+        @Override
+        public String inspect(String sql) {
+            COMANDOS.get().add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+    @Autowired
+    private TurmaRepository turmaRepository;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private ProfessorTurmaRepository professorTurmaRepository;
+    @Autowired
+    private AlunoResponsavelRepository alunoResponsavelRepository;
+    @Autowired
+    private AnoLetivoRepository anoLetivoRepository;
+
+    // ANALYZE confirma a transação no H2: a massa sobrevive ao rollback de cada teste e é gravada uma vez
+    // no banco embutido deste contexto
+    @BeforeEach
+    void popular() {
+        if (jdbc.queryForObject("select count(*) from turmas", Integer.class) == 0) {
+            popularMassaDeDados();
+        }
+    }
+
+    // ===== Matrícula =====
+
+    @Test
+    void matriculaAtivaDoAlunoNoAno() {
+        String sql = sqlDe(() -> matriculaRepository.existsByAlunoIdAndTurma_AnoLetivo_IdAndStatus(7L, 2L, MatriculaStatus.ATIVA));
+        assertUsaIndice(sql, List.of(7L, 2L, "ATIVA"), "matricula", "idx_matricula_aluno_status");
+    }
+
+    // Para a contagem qualquer um dos dois compostos resolve as duas igualdades sem ler a tabela
+    @Test
+    void contagemDeMatriculasDaTurma() {
+        String sql = sqlDe(() -> matriculaRepository.countByTurmaIdAndStatus(5L, MatriculaStatus.ATIVA));
+        assertUsaIndice(sql, List.of(5L, "ATIVA"), "matricula", "idx_matricula_turma_status", "idx_matricula_status_turma");
+    }
+
+    @Test
+    void alunosDaTurmaPorSituacao() {
+        String sql = sqlDe(() -> matriculaRepository.findAlunoIdsByTurmaIdAndStatus(5L, MatriculaStatus.ATIVA));
+        assertUsaIndice(sql, List.of(5L, "ATIVA"), "matricula", "idx_matricula_turma_status");
+    }
+
+    @Test
+    void matriculasAtivasDosAlunosNaTurmaOuNoAno() {
+        String sql = sqlDe(() -> matriculaRepository.findAtivasByAlunoIdsNaTurmaOuAno(List.of(7L, 8L), 5L, 2L));
+        assertUsaIndice(sql, List.of(7L, 8L, 5L, 2L), "matricula", "idx_matricula_aluno_status");
+    }
+
+    // ===== Turma =====
+
+    @Test
+    void turmasAtivasDoAnoLetivo() {
+        entityManager.clear();
+        var ano = anoLetivoRepository.getReferenceById(2L);
+        String lista = sqlDe(() -> turmaRepository.findByAnoLetivoAndAtivaTrue(ano));
+        assertUsaIndice(lista, List.of(2L), "turmas", "idx_turma_ano_ativa");
+        String contagem = sqlDe(() -> turmaRepository.countByAnoLetivoAndAtivaTrue(ano));
+        assertUsaIndice(contagem, List.of(2L), "turmas", "idx_turma_ano_ativa");
+    }
+
+    @Test
+    void turmasAtivasSemTitular() {
+        String sql = sqlDe(() -> turmaRepository.countByAtivaTrueAndProfessorTitularIsNull());
+        assertUsaIndice(sql, List.of(), "turmas", "idx_turma_ativa_titular");
+    }
+
+    @Test
+    void turmasPorPrefixoDoNomeOuCodigo() {
+        String nome = sqlDe(() -> turmaRepository.buscarPorPrefixoNome("T1%", PageRequest.of(0, 20)));
+        assertThat(explicar(nome, List.of("T1%", 0, 20))).as("plano de: %s", nome)
+                .contains("PUBLIC.IDX_TURMA_NOME_BUSCA")
+                .doesNotContain("PUBLIC.TURMAS.tableScan");
+
+        String codigo = sqlDe(() -> turmaRepository.buscarPorPrefixoCodigo("T1%", PageRequest.of(0, 20)));
+        assertThat(explicar(codigo, List.of("T1%", 0, 20))).as("plano de: %s", codigo)
+                .contains("PUBLIC.IDX_TURMA_CODIGO_BUSCA")
+                .doesNotContain("PUBLIC.TURMAS.tableScan");
+    }
+
+    // ===== Professores =====
+
+    @Test
+    void professoresAtivos() {
+        String sql = sqlDe(() -> professorRepository.findByAtivoTrue());
+        assertUsaIndice(sql, List.of(), "professores", "idx_professor_ativo_nome");
+    }
+
+    @Test
+    void professoresAtivosPorFormacao() {
+        // Agrupamento das ativas: qualquer um dos compostos que começam por ativo/formação evita a leitura inteira
+        String sql = sqlDe(() -> professorRepository.contarAtivosPorFormacao());
+        assertUsaIndice(sql, List.of(), "professores", "idx_professor_formacao_ativo", "idx_professor_ativo_nome");
+        String porFormacao = sqlDe(() -> professorRepository.findByFormacao(FormacaoAcademica.MESTRADO));
+        assertUsaIndice(porFormacao, List.of("MESTRADO"), "professores", "idx_professor_formacao_ativo");
+    }
+
+    // Com IN sobre turma_id o H2 pode preferir o índice da chave estrangeira, que começa pela mesma coluna
+    @Test
+    void professoresDasTurmas() {
+        String sql = sqlDe(() -> professorTurmaRepository.findAtribuicoesResumoByTurmaIds(List.of(5L, 6L)));
+        assertSemLeituraCompleta(sql, List.of(5L, 6L), "professor_turma", "professores");
+    }
+
+    // ===== Responsáveis e ano letivo =====
+
+    // O H2 parte de qualquer um dos lados do vínculo (chave primária ou chave estrangeira); nenhuma tabela é lida inteira
+    @Test
+    void alunosDoResponsavel() {
+        String sql = sqlDe(() -> alunoResponsavelRepository.findByResponsavelIdAndAlunoIdIn(3L, List.of(7L, 8L)));
+        assertSemLeituraCompleta(sql, List.of(3L, 7L, 8L), "aluno_responsavel", "aluno", "responsavel");
+    }
+
+    @Test
+    void irmaosPorResponsavelEmComum() {
+        String sql = sqlDe(() -> alunoResponsavelRepository.findIrmaos(7L));
+        assertSemLeituraCompleta(sql, List.of(7L, 7L), "aluno_responsavel", "aluno");
+    }
+
+    @Test
+    void anoLetivoEmAndamento() {
+        String sql = sqlDe(() -> anoLetivoRepository.findAnoLetivoAtivo());
+        assertUsaIndice(sql, List.of(), "ano_letivo", "idx_ano_letivo_status");
+    }
+
+    // ===== Apoio =====
+
+    // Último SELECT preparado pelo Hibernate durante a chamada
+    private String sqlDe(Runnable chamada) {
+        List<String> comandos = CapturaSql.COMANDOS.get();
+        comandos.clear();
+        chamada.run();
+        return comandos.stream()
+                .filter(sql -> sql.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .reduce((primeiro, segundo) -> segundo)
+                .orElseThrow(() -> new AssertionError("Nenhum SELECT gerado pelo repositório"));
+    }
+
+    // O plano precisa usar um dos índices esperados e não pode ler a tabela principal inteira
+    private void assertUsaIndice(String sql, List<Object> parametros, String tabela, String... indices) {
+        String plano = explicar(sql, parametros);
+        assertThat(plano).as("plano de: %s", sql)
+                .containsAnyOf(Arrays.stream(indices)
+                        .map(i -> "PUBLIC." + i.toUpperCase(Locale.ROOT))
+                        .toArray(String[]::new))
+                .doesNotContain("PUBLIC." + tabela.toUpperCase(Locale.ROOT) + ".tableScan");
+    }
+
+    private void assertSemLeituraCompleta(String sql, List<Object> parametros, String... tabelas) {
+        String plano = explicar(sql, parametros);
+        for (String tabela : tabelas) {
+            assertThat(plano).as("plano de: %s", sql).doesNotContain("PUBLIC." + tabela.toUpperCase(Locale.ROOT) + ".tableScan");
+        }
+    }
+
+    private String explicar(String sql, List<Object> parametros) {
+        return jdbc.queryForObject("EXPLAIN " + sql, String.class, parametros.toArray());
+    }
+
+    // Três anos letivos, 600 turmas, 300 professores, 6 mil alunos com 12 mil matrículas e 8 mil vínculos
+    // com responsáveis. A distribuição imita a escola: muitas turmas, quase todas as matrículas ativas.
+    private void popularMassaDeDados() {
+        jdbc.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        jdbc.update("insert into ano_letivo (id, ano, data_inicio, data_termino, status) "
+                + "select x, 2020 + x, current_date, current_date, "
+                + "case when x = 3 then 'EM_ANDAMENTO' else 'CONCLUIDO' end from system_range(1, 3)");
+        jdbc.update("insert into professores (id, ativo, cpf, data_nascimento, email, formacao, genero, nome_completo, rg, telefone) "
+                + "select x, mod(x, 10) <> 0, lpad(x, 11, '0'), date '1980-01-01', 'p' || x || '@escola.com', "
+                + "case mod(x, 6) when 0 then 'ENSINO_MEDIO' when 1 then 'GRADUACAO_INCOMPLETA' when 2 then 'GRADUACAO_COMPLETA' "
+                + "when 3 then 'ESPECIALIZACAO' when 4 then 'MESTRADO' else 'DOUTORADO' end, "
+                + "'FEMININO', 'Professor ' || x, 'RG' || x, '(11) 99999-0000' from system_range(1, 300)");
+        jdbc.update("insert into turmas (id, ativa, capacidade, vagas_disponiveis, codigo, nivel, nome_turma, serie, turno, "
+                + "ano_letivo_id, professor_titular_id) "
+                + "select x, mod(x, 7) <> 0, 30, mod(x, 31), (2020 + mod(x, 3) + 1) || '-T' || x, 'FUNDAMENTAL_I', 'T' || x, "
+                + "'PRIMEIRO_ANO', 'MANHA', mod(x, 3) + 1, case when mod(x, 5) = 0 then null else mod(x, 300) + 1 end "
+                + "from system_range(1, 600)");
+        jdbc.update("insert into aluno (id, ativo, data_nascimento, nome_completo) "
+                + "select x, true, date '2015-01-01', 'Aluno ' || x from system_range(1, 6000)");
+        jdbc.update("insert into matricula (id, aluno_id, turma_id, status, data_inicio) "
+                + "select x, mod(x, 6000) + 1, mod(x, 600) + 1, "
+                + "case mod(x, 10) when 0 then 'TRANSFERIDA' when 1 then 'CANCELADA' else 'ATIVA' end, current_date "
+                + "from system_range(1, 12000)");
+        jdbc.update("insert into responsavel (id, cpf, nome, parentesco) "
+                + "select x, lpad(x, 11, '0'), 'Responsável ' || x, 'MAE' from system_range(1, 4000)");
+        jdbc.update("insert into aluno_responsavel (id, aluno_id, responsavel_id, ativo, responsavel_didatico, "
+                + "responsavel_financeiro, responsavel_legal) "
+                + "select x, mod(x, 6000) + 1, mod(x * 7, 4000) + 1, true, true, false, true from system_range(1, 8000)");
+        jdbc.update("insert into professor_turma (id, professor_id, turma_id, papel) "
+                + "select x, mod(x + x / 600, 300) + 1, mod(x, 600) + 1, case mod(x, 3) when 0 then 'TITULAR' when 1 then 'SUBSTITUTO' "
+                + "else 'COORDENADOR' end from system_range(1, 1200)");
+        jdbc.execute("SET REFERENTIAL_INTEGRITY TRUE");
+        jdbc.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,80 @@
+package com.gestaoescolar.repository;
+
+import com.gestaoescolar.dto.AlunoResumoDTO;
+import com.gestaoescolar.dto.ProfessorResumoDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * As listas de alunos e professores leem só as colunas exibidas (projeções de resumo): o SELECT
+ * gerado pelo Hibernate, capturado por {@link IndicesConsultasTest.CapturaSql}, não traz os textos
+ * longos do cadastro (observações, saúde, endereço).
+ */
+@DataJpaTest(properties = {
+        "logging.level.org.hibernate=WARN",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.gestaoescolar.repository.IndicesConsultasTest$CapturaSql"
+})
+class ResumosConsultasTest {
+
+    private static final List<String> COLUNAS_LONGAS = List.of(
+            "observacoes", "observacoes_saude", "alergias", "justificativa_documentos", "especializacao",
+            "logradouro", "complemento");
+
+    @Autowired
+    private AlunoRepository alunoRepository;
+    @Autowired
+    private ProfessorRepository professorRepository;
+
+    @BeforeEach
+    void limparCaptura() {
+        IndicesConsultasTest.CapturaSql.COMANDOS.get().clear();
+    }
+
+    @Test
+    void listaDeAlunosSoLeColunasDoResumo() {
+        List<AlunoResumoDTO> r = alunoRepository.buscarResumos(null, PageRequest.of(0, 20, Sort.by("nomeCompleto")));
+
+        assertThat(r).isNotNull();
+        assertThat(colunasSelecionadas(ultimoSelect()))
+                .hasSize(5)
+                .noneMatch(c -> COLUNAS_LONGAS.stream().anyMatch(c::endsWith));
+    }
+
+    @Test
+    void listaDeProfessoresSoLeColunasDoResumo() {
+        List<ProfessorResumoDTO> r = professorRepository.listarResumos(null, null, true, null);
+
+        assertThat(r).isNotNull();
+        assertThat(colunasSelecionadas(ultimoSelect()))
+                .hasSize(7)
+                .noneMatch(c -> COLUNAS_LONGAS.stream().anyMatch(c::endsWith));
+    }
+
+    private static String ultimoSelect() {
+        List<String> comandos = IndicesConsultasTest.CapturaSql.COMANDOS.get();
+        return comandos.stream()
+                .filter(s -> s.trim().toLowerCase(Locale.ROOT).startsWith("select"))
+                .reduce((a, b) -> b)
+                .orElseThrow(() -> new AssertionError("nenhum SELECT capturado: " + comandos));
+    }
+
+    // Colunas entre SELECT e FROM, sem o alias da tabela
+    private static List<String> colunasSelecionadas(String sql) {
+        String s = sql.toLowerCase(Locale.ROOT);
+        String lista = s.substring(s.indexOf("select") + "select".length(), s.indexOf(" from "));
+        return Arrays.stream(lista.split(","))
+                .map(String::trim)
+                .toList();
+    }
+}
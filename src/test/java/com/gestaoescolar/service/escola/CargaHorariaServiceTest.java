@@ -0,0 +1,85 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.CargaHorariaDTO;
+import com.gestaoescolar.dto.CargaHorariaProfessorDTO;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.ProfessorTurmaDisciplinaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Totais de carga horária em memória: uma consulta agregada para todas as leituras até que uma
+ * atribuição ou alteração de turmas descarte os totais; outras áreas não descartam.
+ */
+class CargaHorariaServiceTest {
+
+    private static final long ANO = 7L;
+
+    private final ProfessorTurmaDisciplinaRepository repository = mock(ProfessorTurmaDisciplinaRepository.class);
+    private final CargaHorariaService service = new CargaHorariaService(repository, 40);
+
+    @Test
+    void leiturasUsamUmaSoConsulta() {
+        when(repository.somarCargaHoraria()).thenReturn(List.of(
+                new CargaHorariaDTO(1L, ANO, Turno.MANHA, 20),
+                new CargaHorariaDTO(1L, ANO, Turno.TARDE, 25),
+                new CargaHorariaDTO(2L, ANO, Turno.NOITE, 12)));
+
+        CargaHorariaProfessorDTO primeiro = service.carga(1L, ANO);
+        assertThat(primeiro.getTotal()).isEqualTo(45);
+        assertThat(primeiro.isAcimaDoLimite()).isTrue();
+        assertThat(primeiro.getHorasPorTurno()).containsEntry(Turno.MANHA, 20L).containsEntry(Turno.TARDE, 25L);
+        assertThat(service.carga(2L, ANO).isAcimaDoLimite()).isFalse();
+        assertThat(service.carga(3L, ANO).getTotal()).isZero();
+        assertThat(service.cargasNoAno(ANO + 1)).isEmpty();
+
+        verify(repository, times(1)).somarCargaHoraria();
+    }
+
+    @Test
+    void atribuicaoDescartaOsTotais() {
+        when(repository.somarCargaHoraria())
+                .thenReturn(List.of(new CargaHorariaDTO(1L, ANO, Turno.MANHA, 20)))
+                .thenReturn(List.of(new CargaHorariaDTO(1L, ANO, Turno.MANHA, 24)));
+        assertThat(service.carga(1L, ANO).getTotal()).isEqualTo(20);
+
+        service.onCargaHorariaAlterada(new CargaHorariaAlteradaEvent());
+
+        assertThat(service.carga(1L, ANO).getTotal()).isEqualTo(24);
+        verify(repository, times(2)).somarCargaHoraria();
+    }
+
+    @Test
+    void soAlteracaoDeTurmasDescartaEntreOsIndicadores() {
+        when(repository.somarCargaHoraria())
+                .thenReturn(List.of(new CargaHorariaDTO(1L, ANO, Turno.MANHA, 20)))
+                .thenReturn(List.of());
+        assertThat(service.cargasNoAno(ANO)).containsKey(1L);
+
+        service.onIndicadoresAlterados(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.ALUNOS));
+        service.onIndicadoresAlterados(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.PROFESSORES));
+        assertThat(service.cargasNoAno(ANO)).containsKey(1L);
+
+        service.onIndicadoresAlterados(new IndicadoresAlteradosEvent(IndicadoresAlteradosEvent.Area.TURMAS));
+        assertThat(service.cargasNoAno(ANO)).isEmpty();
+        verify(repository, times(2)).somarCargaHoraria();
+    }
+
+    @Test
+    void totaisDevolvidosNaoSaoAlteraveis() {
+        when(repository.somarCargaHoraria()).thenReturn(List.of(new CargaHorariaDTO(1L, ANO, Turno.MANHA, 20)));
+
+        Map<Long, CargaHorariaProfessorDTO> doAno = service.cargasNoAno(ANO);
+
+        assertThat(doAno).isUnmodifiable();
+        assertThat(service.cargasNoAno(null)).isEmpty();
+    }
+}
@@ -0,0 +1,153 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.DuplicidadeAlunoDTO;
+import com.gestaoescolar.model.Aluno;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.PerfilUsuario;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Blocagem da detecção de duplicados: só são comparados alunos com a mesma data de nascimento
+ * (grupos grandes divididos pelo primeiro nome) ou com o mesmo primeiro e último nome e data
+ * quase igual. CPFs diferentes nunca formam par.
+ */
+@DataJpaTest(properties = "logging.level.org.hibernate=WARN")
+class DuplicidadeAlunoServiceTest {
+
+    private static final LocalDate DATA = LocalDate.of(2018, 3, 4);
+
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbc;
+
+    private DuplicidadeAlunoService service;
+
+    @BeforeEach
+    void criarServico() {
+        service = new DuplicidadeAlunoService(namedJdbc);
+    }
+
+    @Test
+    void mesmaDataComGrafiaDiferente() {
+        long a = aluno("Thiago Souza", DATA, null);
+        long b = aluno("Tiago de Sousa", DATA, null);
+
+        assertThat(service.detectarDuplicados(admin())).singleElement().satisfies(p -> {
+            assertThat(List.of(p.getAlunoId(), p.getOutroAlunoId())).containsExactlyInAnyOrder(a, b);
+            assertThat(p.getMotivo()).contains("mesma data de nascimento");
+        });
+    }
+
+    @Test
+    void mesmoNomeComDiaEMesTrocadosOuUmComponenteDiferente() {
+        aluno("Luiz Fernando Alves", LocalDate.of(2018, 3, 4), null);
+        aluno("Luis Fernando Alves", LocalDate.of(2018, 4, 3), null);
+        aluno("Renata Costa", LocalDate.of(2017, 5, 20), null);
+        aluno("Renata Costa", LocalDate.of(2016, 5, 20), null);
+
+        List<DuplicidadeAlunoDTO> pares = service.detectarDuplicados(admin());
+        assertThat(pares).hasSize(2).allSatisfy(p -> assertThat(p.getMotivo()).contains("data de nascimento parecida"));
+    }
+
+    @Test
+    void datasComDoisComponentesDiferentesNaoSaoComparadas() {
+        aluno("Marcos Paulo Reis", LocalDate.of(2017, 1, 10), null);
+        aluno("Marcos Paulo Reis", LocalDate.of(2016, 2, 10), null);
+
+        assertThat(service.detectarDuplicados(admin())).isEmpty();
+    }
+
+    @Test
+    void cpfsDiferentesNuncaFormamPar() {
+        aluno("Helena Martins", DATA, "52998224725");
+        aluno("Helena Martins", DATA, "11144477735");
+        aluno("Helena Martins", DATA, null);
+
+        // Só os pares em que um dos dois não tem CPF
+        assertThat(service.detectarDuplicados(admin())).hasSize(2);
+    }
+
+    @Test
+    void gemeosComPrimeiroNomeDiferenteNaoSaoApontados() {
+        aluno("Pedro Henrique Silva", DATA, null);
+        aluno("Paulo Henrique Silva", DATA, null);
+
+        assertThat(service.detectarDuplicados(admin())).isEmpty();
+    }
+
+    @Test
+    void grupoGrandeDaMesmaDataEhDivididoPeloPrimeiroNome() {
+        LocalDate padrao = LocalDate.of(2000, 1, 1);
+        // Data padrão de uma importação: 250 alunos sem relação entre si
+        Random r = new Random(7);
+        List<Object[]> importados = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            importados.add(new Object[]{palavra(r) + " " + palavra(r), padrao});
+        }
+        jdbc.batchUpdate("insert into aluno (ativo, nome_completo, data_nascimento) values (true, ?, ?)", importados);
+        long camila = aluno("Camila Rocha", padrao, null);
+        long kamila = aluno("Kamila Rocha", padrao, null);
+        // Parecidos o bastante para o par, mas o primeiro nome começa diferente: ficam em subgrupos separados
+        assertThat(SemelhancaNomes.semelhanca(SemelhancaNomes.palavras("Rafaela Nunes"), SemelhancaNomes.palavras("Hafaela Nunes")))
+                .isGreaterThanOrEqualTo(0.9);
+        aluno("Rafaela Nunes", padrao, null);
+        aluno("Hafaela Nunes", padrao, null);
+
+        assertThat(service.detectarDuplicados(admin())).singleElement()
+                .satisfies(p -> assertThat(List.of(p.getAlunoId(), p.getOutroAlunoId())).containsExactlyInAnyOrder(camila, kamila));
+    }
+
+    @Test
+    void avisoDoFormularioIgnoraOProprioAluno() {
+        long existente = aluno("Thiago Souza", DATA, null);
+
+        Aluno novo = new Aluno();
+        novo.setNomeCompleto("Tiago Sousa");
+        novo.setDataNascimento(DATA);
+        assertThat(service.possiveisDuplicados(novo, admin())).singleElement()
+                .extracting(DuplicidadeAlunoDTO::getOutroAlunoId).isEqualTo(existente);
+
+        Aluno mesmo = new Aluno();
+        mesmo.setId(existente);
+        mesmo.setNomeCompleto("Thiago Souza");
+        mesmo.setDataNascimento(DATA);
+        assertThat(service.possiveisDuplicados(mesmo, admin())).isEmpty();
+    }
+
+    @Test
+    void exigePerfilAdministrativo() {
+        assertThatThrownBy(() -> service.detectarDuplicados(null)).isInstanceOf(SecurityException.class);
+    }
+
+    private long aluno(String nome, LocalDate nascimento, String cpf) {
+        jdbc.update("insert into aluno (ativo, nome_completo, data_nascimento, cpf) values (true, ?, ?, ?)", nome, nascimento, cpf);
+        return jdbc.queryForObject("select max(id) from aluno", Long.class);
+    }
+
+    private static String palavra(Random r) {
+        char[] c = new char[8];
+        for (int i = 0; i < c.length; i++) c[i] = (char) ('a' + r.nextInt(26));
+        c[0] = Character.toUpperCase(c[0]);
+        return new String(c);
+    }
+
+    private static Usuario admin() {
+        Usuario u = new Usuario();
+        u.setPerfil(PerfilUsuario.DIRETOR);
+        return u;
+    }
+}
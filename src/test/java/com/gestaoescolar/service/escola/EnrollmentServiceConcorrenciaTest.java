@@ -0,0 +1,151 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Matricula;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.MatriculaStatus;
+import com.gestaoescolar.model.enums.PerfilUsuario;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.MatriculaRepository;
+import com.gestaoescolar.repository.TurmaRepository;
+import com.gestaoescolar.service.AnoLetivoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Matrículas simultâneas na mesma turma (H2, transações reais): o contador de vagas é reservado por
+ * UPDATE condicional e nunca pode ficar negativo nem divergir das matrículas ativas.
+ * Cerca de duas mil tentativas disputam as vagas por um pool limitado de threads (Java 17, sem
+ * threads virtuais), todas liberadas juntas por um latch de largada.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate=WARN")
+class EnrollmentServiceConcorrenciaTest {
+
+    private static final int CAPACIDADE = 30;
+    private static final int ALUNOS = 2000;
+    private static final int THREADS = 64;
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+    @Autowired
+    private AnoLetivoService anoLetivoService;
+    @Autowired
+    private TurmaService turmaService;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private TurmaRepository turmaRepository;
+    @Autowired
+    private MatriculaRepository matriculaRepository;
+
+    @Test
+    void matriculasSimultaneasNaoPassamDaCapacidade() throws Exception {
+        Usuario admin = admin();
+        AnoLetivo ano = anoLetivoService.save(new AnoLetivo(2040, LocalDate.of(2040, 2, 1), LocalDate.of(2040, 12, 15)));
+        Turma turma = new Turma("A", Serie.PRIMEIRO_ANO, Turno.MANHA, ano);
+        turma.setCapacidade(CAPACIDADE);
+        Long turmaId = turmaService.criarTurma(turma, admin).getId();
+        List<Long> alunos = criarAlunos();
+
+        // Leitor paralelo: o contador não pode ficar negativo em nenhum momento
+        AtomicBoolean rodando = new AtomicBoolean(true);
+        AtomicInteger menorVaga = new AtomicInteger(Integer.MAX_VALUE);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS + 1);
+        try {
+            Future<?> leitor = pool.submit(() -> {
+                while (rodando.get()) {
+                    menorVaga.accumulateAndGet(turmaRepository.findVagasDisponiveisById(turmaId), Math::min);
+                }
+            });
+
+            // Rodada 1: todos tentam a mesma turma ao mesmo tempo; só a capacidade entra
+            List<Matricula> aceitas = concorrer(pool, alunos.stream()
+                    .map(id -> (Callable<Matricula>) () -> enrollmentService.enrollStudent(id, turmaId, null, admin))
+                    .toList());
+            assertThat(aceitas).hasSize(CAPACIDADE);
+            assertThat(turmaRepository.findVagasDisponiveisById(turmaId)).isZero();
+            assertThat(matriculaRepository.countByTurmaIdAndStatus(turmaId, MatriculaStatus.ATIVA)).isEqualTo(CAPACIDADE);
+
+            // Rodada 2: cancelamentos e novas matrículas misturados
+            List<Callable<Matricula>> mistas = new ArrayList<>();
+            aceitas.subList(0, 10).forEach(m -> mistas.add(
+                    () -> enrollmentService.cancelEnrollment(m.getId(), null, "teste", admin)));
+            List<Long> matriculados = aceitas.stream().map(m -> m.getAluno().getId()).toList();
+            alunos.stream().filter(id -> !matriculados.contains(id)).limit(200).forEach(id -> mistas.add(
+                    () -> enrollmentService.enrollStudent(id, turmaId, null, admin)));
+            concorrer(pool, mistas);
+            assertConsistente(turmaId);
+
+            rodando.set(false);
+            leitor.get(30, TimeUnit.SECONDS);
+        } finally {
+            rodando.set(false);
+            pool.shutdownNow();
+        }
+        assertThat(menorVaga.get()).isGreaterThanOrEqualTo(0);
+    }
+
+    // Dispara as tarefas juntas; recusas por falta de vaga são esperadas, qualquer outro erro falha o teste
+    private static List<Matricula> concorrer(ExecutorService pool, List<Callable<Matricula>> tarefas) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Matricula>> futuros = new ArrayList<>();
+        for (Callable<Matricula> tarefa : tarefas) {
+            futuros.add(pool.submit(() -> {
+                largada.await();
+                try {
+                    return tarefa.call();
+                } catch (IllegalArgumentException ex) {
+                    assertThat(ex.getMessage()).contains("sem vagas");
+                    return null;
+                }
+            }));
+        }
+        largada.countDown();
+        List<Matricula> aceitas = new ArrayList<>();
+        for (Future<Matricula> f : futuros) {
+            Matricula m = f.get(120, TimeUnit.SECONDS);
+            if (m != null && m.getStatus() == MatriculaStatus.ATIVA) {
+                aceitas.add(m);
+            }
+        }
+        return aceitas;
+    }
+
+    private void assertConsistente(Long turmaId) {
+        long ativas = matriculaRepository.countByTurmaIdAndStatus(turmaId, MatriculaStatus.ATIVA);
+        Integer vagas = turmaRepository.findVagasDisponiveisById(turmaId);
+        assertThat(vagas).isNotNull().isGreaterThanOrEqualTo(0);
+        assertThat(vagas).isEqualTo(CAPACIDADE - ativas);
+    }
+
+    // Inseridos em lote: o teste é sobre a matrícula, não sobre o cadastro de alunos
+    private List<Long> criarAlunos() {
+        jdbc.update("insert into aluno (ativo, data_nascimento, nome_completo) "
+                + "select true, date '2015-01-01', 'Aluno Concorrente ' || x from system_range(1, ?)", ALUNOS);
+        return jdbc.queryForList("select id from aluno where nome_completo like 'Aluno Concorrente %' order by id", Long.class);
+    }
+
+    private static Usuario admin() {
+        Usuario u = new Usuario();
+        u.setPerfil(PerfilUsuario.DIRETOR);
+        return u;
+    }
+}
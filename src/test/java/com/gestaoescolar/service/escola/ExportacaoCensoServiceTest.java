@@ -0,0 +1,116 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.CensoAlunoDTO;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.PerfilUsuario;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.MatriculaRepository;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Arquivo do Censo escrito linha a linha a partir do cursor: registros 30 e 60 por matrícula, texto
+ * normalizado, progresso a cada mil matrículas e cursor fechado ao final.
+ */
+class ExportacaoCensoServiceTest {
+
+    private static final Long ANO = 3L;
+
+    private final MatriculaRepository repository = mock(MatriculaRepository.class);
+    private final ExportacaoCensoService service = new ExportacaoCensoService(repository, "35000001");
+
+    @Test
+    void registrosDaMatricula() throws Exception {
+        CensoAlunoDTO m = new CensoAlunoDTO(10L, "123.456.789-012", "120.56412.53-7", "529.982.247-25",
+                " José  da Conceição|Filho ", LocalDate.of(2015, 3, 9), Genero.MASCULINO, "Parda", "RG", "mg-12.345",
+                "01310-100", "Av. Paulista", "1000", "Apto\r\n12", "Bela Vista", "São Paulo", "sp",
+                99L, LocalDate.of(2032, 2, 1), "1A-2032", Serie.PRIMEIRO_ANO, Turno.MANHA);
+        when(repository.streamCensoAtivasNoAno(ANO)).thenReturn(List.of(m).stream());
+
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        long total = service.exportar(ANO, destino, admin(), null);
+
+        assertThat(total).isEqualTo(1);
+        assertThat(destino.toString(StandardCharsets.UTF_8)).isEqualTo(
+                "30|35000001|10|123456789012|52998224725|JOSE DA CONCEICAO FILHO|09/03/2015|1|3|12056412537|RG|MG-12.345"
+                        + "|01310100|AV. PAULISTA|1000|APTO 12|BELA VISTA|SAO PAULO|SP\r\n"
+                        + "60|35000001|10|123456789012|1A-2032|99|01/02/2032|1O ANO|MANHA\r\n");
+    }
+
+    @Test
+    void progressoACadaMilEFechaOCursor() throws Exception {
+        AtomicBoolean fechado = new AtomicBoolean();
+        when(repository.streamCensoAtivasNoAno(ANO)).thenReturn(LongStream.rangeClosed(1, 2500)
+                .mapToObj(ExportacaoCensoServiceTest::matricula)
+                .onClose(() -> fechado.set(true)));
+        List<Long> progresso = new ArrayList<>();
+
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        long total = service.exportar(ANO, destino, admin(), progresso::add);
+
+        assertThat(total).isEqualTo(2500);
+        assertThat(progresso).containsExactly(1000L, 2000L, 2500L);
+        assertThat(fechado).isTrue();
+        assertThat(destino.toString(StandardCharsets.UTF_8).split("\r\n")).hasSize(5000);
+    }
+
+    @Test
+    void corRacaEmTextoLivreOuCodigo() throws Exception {
+        List<String> informadas = List.of("Branca", "negra", "Indígena", "4", "não informado");
+        when(repository.streamCensoAtivasNoAno(ANO)).thenReturn(LongStream.range(0, informadas.size())
+                .mapToObj(i -> {
+                    CensoAlunoDTO m = matricula(i + 1);
+                    return new CensoAlunoDTO(m.getAlunoId(), null, null, null, "Aluno", null, null,
+                            informadas.get((int) i), null, null, null, null, null, null, null, null, null,
+                            m.getMatriculaId(), null, null, null, null);
+                }));
+
+        ByteArrayOutputStream destino = new ByteArrayOutputStream();
+        service.exportar(ANO, destino, admin(), null);
+
+        List<String> codigos = destino.toString(StandardCharsets.UTF_8).lines()
+                .filter(l -> l.startsWith("30|"))
+                .map(l -> l.split("\\|", -1)[8])
+                .toList();
+        assertThat(codigos).containsExactly("1", "2", "5", "4", "0");
+    }
+
+    @Test
+    void exportacaoRestritaAAdministracao() {
+        Usuario professor = new Usuario();
+        professor.setPerfil(PerfilUsuario.PROFESSOR);
+
+        assertThatThrownBy(() -> service.exportar(ANO, new ByteArrayOutputStream(), professor, null))
+                .isInstanceOf(SecurityException.class);
+        assertThatThrownBy(() -> service.exportar(null, new ByteArrayOutputStream(), admin(), null))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(repository);
+    }
+
+    private static CensoAlunoDTO matricula(long i) {
+        return new CensoAlunoDTO(i, null, null, null, "Aluno " + i, LocalDate.of(2015, 1, 1), Genero.FEMININO, null,
+                null, null, null, null, null, null, null, null, null, 1000 + i, LocalDate.of(2032, 2, 1), "1A",
+                Serie.PRIMEIRO_ANO, Turno.TARDE);
+    }
+
+    private static Usuario admin() {
+        Usuario u = new Usuario();
+        u.setPerfil(PerfilUsuario.DIRETOR);
+        return u;
+    }
+}
@@ -0,0 +1,118 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.PessoaBuscaResultadoDTO;
+import com.gestaoescolar.dto.PessoaNomeDTO;
+import com.gestaoescolar.model.enums.TipoPessoa;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca de pessoas por trigramas: acentos e maiúsculas não importam, erros de digitação custam só
+ * relevância, o trecho exato vem primeiro e alterações/remoções (inclusive depois da compactação)
+ * não deixam nomes antigos no resultado.
+ */
+class IndiceTrigramasTest {
+
+    private final IndiceTrigramas indice = new IndiceTrigramas();
+
+    @Test
+    void ignoraAcentosNosDoisSentidos() {
+        indice.recriar(Map.of(
+                TipoPessoa.ALUNO, List.of(new PessoaNomeDTO(1L, "João da Silva"), new PessoaNomeDTO(2L, "Joao Pedro Araujo")),
+                TipoPessoa.PROFESSOR, List.of(new PessoaNomeDTO(3L, "Márcia Conceição"))));
+
+        assertThat(ids(indice.buscar("joao", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(indice.buscar("JOÃO", 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(indice.buscar("araújo", 10))).containsExactly(2L);
+        assertThat(indice.buscar("marcia conceicao", 10)).singleElement()
+                .satisfies(r -> {
+                    assertThat(r.getTipo()).isEqualTo(TipoPessoa.PROFESSOR);
+                    assertThat(r.getNome()).isEqualTo("Márcia Conceição");
+                });
+    }
+
+    @Test
+    void toleraErroDeDigitacao() {
+        indice.recriar(Map.of(TipoPessoa.ALUNO, List.of(
+                new PessoaNomeDTO(1L, "Mariana Souza"), new PessoaNomeDTO(2L, "Roberto Carlos"))));
+
+        assertThat(ids(indice.buscar("mariana sousa", 10))).containsExactly(1L);
+        assertThat(ids(indice.buscar("robeto", 10))).containsExactly(2L);
+        assertThat(indice.buscar("xyzw", 10)).isEmpty();
+    }
+
+    @Test
+    void trechoExatoVemPrimeiroERespeitaOLimite() {
+        indice.recriar(Map.of(TipoPessoa.ALUNO, List.of(
+                new PessoaNomeDTO(1L, "Mariana Souza"),
+                new PessoaNomeDTO(2L, "Ana Maria Souza"),
+                new PessoaNomeDTO(3L, "Ana Mara Lima"),
+                new PessoaNomeDTO(4L, "Anabela Maria"))));
+
+        List<PessoaBuscaResultadoDTO> r = indice.buscar("ana maria", 10);
+        assertThat(r.get(0).getId()).isEqualTo(2L);
+        assertThat(r).extracting(PessoaBuscaResultadoDTO::getRelevancia).isSortedAccordingTo((a, b) -> Double.compare(b, a));
+
+        assertThat(indice.buscar("ana maria", 2)).hasSize(2).first().extracting(PessoaBuscaResultadoDTO::getId).isEqualTo(2L);
+    }
+
+    @Test
+    void nomeSocialEhBuscadoEExibidoComONomeCivil() {
+        indice.recriar(Map.of(TipoPessoa.ALUNO, List.of(new PessoaNomeDTO(1L, "Carlos Eduardo Lima", "Duda Lima"))));
+
+        assertThat(indice.buscar("duda", 10)).singleElement()
+                .extracting(PessoaBuscaResultadoDTO::getNome).isEqualTo("Duda Lima (Carlos Eduardo Lima)");
+        assertThat(ids(indice.buscar("carlos eduardo", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void alteracaoERemocaoInvalidamONomeAntigo() {
+        indice.recriar(Map.of(TipoPessoa.ALUNO, List.of(new PessoaNomeDTO(1L, "Beatriz Nogueira"))));
+
+        indice.atualizar(TipoPessoa.ALUNO, new PessoaNomeDTO(1L, "Beatriz Fontes"));
+        assertThat(indice.buscar("nogueira", 10)).isEmpty();
+        assertThat(ids(indice.buscar("fontes", 10))).containsExactly(1L);
+        assertThat(indice.tamanho()).isEqualTo(1);
+
+        // Mesmo id em outro tipo é outra pessoa
+        indice.atualizar(TipoPessoa.RESPONSAVEL, new PessoaNomeDTO(1L, "Beatriz Fontes"));
+        indice.remover(TipoPessoa.ALUNO, 1L);
+        assertThat(indice.buscar("beatriz fontes", 10)).singleElement()
+                .extracting(PessoaBuscaResultadoDTO::getTipo).isEqualTo(TipoPessoa.RESPONSAVEL);
+        assertThat(indice.tamanho()).isEqualTo(1);
+    }
+
+    @Test
+    void compactacaoMantemOsVivosEAsPosicoes() {
+        List<PessoaNomeDTO> alunos = new ArrayList<>();
+        for (long i = 1; i <= 4000; i++) {
+            alunos.add(new PessoaNomeDTO(i, "Aluno " + i + " Sobrenome" + (i % 97)));
+        }
+        indice.recriar(Map.of(TipoPessoa.ALUNO, alunos));
+
+        // Mais de um quarto das posições invalidadas (e ao menos 1024) dispara a compactação
+        for (long i = 1; i <= 1500; i++) {
+            indice.remover(TipoPessoa.ALUNO, i);
+        }
+        assertThat(indice.tamanho()).isEqualTo(2500);
+        assertThat(indice.buscar("aluno 1234 ", 5)).extracting(PessoaBuscaResultadoDTO::getId).doesNotContain(1234L);
+        assertThat(indice.buscar("aluno 3210", 1)).extracting(PessoaBuscaResultadoDTO::getId).containsExactly(3210L);
+
+        // As posições remapeadas continuam certas para alterar e remover
+        indice.atualizar(TipoPessoa.ALUNO, new PessoaNomeDTO(3210L, "Ximena Quiroga"));
+        assertThat(ids(indice.buscar("ximena", 5))).containsExactly(3210L);
+        assertThat(indice.buscar("aluno 3210", 1)).extracting(PessoaBuscaResultadoDTO::getId).doesNotContain(3210L);
+        indice.remover(TipoPessoa.ALUNO, 3210L);
+        assertThat(indice.buscar("ximena", 5)).isEmpty();
+        assertThat(indice.tamanho()).isEqualTo(2499);
+    }
+
+    private static List<Long> ids(List<PessoaBuscaResultadoDTO> r) {
+        return r.stream().map(PessoaBuscaResultadoDTO::getId).toList();
+    }
+}
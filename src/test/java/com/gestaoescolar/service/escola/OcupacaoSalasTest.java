@@ -0,0 +1,100 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.TurmaRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Troca de sala dentro de transação: a sala antiga continua da turma até a confirmação, para que
+ * outra edição não a tome e o rollback não termine com duas turmas na mesma sala.
+ */
+class OcupacaoSalasTest {
+
+    private final AnoLetivo ano = anoLetivo();
+    private final OcupacaoSalas ocupacao = new OcupacaoSalas(mock(TurmaRepository.class));
+
+    @AfterEach
+    void limparTransacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void salaAntigaSoEhLiberadaNaConfirmacao() {
+        ocupacao.reservar(turma(1L, "101", Turno.MANHA));
+
+        iniciarTransacao();
+        ocupacao.reservar(turma(1L, "102", Turno.MANHA));
+        assertThatThrownBy(() -> ocupacao.reservar(turma(2L, "101", Turno.MANHA)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("já está ocupada");
+        concluirTransacao(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(ocupacao.ocupante("101", Turno.MANHA, ano.getId(), null)).isEmpty();
+        assertThat(ocupacao.ocupante("102", Turno.MANHA, ano.getId(), null)).get()
+                .extracting(OcupacaoSalas.Ocupante::turmaId).isEqualTo(1L);
+        ocupacao.reservar(turma(2L, "101", Turno.MANHA));
+    }
+
+    @Test
+    void rollbackDevolveSalaAntigaELiberaANova() {
+        ocupacao.reservar(turma(1L, "101", Turno.MANHA));
+
+        iniciarTransacao();
+        ocupacao.reservar(turma(1L, "102", Turno.INTEGRAL));
+        concluirTransacao(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(ocupacao.ocupante("101", Turno.MANHA, ano.getId(), null)).get()
+                .extracting(OcupacaoSalas.Ocupante::turno).isEqualTo(Turno.MANHA);
+        assertThat(ocupacao.ocupante("102", Turno.INTEGRAL, ano.getId(), null)).isEmpty();
+    }
+
+    @Test
+    void desativacaoSoLiberaNaConfirmacao() {
+        ocupacao.reservar(turma(1L, "101", Turno.TARDE));
+
+        iniciarTransacao();
+        ocupacao.liberar(1L);
+        assertThat(ocupacao.ocupante("101", Turno.TARDE, ano.getId(), null)).isPresent();
+        concluirTransacao(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(ocupacao.ocupante("101", Turno.TARDE, ano.getId(), null)).isEmpty();
+    }
+
+    private static void iniciarTransacao() {
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    private static void concluirTransacao(int status) {
+        var sincronizacoes = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        sincronizacoes.forEach(s -> s.afterCompletion(status));
+    }
+
+    private Turma turma(Long id, String sala, Turno turno) {
+        Turma t = new Turma("A", Serie.PRIMEIRO_ANO, turno, ano);
+        t.setId(id);
+        t.setSala(sala);
+        t.setAtiva(true);
+        return t;
+    }
+
+    private static AnoLetivo anoLetivo() {
+        AnoLetivo a = new AnoLetivo(2041, LocalDate.of(2041, 2, 1), LocalDate.of(2041, 12, 15));
+        a.setId(99L);
+        return a;
+    }
+}
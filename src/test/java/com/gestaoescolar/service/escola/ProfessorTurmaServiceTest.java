@@ -0,0 +1,162 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.AtribuicaoLoteResultadoDTO;
+import com.gestaoescolar.dto.AtribuicaoProfessorDTO;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Professor;
+import com.gestaoescolar.model.ProfessorTurma;
+import com.gestaoescolar.model.ProfessorTurma.Papel;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.AnoLetivoRepository;
+import com.gestaoescolar.repository.ProfessorRepository;
+import com.gestaoescolar.repository.ProfessorTurmaRepository;
+import com.gestaoescolar.repository.TurmaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Conflitos de período das atribuições de professor, resolvidos por consulta de intervalo no banco:
+ * períodos que se tocam num dia conflitam, data nula é período aberto, o próprio vínculo em
+ * atualização é ignorado e o lote compara as linhas entre si.
+ */
+@DataJpaTest(properties = "logging.level.org.hibernate=WARN")
+@Import(ProfessorTurmaService.class)
+class ProfessorTurmaServiceTest {
+
+    private static final LocalDate FEV = LocalDate.of(2031, 2, 1);
+    private static final LocalDate JUN = LocalDate.of(2031, 6, 30);
+    private static final LocalDate JUL = LocalDate.of(2031, 7, 1);
+    private static final LocalDate DEZ = LocalDate.of(2031, 12, 15);
+
+    @Autowired
+    private ProfessorTurmaService service;
+    @Autowired
+    private ProfessorTurmaRepository repo;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private TurmaRepository turmaRepository;
+    @Autowired
+    private AnoLetivoRepository anoLetivoRepository;
+
+    private Turma turma;
+    private Professor ana;
+    private Professor bruno;
+    private Professor carla;
+
+    @BeforeEach
+    void popular() {
+        AnoLetivo ano = anoLetivoRepository.save(new AnoLetivo(2031, FEV, DEZ));
+        turma = turmaRepository.save(new Turma("A", Serie.PRIMEIRO_ANO, Turno.MANHA, ano));
+        ana = professor(1);
+        bruno = professor(2);
+        carla = professor(3);
+    }
+
+    @Test
+    void titularComPeriodoFechado() {
+        ProfessorTurma titular = service.assignProfessorToTurma(ana.getId(), turma.getId(), Papel.TITULAR, null, FEV, JUN);
+        Long t = turma.getId();
+
+        assertThat(repo.existeTitularNoPeriodo(t, null, JUL, DEZ)).isFalse();                     // logo depois
+        assertThat(repo.existeTitularNoPeriodo(t, null, JUN, DEZ)).isTrue();                      // mesmo dia do fim
+        assertThat(repo.existeTitularNoPeriodo(t, null, null, FEV.minusDays(1))).isFalse();       // antes, início aberto
+        assertThat(repo.existeTitularNoPeriodo(t, null, null, FEV)).isTrue();
+        assertThat(repo.existeTitularNoPeriodo(t, null, LocalDate.of(2031, 3, 1), null)).isTrue(); // fim aberto
+        assertThat(repo.existeTitularNoPeriodo(t, null, null, null)).isTrue();
+        assertThat(repo.existeTitularNoPeriodo(t, titular.getId(), FEV, JUN)).isFalse();         // o próprio vínculo
+    }
+
+    @Test
+    void titularSemTerminoConflitaComQualquerPeriodoPosterior() {
+        service.assignProfessorToTurma(ana.getId(), turma.getId(), Papel.TITULAR, null, FEV, null);
+
+        assertThat(repo.existeTitularNoPeriodo(turma.getId(), null, LocalDate.of(2040, 1, 1), LocalDate.of(2040, 12, 1))).isTrue();
+        assertThat(repo.existeTitularNoPeriodo(turma.getId(), null, LocalDate.of(2030, 1, 1), FEV.minusDays(1))).isFalse();
+    }
+
+    @Test
+    void segundoTitularSoForaDoPeriodo() {
+        service.assignProfessorToTurma(ana.getId(), turma.getId(), Papel.TITULAR, null, FEV, JUN);
+
+        assertThatThrownBy(() -> service.assignProfessorToTurma(bruno.getId(), turma.getId(), Papel.TITULAR, null, JUN, DEZ))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("titular");
+        service.assignProfessorToTurma(bruno.getId(), turma.getId(), Papel.TITULAR, null, JUL, DEZ);
+        // Outros papéis não disputam a titularidade
+        service.assignProfessorToTurma(carla.getId(), turma.getId(), Papel.COORDENADOR, null, FEV, DEZ);
+
+        // Atualizar o próprio vínculo não conflita com ele mesmo
+        service.assignProfessorToTurma(ana.getId(), turma.getId(), Papel.TITULAR, null, FEV, JUN.minusDays(10));
+        assertThat(repo.findByTurmaId(turma.getId())).hasSize(3);
+    }
+
+    @Test
+    void disciplinaNoMesmoPeriodoIgnoraMaiusculasEEspacos() {
+        ProfessorTurma pt = service.assignProfessorToTurma(ana.getId(), turma.getId(), Papel.SUBSTITUTO, " Matemática ", FEV, JUN);
+
+        assertThat(repo.existeDisciplinaNoPeriodo(ana.getId(), turma.getId(), "matemática", null, JUN, DEZ)).isTrue();
+        assertThat(repo.existeDisciplinaNoPeriodo(ana.getId(), turma.getId(), "matemática", null, JUL, DEZ)).isFalse();
+        assertThat(repo.existeDisciplinaNoPeriodo(ana.getId(), turma.getId(), "português", null, FEV, JUN)).isFalse();
+        assertThat(repo.existeDisciplinaNoPeriodo(ana.getId(), turma.getId(), "matemática", pt.getId(), FEV, JUN)).isFalse();
+    }
+
+    @Test
+    void loteComparaComOBancoEComAsLinhasJaAceitas() {
+        Turma outra = turmaRepository.save(new Turma("B", Serie.PRIMEIRO_ANO, Turno.TARDE, turma.getAnoLetivo()));
+        service.assignProfessorToTurma(ana.getId(), outra.getId(), Papel.TITULAR, null, FEV, null);
+
+        List<AtribuicaoLoteResultadoDTO> r = service.assignProfessorsToTurmas(List.of(
+                new AtribuicaoProfessorDTO(bruno.getId(), turma.getId(), Papel.TITULAR, null, FEV, JUN),
+                new AtribuicaoProfessorDTO(carla.getId(), turma.getId(), Papel.TITULAR, null, JUN, DEZ),   // choca com a linha 1
+                new AtribuicaoProfessorDTO(carla.getId(), outra.getId(), Papel.TITULAR, null, JUL, DEZ),   // choca com o banco
+                new AtribuicaoProfessorDTO(bruno.getId(), turma.getId(), Papel.COORDENADOR, null, FEV, JUN), // repetida no lote
+                new AtribuicaoProfessorDTO(ana.getId(), turma.getId(), Papel.TITULAR, null, DEZ, JUL),     // datas invertidas
+                new AtribuicaoProfessorDTO(ana.getId(), turma.getId(), Papel.TITULAR, null, JUL, DEZ)));
+
+        assertThat(r).extracting(AtribuicaoLoteResultadoDTO::isAtribuido)
+                .containsExactly(true, false, false, false, false, true);
+        assertThat(r.get(1).getMensagem()).contains("titular");
+        assertThat(r.get(2).getMensagem()).contains("titular");
+        assertThat(r.get(3).getMensagem()).contains("neste lote");
+        assertThat(r.get(4).getMensagem()).contains("Data de início");
+        assertThat(repo.findByTurmaId(turma.getId())).hasSize(2);
+    }
+
+    @Test
+    void professorInativoNaoEhAtribuido() {
+        bruno.setAtivo(false);
+        professorRepository.save(bruno);
+
+        assertThatThrownBy(() -> service.assignProfessorToTurma(bruno.getId(), turma.getId(), Papel.TITULAR, null, FEV, JUN))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("inativo");
+    }
+
+    private Professor professor(int i) {
+        Professor p = new Professor();
+        p.setNomeCompleto("Professor Periodo " + i);
+        p.setCpf(String.format("%011d", 30000000000L + i));
+        p.setRg("RG-PER-" + i);
+        p.setEmail("periodo" + i + "@escola.com");
+        p.setTelefone("(11) 99999-0000");
+        p.setDataNascimento(LocalDate.of(1980, 1, 1));
+        p.setGenero(Genero.FEMININO);
+        p.setDataAdmissao(LocalDate.of(2020, 1, 1));
+        p.setFormacao(FormacaoAcademica.values()[0]);
+        return professorRepository.save(p);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.enums.Turno;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca local do quadro de horários em instâncias pequenas e viáveis: termina sem conflitos, com as
+ * aulas dentro do turno da turma, e mantém um horário anterior que já está sem conflitos.
+ */
+class QuadroHorariosSolverTest {
+
+    private static final long PRAZO_MS = 10_000;
+
+    private final ForkJoinPool pool = new ForkJoinPool(2);
+
+    @AfterEach
+    void encerrarPool() {
+        pool.shutdownNow();
+    }
+
+    // 4 turmas da manhã com a semana cheia (25 aulas) e 5 professores, cada um em 20 dos 25 slots
+    @Test
+    void semanaCheiaSemConflitos() {
+        int turmas = 4;
+        int aulas = turmas * 25;
+        int[] turmaDe = new int[aulas];
+        int[] ofertaDe = new int[aulas];
+        int[] professorDe = new int[aulas];
+        int[] salaDe = new int[aulas];
+        for (int l = 0; l < aulas; l++) {
+            int t = l / 25;
+            int k = (l % 25) / 5;
+            turmaDe[l] = t;
+            ofertaDe[l] = t * 5 + k;
+            professorDe[l] = (t + k) % 5;
+            salaDe[l] = t;
+        }
+        Turno[] turnos = new Turno[turmas];
+        Arrays.fill(turnos, Turno.MANHA);
+
+        QuadroHorariosSolver.Resultado r = new QuadroHorariosSolver(turmaDe, ofertaDe, professorDe, salaDe,
+                semAnterior(aulas), turnos).resolver(PRAZO_MS, pool);
+
+        assertThat(r.conflitos).isZero();
+        assertThat(conflitos(r.slots, turmaDe, professorDe, salaDe)).isZero();
+        assertThat(Arrays.stream(r.slots)).allMatch(s -> dentroDoTurno(s, Turno.MANHA));
+    }
+
+    // Mesmo professor na manhã e na tarde: os turnos não se sobrepõem, então não há choque entre eles
+    @Test
+    void turnosDiferentesNaoDisputamSlots() {
+        int[] turmaDe = new int[20];
+        int[] ofertaDe = new int[20];
+        int[] professorDe = new int[20];
+        int[] salaDe = new int[20];
+        for (int l = 0; l < 20; l++) {
+            turmaDe[l] = l / 10;
+            ofertaDe[l] = l / 5;
+            professorDe[l] = (l / 5) % 2;
+            salaDe[l] = 0;
+        }
+        Turno[] turnos = {Turno.MANHA, Turno.TARDE};
+
+        QuadroHorariosSolver.Resultado r = new QuadroHorariosSolver(turmaDe, ofertaDe, professorDe, salaDe,
+                semAnterior(20), turnos).resolver(PRAZO_MS, pool);
+
+        assertThat(r.conflitos).isZero();
+        assertThat(conflitos(r.slots, turmaDe, professorDe, salaDe)).isZero();
+        for (int l = 0; l < 20; l++) {
+            assertThat(dentroDoTurno(r.slots[l], turnos[turmaDe[l]])).isTrue();
+        }
+    }
+
+    // Melhoria incremental: sem conflitos no horário anterior, nenhuma aula precisa sair do lugar
+    @Test
+    void horarioAnteriorSemConflitosEhMantido() {
+        int[] turmaDe = new int[5];
+        int[] ofertaDe = {0, 1, 2, 3, 4};
+        int[] professorDe = {0, 1, 2, 3, 4};
+        int[] salaDe = new int[5];
+        int[] anterior = new int[5];
+        for (int d = 0; d < 5; d++) {
+            anterior[d] = d * HorarioSemanal.AULAS_POR_DIA;
+        }
+
+        QuadroHorariosSolver.Resultado r = new QuadroHorariosSolver(turmaDe, ofertaDe, professorDe, salaDe,
+                anterior, new Turno[]{Turno.MANHA}).resolver(PRAZO_MS, pool);
+
+        assertThat(r.conflitos).isZero();
+        assertThat(r.penalidade).isZero();
+        assertThat(r.slots).containsExactly(anterior);
+    }
+
+    // Contagem independente da do solver: pares (turma, slot), (professor, slot) e (sala, slot) repetidos
+    private static int conflitos(int[] slots, int[] turmaDe, int[] professorDe, int[] salaDe) {
+        Set<Long> turmas = new HashSet<>();
+        Set<Long> professores = new HashSet<>();
+        Set<Long> salas = new HashSet<>();
+        int total = 0;
+        for (int l = 0; l < slots.length; l++) {
+            if (!turmas.add((long) turmaDe[l] * HorarioSemanal.SLOTS + slots[l])) {
+                total++;
+            }
+            if (professorDe[l] >= 0 && !professores.add((long) professorDe[l] * HorarioSemanal.SLOTS + slots[l])) {
+                total++;
+            }
+            if (salaDe[l] >= 0 && !salas.add((long) salaDe[l] * HorarioSemanal.SLOTS + slots[l])) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    private static boolean dentroDoTurno(int slot, Turno turno) {
+        int aula = slot % HorarioSemanal.AULAS_POR_DIA - HorarioSemanal.primeiraAula(turno);
+        return aula >= 0 && aula < HorarioSemanal.aulasNoTurno(turno);
+    }
+
+    private static int[] semAnterior(int aulas) {
+        int[] anterior = new int[aulas];
+        Arrays.fill(anterior, -1);
+        return anterior;
+    }
+}
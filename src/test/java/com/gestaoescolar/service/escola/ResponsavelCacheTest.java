@@ -0,0 +1,90 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.Responsavel;
+import com.gestaoescolar.model.enums.TipoPessoa;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de responsáveis por CPF usado no preenchimento automático: devolve cópias, mantém só os
+ * mais recentes e descarta a entrada quando o responsável é gravado.
+ */
+class ResponsavelCacheTest {
+
+    private final ResponsavelCache cache = new ResponsavelCache();
+
+    @Test
+    void devolveCopiaIndependente() {
+        Responsavel original = responsavel(1L, "52998224725");
+        cache.guardar(original);
+        original.setNome("Alterado depois de guardar");
+
+        Responsavel lido = cache.buscar("52998224725").orElseThrow();
+        lido.setTelefone1("(11) 90000-0000");
+
+        assertThat(lido.getNome()).isEqualTo("Responsável 1");
+        assertThat(cache.buscar("52998224725").orElseThrow().getTelefone1()).isEqualTo("(11) 99999-0001");
+        assertThat(cache.buscar("11144477735")).isEmpty();
+    }
+
+    @Test
+    void semCpfNaoEhGuardado() {
+        cache.guardar(responsavel(1L, null));
+
+        assertThat(cache.buscar(null)).isEmpty();
+    }
+
+    // Capacidade de mil entradas: a menos usada recentemente sai primeiro
+    @Test
+    void descartaOMenosUsadoRecentemente() {
+        for (long i = 0; i < 1000; i++) {
+            cache.guardar(responsavel(i, cpf(i)));
+        }
+        cache.buscar(cpf(0));
+        cache.guardar(responsavel(1000L, cpf(1000)));
+
+        assertThat(cache.buscar(cpf(0))).isPresent();
+        assertThat(cache.buscar(cpf(1))).isEmpty();
+        assertThat(cache.buscar(cpf(1000))).isPresent();
+    }
+
+    @Test
+    void gravacaoDoResponsavelDescartaAEntrada() {
+        cache.guardar(responsavel(1L, cpf(1)));
+        cache.guardar(responsavel(2L, cpf(2)));
+
+        cache.onPessoaAlterada(new PessoaAlteradaEvent(TipoPessoa.ALUNO, 1L));
+        assertThat(cache.buscar(cpf(1))).isPresent();
+
+        cache.onPessoaAlterada(new PessoaAlteradaEvent(TipoPessoa.RESPONSAVEL, 1L));
+        assertThat(cache.buscar(cpf(1))).isEmpty();
+        assertThat(cache.buscar(cpf(2))).isPresent();
+    }
+
+    @Test
+    void importacaoDescartaOsCpfsGravados() {
+        cache.guardar(responsavel(1L, cpf(1)));
+        cache.guardar(responsavel(2L, cpf(2)));
+
+        cache.descartar(List.of(cpf(2), cpf(3)));
+
+        assertThat(cache.buscar(cpf(1))).isPresent();
+        assertThat(cache.buscar(cpf(2))).isEmpty();
+    }
+
+    private static String cpf(long i) {
+        return String.format("%011d", 50000000000L + i);
+    }
+
+    private static Responsavel responsavel(Long id, String cpf) {
+        Responsavel r = new Responsavel();
+        r.setId(id);
+        r.setNome("Responsável " + id);
+        r.setCpf(cpf);
+        r.setTelefone1(String.format("(11) 99999-%04d", id));
+        return r;
+    }
+}
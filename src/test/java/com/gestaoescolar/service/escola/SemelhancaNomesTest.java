@@ -0,0 +1,58 @@
+package com.gestaoescolar.service.escola;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Grafias diferentes do mesmo nome ficam iguais (ou quase) depois da fonética; primeiros nomes
+ * diferentes com o mesmo sobrenome (gêmeos) ficam abaixo do limiar de duplicidade.
+ */
+class SemelhancaNomesTest {
+
+    private static final double LIMIAR = 0.9;
+
+    @Test
+    void foneticaIgualaGrafiasComuns() {
+        assertThat(SemelhancaNomes.fonetica("thiago")).isEqualTo(SemelhancaNomes.fonetica("tiago"));
+        assertThat(SemelhancaNomes.fonetica("luiz")).isEqualTo(SemelhancaNomes.fonetica("luis"));
+        assertThat(SemelhancaNomes.fonetica("ludmilla")).isEqualTo(SemelhancaNomes.fonetica("ludmila"));
+        assertThat(SemelhancaNomes.fonetica("philipe")).isEqualTo(SemelhancaNomes.fonetica("filipe"));
+        assertThat(SemelhancaNomes.fonetica("kamila")).isEqualTo(SemelhancaNomes.fonetica("camila"));
+        assertThat(SemelhancaNomes.fonetica("souza")).isEqualTo(SemelhancaNomes.fonetica("sousa"));
+    }
+
+    @Test
+    void palavrasSemConectivosEAcentos() {
+        assertThat(SemelhancaNomes.palavras("João da Silva e Souza"))
+                .containsExactly(SemelhancaNomes.fonetica("joao"), SemelhancaNomes.fonetica("silva"), SemelhancaNomes.fonetica("souza"));
+        assertThat(SemelhancaNomes.palavras("  ")).isEmpty();
+        assertThat(SemelhancaNomes.chave(SemelhancaNomes.palavras("Thiago Lima de Souza")))
+                .isEqualTo(SemelhancaNomes.chave(SemelhancaNomes.palavras("Tiago Sousa")));
+    }
+
+    @Test
+    void mesmoNomeComGrafiaOuSobrenomeDiferenteFicaAcimaDoLimiar() {
+        assertThat(semelhanca("Thiago Souza", "Tiago de Sousa")).isEqualTo(1.0);
+        assertThat(semelhanca("Ana Clara Souza", "Ana Clara Souza Lima")).isGreaterThanOrEqualTo(LIMIAR);
+        assertThat(semelhanca("Gabriela Fernandes", "Gabriella Fernandez")).isGreaterThanOrEqualTo(LIMIAR);
+    }
+
+    @Test
+    void primeirosNomesDiferentesFicamAbaixoDoLimiar() {
+        assertThat(semelhanca("Pedro Henrique Silva", "Paulo Henrique Silva")).isLessThan(LIMIAR);
+        assertThat(semelhanca("Maria Souza", "Joana Souza")).isLessThan(LIMIAR);
+        assertThat(semelhanca("", "Maria Souza")).isZero();
+    }
+
+    @Test
+    void jaroWinklerFavorecePrefixoComum() {
+        assertThat(SemelhancaNomes.jaroWinkler("martha", "marhta")).isCloseTo(0.961, org.assertj.core.data.Offset.offset(0.001));
+        assertThat(SemelhancaNomes.jaroWinkler("abc", "xyz")).isZero();
+        assertThat(SemelhancaNomes.jaroWinkler("igual", "igual")).isEqualTo(1.0);
+    }
+
+    private static double semelhanca(String a, String b) {
+        return SemelhancaNomes.semelhanca(SemelhancaNomes.palavras(a), SemelhancaNomes.palavras(b));
+    }
+}
@@ -0,0 +1,210 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.SubstitutoCandidatoDTO;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Disciplina;
+import com.gestaoescolar.model.HorarioAula;
+import com.gestaoescolar.model.Professor;
+import com.gestaoescolar.model.ProfessorTurma.Papel;
+import com.gestaoescolar.model.ProfessorTurmaDisciplina;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.TurmaDisciplina;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.PerfilUsuario;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.AnoLetivoRepository;
+import com.gestaoescolar.repository.DisciplinaRepository;
+import com.gestaoescolar.repository.HorarioAulaRepository;
+import com.gestaoescolar.repository.ProfessorRepository;
+import com.gestaoescolar.repository.ProfessorTurmaDisciplinaRepository;
+import com.gestaoescolar.repository.TurmaDisciplinaRepository;
+import com.gestaoescolar.repository.TurmaRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Filtro de substitutos pelas agendas em mapa de bits: choque com aula do quadro, vínculo com datas
+ * só nos dias vigentes, professor sem habilitação, ordem dos candidatos e descarte da agenda.
+ */
+@DataJpaTest(properties = "logging.level.org.hibernate=WARN")
+@Import({SubstituicaoService.class, ProfessorTurmaService.class})
+class SubstituicaoServiceTest {
+
+    private static final LocalDate SEGUNDA = LocalDate.of(2032, 3, 1);
+    private static final LocalDate SEXTA = LocalDate.of(2032, 3, 5);
+    private static final LocalDate SEGUNDA_SEGUINTE = LocalDate.of(2032, 3, 8);
+
+    @Autowired
+    private SubstituicaoService service;
+    @Autowired
+    private AnoLetivoRepository anoLetivoRepository;
+    @Autowired
+    private TurmaRepository turmaRepository;
+    @Autowired
+    private DisciplinaRepository disciplinaRepository;
+    @Autowired
+    private TurmaDisciplinaRepository turmaDisciplinaRepository;
+    @Autowired
+    private ProfessorTurmaDisciplinaRepository professorTurmaDisciplinaRepository;
+    @Autowired
+    private HorarioAulaRepository horarioAulaRepository;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private ProfessorTurmaService professorTurmaService;
+
+    private Turma turmaA;
+    private Turma turmaB;
+    private Disciplina matematica;
+    private Professor ana;      // titular de Matemática na turma A
+    private Professor bruno;    // História na turma B, segunda 1ª aula
+    private Professor carla;    // História na turma B, terça 1ª aula; especialista em Matemática
+    private Professor dani;     // sem aulas no quadro
+    private Professor edu;      // só ensino médio
+
+    @BeforeEach
+    void popular() {
+        AnoLetivo ano = anoLetivoRepository.save(new AnoLetivo(2032, LocalDate.of(2032, 2, 1), LocalDate.of(2032, 12, 15)));
+        turmaA = turmaRepository.save(new Turma("A", Serie.PRIMEIRO_ANO, Turno.MANHA, ano));
+        turmaB = turmaRepository.save(new Turma("B", Serie.PRIMEIRO_ANO, Turno.MANHA, ano));
+        matematica = disciplina("MAT-SUB", "Matemática");
+        Disciplina historia = disciplina("HIS-SUB", "História");
+
+        ana = professor(1, FormacaoAcademica.GRADUACAO_COMPLETA, null);
+        bruno = professor(2, FormacaoAcademica.MESTRADO, null);
+        carla = professor(3, FormacaoAcademica.GRADUACAO_COMPLETA, "Ensino de Matemática");
+        dani = professor(4, FormacaoAcademica.ESPECIALIZACAO, null);
+        edu = professor(5, FormacaoAcademica.ENSINO_MEDIO, null);
+
+        TurmaDisciplina matematicaA = oferta(turmaA, matematica, ana);
+        aula(matematicaA, ana, DayOfWeek.MONDAY, 1);
+        aula(matematicaA, ana, DayOfWeek.WEDNESDAY, 2);
+        TurmaDisciplina historiaB = oferta(turmaB, historia, null);
+        aula(historiaB, bruno, DayOfWeek.MONDAY, 1);
+        aula(historiaB, carla, DayOfWeek.TUESDAY, 1);
+    }
+
+    @Test
+    void aulaNoMesmoSlotExcluiOProfessor() {
+        assertThat(ids(buscar(SEGUNDA, null))).containsExactly(carla.getId(), dani.getId());
+        // Quarta a 2ª aula de Matemática não choca com a História de Bruno
+        assertThat(ids(buscar(SEGUNDA.plusDays(2), null))).contains(bruno.getId());
+    }
+
+    @Test
+    void semHabilitacaoOuComVinculoNaTurmaNaoEntra() {
+        List<Long> candidatos = ids(buscar(SEGUNDA, SEXTA));
+
+        assertThat(candidatos).doesNotContain(ana.getId(), edu.getId());
+        // Especialização na disciplina vem antes de formação maior
+        assertThat(candidatos.get(0)).isEqualTo(carla.getId());
+    }
+
+    @Test
+    void vinculoComDatasSoOcupaOsDiasVigentes() {
+        professorTurmaService.assignProfessorToTurma(dani.getId(), turmaB.getId(), Papel.SUBSTITUTO, "História",
+                SEGUNDA, SEXTA);
+        service.onAgendaProfessoresAlterada(null);
+
+        assertThat(ids(buscar(SEGUNDA, null))).doesNotContain(dani.getId());
+        assertThat(ids(buscar(SEGUNDA_SEGUINTE, null))).contains(dani.getId());
+    }
+
+    @Test
+    void agendaSoMudaDepoisDoDescarte() {
+        assertThat(ids(buscar(SEGUNDA, null))).contains(dani.getId());
+
+        HorarioAula h = new HorarioAula();
+        h.setTurma(turmaB);
+        h.setTurmaDisciplina(turmaDisciplinaRepository.findAll().stream()
+                .filter(td -> td.getTurma().getId().equals(turmaB.getId())).findFirst().orElseThrow());
+        h.setProfessor(dani);
+        h.setDiaSemana(DayOfWeek.MONDAY);
+        h.setAula(1);
+        horarioAulaRepository.save(h);
+        assertThat(ids(buscar(SEGUNDA, null))).contains(dani.getId());
+
+        service.onCargaHorariaAlterada(null);
+        assertThat(ids(buscar(SEGUNDA, null))).doesNotContain(dani.getId());
+    }
+
+    @Test
+    void diaSemAulaDaDisciplina() {
+        assertThatThrownBy(() -> buscar(SEGUNDA.plusDays(1), null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("não tem aulas de Matemática");
+    }
+
+    private List<SubstitutoCandidatoDTO> buscar(LocalDate inicio, LocalDate termino) {
+        return service.buscarSubstitutos(turmaA.getId(), matematica.getId(), inicio, termino, admin());
+    }
+
+    private static List<Long> ids(List<SubstitutoCandidatoDTO> candidatos) {
+        return candidatos.stream().map(SubstitutoCandidatoDTO::getProfessorId).toList();
+    }
+
+    private TurmaDisciplina oferta(Turma turma, Disciplina disciplina, Professor professor) {
+        TurmaDisciplina td = new TurmaDisciplina();
+        td.setTurma(turma);
+        td.setDisciplina(disciplina);
+        td = turmaDisciplinaRepository.save(td);
+        if (professor != null) {
+            ProfessorTurmaDisciplina ptd = new ProfessorTurmaDisciplina();
+            ptd.setProfessor(professor);
+            ptd.setTurmaDisciplina(td);
+            professorTurmaDisciplinaRepository.save(ptd);
+        }
+        return td;
+    }
+
+    private void aula(TurmaDisciplina td, Professor professor, DayOfWeek dia, int aula) {
+        HorarioAula h = new HorarioAula();
+        h.setTurma(td.getTurma());
+        h.setTurmaDisciplina(td);
+        h.setProfessor(professor);
+        h.setDiaSemana(dia);
+        h.setAula(aula);
+        horarioAulaRepository.save(h);
+    }
+
+    private Disciplina disciplina(String codigo, String nome) {
+        Disciplina d = new Disciplina();
+        d.setCodigo(codigo);
+        d.setNome(nome);
+        return disciplinaRepository.save(d);
+    }
+
+    private Professor professor(int i, FormacaoAcademica formacao, String especializacao) {
+        Professor p = new Professor();
+        p.setNomeCompleto("Professor Substituto " + i);
+        p.setCpf(String.format("%011d", 40000000000L + i));
+        p.setRg("RG-SUB-" + i);
+        p.setEmail("substituto" + i + "@escola.com");
+        p.setTelefone("(11) 99999-0000");
+        p.setDataNascimento(LocalDate.of(1980, 1, 1));
+        p.setGenero(Genero.FEMININO);
+        p.setDataAdmissao(LocalDate.of(2020, 1, 1));
+        p.setFormacao(formacao);
+        p.setEspecializacao(especializacao);
+        return professorRepository.save(p);
+    }
+
+    private static Usuario admin() {
+        Usuario u = new Usuario();
+        u.setPerfil(PerfilUsuario.DIRETOR);
+        return u;
+    }
+}
@@ -0,0 +1,149 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.PerfilUsuario;
+import com.gestaoescolar.repository.TurmaRepository;
+import com.gestaoescolar.service.AnoLetivoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca de turmas por nome com 50.000 turmas em dez anos letivos: a consulta por prefixo traz só a
+ * página pedida, enquanto a busca anterior (findAll e filtro em memória) carregava todas as turmas.
+ * A verificação de código usa a projeção de existência, sem carregar a entidade.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate=WARN")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TurmaBuscaNomeTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TurmaBuscaNomeTest.class);
+
+    private static final int ANOS = 10;
+    private static final int TURMAS_POR_ANO = 5_000;
+    private static final int PRIMEIRO_ANO = 2060;
+    private static final int LIMITE = 50;
+
+    @Autowired
+    private TurmaService turmaService;
+    @Autowired
+    private TurmaRepository turmaRepository;
+    @Autowired
+    private AnoLetivoService anoLetivoService;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics stats;
+
+    @BeforeAll
+    void popular() {
+        for (int i = 0; i < ANOS; i++) {
+            int ano = PRIMEIRO_ANO + i;
+            AnoLetivo a = anoLetivoService.save(new AnoLetivo(ano, LocalDate.of(ano, 2, 1), LocalDate.of(ano, 12, 15)));
+            jdbc.update("insert into turmas (nome_turma, serie, nivel, turno, codigo, ano_letivo_id, ativa) "
+                            + "select 'Busca ' || x, 'PRIMEIRO_ANO', 'FUNDAMENTAL_I', 'MANHA', 'BUSCA-' || ? || '-' || x, ?, true "
+                            + "from system_range(?, ?)",
+                    ano, a.getId(), i * TURMAS_POR_ANO + 1, (i + 1) * TURMAS_POR_ANO);
+        }
+        stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void ligarEstatisticas() {
+        stats.setStatisticsEnabled(true);
+    }
+
+    // A massa é grande e o banco em memória é compartilhado pelos outros testes
+    @AfterAll
+    void limpar() {
+        stats.setStatisticsEnabled(false);
+        jdbc.update("delete from turmas where codigo like 'BUSCA-%'");
+    }
+
+    @Test
+    void buscaPorPrefixoCarregaSoAPaginaEConcordaComABuscaAnterior() {
+        String texto = "busca 12";
+        buscaAnterior(texto);
+        turmaService.buscarTurmasPorNome(texto, admin());
+
+        List<Turma> anterior = medir("findAll e filtro", () -> buscaAnterior(texto));
+        long carregadasAnterior = stats.getEntityLoadCount();
+        long tempoAnterior = ultimoTempo;
+
+        List<Turma> atual = medir("prefixo indexado", () -> turmaService.buscarTurmasPorNome(texto, admin()));
+        long carregadasAtual = stats.getEntityLoadCount();
+        long tempoAtual = ultimoTempo;
+
+        assertThat(atual).extracting(Turma::getId).containsExactlyElementsOf(anterior.stream().map(Turma::getId).toList());
+        assertThat(atual).hasSize(LIMITE);
+        assertThat(carregadasAnterior).isGreaterThanOrEqualTo((long) ANOS * TURMAS_POR_ANO);
+        // As turmas da página e os anos letivos delas (fetch)
+        assertThat(carregadasAtual).isLessThanOrEqualTo(LIMITE + ANOS);
+        assertThat(tempoAtual).isLessThan(tempoAnterior);
+    }
+
+    @Test
+    void codigoExistenteSemCarregarATurma() {
+        String codigo = "BUSCA-" + (PRIMEIRO_ANO + 7) + "-" + (7 * TURMAS_POR_ANO + 321);
+
+        stats.clear();
+        assertThat(turmaRepository.findByCodigo(codigo)).isPresent();
+        assertThat(stats.getEntityLoadCount()).isEqualTo(1);
+
+        stats.clear();
+        assertThat(turmaService.existeTurmaComCodigo(codigo)).isTrue();
+        assertThat(turmaService.existeTurmaComCodigo(codigo + "X")).isFalse();
+        assertThat(stats.getEntityLoadCount()).isZero();
+    }
+
+    private long ultimoTempo;
+
+    private <T> T medir(String nome, Supplier<T> busca) {
+        stats.clear();
+        long inicio = System.nanoTime();
+        T r = busca.get();
+        ultimoTempo = System.nanoTime() - inicio;
+        log.info("Busca de turmas ({}): {} ms, {} entidades carregadas", nome, ultimoTempo / 1_000_000, stats.getEntityLoadCount());
+        return r;
+    }
+
+    // Como era: todas as turmas em memória, com o mesmo critério e a mesma ordem da consulta atual
+    private List<Turma> buscaAnterior(String texto) {
+        String prefixo = texto.trim().toUpperCase(Locale.ROOT);
+        List<Turma> r = new ArrayList<>(turmaRepository.findAll().stream()
+                .filter(t -> t.getNomeTurma().toUpperCase(Locale.ROOT).startsWith(prefixo)
+                        || t.getCodigo().toUpperCase(Locale.ROOT).startsWith(prefixo))
+                .toList());
+        r.sort(Comparator.comparing(Turma::getNomeTurma).thenComparing(Turma::getId));
+        return r.subList(0, Math.min(LIMITE, r.size()));
+    }
+
+    private static Usuario admin() {
+        Usuario u = new Usuario();
+        u.setPerfil(PerfilUsuario.DIRETOR);
+        return u;
+    }
+}
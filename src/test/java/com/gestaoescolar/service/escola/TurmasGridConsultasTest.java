@@ -0,0 +1,129 @@
+package com.gestaoescolar.service.escola;
+
+import com.gestaoescolar.dto.ProfessorAtribuidoDTO;
+import com.gestaoescolar.dto.TurmaFiltro;
+import com.gestaoescolar.model.AnoLetivo;
+import com.gestaoescolar.model.Professor;
+import com.gestaoescolar.model.Turma;
+import com.gestaoescolar.model.Usuario;
+import com.gestaoescolar.model.enums.FormacaoAcademica;
+import com.gestaoescolar.model.enums.Genero;
+import com.gestaoescolar.model.enums.PerfilUsuario;
+import com.gestaoescolar.model.enums.Serie;
+import com.gestaoescolar.model.enums.Turno;
+import com.gestaoescolar.repository.ProfessorRepository;
+import com.gestaoescolar.service.AnoLetivoService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Orçamento de comandos SQL de uma página da grid de turmas (TurmasView): página, contagem e
+ * professores da página em lote. O número de comandos não pode crescer com o número de turmas.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate=WARN")
+class TurmasGridConsultasTest {
+
+    private static final int TAMANHO_PAGINA = 50;
+    private static final int TURMAS = TAMANHO_PAGINA;
+    // Página, contagem da Page (página cheia), contagem da grid e atribuições da página
+    private static final long ORCAMENTO = 4;
+
+    @Autowired
+    private TurmaService turmaService;
+    @Autowired
+    private ProfessorTurmaService professorTurmaService;
+    @Autowired
+    private AnoLetivoService anoLetivoService;
+    @Autowired
+    private ProfessorRepository professorRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void paginaDaGridTemOrcamentoFixoDeComandos() {
+        List<Professor> professores = List.of(professor(1), professor(2), professor(3));
+        AnoLetivo pequeno = popular(2044, TURMAS, professores);
+        AnoLetivo grande = popular(2045, 10 * TURMAS, professores);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        try {
+            long comandosPequeno = comandosDaPagina(stats, pequeno);
+            long comandosGrande = comandosDaPagina(stats, grande);
+
+            assertThat(comandosPequeno).isLessThanOrEqualTo(ORCAMENTO);
+            assertThat(comandosGrande).isEqualTo(comandosPequeno);
+        } finally {
+            stats.setStatisticsEnabled(false);
+        }
+    }
+
+    // Mesmo caminho da grid: página filtrada, contagem, atribuições da página e as colunas renderizadas
+    private long comandosDaPagina(Statistics stats, AnoLetivo ano) {
+        TurmaFiltro filtro = new TurmaFiltro();
+        filtro.setAnoLetivo(ano);
+        stats.clear();
+
+        List<Turma> pagina = turmaService.buscarTurmas(filtro, PageRequest.of(0, TAMANHO_PAGINA), admin()).getContent();
+        turmaService.contarTurmas(filtro, admin());
+        Map<Long, List<ProfessorAtribuidoDTO>> professores = professorTurmaService.listAssignmentSummariesByTurmas(
+                pagina.stream().map(Turma::getId).toList());
+        for (Turma t : pagina) {
+            assertThat(t.getAnoLetivo().getAno()).isEqualTo(ano.getAno());
+            assertThat(professores.get(t.getId())).hasSize(2);
+        }
+
+        assertThat(pagina).hasSize(TAMANHO_PAGINA);
+        return stats.getPrepareStatementCount();
+    }
+
+    // Turmas do ano, cada uma com titular e coordenador
+    private AnoLetivo popular(int ano, int turmas, List<Professor> professores) {
+        AnoLetivo anoLetivo = anoLetivoService.save(new AnoLetivo(ano, LocalDate.of(ano, 2, 1), LocalDate.of(ano, 12, 15)));
+        for (int i = 0; i < turmas; i++) {
+            Turma t = turmaService.criarTurma(new Turma("T" + i, Serie.PRIMEIRO_ANO, Turno.MANHA, anoLetivo), admin());
+            atribuir(professores.get(i % professores.size()), t, "TITULAR");
+            atribuir(professores.get((i + 1) % professores.size()), t, "COORDENADOR");
+        }
+        return anoLetivo;
+    }
+
+    private void atribuir(Professor p, Turma t, String papel) {
+        jdbc.update("insert into professor_turma (professor_id, turma_id, papel, criado_em) values (?, ?, ?, current_timestamp)",
+                p.getId(), t.getId(), papel);
+    }
+
+    private Professor professor(int i) {
+        Professor p = new Professor();
+        p.setNomeCompleto("Professor Grid " + i);
+        p.setCpf(String.format("%011d", 20000000000L + i));
+        p.setRg("RG-GRID-" + i);
+        p.setEmail("grid" + i + "@escola.com");
+        p.setTelefone("(11) 99999-0000");
+        p.setDataNascimento(LocalDate.of(1980, 1, 1));
+        p.setGenero(Genero.FEMININO);
+        p.setDataAdmissao(LocalDate.of(2020, 1, 1));
+        p.setFormacao(FormacaoAcademica.values()[0]);
+        return professorRepository.save(p);
+    }
+
+    private static Usuario admin() {
+        Usuario u = new Usuario();
+        u.setPerfil(PerfilUsuario.DIRETOR);
+        return u;
+    }
+}
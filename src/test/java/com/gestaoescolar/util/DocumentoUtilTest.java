@@ -0,0 +1,85 @@
+package com.gestaoescolar.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dígitos verificadores e normalização de documentos, com o texto cru e com a pontuação digitada.
+ */
+class DocumentoUtilTest {
+
+    @Test
+    void cpfValidoCruEFormatado() {
+        assertThat(DocumentoUtil.cpfValido("52998224725")).isTrue();
+        assertThat(DocumentoUtil.cpfValido("529.982.247-25")).isTrue();
+        assertThat(DocumentoUtil.cpfValido("111.444.777-35")).isTrue();
+    }
+
+    @Test
+    void cpfInvalido() {
+        assertThat(DocumentoUtil.cpfValido("529.982.247-24")).isFalse();   // segundo verificador
+        assertThat(DocumentoUtil.cpfValido("52998224735")).isFalse();      // primeiro verificador
+        assertThat(DocumentoUtil.cpfValido("111.111.111-11")).isFalse();   // dígitos repetidos
+        assertThat(DocumentoUtil.cpfValido("5299822472")).isFalse();       // curto
+        assertThat(DocumentoUtil.cpfValido("529982247250")).isFalse();     // longo
+        assertThat(DocumentoUtil.cpfValido("")).isFalse();
+        assertThat(DocumentoUtil.cpfValido(null)).isFalse();
+    }
+
+    @Test
+    void cnpjValidoCruEFormatado() {
+        assertThat(DocumentoUtil.cnpjValido("11222333000181")).isTrue();
+        assertThat(DocumentoUtil.cnpjValido("11.222.333/0001-81")).isTrue();
+    }
+
+    @Test
+    void cnpjInvalido() {
+        assertThat(DocumentoUtil.cnpjValido("11.222.333/0001-82")).isFalse();
+        assertThat(DocumentoUtil.cnpjValido("11222333000191")).isFalse();
+        assertThat(DocumentoUtil.cnpjValido("00.000.000/0000-00")).isFalse();
+        assertThat(DocumentoUtil.cnpjValido("1122233300018")).isFalse();
+        assertThat(DocumentoUtil.cnpjValido("52998224725")).isFalse();     // CPF não é CNPJ
+        assertThat(DocumentoUtil.cnpjValido(null)).isFalse();
+    }
+
+    @Test
+    void nisValidoCruEFormatado() {
+        assertThat(DocumentoUtil.nisValido("12056412537")).isTrue();
+        assertThat(DocumentoUtil.nisValido("120.56412.53-7")).isTrue();
+        assertThat(DocumentoUtil.nisValido("170.12345.67-3")).isTrue();
+    }
+
+    @Test
+    void nisInvalido() {
+        assertThat(DocumentoUtil.nisValido("120.56412.53-8")).isFalse();
+        assertThat(DocumentoUtil.nisValido("222.22222.22-2")).isFalse();
+        assertThat(DocumentoUtil.nisValido("1205641253")).isFalse();
+        assertThat(DocumentoUtil.nisValido("120564125370")).isFalse();
+        assertThat(DocumentoUtil.nisValido(null)).isFalse();
+    }
+
+    @Test
+    void somenteDigitos() {
+        String cru = "52998224725";
+        assertThat(DocumentoUtil.somenteDigitos(cru)).isSameAs(cru);
+        assertThat(DocumentoUtil.somenteDigitos("529.982.247-25")).isEqualTo(cru);
+        assertThat(DocumentoUtil.somenteDigitos("(11) 98765-4321")).isEqualTo("11987654321");
+        assertThat(DocumentoUtil.somenteDigitos("sem número")).isNull();
+        assertThat(DocumentoUtil.somenteDigitos("")).isNull();
+        assertThat(DocumentoUtil.somenteDigitos(null)).isNull();
+    }
+
+    @Test
+    void documentosValidadosPeloTamanho() {
+        assertThat(DocumentoUtil.cepValido("01310-100")).isTrue();
+        assertThat(DocumentoUtil.cepValido("0131010")).isFalse();
+        assertThat(DocumentoUtil.telefoneValido("(11) 3333-4444")).isTrue();
+        assertThat(DocumentoUtil.telefoneValido("(11) 98765-4321")).isTrue();
+        assertThat(DocumentoUtil.telefoneValido("98765-4321")).isFalse();
+        assertThat(DocumentoUtil.inepAlunoValido("123456789012")).isTrue();
+        assertThat(DocumentoUtil.inepEscolaValido("12345678")).isTrue();
+        assertThat(DocumentoUtil.emailValido("ana.silva@escola.com.br")).isTrue();
+        assertThat(DocumentoUtil.emailValido("ana@escola")).isFalse();
+    }
+}
@@ -0,0 +1,97 @@
+package com.gestaoescolar.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Leitura de CSV da importação de alunos: separador, aspas, quebras de linha dentro de aspas,
+ * BOM do Excel e numeração das linhas físicas usada nas mensagens de erro.
+ */
+class LeitorCsvTest {
+
+    @Test
+    void detectaPontoEVirgulaPelaPrimeiraLinha() {
+        List<String[]> r = ler("nome;data;obs\nAna, Maria;01/02/2015;x\n");
+
+        assertThat(r.get(0)).containsExactly("nome", "data", "obs");
+        assertThat(r.get(1)).containsExactly("Ana, Maria", "01/02/2015", "x");
+    }
+
+    @Test
+    void detectaVirgulaPelaPrimeiraLinha() {
+        List<String[]> r = ler("nome,data,obs\nAna;Maria,01/02/2015,x\n");
+
+        assertThat(r.get(1)).containsExactly("Ana;Maria", "01/02/2015", "x");
+    }
+
+    @Test
+    void cabecalhoMaiorQueOBufferAindaDefineOSeparador() {
+        // O separador vem da linha inteira, não dos primeiros 8 KB
+        String cabecalho = "coluna_" + "x".repeat(9000) + ",a,b;c";
+        List<String[]> r = ler(cabecalho + "\n1,2,3;4\n");
+
+        assertThat(r.get(0)).hasSize(3);
+        assertThat(r.get(1)).containsExactly("1", "2", "3;4");
+    }
+
+    @Test
+    void aspasDuplicadasESeparadorDentroDeAspas() {
+        List<String[]> r = ler("nome;obs\n\"Silva; Ana\";\"disse \"\"oi\"\"\"\n");
+
+        assertThat(r.get(1)).containsExactly("Silva; Ana", "disse \"oi\"");
+    }
+
+    @Test
+    void quebraDeLinhaDentroDeAspasContinuaORegistro() {
+        LeitorCsv leitor = leitor("nome;obs\n\"Ana\";\"linha 1\nlinha 2\"\n\"Bia\";ok\n");
+        leitor.proximo();
+
+        assertThat(leitor.proximo()).containsExactly("Ana", "linha 1\nlinha 2");
+        assertThat(leitor.getLinhaInicioRegistro()).isEqualTo(2);
+        assertThat(leitor.proximo()).containsExactly("Bia", "ok");
+        assertThat(leitor.getLinhaInicioRegistro()).isEqualTo(4);
+        assertThat(leitor.proximo()).isNull();
+    }
+
+    @Test
+    void removeBomEIgnoraLinhasEmBranco() {
+        LeitorCsv leitor = leitor("\uFEFFnome;idade\n\n   \nAna;7\n");
+
+        assertThat(leitor.proximo()).containsExactly("nome", "idade");
+        assertThat(leitor.proximo()).containsExactly("Ana", "7");
+        assertThat(leitor.getLinhaInicioRegistro()).isEqualTo(4);
+    }
+
+    @Test
+    void aspasNaoFechadasAproveitamOQueFoiLido() {
+        List<String[]> r = ler("nome;obs\nAna;\"sem fim\nresto");
+
+        assertThat(r).hasSize(2);
+        assertThat(r.get(1)).containsExactly("Ana", "sem fim\nresto");
+    }
+
+    @Test
+    void arquivoVazio() {
+        assertThat(leitor("").proximo()).isNull();
+    }
+
+    private static List<String[]> ler(String csv) {
+        LeitorCsv leitor = leitor(csv);
+        List<String[]> registros = new ArrayList<>();
+        String[] r;
+        while ((r = leitor.proximo()) != null) {
+            registros.add(r);
+        }
+        return registros;
+    }
+
+    private static LeitorCsv leitor(String csv) {
+        return new LeitorCsv(new BufferedReader(new StringReader(csv)));
+    }
+}